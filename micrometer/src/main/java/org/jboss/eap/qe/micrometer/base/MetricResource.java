@@ -7,8 +7,15 @@ package org.jboss.eap.qe.micrometer.base;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -21,6 +28,9 @@ import io.micrometer.core.instrument.Timer;
 @RequestScoped
 @Path("/")
 public class MetricResource {
+    public static final String TIMERS_PARAMETER = "timers";
+    public static final String REGISTRY_RESOURCE = "registry";
+
     @Inject
     private MeterRegistry meterRegistry;
     private Counter counter;
@@ -30,10 +40,17 @@ public class MetricResource {
         counter = meterRegistry.counter("demo_counter");
     }
 
+    /**
+     * Records {@code demo_timer} with {@code ts} tag and increments {@code demo_counter}.
+     *
+     * @param timers maximal number of distinct {@code ts} tag values, unlimited (current time in millis) if not positive
+     * @return count of {@code demo_counter}
+     */
     @GET
     @Path("/")
-    public double getCount() {
-        Timer timer = meterRegistry.timer("demo_timer", Tags.of("ts", "" + System.currentTimeMillis()));
+    public double getCount(@QueryParam(TIMERS_PARAMETER) @DefaultValue("0") int timers) {
+        long ts = System.currentTimeMillis();
+        Timer timer = meterRegistry.timer("demo_timer", Tags.of("ts", "" + (timers > 0 ? ts % timers : ts)));
 
         timer.record(() -> {
             try {
@@ -46,4 +63,16 @@ public class MetricResource {
 
         return counter.count();
     }
+
+    /**
+     * @return number of meters in the registry and used heap in bytes after garbage collection, separated by space
+     */
+    @GET
+    @Path("/" + REGISTRY_RESOURCE)
+    @Produces(MediaType.TEXT_PLAIN)
+    public String getRegistrySize() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        memory.gc();
+        return meterRegistry.getMeters().size() + " " + memory.getHeapMemoryUsage().getUsed();
+    }
 }
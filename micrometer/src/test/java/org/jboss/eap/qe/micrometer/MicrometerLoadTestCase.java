@@ -0,0 +1,173 @@
+package org.jboss.eap.qe.micrometer;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.client.WebTarget;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.container.test.api.RunAsClient;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.arquillian.junit.InSequence;
+import org.jboss.arquillian.test.api.ArquillianResource;
+import org.jboss.as.arquillian.api.ServerSetup;
+import org.jboss.eap.qe.micrometer.base.MetricResource;
+import org.jboss.eap.qe.micrometer.util.MicrometerServerSetup;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.deployment.ConfigurationUtil;
+import org.jboss.eap.qe.observability.containers.OpenTelemetryCollectorContainer;
+import org.jboss.eap.qe.observability.load.ConcurrentLoad;
+import org.jboss.eap.qe.observability.prometheus.model.MetricSnapshot;
+import org.jboss.eap.qe.observability.prometheus.model.PrometheusMetric;
+import org.jboss.eap.qe.ts.common.docker.Docker;
+import org.jboss.eap.qe.ts.common.docker.junit.DockerRequiredTests;
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Sends requests from many concurrent clients to {@link MetricResource} and verifies that no increment of
+ * {@code demo_counter} is lost, neither in the registry nor in metrics exported to the OpenTelemetry collector.
+ * <p>
+ * Then it raises the number of distinct {@code ts} tag values of {@code demo_timer} step by step and reports how the
+ * registry and the collector scrape grow. Caps of the steps are set by {@code micrometer.load.cardinality.caps}
+ * system property, comma separated, and the budget of one scrape by {@code micrometer.load.scrape.budget.ms}.
+ */
+@RunWith(Arquillian.class)
+@ServerSetup(MicrometerServerSetup.class)
+@Category(DockerRequiredTests.class)
+public class MicrometerLoadTestCase {
+    public static final int CLIENTS = 16;
+    public static final int REQUESTS_PER_CLIENT = 20;
+    public static final int REQUEST_COUNT = CLIENTS * REQUESTS_PER_CLIENT;
+    private static final int SCRAPES_PER_STEP = 5;
+
+    @ArquillianResource
+    private URL url;
+    @Inject
+    private MeterRegistry meterRegistry;
+
+    @Deployment
+    public static Archive<?> deploy() {
+        return ShrinkWrap.create(WebArchive.class, "micrometer-load-test.war")
+                .addClasses(
+                        MicrometerServerSetup.class, MetricResource.class, PrometheusMetric.class,
+                        MetricSnapshot.class, ConcurrentLoad.class)
+                .addPackages(false, Docker.class.getPackage())
+                .addClasses(MicrometerLoadTestCase.class)
+                .addAsWebInfResource(new StringAsset(MicrometerOtelIntegrationTestCase.WEB_XML), "web.xml")
+                .addAsManifestResource(ConfigurationUtil.BEANS_XML_FILE_LOCATION, "beans.xml");
+    }
+
+    /**
+     * All clients increment the same counter and record the same timer.
+     */
+    @Test
+    @RunAsClient
+    @InSequence(1)
+    public void concurrentRequestsAreCountedExactly() throws Exception {
+        ConcurrentLoad.Result result = new ConcurrentLoad.Builder()
+                .clients(CLIENTS)
+                .requestsPerClient(REQUESTS_PER_CLIENT)
+                .build()
+                .run(timersUri(1));
+        Assert.assertEquals("Failed requests: " + result, 0, result.getFailures());
+
+        MetricSnapshot metrics = OpenTelemetryCollectorContainer.getInstance()
+                .awaitMetricValue("demo_counter_total", Collections.emptyMap(), REQUEST_COUNT);
+        Assert.assertEquals("Exported demo_counter differs from number of requests",
+                REQUEST_COUNT, metrics.sum("demo_counter_total"), 0.0);
+    }
+
+    @Test
+    @InSequence(2)
+    public void checkCounter() {
+        Assert.assertEquals(REQUEST_COUNT, meterRegistry.get("demo_counter").counter().count(), 0.0);
+    }
+
+    /**
+     * Each step adds {@code demo_timer} meters up to the step cap. The registry must not hold more {@code ts} values
+     * than the cap, a scrape of all exported series must fit the budget.
+     */
+    @Test
+    @RunAsClient
+    @InSequence(3)
+    public void registryAndScrapeGrowWithCardinality() throws Exception {
+        int[] caps = Arrays.stream(System.getProperty("micrometer.load.cardinality.caps", "10,100,1000").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        long scrapeBudgetMillis = Long.parseLong(System.getProperty("micrometer.load.scrape.budget.ms", "5000"));
+        OpenTelemetryCollectorContainer collector = OpenTelemetryCollectorContainer.getInstance();
+
+        StringBuilder report = new StringBuilder(String.format(Locale.ROOT, "%8s %8s %12s %8s %10s %10s%n",
+                "cap", "meters", "heap KiB", "series", "ts values", "scrape ms"));
+        try (Client client = ClientBuilder.newClient()) {
+            WebTarget registry = client.target(url.toURI()).path(MetricResource.REGISTRY_RESOURCE);
+            long[] baseline = registrySize(registry);
+            report.append(String.format(Locale.ROOT, "%8s %8d %12d%n", "-", baseline[0], baseline[1] / 1024));
+            int sent = REQUEST_COUNT;
+            for (int cap : caps) {
+                // enough requests that every millisecond remainder is likely hit at least once
+                ConcurrentLoad.Result result = new ConcurrentLoad.Builder()
+                        .clients(CLIENTS)
+                        .requestsPerClient(Math.max(REQUESTS_PER_CLIENT, 2 * cap / CLIENTS))
+                        .build()
+                        .run(timersUri(cap));
+                Assert.assertEquals("Failed requests: " + result, 0, result.getFailures());
+                sent += result.getRequests();
+
+                MetricSnapshot metrics = collector.awaitMetricValue("demo_counter_total", Collections.emptyMap(), sent);
+                Set<String> tsValues = metrics.withPrefix("demo_timer").stream()
+                        .map(metric -> metric.getTags().get("ts"))
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet());
+                long[] size = registrySize(registry);
+                long scrapeNanos = Long.MAX_VALUE;
+                int series = 0;
+                for (int i = 0; i < SCRAPES_PER_STEP; i++) {
+                    long start = System.nanoTime();
+                    series = collector.scrapeMetrics().size();
+                    scrapeNanos = Math.min(scrapeNanos, System.nanoTime() - start);
+                }
+                report.append(String.format(Locale.ROOT, "%8d %8d %12d %8d %10d %10.3f%n", cap, size[0],
+                        (size[1] - baseline[1]) / 1024, series, tsValues.size(), scrapeNanos / 1e6));
+
+                Assert.assertTrue("More ts values than the cap " + cap + ": " + tsValues.size() + "\n" + report,
+                        tsValues.size() <= cap);
+                Assert.assertTrue("Scrape took more than " + scrapeBudgetMillis + " ms\n" + report,
+                        scrapeNanos / 1_000_000 <= scrapeBudgetMillis);
+            }
+        }
+        System.out.println(report);
+    }
+
+    private URI timersUri(int timers) throws URISyntaxException {
+        return new URI(url.toURI() + "?" + MetricResource.TIMERS_PARAMETER + "=" + timers);
+    }
+
+    /**
+     * @return number of meters and used heap in bytes
+     */
+    private static long[] registrySize(WebTarget registry) {
+        return Arrays.stream(registry.request().get(String.class).trim().split(" "))
+                .mapToLong(Long::parseLong)
+                .toArray();
+    }
+}
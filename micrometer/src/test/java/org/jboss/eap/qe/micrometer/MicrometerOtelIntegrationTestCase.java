@@ -21,6 +21,7 @@ import org.jboss.eap.qe.micrometer.util.MicrometerServerSetup;
 import org.jboss.eap.qe.microprofile.common.setuptasks.MicrometerServerConfiguration;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.deployment.ConfigurationUtil;
 import org.jboss.eap.qe.observability.containers.OpenTelemetryCollectorContainer;
+import org.jboss.eap.qe.observability.prometheus.model.MetricSnapshot;
 import org.jboss.eap.qe.observability.prometheus.model.PrometheusMetric;
 import org.jboss.eap.qe.ts.common.docker.Docker;
 import org.jboss.eap.qe.ts.common.docker.junit.DockerRequiredTests;
@@ -68,7 +69,8 @@ public class MicrometerOtelIntegrationTestCase {
     public static Archive<?> deploy() {
         return ShrinkWrap.create(WebArchive.class, "micrometer-test.war")
                 .addClasses(
-                        MicrometerServerSetup.class, MetricResource.class, PrometheusMetric.class)
+                        MicrometerServerSetup.class, MetricResource.class, PrometheusMetric.class,
+                        MetricSnapshot.class)
                 .addPackages(false, Docker.class.getPackage())
                 .addClasses(MicrometerOtelIntegrationTestCase.class)
                 .addAsWebInfResource(new StringAsset(WEB_XML), "web.xml")
@@ -131,9 +133,9 @@ public class MicrometerOtelIntegrationTestCase {
                 "thread_count",
                 "undertow_bytes_received");
 
-        final List<PrometheusMetric> metrics = OpenTelemetryCollectorContainer.getInstance().fetchMetrics(metricsToTest.get(0));
-        metricsToTest.forEach(n -> Assert.assertTrue("Missing metric: " + n,
-                metrics.stream().anyMatch(m -> m.getKey().startsWith(n))));
+        final MetricSnapshot metrics = OpenTelemetryCollectorContainer.getInstance()
+                .fetchMetricSnapshot(metricsToTest.get(0));
+        metricsToTest.forEach(n -> Assert.assertTrue("Missing metric: " + n, metrics.containsPrefix(n)));
     }
 
     /**
@@ -153,11 +155,12 @@ public class MicrometerOtelIntegrationTestCase {
                 "thread_count",
                 "thread_daemon_count",
                 "cpu_available_processors");
-        final List<PrometheusMetric> metrics = OpenTelemetryCollectorContainer.getInstance().fetchMetrics(metricsToTest.get(0));
+        final MetricSnapshot metrics = OpenTelemetryCollectorContainer.getInstance()
+                .fetchMetricSnapshot(metricsToTest.get(0));
 
         metricsToTest.forEach(m -> {
             Assert.assertNotEquals("Metric value should be non-zero: " + m,
-                    "0", metrics.stream().filter(e -> e.getKey().startsWith(m))
+                    "0", metrics.withPrefix(m).stream()
                             .findFirst()
                             .orElseThrow()
                             .getValue()); // Add the metrics tags to complete the key
@@ -13,11 +13,13 @@ public class MicrometerServerSetup implements MicroProfileServerSetupTask {
 
     @Override
     public void setup() throws Exception {
-        // if a docker service is not available, throw an exception
-        try {
-            Docker.checkDockerPresent();
-        } catch (Exception e) {
-            throw new IllegalStateException("Cannot verify Docker availability: " + e.getMessage());
+        // if a docker service is not available, throw an exception, unless OTLP exports are received in this JVM
+        if (!OpenTelemetryCollectorContainer.isInJvm()) {
+            try {
+                Docker.checkDockerPresent();
+            } catch (Exception e) {
+                throw new IllegalStateException("Cannot verify Docker availability: " + e.getMessage());
+            }
         }
         // start the OTel collector container
         otelCollector = OpenTelemetryCollectorContainer.getInstance();
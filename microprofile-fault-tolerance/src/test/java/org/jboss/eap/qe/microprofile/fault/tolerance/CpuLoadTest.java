@@ -19,6 +19,7 @@ import org.jboss.eap.qe.microprofile.fault.tolerance.deployments.load.LoadServic
 import org.jboss.eap.qe.microprofile.tooling.cpu.load.HighCPUUtils;
 import org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.ProcessUtils;
 import org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.ProcessUtilsProvider;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ServerStateManager;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.deployment.ConfigurationUtil;
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
@@ -59,7 +60,7 @@ public class CpuLoadTest {
     public static void serverSetup() throws Exception {
         Assume.assumeNotNull("This test cannot be executed on this platform as ProcessUtils class was not " +
                 "implemented for it.", processUtils);
-        MicroProfileFaultToleranceServerConfiguration.enableFaultTolerance();
+        ServerStateManager.require(MicroProfileFaultToleranceServerConfiguration.faultToleranceState());
     }
 
     /**
@@ -128,6 +129,6 @@ public class CpuLoadTest {
 
     @AfterClass
     public static void tearDown() throws Exception {
-        MicroProfileFaultToleranceServerConfiguration.disableFaultTolerance();
+        ServerStateManager.release();
     }
 }
@@ -3,12 +3,11 @@ package org.jboss.eap.qe.microprofile.fault.tolerance;
 import static io.restassured.RestAssured.get;
 import static org.hamcrest.Matchers.containsString;
 
-import java.io.File;
 import java.net.URL;
-import java.nio.file.Path;
-import java.nio.file.attribute.PosixFilePermissions;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -23,7 +22,9 @@ import org.jboss.arquillian.test.api.ArquillianResource;
 import org.jboss.eap.qe.microprofile.common.setuptasks.MicroProfileFaultToleranceServerConfiguration;
 import org.jboss.eap.qe.microprofile.fault.tolerance.deployments.database.DatabaseService;
 import org.jboss.eap.qe.microprofile.fault.tolerance.deployments.database.DatabaseServlet;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ServerStateManager;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.deployment.ConfigurationUtil;
+import org.jboss.eap.qe.ts.common.docker.ContainerSnapshot;
 import org.jboss.eap.qe.ts.common.docker.Docker;
 import org.jboss.eap.qe.ts.common.docker.junit.DockerRequiredTests;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
@@ -39,8 +40,6 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
-import com.google.common.io.Files;
-
 /**
  * Test MP Fault tolerance service with crashing database.
  */
@@ -53,9 +52,16 @@ public class DatabaseCrashTest {
     private static final String POSTGRESQL_USER = "user";
     private static final String POSTGRESQL_PASSWORD = "pass";
     private static final String POSTGRESQL_DATABASE = "test-database";
+    private static final String POSTGRESQL_DATA_DIR = "/var/lib/pgsql/data";
+    // tar of the data directory of the running database can be torn, pg_basebackup copies it consistently together with
+    // WAL needed to recover it, the backup goes to userdata directory (PGDATA of the image) with the required permissions
+    private static final List<String> POSTGRESQL_BACKUP_COMMAND = Arrays.asList("sh", "-c",
+            "rm -rf /tmp/snapshot && mkdir /tmp/snapshot"
+                    + " && pg_basebackup -D /tmp/snapshot/userdata -X fetch"
+                    + " && tar -C /tmp/snapshot -cf - . && rm -rf /tmp/snapshot");
 
     private static Docker postgresDB = null;
-    private static File postgresDataDir = null;
+    private static ContainerSnapshot postgresSnapshot = null;
 
     @ArquillianResource
     private URL baseUrl;
@@ -93,16 +99,6 @@ public class DatabaseCrashTest {
 
     @BeforeClass
     public static void startDatabase() throws Exception {
-        // create data dir for postgres database
-        postgresDataDir = Files.createTempDir();
-        // This is needed to run on SELinux enabled
-        // The following command sets permissions to posgresDataDir so any user can write to this folder
-        //    Postgres image uses different user than user that starts this maven
-        // otherwise the following error will prevent the container from starting successfully:
-        //   mkdir: cannot create directory '/var/lib/pgsql/data/userdata': Permission denied
-        java.nio.file.Files.setPosixFilePermissions(Path.of(postgresDataDir.toURI()),
-                PosixFilePermissions.fromString("rwxrwxrwx"));
-
         // https://github.com/sclorg/postgresql-container/tree/generated/13
         postgresDB = new Docker.Builder("postgres", "quay.io/centos7/postgresql-13-centos7:centos7")
                 .setContainerReadyCondition(() -> {
@@ -123,20 +119,29 @@ public class DatabaseCrashTest {
                 .withEnvVar("POSTGRESQL_DATABASE", POSTGRESQL_DATABASE) // creates POSTGRESQL_DATABASE database after 1st start
                 .withEnvVar("POSTGRESQL_USER", POSTGRESQL_USER)
                 .withEnvVar("POSTGRESQL_PASSWORD", POSTGRESQL_PASSWORD)
-                .withCmdOption("-v")
-                .withCmdOption(postgresDataDir.getAbsolutePath() + ":/var/lib/pgsql/data:Z")
+                // data are kept in memory, crashed database is restarted from snapshot taken before each test. Data
+                // directory of the killed database is lost, so PostgreSQL does not recover from its own crash here,
+                // only from the backup - the tests verify fault tolerance of the application while the database is down,
+                // records inserted before the kill are not expected to survive it
+                .withTmpfs(POSTGRESQL_DATA_DIR, 512)
                 .build();
         postgresDB.start();
     }
 
     @BeforeClass
     public static void setup() throws Exception {
-        MicroProfileFaultToleranceServerConfiguration.enableFaultTolerance();
+        ServerStateManager.require(MicroProfileFaultToleranceServerConfiguration.faultToleranceState());
     }
 
     @Before
-    public void createDatabaseSchema() {
+    public void createDatabaseSchema() throws Exception {
         get(baseUrl + "?op=createTable").then().assertThat().body(containsString("Table created."));
+        // killed database starts with created table, the backup does not contain lock file of the running server
+        if (postgresSnapshot != null) {
+            postgresSnapshot.delete();
+        }
+        postgresSnapshot = postgresDB.snapshot(POSTGRESQL_DATA_DIR, POSTGRESQL_BACKUP_COMMAND);
+        postgresDB.restoreOnStart(postgresSnapshot);
     }
 
     /**
@@ -216,9 +221,11 @@ public class DatabaseCrashTest {
 
     @AfterClass
     public static void tearDown() throws Exception {
-        // stop DB if still running and delete data directory
+        // stop DB if still running and delete snapshot of data directory
         postgresDB.stop();
-        postgresDataDir.delete();
-        MicroProfileFaultToleranceServerConfiguration.disableFaultTolerance();
+        if (postgresSnapshot != null) {
+            postgresSnapshot.delete();
+        }
+        ServerStateManager.release();
     }
 }
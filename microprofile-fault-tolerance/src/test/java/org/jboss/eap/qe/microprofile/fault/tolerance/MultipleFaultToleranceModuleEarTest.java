@@ -18,6 +18,7 @@ import org.jboss.eap.qe.microprofile.fault.tolerance.deployments.v10.MyContext;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.ConfigurationException;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian.ArquillianContainerProperties;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian.ArquillianDescriptorWrapper;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ServerStateManager;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.deployment.ConfigurationUtil;
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
@@ -84,7 +85,7 @@ public class MultipleFaultToleranceModuleEarTest {
 
     @BeforeClass
     public static void setup() throws Exception {
-        MicroProfileFaultToleranceServerConfiguration.enableFaultTolerance();
+        ServerStateManager.require(MicroProfileFaultToleranceServerConfiguration.faultToleranceState());
     }
 
     /**
@@ -123,6 +124,6 @@ public class MultipleFaultToleranceModuleEarTest {
 
     @AfterClass
     public static void tearDown() throws Exception {
-        MicroProfileFaultToleranceServerConfiguration.disableFaultTolerance();
+        ServerStateManager.release();
     }
 }
@@ -20,6 +20,7 @@ import org.jboss.eap.qe.microprofile.common.setuptasks.MicrometerServerConfigura
 import org.jboss.eap.qe.microprofile.common.setuptasks.OpenTelemetryServerConfiguration;
 import org.jboss.eap.qe.microprofile.fault.tolerance.deployments.v10.HelloService;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ManagementClientProvider;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ServerStateManager;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.deployment.ConfigurationUtil;
 import org.jboss.eap.qe.microprofile.tooling.server.log.LogChecker;
 import org.jboss.eap.qe.microprofile.tooling.server.log.ModelNodeLogChecker;
@@ -89,7 +90,7 @@ public class UndeployDeployTest {
     @BeforeClass
     public static void setup() throws Exception {
         // Enable FT
-        MicroProfileFaultToleranceServerConfiguration.enableFaultTolerance();
+        ServerStateManager.require(MicroProfileFaultToleranceServerConfiguration.faultToleranceState());
         // And disable Micrometer for good measure since were going to test MicroProfile Fault Tolerance integration
         // with MP Telemetry 2.0 metrics too.
         MicrometerServerConfiguration.disableMicrometer();
@@ -340,7 +341,7 @@ public class UndeployDeployTest {
 
     @AfterClass
     public static void tearDown() throws Exception {
-        // disable FT
-        MicroProfileFaultToleranceServerConfiguration.disableFaultTolerance();
+        // disable FT, possibly deferred until a test class requires a different server state
+        ServerStateManager.release();
     }
 }
@@ -19,6 +19,7 @@ import org.jboss.eap.qe.microprofile.common.setuptasks.MicroProfileTelemetryServ
 import org.jboss.eap.qe.microprofile.common.setuptasks.MicrometerServerConfiguration;
 import org.jboss.eap.qe.microprofile.common.setuptasks.OpenTelemetryServerConfiguration;
 import org.jboss.eap.qe.microprofile.fault.tolerance.deployments.v10.HelloService;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ServerStateManager;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.deployment.ConfigurationUtil;
 import org.jboss.eap.qe.observability.containers.OpenTelemetryCollectorContainer;
 import org.jboss.eap.qe.observability.prometheus.model.PrometheusMetric;
@@ -67,7 +68,7 @@ public class MultipleMetricsProvidersTest {
             throw new IllegalStateException("Cannot verify Docker availability: " + e.getMessage());
         }
         // Enable FT
-        MicroProfileFaultToleranceServerConfiguration.enableFaultTolerance();
+        ServerStateManager.require(MicroProfileFaultToleranceServerConfiguration.faultToleranceState());
     }
 
     /**
@@ -428,7 +429,7 @@ public class MultipleMetricsProvidersTest {
 
     @AfterClass
     public static void tearDown() throws Exception {
-        // disable FT
-        MicroProfileFaultToleranceServerConfiguration.disableFaultTolerance();
+        // disable FT, possibly deferred until a test class requires a different server state
+        ServerStateManager.release();
     }
 }
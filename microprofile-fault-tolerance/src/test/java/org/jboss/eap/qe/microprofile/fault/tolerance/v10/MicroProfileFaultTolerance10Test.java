@@ -30,6 +30,7 @@ import org.jboss.arquillian.test.api.ArquillianResource;
 import org.jboss.eap.qe.microprofile.common.setuptasks.MicroProfileFaultToleranceServerConfiguration;
 import org.jboss.eap.qe.microprofile.fault.tolerance.deployments.v10.HelloService;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ManagementClientProvider;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ServerStateManager;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.deployment.ConfigurationUtil;
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
@@ -58,7 +59,7 @@ public class MicroProfileFaultTolerance10Test {
 
     @BeforeClass
     public static void setup() throws Exception {
-        MicroProfileFaultToleranceServerConfiguration.enableFaultTolerance();
+        ServerStateManager.require(MicroProfileFaultToleranceServerConfiguration.faultToleranceState());
     }
 
     /**
@@ -385,6 +386,6 @@ public class MicroProfileFaultTolerance10Test {
 
     @AfterClass
     public static void tearDown() throws Exception {
-        MicroProfileFaultToleranceServerConfiguration.disableFaultTolerance();
+        ServerStateManager.release();
     }
 }
@@ -26,6 +26,7 @@ import org.jboss.arquillian.junit.Arquillian;
 import org.jboss.arquillian.test.api.ArquillianResource;
 import org.jboss.eap.qe.microprofile.common.setuptasks.MicroProfileFaultToleranceServerConfiguration;
 import org.jboss.eap.qe.microprofile.fault.tolerance.deployments.v20.AsyncHelloService;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ServerStateManager;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.deployment.ConfigurationUtil;
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
@@ -55,7 +56,7 @@ public class FaultTolerance20AsyncPartialTest {
 
     @BeforeClass
     public static void setup() throws Exception {
-        MicroProfileFaultToleranceServerConfiguration.enableFaultTolerance();
+        ServerStateManager.require(MicroProfileFaultToleranceServerConfiguration.faultToleranceState());
     }
 
     /**
@@ -191,6 +192,6 @@ public class FaultTolerance20AsyncPartialTest {
 
     @AfterClass
     public static void tearDown() throws Exception {
-        MicroProfileFaultToleranceServerConfiguration.disableFaultTolerance();
+        ServerStateManager.release();
     }
 }
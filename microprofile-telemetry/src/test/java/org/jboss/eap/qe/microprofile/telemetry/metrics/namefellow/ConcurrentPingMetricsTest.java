@@ -0,0 +1,64 @@
+package org.jboss.eap.qe.microprofile.telemetry.metrics.namefellow;
+
+import java.net.URI;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Map;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.container.test.api.RunAsClient;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.arquillian.test.api.ArquillianResource;
+import org.jboss.as.arquillian.api.ServerSetup;
+import org.jboss.eap.qe.microprofile.telemetry.metrics.MPTelemetryServerSetupTask;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.deployment.ConfigurationUtil;
+import org.jboss.eap.qe.observability.containers.OpenTelemetryCollectorContainer;
+import org.jboss.eap.qe.observability.load.ConcurrentLoad;
+import org.jboss.eap.qe.observability.prometheus.model.MetricSnapshot;
+import org.jboss.eap.qe.ts.common.docker.junit.DockerRequiredTests;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+/**
+ * Counter of an application scoped bean incremented by many concurrent requests.
+ */
+@RunWith(Arquillian.class)
+@Category(DockerRequiredTests.class)
+@ServerSetup(MPTelemetryServerSetupTask.class)
+public class ConcurrentPingMetricsTest {
+
+    @Deployment
+    public static WebArchive createDeployment() {
+        String mpConfig = "otel.service.name=ConcurrentPingMetricsTest\n"
+                + MultipleDeploymentsMetricsTest.DEFAULT_MP_CONFIG;
+        return ShrinkWrap.create(WebArchive.class, MultipleDeploymentsMetricsTest.PING_ONE_SERVICE + ".war")
+                .addClasses(PingApplication.class, PingOneService.class, PingOneResource.class)
+                .addAsManifestResource(ConfigurationUtil.BEANS_XML_FILE_LOCATION, "beans.xml")
+                .addAsManifestResource(new StringAsset(mpConfig), "microprofile-config.properties");
+    }
+
+    /**
+     * @tpTestDetails Many clients invoke the CDI bean with a counter metric at the same time, the counter is exported
+     *                every 100 ms while it is incremented.
+     * @tpPassCrit Exported counter equals the number of requests exactly, no increment is lost or counted twice.
+     * @tpSince JBoss EAP XP 6
+     */
+    @Test
+    @RunAsClient
+    public void counterIsExactUnderContention(@ArquillianResource URL url) throws Exception {
+        ConcurrentLoad load = new ConcurrentLoad.Builder().build();
+        ConcurrentLoad.Result result = load.run(URI.create(url + PingOneResource.RESOURCE));
+        Assert.assertEquals("Failed requests: " + result, 0, result.getFailures());
+
+        Map<String, String> labels = Collections.singletonMap("key_app", PingOneService.PING_ONE_SERVICE_TAG);
+        MetricSnapshot metrics = OpenTelemetryCollectorContainer.getInstance()
+                .awaitMetricValue("ping_count_total", labels, load.getTotalRequests());
+        Assert.assertEquals("Exported ping_count differs from number of requests, " + result,
+                load.getTotalRequests(), metrics.sum("ping_count_total", labels), 0.0);
+    }
+}
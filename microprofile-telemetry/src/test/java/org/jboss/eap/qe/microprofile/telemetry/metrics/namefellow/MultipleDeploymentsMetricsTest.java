@@ -82,11 +82,11 @@ public class MultipleDeploymentsMetricsTest {
         get(pingTwoUrl + PingTwoResource.RESOURCE).then().statusCode(200);
         get(pingOneUrl + PingOneResource.RESOURCE).then().statusCode(200);
 
-        // give it some time to actually be able and report some metrics via the Pmetheus URL
-        Thread.sleep(1_000);
-
-        // get metrics
-        List<PrometheusMetric> metrics = OpenTelemetryCollectorContainer.getInstance().fetchMetrics("");
+        // wait until both counters are exported, then verify each of them
+        List<PrometheusMetric> metrics = OpenTelemetryCollectorContainer.getInstance()
+                .awaitMetrics(snapshot -> snapshot.sum("ping_count_total") >= 6,
+                        OpenTelemetryCollectorContainer.METRICS_TIMEOUT)
+                .getMetrics();
 
         // verify metrics
         Assert.assertTrue("\"ping_count\" metric for deployment one not found or not expected",
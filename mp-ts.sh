@@ -4,9 +4,8 @@ DOCKER_IMAGES=`git grep Docker.Builder 2>/dev/null | sed "s/.*Docker.Builder//g"
 
 case "$1" in 
 fetch-images)
-   for i in $DOCKER_IMAGES; do 
-      docker pull $i
-   done
+   # pull in parallel, the same limit as docker.image.pull.threads default
+   echo "$DOCKER_IMAGES" | xargs -n 1 -P 3 docker pull
    ;;
 save-images)
    $0 fetch-images
@@ -5,15 +5,25 @@ import static org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.ProcessUtils.
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
+import org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.CpuCoreSet;
 import org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.CpuLoadGenerator;
+import org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.CpuLoadProfile;
+import org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.CpuLoadReport;
+import org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.FlightRecording;
 import org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.JavaProcessBuilder;
 import org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.ProcessUtils;
 
 /**
- * Utility class causing 100% CPU load on CPU cores with Wildfly/EAP server.
+ * Utility class causing CPU load on CPU cores with Wildfly/EAP server. Besides 100% load, load can be limited to some of
+ * the server cores and can change in time, see {@link CpuLoadProfile}.
  */
 public class HighCPUUtils {
 
+    /**
+     * Whether Wildfly/EAP server is recorded by Java Flight Recorder during the load, see {@link FlightRecording}
+     */
+    private static final boolean RECORD_SERVER = Boolean.parseBoolean(System.getProperty("cpu.load.jfr", "true"));
+
     private ProcessUtils processUtils;
 
     public HighCPUUtils(ProcessUtils processUtils) {
@@ -51,15 +61,61 @@ public class HighCPUUtils {
      */
     protected Process causeMaximumCPULoadOnContainer(ProcessUtils.CPUCoreMask cpuCoreMask, Duration durationOfLoad)
             throws Exception {
+        CpuCoreSet cores = cpuCoreMask.toCoreSet();
+        return causeCPULoadOnContainer(cores, cores, CpuLoadProfile.maximum(), durationOfLoad);
+    }
+
+    /**
+     * Simulates CPU contention on {@code loadedCores} of {@code serverCores} cores, for example 2 of 4 cores.
+     * <p>
+     * Wildfly/EAP process is bound to the first {@code serverCores} cores and load generator to the first
+     * {@code loadedCores} of them, so the server can still use remaining {@code serverCores - loadedCores} cores without
+     * contention.
+     *
+     * @param loadedCores number of cores under load
+     * @param serverCores number of cores of Wildfly/EAP server, at least {@code loadedCores}
+     * @param loadProfile how load changes in time, see {@link CpuLoadProfile}
+     * @param durationOfLoad how long will be CPU with EAP/Wildfly server under load
+     * @return return process of CPU load generator
+     * @throws Exception if causing CPU load on given process fails
+     */
+    public Process causeCPULoadOnContainer(int loadedCores, int serverCores, CpuLoadProfile loadProfile,
+            Duration durationOfLoad) throws Exception {
+        if (loadedCores > serverCores) {
+            throw new IllegalArgumentException("Cannot load " + loadedCores + " cores of server bound to " + serverCores
+                    + " cores");
+        }
+        return causeCPULoadOnContainer(CpuCoreSet.first(serverCores), CpuCoreSet.first(loadedCores), loadProfile,
+                durationOfLoad);
+    }
+
+    /**
+     * Binds Wildfly/EAP process to {@code serverCores} and generates load given by {@code loadProfile} on
+     * {@code loadedCores}. Server is bound back to all cores once the load finishes.
+     * <p>
+     * Generator consumes the required share of each of {@code loadedCores}, work of the server on these cores is not
+     * counted. Achieved load can be read from returned process by {@link CpuLoadReport#read(Process)}.
+     * <p>
+     * Server is recorded by Java Flight Recorder during the load unless {@code cpu.load.jfr} system property is
+     * {@code false}. Recording and its summary are saved once the load finishes, see {@link FlightRecording}.
+     *
+     * @param serverCores cores to which Wildfly/EAP process is bound on
+     * @param loadedCores cores under load
+     * @param loadProfile how load changes in time, see {@link CpuLoadProfile}
+     * @param durationOfLoad how long will be CPU with EAP/Wildfly server under load
+     * @return return process of CPU load generator
+     * @throws Exception if causing CPU load on given process fails
+     */
+    public Process causeCPULoadOnContainer(CpuCoreSet serverCores, CpuCoreSet loadedCores, CpuLoadProfile loadProfile,
+            Duration durationOfLoad) throws Exception {
 
         int containerProcessId = processUtils.getServerProcessId();
         // bind Wildfly/EAP process to given CPU cores
-        processUtils.bindProcessToCPU(containerProcessId, cpuCoreMask);
+        processUtils.bindProcessToCPU(containerProcessId, serverCores);
+        FlightRecording recording = startFlightRecording(containerProcessId);
 
-        // start CPU load generator and bind to the same CPU cores
-        Process cpuLoadProcess = generateLoadInSeparateProcess(durationOfLoad);
-        int cpuLoadProcessId = processUtils.getProcessId(cpuLoadProcess);
-        processUtils.bindProcessToCPU(cpuLoadProcessId, cpuCoreMask);
+        // start CPU load generator, it binds its worker threads to given CPU cores itself
+        Process cpuLoadProcess = generateLoadInSeparateProcess(durationOfLoad, loadProfile, loadedCores);
 
         // safety hook - kill cpu load generator when load duration timeout is exceeded
         new Thread(() -> {
@@ -78,6 +134,9 @@ public class HighCPUUtils {
             try {
                 cpuLoadProcess.waitFor();
                 processUtils.bindProcessToCPU(containerProcessId, ALL_CORES);
+                if (recording != null) {
+                    recording.stopAndSummarize();
+                }
             } catch (Exception e) {
                 throw new RuntimeException(
                         "Failed to bind Wildfly/EAP server process back to all cpu cores. ", e);
@@ -87,10 +146,27 @@ public class HighCPUUtils {
         return cpuLoadProcess;
     }
 
-    private Process generateLoadInSeparateProcess(Duration durationOfLoad) throws Exception {
+    private FlightRecording startFlightRecording(int containerProcessId) {
+        if (!RECORD_SERVER) {
+            return null;
+        }
+        try {
+            return processUtils.startFlightRecording(containerProcessId, "cpu-load");
+        } catch (Exception e) {
+            // server can be remote or run by other user, load is generated without recording then
+            System.out.println("Flight recording of Wildfly/EAP server process " + containerProcessId
+                    + " was not started: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private Process generateLoadInSeparateProcess(Duration durationOfLoad, CpuLoadProfile loadProfile,
+            CpuCoreSet loadedCores) throws Exception {
         return new JavaProcessBuilder()
                 .addClasspathEntry(System.getProperty("java.class.path"))
                 .addArgument(String.valueOf(durationOfLoad.toMillis()))
+                .addArgument(loadProfile.toArgument())
+                .addArgument(loadedCores.toList())
                 .setMainClass(CpuLoadGenerator.class.getName())
                 .startProcess();
     }
@@ -0,0 +1,127 @@
+package org.jboss.eap.qe.microprofile.tooling.cpu.load;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.DiskIOLoadGenerator;
+import org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.JavaProcessBuilder;
+import org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.MemoryLoadGenerator;
+import org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.ProcessUtils;
+import org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.ThreadLoadGenerator;
+
+/**
+ * Utility class causing pressure on other resources than CPU of the machine with Wildfly/EAP server - memory, disk I/O
+ * and threads. Each generator runs in separate process for given duration, see {@link HighCPUUtils} for CPU load.
+ * <p>
+ * Every generator prints summary of the generated load as the last line of its output.
+ */
+public class HighResourceUtils {
+
+    private ProcessUtils processUtils;
+
+    public HighResourceUtils(ProcessUtils processUtils) {
+        this.processUtils = processUtils;
+    }
+
+    /**
+     * Simulates memory pressure - the generator keeps {@code liveSetMb} of memory and allocates
+     * {@code allocationRateMbPerSecond} of short and long lived objects, so the machine has less memory for the server
+     * and page cache.
+     *
+     * @param liveSetMb memory kept allocated for the whole duration in MB
+     * @param allocationRateMbPerSecond allocation rate in MB per second
+     * @param durationOfLoad how long will be the memory pressure generated
+     * @return return process of memory load generator
+     * @throws Exception if starting of the generator fails
+     */
+    public Process causeMemoryPressure(int liveSetMb, int allocationRateMbPerSecond, Duration durationOfLoad)
+            throws Exception {
+        return startGenerator(new JavaProcessBuilder()
+                // live set plus space for young objects
+                .addJvmOption("-Xms" + (liveSetMb * 2 + 64) + "m")
+                .addJvmOption("-Xmx" + (liveSetMb * 2 + 64) + "m")
+                .addArgument(String.valueOf(durationOfLoad.toMillis()))
+                .addArgument(String.valueOf(liveSetMb))
+                .addArgument(String.valueOf(allocationRateMbPerSecond))
+                .setMainClass(MemoryLoadGenerator.class.getName()), durationOfLoad);
+    }
+
+    /**
+     * Simulates fsync heavy disk I/O in temporary directory, see
+     * {@link #causeDiskIOPressure(Path, int, int, Duration)}.
+     *
+     * @param writeRateMbPerSecond write rate in MB per second
+     * @param durationOfLoad how long will be the disk I/O generated
+     * @return return process of disk I/O load generator
+     * @throws Exception if starting of the generator fails
+     */
+    public Process causeDiskIOPressure(int writeRateMbPerSecond, Duration durationOfLoad) throws Exception {
+        return causeDiskIOPressure(Paths.get(System.getProperty("java.io.tmpdir")), writeRateMbPerSecond, 256,
+                durationOfLoad);
+    }
+
+    /**
+     * Simulates fsync heavy disk I/O - the generator writes {@code writeRateMbPerSecond} in 64 kB blocks with fsync after
+     * each block, rewriting files in cycle up to {@code footprintMb} and reading them back, so page cache of the machine
+     * keeps being replaced. Use directory on the same disk as the server to slow down its I/O.
+     *
+     * @param directory directory in which the files are written, files are deleted once the load finishes
+     * @param writeRateMbPerSecond write rate in MB per second
+     * @param footprintMb size of written files in MB
+     * @param durationOfLoad how long will be the disk I/O generated
+     * @return return process of disk I/O load generator
+     * @throws Exception if starting of the generator fails
+     */
+    public Process causeDiskIOPressure(Path directory, int writeRateMbPerSecond, int footprintMb,
+            Duration durationOfLoad) throws Exception {
+        return startGenerator(new JavaProcessBuilder()
+                .addArgument(String.valueOf(durationOfLoad.toMillis()))
+                .addArgument(directory.toAbsolutePath().toString())
+                .addArgument(String.valueOf(writeRateMbPerSecond))
+                .addArgument(String.valueOf(footprintMb))
+                .setMainClass(DiskIOLoadGenerator.class.getName()), durationOfLoad);
+    }
+
+    /**
+     * Simulates thread pressure - the generator keeps {@code liveThreads} parked threads and starts
+     * {@code spawnRatePerSecond} short lived threads per second, so the scheduler and thread limits of the machine are
+     * under pressure. Thread creation in the server may fail when process limits of the user are reached.
+     *
+     * @param liveThreads threads kept alive for the whole duration
+     * @param spawnRatePerSecond short lived threads started per second
+     * @param durationOfLoad how long will be the thread pressure generated
+     * @return return process of thread load generator
+     * @throws Exception if starting of the generator fails
+     */
+    public Process causeThreadPressure(int liveThreads, int spawnRatePerSecond, Duration durationOfLoad)
+            throws Exception {
+        return startGenerator(new JavaProcessBuilder()
+                .addArgument(String.valueOf(durationOfLoad.toMillis()))
+                .addArgument(String.valueOf(liveThreads))
+                .addArgument(String.valueOf(spawnRatePerSecond))
+                .setMainClass(ThreadLoadGenerator.class.getName()), durationOfLoad);
+    }
+
+    private Process startGenerator(JavaProcessBuilder processBuilder, Duration durationOfLoad) throws Exception {
+        Process loadProcess = processBuilder
+                .addClasspathEntry(System.getProperty("java.class.path"))
+                .startProcess();
+
+        // safety hook - kill load generator when load duration timeout is exceeded, generator can be late a bit when
+        // finishing (joining threads, deleting files)
+        new Thread(() -> {
+            try {
+                if (!loadProcess.waitFor(durationOfLoad.toMillis() + TimeUnit.SECONDS.toMillis(30),
+                        TimeUnit.MILLISECONDS)) {
+                    processUtils.killProcess(loadProcess);
+                }
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to kill load generator process. ", e);
+            }
+        }).start();
+
+        return loadProcess;
+    }
+}
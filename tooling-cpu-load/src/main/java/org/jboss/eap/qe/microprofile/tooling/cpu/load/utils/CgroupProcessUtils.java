@@ -0,0 +1,171 @@
+package org.jboss.eap.qe.microprofile.tooling.cpu.load.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Utility class for working with Linux process which throttles processes by cgroup v2.
+ * <p>
+ * {@link #throttleProcess(int, ResourceQuota)} moves the process into its own cgroup created under cgroup v2 root
+ * ({@code cgroup.root} system property, default {@code /sys/fs/cgroup}) and sets {@code cpu.max}, {@code memory.high} and
+ * {@code io.max} there. {@link #restoreProcess(int)} moves the process back to its original cgroup and removes the
+ * created one. While the process is throttled, {@link #bindProcessToCPU(int, CpuCoreSet)} uses {@code cpuset.cpus} of
+ * its cgroup.
+ * <p>
+ * If cgroup v2 is not mounted or cannot be written (for example without root or delegated cgroup), CPU quota falls back
+ * to binding of the process to {@code ceil(cpus)} cores by taskset, memory and I/O quotas are not applied then.
+ */
+public class CgroupProcessUtils extends LinuxProcessUtils {
+
+    static final String CGROUP_PREFIX = "eap-qe-throttled-";
+
+    /**
+     * Period of {@code cpu.max} in microseconds
+     */
+    private static final long CPU_PERIOD = 100_000;
+
+    private final Path root;
+    private final Path proc;
+    private final Map<Integer, Path> originalCgroups = new ConcurrentHashMap<>();
+    private final Set<Integer> bindFallbacks = ConcurrentHashMap.newKeySet();
+
+    public CgroupProcessUtils() {
+        this(Paths.get(System.getProperty("cgroup.root", "/sys/fs/cgroup")), Paths.get("/proc"));
+    }
+
+    CgroupProcessUtils(Path root, Path proc) {
+        this.root = root;
+        this.proc = proc;
+    }
+
+    /**
+     * @return true if cgroup v2 is mounted on cgroup root and can be written
+     */
+    public boolean isCgroupV2Available() {
+        return Files.isRegularFile(root.resolve("cgroup.controllers")) && Files.isWritable(root);
+    }
+
+    @Override
+    public void throttleProcess(int pid, ResourceQuota quota) throws Exception {
+        restoreProcess(pid);
+        if (isCgroupV2Available()) {
+            try {
+                throttleByCgroup(pid, quota);
+                return;
+            } catch (IOException e) {
+                System.out.println("Throttling of process " + pid + " by cgroup v2 failed, falling back to taskset: "
+                        + e);
+                removeCgroup(cgroupOf(pid));
+            }
+        }
+        if (quota.getCpus() > 0) {
+            super.bindProcessToCPU(pid, CpuCoreSet.first((int) Math.ceil(quota.getCpus())));
+            bindFallbacks.add(pid);
+        }
+        if (quota.getMemoryHighBytes() > 0 || !quota.getIoLimits().isEmpty()) {
+            System.out.println("Memory and I/O quotas of process " + pid + " are not applied without cgroup v2");
+        }
+    }
+
+    @Override
+    public void restoreProcess(int pid) throws Exception {
+        if (bindFallbacks.remove(pid)) {
+            super.bindProcessToCPU(pid, CpuCoreSet.all());
+        }
+        Path original = originalCgroups.remove(pid);
+        if (original != null) {
+            writeFile(original.resolve("cgroup.procs"), String.valueOf(pid));
+            removeCgroup(cgroupOf(pid));
+        }
+    }
+
+    @Override
+    public void bindProcessToCPU(int pid, CpuCoreSet cpuCores) throws Exception {
+        if (originalCgroups.containsKey(pid) && readControllers().contains("cpuset")) {
+            writeFile(cgroupOf(pid).resolve("cpuset.cpus"), cpuCores.toList());
+        } else {
+            super.bindProcessToCPU(pid, cpuCores);
+        }
+    }
+
+    private void throttleByCgroup(int pid, ResourceQuota quota) throws IOException {
+        Path original = root.resolve(readCgroupPath(pid));
+        Path cgroup = Files.createDirectories(cgroupOf(pid));
+
+        // controllers must be enabled for children of the root, not all of them have to be available
+        List<String> controllers = readControllers();
+        StringBuilder enable = new StringBuilder();
+        for (String controller : new String[] { "cpu", "cpuset", "memory", "io" }) {
+            if (controllers.contains(controller)) {
+                enable.append(enable.length() == 0 ? "" : " ").append('+').append(controller);
+            }
+        }
+        writeFile(root.resolve("cgroup.subtree_control"), enable.toString());
+
+        if (quota.getCpus() > 0) {
+            writeFile(cgroup.resolve("cpu.max"), Math.round(quota.getCpus() * CPU_PERIOD) + " " + CPU_PERIOD);
+        }
+        if (quota.getMemoryHighBytes() > 0) {
+            writeFile(cgroup.resolve("memory.high"), String.valueOf(quota.getMemoryHighBytes()));
+        }
+        for (Map.Entry<String, long[]> entry : quota.getIoLimits().entrySet()) {
+            writeFile(cgroup.resolve("io.max"), String.format(Locale.ROOT, "%s rbps=%s wbps=%s", entry.getKey(),
+                    limit(entry.getValue()[0]), limit(entry.getValue()[1])));
+        }
+        // moves all threads of the process
+        writeFile(cgroup.resolve("cgroup.procs"), String.valueOf(pid));
+        originalCgroups.put(pid, original);
+    }
+
+    private Path cgroupOf(int pid) {
+        return root.resolve(CGROUP_PREFIX + pid);
+    }
+
+    private List<String> readControllers() throws IOException {
+        return List.of(new String(Files.readAllBytes(root.resolve("cgroup.controllers")), StandardCharsets.US_ASCII)
+                .trim().split("\\s+"));
+    }
+
+    /**
+     * @return path of cgroup v2 of the process relative to cgroup root
+     */
+    private String readCgroupPath(int pid) throws IOException {
+        Map<String, String> hierarchies = new HashMap<>();
+        for (String line : Files.readAllLines(proc.resolve(String.valueOf(pid)).resolve("cgroup"))) {
+            // hierarchy-ID:controller-list:cgroup-path, cgroup v2 has ID 0 and empty controller list
+            String[] parts = line.split(":", 3);
+            hierarchies.put(parts[0] + ":" + parts[1], parts[2]);
+        }
+        String path = hierarchies.get("0:");
+        if (path == null) {
+            throw new IOException("Process " + pid + " is not in cgroup v2 hierarchy");
+        }
+        return path.startsWith("/") ? path.substring(1) : path;
+    }
+
+    private static void removeCgroup(Path cgroup) {
+        try {
+            // cgroup directory can be removed with its interface files once it has no processes
+            Files.deleteIfExists(cgroup);
+        } catch (IOException e) {
+            System.out.println("Cgroup " + cgroup + " was not removed: " + e);
+        }
+    }
+
+    private static String limit(long bytesPerSecond) {
+        return bytesPerSecond > 0 ? String.valueOf(bytesPerSecond) : "max";
+    }
+
+    private static void writeFile(Path file, String value) throws IOException {
+        Files.write(file, value.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,183 @@
+package org.jboss.eap.qe.microprofile.tooling.cpu.load.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * Set of CPU cores to which process can be bound on. Cores are numbered from 0.
+ */
+public final class CpuCoreSet {
+
+    private static final Path ONLINE_CPUS = Paths.get("/sys/devices/system/cpu/online");
+
+    private final BitSet cores;
+
+    private CpuCoreSet(BitSet cores) {
+        if (cores.isEmpty()) {
+            throw new IllegalArgumentException("CPU core set must contain at least one core");
+        }
+        this.cores = cores;
+    }
+
+    /**
+     * @return number of CPU cores available to JVM
+     */
+    public static int availableCores() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * @return all online CPU cores, first {@link #availableCores()} cores if online cores cannot be determined
+     */
+    public static CpuCoreSet all() {
+        try {
+            return parseList(new String(Files.readAllBytes(ONLINE_CPUS), StandardCharsets.US_ASCII));
+        } catch (IOException | RuntimeException e) {
+            return range(0, availableCores());
+        }
+    }
+
+    /**
+     * @param count number of cores
+     * @return first {@code count} cores
+     */
+    public static CpuCoreSet first(int count) {
+        return range(0, count);
+    }
+
+    /**
+     * @param fromInclusive first core
+     * @param toExclusive core after the last core
+     * @return cores from {@code fromInclusive} to {@code toExclusive - 1}
+     */
+    public static CpuCoreSet range(int fromInclusive, int toExclusive) {
+        if (fromInclusive < 0 || fromInclusive >= toExclusive) {
+            throw new IllegalArgumentException("Invalid CPU core range [" + fromInclusive + ", " + toExclusive + ")");
+        }
+        BitSet cores = new BitSet();
+        cores.set(fromInclusive, toExclusive);
+        return new CpuCoreSet(cores);
+    }
+
+    /**
+     * @param cores indexes of cores
+     * @return given cores
+     */
+    public static CpuCoreSet of(int... cores) {
+        BitSet set = new BitSet();
+        for (int core : cores) {
+            if (core < 0) {
+                throw new IllegalArgumentException("Invalid CPU core " + core);
+            }
+            set.set(core);
+        }
+        return new CpuCoreSet(set);
+    }
+
+    /**
+     * @param list CPU list as used by {@code taskset -c} or Linux sysfs, for example "0-3,6"
+     * @return cores of the list
+     */
+    public static CpuCoreSet parseList(String list) {
+        BitSet cores = new BitSet();
+        for (String part : list.trim().split(",")) {
+            int dash = part.indexOf('-');
+            if (dash < 0) {
+                cores.set(Integer.parseInt(part.trim()));
+            } else {
+                cores.set(Integer.parseInt(part.substring(0, dash).trim()),
+                        Integer.parseInt(part.substring(dash + 1).trim()) + 1);
+            }
+        }
+        return new CpuCoreSet(cores);
+    }
+
+    /**
+     * @return number of cores in this set
+     */
+    public int size() {
+        return cores.cardinality();
+    }
+
+    /**
+     * @param core index of core
+     * @return true if the set contains {@code core}
+     */
+    public boolean contains(int core) {
+        return cores.get(core);
+    }
+
+    /**
+     * @return indexes of cores in ascending order
+     */
+    public int[] toArray() {
+        return cores.stream().toArray();
+    }
+
+    /**
+     * Returns CPU mask as used by {@code taskset} command. The mask is as wide as needed, so it's not limited to 32
+     * cores, for example cores 0 and 35 give {@code 0x800000001}.
+     *
+     * @return hexadecimal CPU mask
+     */
+    public String toHexMask() {
+        StringBuilder mask = new StringBuilder();
+        // each hex digit covers 4 cores, start with the most significant digit
+        for (int digit = (cores.length() - 1) / 4; digit >= 0; digit--) {
+            int value = 0;
+            for (int bit = 0; bit < 4; bit++) {
+                if (cores.get(digit * 4 + bit)) {
+                    value |= 1 << bit;
+                }
+            }
+            mask.append(Character.forDigit(value, 16));
+        }
+        return "0x" + mask;
+    }
+
+    /**
+     * @return CPU list as used by {@code taskset -c} command or cgroup {@code cpuset.cpus}, for example "0-3,6"
+     */
+    public String toList() {
+        StringBuilder list = new StringBuilder();
+        int start = cores.nextSetBit(0);
+        while (start >= 0) {
+            int end = cores.nextClearBit(start) - 1;
+            if (list.length() > 0) {
+                list.append(',');
+            }
+            list.append(start);
+            if (end > start) {
+                list.append('-').append(end);
+            }
+            start = cores.nextSetBit(end + 1);
+        }
+        return list.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return cores.equals(((CpuCoreSet) o).cores);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cores);
+    }
+
+    @Override
+    public String toString() {
+        return toList();
+    }
+}
@@ -1,16 +1,37 @@
 package org.jboss.eap.qe.microprofile.tooling.cpu.load.utils;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
 
 /**
- * Generates load on CPU. Takes one argument - load duration. Specifies for how long to generate load. Default 1 min.
+ * Generates load on CPU. Takes up to three arguments:
+ * <ul>
+ * <li>load duration in millis. Specifies for how long to generate load. Default 1 min.</li>
+ * <li>load profile as encoded by {@link CpuLoadProfile#toArgument()}. Default is 100% load.</li>
+ * <li>CPU cores to load as encoded by {@link CpuCoreSet#toList()}. Default is all cores.</li>
+ * </ul>
+ * Each loaded core gets one worker thread pinned to the core. Load lower than 100% is generated by alternating busy and
+ * idle part of every 10 ms time slice. CPU time consumed by each worker is read from {@link ThreadMXBean} and busy part
+ * of the slice is adjusted so the worker holds the requested share of its core - work of other processes (like the
+ * server) on the core is not counted, it competes with the generated load.
+ * <p>
+ * {@link CpuLoadProfile#isMaximum() Maximum} load starts many busy threads pinned to every loaded core instead, so
+ * other processes on the cores (like the server) are almost not scheduled.
+ * <p>
+ * Achieved load is printed once per second and at the end, see {@link CpuLoadReport}.
  */
 public class CpuLoadGenerator implements Runnable {
 
     /**
-     * How many threads exhausting CPU will be started
+     * How many threads exhausting CPU will be started for maximum load, divided among loaded cores
      */
     private static final int NUMBER_OF_THREADS = 200;
 
@@ -20,12 +41,61 @@ public class CpuLoadGenerator implements Runnable {
     private static Duration loadDuration = Duration.ofMinutes(1); // 1 min;
 
     /**
-     * Reads load duration in millis as parameter
+     * How load changes in time. Default is 100% load.
+     */
+    private static CpuLoadProfile loadProfile = CpuLoadProfile.maximum();
+
+    /**
+     * Cores to load, null for all cores
+     */
+    private static CpuCoreSet loadedCores;
+
+    private static final long SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * How often CPU time of workers is checked
+     */
+    private static final long FEEDBACK_PERIOD_MILLIS = 250;
+
+    /**
+     * How much of the difference between required and achieved load is corrected in one feedback period
+     */
+    private static final double FEEDBACK_GAIN = 0.5;
+
+    /**
+     * Beginning of the load, common for all threads so their time slices are aligned
+     */
+    private static long loadStart;
+
+    /**
+     * Busy fraction of the time slice for each loaded core, as bits of double
+     */
+    private static AtomicLongArray dutyCycles;
+
+    private static CountDownLatch started;
+    private static final CountDownLatch loadStarted = new CountDownLatch(1);
+
+    private final int core;
+    private final int coreIndex;
+
+    private CpuLoadGenerator(int core, int coreIndex) {
+        this.core = core;
+        this.coreIndex = coreIndex;
+    }
+
+    /**
+     * Reads load duration in millis, load profile and loaded cores as parameters
      */
     public static void main(String[] args) throws Exception {
         if (args.length > 0 && args[0] != null && !"".equals(args[0])) {
             loadDuration = Duration.ofMillis(Long.valueOf(args[0]));
         }
+        if (args.length > 1 && args[1] != null && !"".equals(args[1])) {
+            loadProfile = CpuLoadProfile.parse(args[1]);
+        }
+        if (args.length > 2 && args[2] != null && !"".equals(args[2])) {
+            loadedCores = CpuCoreSet.parseList(args[2]);
+        }
         generateLoad();
     }
 
@@ -33,13 +103,36 @@ public class CpuLoadGenerator implements Runnable {
      * Generates CPU load
      */
     private static void generateLoad() throws Exception {
+        CpuCoreSet cores = loadedCores != null ? loadedCores : CpuCoreSet.all();
+        int[] coreIds = cores.toArray();
+        int threadsPerCore = loadProfile.isMaximum() ? Math.max(1, NUMBER_OF_THREADS / coreIds.length) : 1;
+
+        if (ProcessUtilsProvider.getProcessUtils() instanceof LinuxProcessUtils) {
+            // JVM threads (GC, JIT) stay on loaded cores, workers are pinned to single core afterwards
+            ProcessUtilsProvider.getProcessUtils().bindProcessToCPU((int) ProcessHandle.current().pid(), cores);
+        }
+
+        started = new CountDownLatch(coreIds.length * threadsPerCore);
+        dutyCycles = new AtomicLongArray(coreIds.length);
+        for (int i = 0; i < coreIds.length; i++) {
+            setDutyCycle(i, loadProfile.loadAt(0));
+        }
+
         // do not use any executors here, simply fire all threads
         List<Thread> threads = new ArrayList<>();
-        for (int i = 0; i < NUMBER_OF_THREADS; i++) {
-            Thread t = new Thread(new CpuLoadGenerator());
-            threads.add(t);
-            t.start();
+        for (int i = 0; i < coreIds.length; i++) {
+            for (int j = 0; j < threadsPerCore; j++) {
+                Thread t = new Thread(new CpuLoadGenerator(coreIds[i], i), "cpu-load-" + coreIds[i] + "-" + j);
+                threads.add(t);
+                t.start();
+            }
         }
+        // all threads are started before load begins, otherwise starting of threads competes with running ones
+        started.await();
+        loadStart = System.nanoTime();
+        loadStarted.countDown();
+
+        holdLoad(threads, coreIds.length);
 
         // wait for all threads to finish
         for (Thread t : threads) {
@@ -48,19 +141,139 @@ public class CpuLoadGenerator implements Runnable {
     }
 
     /**
-     * Computes the nth digit of Pi number
+     * Feedback loop adjusting duty cycles of workers so workers of each core consume required share of the core
+     *
+     * @param workers worker threads ordered by core, the same number of threads for every core
+     * @param cores number of loaded cores
+     */
+    private static void holdLoad(List<Thread> workers, int cores) throws InterruptedException {
+        long end = loadStart + loadDuration.toNanos();
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        boolean feedback = threadMXBean.isThreadCpuTimeSupported();
+        if (feedback && !threadMXBean.isThreadCpuTimeEnabled()) {
+            threadMXBean.setThreadCpuTimeEnabled(true);
+        }
+        long[] previous = feedback ? readCpuTimes(threadMXBean, workers, cores) : null;
+        long previousTime = System.nanoTime();
+        double achievedSum = 0;
+        double requiredSum = 0;
+        int samples = 0;
+        long nextReport = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+
+        while (System.nanoTime() < end) {
+            Thread.sleep(Math.min(FEEDBACK_PERIOD_MILLIS, Math.max(1, TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime()))));
+            long now = System.nanoTime();
+            double required = loadProfile.loadAt(TimeUnit.NANOSECONDS.toMillis(now - loadStart));
+            if (!feedback) {
+                for (int i = 0; i < cores; i++) {
+                    setDutyCycle(i, required);
+                }
+                continue;
+            }
+            long[] current = readCpuTimes(threadMXBean, workers, cores);
+            double achieved = 0;
+            for (int i = 0; i < cores; i++) {
+                double utilization = utilization(previous[i], current[i], now - previousTime);
+                achieved += utilization;
+                double dutyCycle = getDutyCycle(i) + FEEDBACK_GAIN * (required - utilization);
+                setDutyCycle(i, required >= 1.0 ? 1.0 : Math.max(0, Math.min(1, dutyCycle)));
+            }
+            achieved /= cores;
+            previous = current;
+            previousTime = now;
+
+            achievedSum += achieved;
+            requiredSum += required;
+            samples++;
+            if (now >= nextReport) {
+                System.out.println(String.format(Locale.ROOT, "%s target=%.3f achieved=%.3f", CpuLoadReport.SAMPLE_PREFIX,
+                        required, achieved));
+                nextReport += TimeUnit.SECONDS.toNanos(1);
+            }
+        }
+        if (samples > 0) {
+            System.out.println(String.format(Locale.ROOT, "%s target=%.3f achieved=%.3f samples=%d",
+                    CpuLoadReport.SUMMARY_PREFIX, requiredSum / samples, achievedSum / samples, samples));
+        }
+        System.out.flush();
+    }
+
+    private static double getDutyCycle(int coreIndex) {
+        return Double.longBitsToDouble(dutyCycles.get(coreIndex));
+    }
+
+    private static void setDutyCycle(int coreIndex, double dutyCycle) {
+        dutyCycles.set(coreIndex, Double.doubleToLongBits(dutyCycle));
+    }
+
+    /**
+     * @return CPU time of workers of each core in nanoseconds, -1 if any of the workers is not alive
+     */
+    private static long[] readCpuTimes(ThreadMXBean threadMXBean, List<Thread> workers, int cores) {
+        int threadsPerCore = workers.size() / cores;
+        long[] cpuTimes = new long[cores];
+        for (int i = 0; i < workers.size(); i++) {
+            long cpuTime = threadMXBean.getThreadCpuTime(workers.get(i).getId());
+            int coreIndex = i / threadsPerCore;
+            cpuTimes[coreIndex] = cpuTime < 0 || cpuTimes[coreIndex] < 0 ? -1 : cpuTimes[coreIndex] + cpuTime;
+        }
+        return cpuTimes;
+    }
+
+    private static double utilization(long previousCpuTime, long currentCpuTime, long elapsedNanos) {
+        if (previousCpuTime < 0 || currentCpuTime < 0 || elapsedNanos <= 0) {
+            return 0;
+        }
+        return Math.min(1, (double) (currentCpuTime - previousCpuTime) / elapsedNanos);
+    }
+
+    /**
+     * Pins itself to its core, computes the nth digit of Pi number in busy part of each time slice and sleeps in the
+     * idle part.
      */
     public void run() {
+        pinToCore();
+        started.countDown();
+        try {
+            loadStarted.await();
+        } catch (InterruptedException e) {
+            return;
+        }
         double act = 0;
         long counter = 1;
-        long start = System.currentTimeMillis();
-        while (true) {
-            act = act + (4.0 / (counter));
-            act = act - (4.0 / (counter + 2));
-            counter = counter + 4;
-            if (System.currentTimeMillis() - start > loadDuration.toMillis()) {
-                break;
+        long end = loadStart + loadDuration.toNanos();
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            long elapsed = now - loadStart;
+            long sliceStart = now - elapsed % SLICE_NANOS;
+            long busyEnd = sliceStart + (long) (SLICE_NANOS * getDutyCycle(coreIndex));
+            if (now < busyEnd) {
+                // check time only every few iterations, System.nanoTime() is not free
+                for (int i = 0; i < 1000; i++) {
+                    act = act + (4.0 / (counter));
+                    act = act - (4.0 / (counter + 2));
+                    counter = counter + 4;
+                }
+            } else {
+                LockSupport.parkNanos(sliceStart + SLICE_NANOS - now);
             }
         }
+        // keep the result alive so JIT cannot remove the computation
+        if (act == 42) {
+            System.out.println(act);
+        }
+    }
+
+    private void pinToCore() {
+        if (!(ProcessUtilsProvider.getProcessUtils() instanceof LinuxProcessUtils)) {
+            return;
+        }
+        try {
+            LinuxProcessUtils processUtils = (LinuxProcessUtils) ProcessUtilsProvider.getProcessUtils();
+            processUtils.bindThreadToCPU(LinuxProcessUtils.getCurrentThreadId(), CpuCoreSet.of(core));
+        } catch (Exception e) {
+            // worker still generates load, just without pinning
+            System.out.println("Pinning of " + Thread.currentThread().getName() + " to core " + core + " failed: " + e);
+        }
     }
 }
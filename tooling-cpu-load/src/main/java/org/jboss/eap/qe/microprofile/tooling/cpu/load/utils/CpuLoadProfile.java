@@ -0,0 +1,144 @@
+package org.jboss.eap.qe.microprofile.tooling.cpu.load.utils;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Describes how CPU load generated by {@link CpuLoadGenerator} changes in time. Load is a fraction of time each loaded
+ * core is busy - 0.0 is idle, 1.0 is 100% load.
+ * <p>
+ * Profile is passed to generator process as command line argument, see {@link #toArgument()} and {@link #parse(String)}.
+ */
+public final class CpuLoadProfile {
+
+    private enum Shape {
+        CONSTANT,
+        STEPS,
+        SINE
+    }
+
+    private final Shape shape;
+    private final double from;
+    private final double to;
+    private final int steps;
+    private final long periodMillis;
+
+    private CpuLoadProfile(Shape shape, double from, double to, int steps, long periodMillis) {
+        checkLoad(from);
+        checkLoad(to);
+        this.shape = shape;
+        this.from = from;
+        this.to = to;
+        this.steps = steps;
+        this.periodMillis = periodMillis;
+    }
+
+    private static void checkLoad(double load) {
+        if (load < 0 || load > 1) {
+            throw new IllegalArgumentException("CPU load must be between 0.0 and 1.0 but was " + load);
+        }
+    }
+
+    /**
+     * @return 100% load for the whole duration
+     */
+    public static CpuLoadProfile maximum() {
+        return constant(1.0);
+    }
+
+    /**
+     * @param load load between 0.0 and 1.0, for example 0.3 makes loaded cores busy 30% of time
+     * @return the same load for the whole duration
+     */
+    public static CpuLoadProfile constant(double load) {
+        return new CpuLoadProfile(Shape.CONSTANT, load, load, 1, 0);
+    }
+
+    /**
+     * Step ramp - load starts at {@code from} and every {@code stepDuration} it changes by
+     * {@code (to - from) / (steps - 1)} until it reaches {@code to} where it stays.
+     *
+     * @param from load of the first step
+     * @param to load of the last step
+     * @param steps number of steps, at least 2
+     * @param stepDuration duration of one step
+     * @return step ramp profile
+     */
+    public static CpuLoadProfile steps(double from, double to, int steps, Duration stepDuration) {
+        if (steps < 2) {
+            throw new IllegalArgumentException("Step ramp needs at least 2 steps but was " + steps);
+        }
+        return new CpuLoadProfile(Shape.STEPS, from, to, steps, stepDuration.toMillis());
+    }
+
+    /**
+     * Sine wave - load oscillates between {@code min} and {@code max}, starting at their average and rising.
+     *
+     * @param min minimal load
+     * @param max maximal load
+     * @param period period of the wave
+     * @return sine wave profile
+     */
+    public static CpuLoadProfile sine(double min, double max, Duration period) {
+        return new CpuLoadProfile(Shape.SINE, min, max, 1, period.toMillis());
+    }
+
+    /**
+     * @param elapsedMillis time since the load started
+     * @return required load at given time
+     */
+    public double loadAt(long elapsedMillis) {
+        switch (shape) {
+            case STEPS:
+                int step = (int) Math.min(steps - 1, elapsedMillis / periodMillis);
+                return from + (to - from) * step / (steps - 1);
+            case SINE:
+                double phase = 2 * Math.PI * (elapsedMillis % periodMillis) / periodMillis;
+                return (from + to) / 2 + (to - from) / 2 * Math.sin(phase);
+            default:
+                return from;
+        }
+    }
+
+    /**
+     * @return true if this is constant 100% load
+     */
+    public boolean isMaximum() {
+        return shape == Shape.CONSTANT && from >= 1.0;
+    }
+
+    /**
+     * @return profile encoded as command line argument, see {@link #parse(String)}
+     */
+    public String toArgument() {
+        return String.format(Locale.ROOT, "%s:%s:%s:%d:%d", shape.name().toLowerCase(Locale.ROOT), from, to, steps,
+                periodMillis);
+    }
+
+    /**
+     * @param argument profile encoded by {@link #toArgument()}
+     * @return decoded profile
+     */
+    public static CpuLoadProfile parse(String argument) {
+        String[] parts = argument.split(":");
+        if (parts.length != 5) {
+            throw new IllegalArgumentException("Invalid CPU load profile: " + argument);
+        }
+        return new CpuLoadProfile(Shape.valueOf(parts[0].toUpperCase(Locale.ROOT)), Double.parseDouble(parts[1]),
+                Double.parseDouble(parts[2]), Integer.parseInt(parts[3]), Long.parseLong(parts[4]));
+    }
+
+    @Override
+    public String toString() {
+        switch (shape) {
+            case STEPS:
+                return String.format(Locale.ROOT, "steps from %.0f%% to %.0f%% in %d steps of %d ms", from * 100,
+                        to * 100, steps, periodMillis);
+            case SINE:
+                return String.format(Locale.ROOT, "sine between %.0f%% and %.0f%% with period %d ms", from * 100,
+                        to * 100, periodMillis);
+            default:
+                return String.format(Locale.ROOT, "constant %.0f%%", from * 100);
+        }
+    }
+}
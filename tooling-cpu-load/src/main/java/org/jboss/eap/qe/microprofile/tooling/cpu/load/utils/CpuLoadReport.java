@@ -0,0 +1,117 @@
+package org.jboss.eap.qe.microprofile.tooling.cpu.load.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * CPU load achieved by {@link CpuLoadGenerator}. Generator prints one sample per second and summary at the end, use
+ * {@link #read(Process)} to collect them from generator process.
+ * <p>
+ * Achieved load is CPU time consumed by the generator workers, it's measured only if the JVM supports CPU time of
+ * threads, otherwise the report is empty.
+ */
+public final class CpuLoadReport {
+
+    static final String SAMPLE_PREFIX = "cpu-load";
+    static final String SUMMARY_PREFIX = "cpu-load-summary";
+
+    private static final Pattern LINE = Pattern.compile(
+            "^(" + SUMMARY_PREFIX + "|" + SAMPLE_PREFIX + ") target=([0-9.]+) achieved=([0-9.]+)");
+
+    private final List<double[]> samples = new ArrayList<>();
+    private double meanTarget = Double.NaN;
+    private double meanAchieved = Double.NaN;
+
+    private CpuLoadReport() {
+    }
+
+    /**
+     * Reads output of generator process until the process finishes. Lines not printed by generator are ignored.
+     *
+     * @param cpuLoadProcess process returned by {@link org.jboss.eap.qe.microprofile.tooling.cpu.load.HighCPUUtils}
+     * @return report of achieved load
+     * @throws IOException if output of the process cannot be read
+     */
+    public static CpuLoadReport read(Process cpuLoadProcess) throws IOException {
+        CpuLoadReport report = new CpuLoadReport();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(cpuLoadProcess.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                report.parseLine(line);
+            }
+        }
+        return report;
+    }
+
+    void parseLine(String line) {
+        Matcher matcher = LINE.matcher(line);
+        if (!matcher.find()) {
+            return;
+        }
+        double target = Double.parseDouble(matcher.group(2));
+        double achieved = Double.parseDouble(matcher.group(3));
+        if (SUMMARY_PREFIX.equals(matcher.group(1))) {
+            meanTarget = target;
+            meanAchieved = achieved;
+        } else {
+            samples.add(new double[] { target, achieved });
+        }
+    }
+
+    /**
+     * @return true if achieved load was measured
+     */
+    public boolean isMeasured() {
+        return !Double.isNaN(meanAchieved);
+    }
+
+    /**
+     * @return mean required load over the whole duration, NaN if not measured
+     */
+    public double getMeanTarget() {
+        return meanTarget;
+    }
+
+    /**
+     * @return mean achieved load of loaded cores over the whole duration, NaN if not measured
+     */
+    public double getMeanAchieved() {
+        return meanAchieved;
+    }
+
+    /**
+     * @return highest difference between required and achieved load of one second samples
+     */
+    public double getMaxDeviation() {
+        double max = 0;
+        for (double[] sample : samples) {
+            max = Math.max(max, Math.abs(sample[0] - sample[1]));
+        }
+        return max;
+    }
+
+    /**
+     * @return one second samples as {target, achieved} pairs
+     */
+    public List<double[]> getSamples() {
+        return Collections.unmodifiableList(samples);
+    }
+
+    @Override
+    public String toString() {
+        if (!isMeasured()) {
+            return "CPU load not measured";
+        }
+        return String.format(Locale.ROOT, "CPU load target %.1f%%, achieved %.1f%%, max deviation %.1f%%",
+                meanTarget * 100, meanAchieved * 100, getMaxDeviation() * 100);
+    }
+}
@@ -0,0 +1,130 @@
+package org.jboss.eap.qe.microprofile.tooling.cpu.load.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generates fsync heavy disk I/O. Takes up to four arguments:
+ * <ul>
+ * <li>load duration in millis. Specifies for how long to generate load. Default 1 min.</li>
+ * <li>directory where files are written. Default is {@code java.io.tmpdir}.</li>
+ * <li>write rate in MB per second. Default 32 MB/s.</li>
+ * <li>footprint in MB. Files are rewritten in cycle up to this size, so page cache keeps being replaced. Default 256
+ * MB.</li>
+ * </ul>
+ * Data are written in 64 kB blocks, each block is followed by fsync. Written data are read back once per round over the
+ * footprint. Files are deleted at the end.
+ */
+public class DiskIOLoadGenerator {
+
+    private static final int BLOCK_SIZE = 64 * 1024;
+    private static final int BLOCKS_PER_MB = 1024 * 1024 / BLOCK_SIZE;
+    private static final int FILE_SIZE_MB = 16;
+    private static final long SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * Reads load duration in millis, directory, write rate in MB per second and footprint in MB as parameters
+     */
+    public static void main(String[] args) throws IOException {
+        Duration loadDuration = Duration.ofMinutes(1);
+        Path directory = Paths.get(System.getProperty("java.io.tmpdir"));
+        int writeRateMb = 32;
+        int footprintMb = 256;
+        if (args.length > 0 && args[0] != null && !"".equals(args[0])) {
+            loadDuration = Duration.ofMillis(Long.valueOf(args[0]));
+        }
+        if (args.length > 1 && args[1] != null && !"".equals(args[1])) {
+            directory = Paths.get(args[1]);
+        }
+        if (args.length > 2 && args[2] != null && !"".equals(args[2])) {
+            writeRateMb = Integer.parseInt(args[2]);
+        }
+        if (args.length > 3 && args[3] != null && !"".equals(args[3])) {
+            footprintMb = Integer.parseInt(args[3]);
+        }
+
+        Path workDirectory = Files.createTempDirectory(Files.createDirectories(directory), "disk-io-load-");
+        int files = Math.max(1, footprintMb / FILE_SIZE_MB);
+        long blocksPerSlice = Math.max(1, (long) writeRateMb * BLOCKS_PER_MB * SLICE_NANOS
+                / TimeUnit.SECONDS.toNanos(1));
+        long blocksPerFile = (long) FILE_SIZE_MB * BLOCKS_PER_MB;
+
+        ByteBuffer block = ByteBuffer.allocateDirect(BLOCK_SIZE);
+        byte[] data = new byte[BLOCK_SIZE];
+        ThreadLocalRandom.current().nextBytes(data);
+        block.put(data);
+
+        long start = System.nanoTime();
+        long end = start + loadDuration.toNanos();
+        long written = 0;
+        long read = 0;
+        long syncs = 0;
+        FileChannel channel = null;
+        try {
+            long sliceStart;
+            while ((sliceStart = System.nanoTime()) < end) {
+                for (int i = 0; i < blocksPerSlice; i++) {
+                    long blockInFile = written % blocksPerFile;
+                    if (blockInFile == 0) {
+                        if (channel != null) {
+                            channel.close();
+                        }
+                        Path file = workDirectory.resolve("load-" + (written / blocksPerFile) % files);
+                        if (Files.exists(file)) {
+                            // read the old content back before it is overwritten
+                            read += readFully(file);
+                        }
+                        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                StandardOpenOption.TRUNCATE_EXISTING);
+                    }
+                    block.rewind();
+                    while (block.hasRemaining()) {
+                        channel.write(block);
+                    }
+                    channel.force(false);
+                    syncs++;
+                    written++;
+                }
+                long idle = sliceStart + SLICE_NANOS - System.nanoTime();
+                if (idle > 0) {
+                    LockSupport.parkNanos(idle);
+                }
+            }
+        } finally {
+            if (channel != null) {
+                channel.close();
+            }
+            for (int i = 0; i < files; i++) {
+                Files.deleteIfExists(workDirectory.resolve("load-" + i));
+            }
+            Files.deleteIfExists(workDirectory);
+        }
+        double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+        System.out.println(String.format(Locale.ROOT,
+                "disk-io-load-summary writtenMb=%d readMb=%d fsyncs=%d rateMbPerSecond=%.1f",
+                written / BLOCKS_PER_MB, read / (1024 * 1024), syncs, written / BLOCKS_PER_MB / seconds));
+    }
+
+    private static long readFully(Path file) throws IOException {
+        long read = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(BLOCK_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int count;
+            while ((count = channel.read(buffer)) > 0) {
+                read += count;
+                buffer.clear();
+            }
+        }
+        return read;
+    }
+}
@@ -0,0 +1,100 @@
+package org.jboss.eap.qe.microprofile.tooling.cpu.load.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Java Flight Recorder recording of other JVM process (for example Wildfly/EAP server) controlled by {@code jcmd}. The
+ * process must run on this machine under the same user.
+ * <p>
+ * Recordings are dumped to directory given by {@code jfr.recordings.dir} system property, default is
+ * {@code target/surefire-reports}. Summary of hot methods and pauses is written next to the recording, see
+ * {@link FlightRecordingSummary}.
+ */
+public final class FlightRecording {
+
+    private static final Path RECORDINGS_DIR = Paths.get(System.getProperty("jfr.recordings.dir",
+            "target/surefire-reports"));
+    private static final String JCMD = Paths.get(System.getProperty("java.home"), "bin", "jcmd").toString();
+
+    private final int pid;
+    private final String name;
+
+    private FlightRecording(int pid, String name) {
+        this.pid = pid;
+        this.name = name;
+    }
+
+    /**
+     * Starts recording with {@code profile} settings, which sample execution every 10 ms.
+     *
+     * @param pid process id of JVM
+     * @param name name of the recording, used also as file name prefix
+     * @return started recording
+     * @throws Exception if recording cannot be started
+     */
+    public static FlightRecording start(int pid, String name) throws Exception {
+        FlightRecording recording = new FlightRecording(pid, name);
+        recording.jcmd("JFR.start", "name=" + name, "settings=profile");
+        return recording;
+    }
+
+    /**
+     * Dumps the recording to recordings directory and stops it.
+     *
+     * @return dumped recording file
+     * @throws Exception if recording cannot be dumped
+     */
+    public Path stop() throws Exception {
+        Files.createDirectories(RECORDINGS_DIR);
+        Path file = RECORDINGS_DIR.resolve(name + "-" + pid + "-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".jfr").toAbsolutePath();
+        // stop writes the recording to the file
+        jcmd("JFR.stop", "name=" + name, "filename=" + file);
+        return file;
+    }
+
+    /**
+     * Dumps and stops the recording, writes its summary next to it and prints it.
+     *
+     * @return summary of the recording
+     * @throws Exception if recording cannot be dumped or read
+     */
+    public FlightRecordingSummary stopAndSummarize() throws Exception {
+        Path file = stop();
+        FlightRecordingSummary summary = FlightRecordingSummary.read(file);
+        Path summaryFile = file.resolveSibling(file.getFileName().toString().replaceAll("\\.jfr$", ".txt"));
+        Files.write(summaryFile, summary.toString().getBytes(StandardCharsets.UTF_8));
+        System.out.println("Flight recording of process " + pid + " was saved to " + file + System.lineSeparator()
+                + summary);
+        return summary;
+    }
+
+    private void jcmd(String... command) throws Exception {
+        String[] cmd = new String[command.length + 2];
+        cmd[0] = JCMD;
+        cmd[1] = String.valueOf(pid);
+        System.arraycopy(command, 0, cmd, 2, command.length);
+        Process process = new ProcessBuilder(cmd).redirectErrorStream(true).start();
+        String output;
+        try (InputStream in = process.getInputStream()) {
+            output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        if (!process.waitFor(1, TimeUnit.MINUTES)) {
+            process.destroyForcibly();
+            throw new IOException("Command: " + Arrays.toString(cmd) + " timed out.");
+        }
+        // jcmd returns 0 even if the diagnostic command failed
+        if (process.exitValue() != 0 || output.contains("Could not") || output.contains("Exception")) {
+            throw new IOException("Command: " + Arrays.toString(cmd) + " failed: " + output.trim());
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package org.jboss.eap.qe.microprofile.tooling.cpu.load.utils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Summary of a flight recording - hot methods from execution samples, GC and safepoint pauses and contended monitors.
+ * <p>
+ * Self samples count samples in which the method was on top of the stack, total samples count samples in which the
+ * method was anywhere on the stack. For example high total samples of fault tolerance interceptors with low self
+ * samples mean the time is spent in the intercepted code or in waiting rather than in the interceptors.
+ */
+public final class FlightRecordingSummary {
+
+    private static final int TOP_METHODS = 20;
+
+    private final Map<String, Integer> selfSamples = new HashMap<>();
+    private final Map<String, Integer> totalSamples = new HashMap<>();
+    private int samples;
+    private final PauseStatistics gcPauses = new PauseStatistics();
+    private final PauseStatistics safepoints = new PauseStatistics();
+    private final PauseStatistics monitorBlocks = new PauseStatistics();
+
+    private FlightRecordingSummary() {
+    }
+
+    /**
+     * Reads recording event by event, so also big recordings can be summarized.
+     *
+     * @param recording JFR file
+     * @return summary of the recording
+     * @throws IOException if the recording cannot be read
+     */
+    public static FlightRecordingSummary read(Path recording) throws IOException {
+        FlightRecordingSummary summary = new FlightRecordingSummary();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                summary.add(file.readEvent());
+            }
+        }
+        return summary;
+    }
+
+    private void add(RecordedEvent event) {
+        switch (event.getEventType().getName()) {
+            case "jdk.ExecutionSample":
+                addSample(event.getStackTrace());
+                break;
+            case "jdk.GarbageCollection":
+                gcPauses.add(event.getDuration("sumOfPauses"));
+                break;
+            case "jdk.SafepointBegin":
+                safepoints.add(event.getDuration());
+                break;
+            case "jdk.JavaMonitorEnter":
+                monitorBlocks.add(event.getDuration());
+                break;
+            default:
+                // not summarized
+        }
+    }
+
+    private void addSample(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return;
+        }
+        samples++;
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        selfSamples.merge(methodName(frames.get(0).getMethod()), 1, Integer::sum);
+        // recursive methods are counted once per sample
+        Set<String> methods = new HashSet<>();
+        for (RecordedFrame frame : frames) {
+            methods.add(methodName(frame.getMethod()));
+        }
+        for (String method : methods) {
+            totalSamples.merge(method, 1, Integer::sum);
+        }
+    }
+
+    private static String methodName(RecordedMethod method) {
+        return method == null ? "<unknown>" : method.getType().getName() + "." + method.getName();
+    }
+
+    /**
+     * @return number of execution samples
+     */
+    public int getSamples() {
+        return samples;
+    }
+
+    /**
+     * @return methods with most self samples, descending
+     */
+    public List<Map.Entry<String, Integer>> getHotMethods() {
+        return top(selfSamples);
+    }
+
+    /**
+     * @return methods with most total samples, descending
+     */
+    public List<Map.Entry<String, Integer>> getHotStacks() {
+        return top(totalSamples);
+    }
+
+    /**
+     * @param methodPrefix prefix of method name including class, for example "io.smallrye.faulttolerance"
+     * @return fraction of samples with a method of given prefix on the stack
+     */
+    public double getFractionOfSamplesIn(String methodPrefix) {
+        if (samples == 0) {
+            return 0;
+        }
+        int max = 0;
+        for (Map.Entry<String, Integer> entry : totalSamples.entrySet()) {
+            if (entry.getKey().startsWith(methodPrefix)) {
+                // a sample can contain more matching methods, the outermost has the highest count
+                max = Math.max(max, entry.getValue());
+            }
+        }
+        return (double) max / samples;
+    }
+
+    public PauseStatistics getGcPauses() {
+        return gcPauses;
+    }
+
+    public PauseStatistics getSafepoints() {
+        return safepoints;
+    }
+
+    public PauseStatistics getMonitorBlocks() {
+        return monitorBlocks;
+    }
+
+    private static List<Map.Entry<String, Integer>> top(Map<String, Integer> counts) {
+        List<Map.Entry<String, Integer>> sorted = new ArrayList<>(counts.entrySet());
+        sorted.sort(Map.Entry.<String, Integer> comparingByValue().reversed());
+        return sorted.subList(0, Math.min(TOP_METHODS, sorted.size()));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Execution samples: ").append(samples).append(System.lineSeparator());
+        appendMethods(sb, "Hot methods (self)", getHotMethods());
+        appendMethods(sb, "Hot methods (total)", getHotStacks());
+        sb.append("GC pauses: ").append(gcPauses).append(System.lineSeparator());
+        sb.append("Safepoints: ").append(safepoints).append(System.lineSeparator());
+        sb.append("Contended monitors: ").append(monitorBlocks).append(System.lineSeparator());
+        return sb.toString();
+    }
+
+    private void appendMethods(StringBuilder sb, String title, List<Map.Entry<String, Integer>> methods) {
+        sb.append(title).append(':').append(System.lineSeparator());
+        for (Map.Entry<String, Integer> method : methods) {
+            sb.append(String.format(Locale.ROOT, "    %5.1f%% %6d  %s%n", 100.0 * method.getValue() / samples,
+                    method.getValue(), method.getKey()));
+        }
+    }
+
+    /**
+     * Count, total and longest duration of pauses of one kind.
+     */
+    public static final class PauseStatistics {
+        private int count;
+        private Duration total = Duration.ZERO;
+        private Duration longest = Duration.ZERO;
+
+        private void add(Duration pause) {
+            count++;
+            total = total.plus(pause);
+            if (pause.compareTo(longest) > 0) {
+                longest = pause;
+            }
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public Duration getTotal() {
+            return total;
+        }
+
+        public Duration getLongest() {
+            return longest;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d, total %.1f ms, longest %.1f ms", count, total.toNanos() / 1e6,
+                    longest.toNanos() / 1e6);
+        }
+    }
+}
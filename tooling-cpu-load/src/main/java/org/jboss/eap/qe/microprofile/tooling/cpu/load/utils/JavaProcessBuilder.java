@@ -15,6 +15,7 @@ public class JavaProcessBuilder {
     private String mainClass;
     private String workingDirectory;
     private Map<String, String> systemProperties = new HashMap<String, String>();
+    private List<String> jvmOptions = new ArrayList<String>();
     private List<String> classpathEntries = new ArrayList<String>();
     private List<String> mainClassArguments = new ArrayList<String>();
     private String javaCommand = "java";
@@ -77,6 +78,17 @@ public class JavaProcessBuilder {
         return this;
     }
 
+    /**
+     * Adds option to java command, for example "-Xmx512m".
+     *
+     * @param jvmOption option to add
+     * @return java process builder
+     */
+    public JavaProcessBuilder addJvmOption(String jvmOption) {
+        this.jvmOptions.add(jvmOption);
+        return this;
+    }
+
     /**
      * Sets how to invoke java command. Default is "java".
      *
@@ -102,6 +114,7 @@ public class JavaProcessBuilder {
             sb.append("-D").append(entry.getKey()).append("=").append(entry.getValue());
             argumentsList.add(sb.toString());
         }
+        argumentsList.addAll(jvmOptions);
 
         argumentsList.add("-classpath");
         argumentsList.add(getClasspath());
@@ -1,18 +1,14 @@
 package org.jboss.eap.qe.microprofile.tooling.cpu.load.utils;
 
-import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
 /**
  * Utility class for working with Linux process.
  */
 public class LinuxProcessUtils implements ProcessUtils {
 
-    /*
-     * CPU masks as used by "taskset" command
-     */
-    private static final String MASK_FIRST_CORE = "0x00000001";
-    private static final String MASK_ALL_CORES = "0xFFFFFFFF";
-
     public static final String LINUX_OS_NAME = "Linux";
 
     /**
@@ -23,39 +19,54 @@ public class LinuxProcessUtils implements ProcessUtils {
      */
     @Override
     public int getProcessId(Process process) {
-
-        int pid;
-        try {
-            Field f = process.getClass().getDeclaredField("pid");
-            f.setAccessible(true);
-            pid = f.getInt(process);
-        } catch (Throwable e) {
-            throw new IllegalStateException("Unable to get process id for " + process.getClass().getSimpleName(), e);
-        }
-
+        long pid = process.pid();
         if (pid == 0) {
             throw new IllegalStateException("Process ID is 0 for " + process.getClass().getSimpleName());
         }
-
-        return pid;
+        return Math.toIntExact(pid);
     }
 
     /**
      * Binds process to given CPU cores.
      *
      * @param pid process id
-     * @param cpuCoreMask cpu cores to which process will be bound on
-     *        see {@link org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.ProcessUtils.CPUCoreMask}
+     * @param cpuCores cpu cores to which process will be bound on
      * @throws Exception throws exception if this operation fails
      */
     @Override
-    public void bindProcessToCPU(int pid, CPUCoreMask cpuCoreMask) throws Exception {
-        String cmd = "taskset -a -p " + getCPUMask(cpuCoreMask) + " " + pid;
+    public void bindProcessToCPU(int pid, CpuCoreSet cpuCores) throws Exception {
+        String cmd = "taskset -a -p " + cpuCores.toHexMask() + " " + pid;
         if (Runtime.getRuntime().exec(cmd).waitFor() != 0) {
             throw new Exception("Command: " + cmd + " failed.");
         }
     }
 
+    /**
+     * Binds single thread to given CPU cores, other threads of the process are not affected.
+     *
+     * @param tid thread id as seen by Linux kernel, see {@link #getCurrentThreadId()}
+     * @param cpuCores cpu cores to which thread will be bound on
+     * @throws Exception throws exception if this operation fails
+     */
+    public void bindThreadToCPU(int tid, CpuCoreSet cpuCores) throws Exception {
+        String cmd = "taskset -p " + cpuCores.toHexMask() + " " + tid;
+        if (Runtime.getRuntime().exec(cmd).waitFor() != 0) {
+            throw new Exception("Command: " + cmd + " failed.");
+        }
+    }
+
+    /**
+     * Returns id of the calling thread as seen by Linux kernel, Java thread id is not related to it.
+     *
+     * @return thread id of the calling thread
+     * @throws Exception if {@code /proc/thread-self/stat} cannot be read
+     */
+    public static int getCurrentThreadId() throws Exception {
+        // the first field of stat is the thread id
+        String stat = new String(Files.readAllBytes(Paths.get("/proc/thread-self/stat")), StandardCharsets.US_ASCII);
+        return Integer.parseInt(stat.substring(0, stat.indexOf(' ')));
+    }
+
     /**
      * Returns CPU core mask used in taskset command
      *
@@ -64,14 +75,7 @@ public class LinuxProcessUtils implements ProcessUtils {
      * @return CPU core mask as used in taskset command
      */
     public String getCPUMask(CPUCoreMask cpuCoreMask) throws Exception {
-        switch (cpuCoreMask) {
-            case FIRST_CORE:
-                return MASK_FIRST_CORE;
-            case ALL_CORES:
-                return MASK_ALL_CORES;
-            default:
-                throw new Exception("Such CPU mask does not exist: " + cpuCoreMask);
-        }
+        return cpuCoreMask.toCoreSet().toHexMask();
     }
 
     /**
@@ -81,8 +85,8 @@ public class LinuxProcessUtils implements ProcessUtils {
      */
     @Override
     public void killProcess(Process process) throws Exception {
-        String cmd = "kill -9 " + getProcessId(process);
-        Runtime.getRuntime().exec(cmd).waitFor();
+        // sends SIGKILL on Linux
+        process.destroyForcibly().waitFor();
     }
 
 }
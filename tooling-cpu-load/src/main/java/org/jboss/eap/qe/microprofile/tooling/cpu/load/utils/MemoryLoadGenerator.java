@@ -0,0 +1,91 @@
+package org.jboss.eap.qe.microprofile.tooling.cpu.load.utils;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generates memory pressure. Takes up to three arguments:
+ * <ul>
+ * <li>load duration in millis. Specifies for how long to generate load. Default 1 min.</li>
+ * <li>live set in MB. Memory which is kept allocated (and touched) for the whole duration. Default 256 MB.</li>
+ * <li>allocation rate in MB per second. Default 512 MB/s.</li>
+ * </ul>
+ * Memory is allocated in 64 kB chunks. Every 8th chunk replaces a random chunk of the live set, so the garbage collector
+ * has to deal with old objects dying as well as with short lived ones. Allocation is paced in 10 ms slices.
+ * <p>
+ * Process has to be started with heap big enough for the live set, see
+ * {@link org.jboss.eap.qe.microprofile.tooling.cpu.load.HighResourceUtils}.
+ */
+public class MemoryLoadGenerator {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int CHUNKS_PER_MB = 1024 * 1024 / CHUNK_SIZE;
+    private static final int LIVE_SET_REPLACEMENT = 8;
+    private static final long SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * Reads load duration in millis, live set in MB and allocation rate in MB per second as parameters
+     */
+    public static void main(String[] args) {
+        Duration loadDuration = Duration.ofMinutes(1);
+        int liveSetMb = 256;
+        int allocationRateMb = 512;
+        if (args.length > 0 && args[0] != null && !"".equals(args[0])) {
+            loadDuration = Duration.ofMillis(Long.valueOf(args[0]));
+        }
+        if (args.length > 1 && args[1] != null && !"".equals(args[1])) {
+            liveSetMb = Integer.parseInt(args[1]);
+        }
+        if (args.length > 2 && args[2] != null && !"".equals(args[2])) {
+            allocationRateMb = Integer.parseInt(args[2]);
+        }
+
+        byte[][] liveSet = new byte[liveSetMb * CHUNKS_PER_MB][];
+        for (int i = 0; i < liveSet.length; i++) {
+            liveSet[i] = allocate();
+        }
+
+        long chunksPerSlice = Math.max(1, (long) allocationRateMb * CHUNKS_PER_MB * SLICE_NANOS
+                / TimeUnit.SECONDS.toNanos(1));
+        long start = System.nanoTime();
+        long end = start + loadDuration.toNanos();
+        long allocated = 0;
+        long checksum = 0;
+        long sliceStart;
+        while ((sliceStart = System.nanoTime()) < end) {
+            for (int i = 0; i < chunksPerSlice; i++) {
+                byte[] chunk = allocate();
+                checksum += chunk[CHUNK_SIZE - 1];
+                if (liveSet.length > 0 && allocated % LIVE_SET_REPLACEMENT == 0) {
+                    liveSet[ThreadLocalRandom.current().nextInt(liveSet.length)] = chunk;
+                }
+                allocated++;
+            }
+            long idle = sliceStart + SLICE_NANOS - System.nanoTime();
+            if (idle > 0) {
+                LockSupport.parkNanos(idle);
+            }
+        }
+        double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+        System.out.println(String.format(Locale.ROOT,
+                "memory-load-summary liveSetMb=%d allocatedMb=%d rateMbPerSecond=%.1f", liveSetMb,
+                allocated / CHUNKS_PER_MB, allocated / CHUNKS_PER_MB / seconds));
+        // keep the result alive so JIT cannot remove the allocations
+        if (checksum == 42) {
+            System.out.println(checksum);
+        }
+    }
+
+    private static byte[] allocate() {
+        byte[] chunk = new byte[CHUNK_SIZE];
+        // touch every page so the memory is really committed
+        for (int i = 0; i < CHUNK_SIZE; i += 4096) {
+            chunk[i] = 1;
+        }
+        chunk[CHUNK_SIZE - 1] = 1;
+        return chunk;
+    }
+}
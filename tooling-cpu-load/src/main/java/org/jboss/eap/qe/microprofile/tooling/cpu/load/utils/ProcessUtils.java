@@ -13,11 +13,18 @@ import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
 public interface ProcessUtils {
 
     /**
-     * CPU cores to which process can be bound on.
+     * CPU cores to which process can be bound on. See {@link CpuCoreSet} for arbitrary sets of cores.
      */
     enum CPUCoreMask {
         ALL_CORES, // all CPU cores
-        FIRST_CORE // first core
+        FIRST_CORE; // first core
+
+        /**
+         * @return set of cores sized by number of cores of this machine
+         */
+        public CpuCoreSet toCoreSet() {
+            return this == ALL_CORES ? CpuCoreSet.all() : CpuCoreSet.first(1);
+        }
     }
 
     /**
@@ -54,7 +61,51 @@ public interface ProcessUtils {
      *        see {@link org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.ProcessUtils.CPUCoreMask}
      * @throws Exception throws exception if this operation fails
      */
-    void bindProcessToCPU(int pid, CPUCoreMask cpuCoreMask) throws Exception;
+    default void bindProcessToCPU(int pid, CPUCoreMask cpuCoreMask) throws Exception {
+        bindProcessToCPU(pid, cpuCoreMask.toCoreSet());
+    }
+
+    /**
+     * Binds process to given CPU cores.
+     *
+     * @param pid process id
+     * @param cpuCores cpu cores to which process will be bound on
+     * @throws Exception throws exception if this operation fails
+     */
+    void bindProcessToCPU(int pid, CpuCoreSet cpuCores) throws Exception;
+
+    /**
+     * Throttles process to given quotas, for example to simulate slow server. Use {@link #restoreProcess(int)} to remove
+     * the quotas.
+     *
+     * @param pid process id
+     * @param quota limits of resources
+     * @throws Exception if this operation fails or is not supported on this platform
+     */
+    default void throttleProcess(int pid, ResourceQuota quota) throws Exception {
+        throw new UnsupportedOperationException("Throttling of processes is not supported by " + getClass().getName());
+    }
+
+    /**
+     * Removes quotas set by {@link #throttleProcess(int, ResourceQuota)}. Does nothing if process is not throttled.
+     *
+     * @param pid process id
+     * @throws Exception if this operation fails
+     */
+    default void restoreProcess(int pid) throws Exception {
+    }
+
+    /**
+     * Starts Java Flight Recorder in given JVM process, see {@link FlightRecording}.
+     *
+     * @param pid process id of JVM running on this machine
+     * @param name name of the recording
+     * @return started recording
+     * @throws Exception if recording cannot be started
+     */
+    default FlightRecording startFlightRecording(int pid, String name) throws Exception {
+        return FlightRecording.start(pid, name);
+    }
 
     /**
      * Kills process (kill -9 ...)
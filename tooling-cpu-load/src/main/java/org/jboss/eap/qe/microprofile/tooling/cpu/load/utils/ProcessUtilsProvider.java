@@ -5,7 +5,8 @@ package org.jboss.eap.qe.microprofile.tooling.cpu.load.utils;
  */
 public class ProcessUtilsProvider {
     /**
-     * Returns platform dependent utility class for work with processes for current operating system.
+     * Returns platform dependent utility class for work with processes for current operating system. On Linux it
+     * supports {@link ProcessUtils#throttleProcess(int, ResourceQuota)} by cgroup v2.
      *
      * @return process utility class for work with processes for current operating system or null if such implementation
      *         does not exist
@@ -13,7 +14,8 @@ public class ProcessUtilsProvider {
     public static ProcessUtils getProcessUtils() {
         ProcessUtils processUtils = null;
         if (System.getProperty("os.name").contains(LinuxProcessUtils.LINUX_OS_NAME)) {
-            processUtils = new LinuxProcessUtils();
+            // falls back to taskset when cgroup v2 cannot be used
+            processUtils = new CgroupProcessUtils();
         }
         return processUtils;
     }
@@ -0,0 +1,130 @@
+package org.jboss.eap.qe.microprofile.tooling.cpu.load.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Limits of resources for a process, see {@link ProcessUtils#throttleProcess(int, ResourceQuota)}. Unset limits are not
+ * applied.
+ */
+public final class ResourceQuota {
+
+    private final double cpus;
+    private final long memoryHighBytes;
+    private final Map<String, long[]> ioLimits;
+
+    private ResourceQuota(Builder builder) {
+        this.cpus = builder.cpus;
+        this.memoryHighBytes = builder.memoryHighBytes;
+        this.ioLimits = Collections.unmodifiableMap(new LinkedHashMap<>(builder.ioLimits));
+    }
+
+    /**
+     * @return CPU time as number of cores, for example 0.5 is half of one core, 0 if not limited
+     */
+    public double getCpus() {
+        return cpus;
+    }
+
+    /**
+     * @return memory above which the process is throttled and reclaimed heavily in bytes, 0 if not limited
+     */
+    public long getMemoryHighBytes() {
+        return memoryHighBytes;
+    }
+
+    /**
+     * @return read and write limits in bytes per second by device in "major:minor" format, 0 is not limited
+     */
+    public Map<String, long[]> getIoLimits() {
+        return ioLimits;
+    }
+
+    /**
+     * Returns block device holding given file as used by cgroup {@code io.max}. Partitions are resolved to their disk,
+     * cgroups do not limit partitions.
+     *
+     * @param path file or directory
+     * @return device in "major:minor" format
+     * @throws IOException if the device cannot be determined
+     */
+    public static String deviceOf(Path path) throws IOException {
+        long dev = (Long) Files.getAttribute(path, "unix:dev");
+        // glibc encoding of dev_t
+        long major = ((dev >>> 8) & 0xfff) | ((dev >>> 32) & ~0xfffL);
+        long minor = (dev & 0xff) | ((dev >>> 12) & ~0xffL);
+        String device = major + ":" + minor;
+        Path sysfs = Paths.get("/sys/dev/block", device);
+        if (Files.exists(sysfs.resolve("partition"))) {
+            device = new String(Files.readAllBytes(sysfs.toRealPath().getParent().resolve("dev")),
+                    StandardCharsets.US_ASCII).trim();
+        }
+        return device;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ResourceQuota{");
+        sb.append("cpus=").append(cpus == 0 ? "max" : cpus);
+        sb.append(", memoryHigh=").append(memoryHighBytes == 0 ? "max" : memoryHighBytes);
+        for (Map.Entry<String, long[]> entry : ioLimits.entrySet()) {
+            sb.append(", io ").append(entry.getKey()).append(" rbps=").append(entry.getValue()[0])
+                    .append(" wbps=").append(entry.getValue()[1]);
+        }
+        return sb.append('}').toString();
+    }
+
+    public static class Builder {
+        private double cpus;
+        private long memoryHighBytes;
+        private final Map<String, long[]> ioLimits = new LinkedHashMap<>();
+
+        /**
+         * @param cpus CPU time as number of cores, for example 0.5 is half of one core
+         * @return this
+         */
+        public Builder cpus(double cpus) {
+            if (cpus <= 0) {
+                throw new IllegalArgumentException("CPU quota must be positive but was " + cpus);
+            }
+            this.cpus = cpus;
+            return this;
+        }
+
+        /**
+         * @param memoryHighMb memory above which the process is throttled and reclaimed heavily, in MB
+         * @return this
+         */
+        public Builder memoryHighMb(long memoryHighMb) {
+            if (memoryHighMb <= 0) {
+                throw new IllegalArgumentException("Memory quota must be positive but was " + memoryHighMb);
+            }
+            this.memoryHighBytes = memoryHighMb * 1024 * 1024;
+            return this;
+        }
+
+        /**
+         * @param device block device in "major:minor" format, see {@link #deviceOf(Path)}
+         * @param readBytesPerSecond read limit, 0 for no limit
+         * @param writeBytesPerSecond write limit, 0 for no limit
+         * @return this
+         */
+        public Builder io(String device, long readBytesPerSecond, long writeBytesPerSecond) {
+            if (!device.matches("\\d+:\\d+")) {
+                throw new IllegalArgumentException("Device must be in major:minor format but was " + device);
+            }
+            ioLimits.put(device, new long[] { readBytesPerSecond, writeBytesPerSecond });
+            return this;
+        }
+
+        public ResourceQuota build() {
+            return new ResourceQuota(this);
+        }
+    }
+}
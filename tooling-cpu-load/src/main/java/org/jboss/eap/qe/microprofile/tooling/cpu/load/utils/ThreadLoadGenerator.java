@@ -0,0 +1,95 @@
+package org.jboss.eap.qe.microprofile.tooling.cpu.load.utils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generates pressure on thread scheduling and process/thread limits of the system. Takes up to three arguments:
+ * <ul>
+ * <li>load duration in millis. Specifies for how long to generate load. Default 1 min.</li>
+ * <li>number of live threads. Threads are started at the beginning and parked for the whole duration. Default 1000.</li>
+ * <li>spawn rate in threads per second. Short lived threads started and finished continuously. Default 1000.</li>
+ * </ul>
+ * If the system refuses to create more threads, the generator keeps threads it has and continues, number of failures
+ * is reported at the end.
+ */
+public class ThreadLoadGenerator {
+
+    private static final long STACK_SIZE = 256 * 1024;
+    private static final long SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * Reads load duration in millis, number of live threads and spawn rate per second as parameters
+     */
+    public static void main(String[] args) throws InterruptedException {
+        Duration loadDuration = Duration.ofMinutes(1);
+        int liveThreads = 1000;
+        int spawnRate = 1000;
+        if (args.length > 0 && args[0] != null && !"".equals(args[0])) {
+            loadDuration = Duration.ofMillis(Long.valueOf(args[0]));
+        }
+        if (args.length > 1 && args[1] != null && !"".equals(args[1])) {
+            liveThreads = Integer.parseInt(args[1]);
+        }
+        if (args.length > 2 && args[2] != null && !"".equals(args[2])) {
+            spawnRate = Integer.parseInt(args[2]);
+        }
+
+        long start = System.nanoTime();
+        long end = start + loadDuration.toNanos();
+        CountDownLatch finished = new CountDownLatch(1);
+        List<Thread> parked = new ArrayList<>();
+        long failures = 0;
+        for (int i = 0; i < liveThreads; i++) {
+            // small stack, the point is the number of threads, not memory
+            Thread thread = new Thread(null, () -> {
+                try {
+                    finished.await();
+                } catch (InterruptedException e) {
+                    // finish
+                }
+            }, "thread-load-live-" + i, STACK_SIZE);
+            thread.setDaemon(true);
+            try {
+                thread.start();
+                parked.add(thread);
+            } catch (OutOfMemoryError e) {
+                failures++;
+                break;
+            }
+        }
+
+        long threadsPerSlice = Math.max(1, (long) spawnRate * SLICE_NANOS / TimeUnit.SECONDS.toNanos(1));
+        long spawned = 0;
+        long sliceStart;
+        while ((sliceStart = System.nanoTime()) < end) {
+            for (int i = 0; i < threadsPerSlice && spawnRate > 0; i++) {
+                Thread thread = new Thread(null, Thread::yield, "thread-load-spawned", STACK_SIZE);
+                thread.setDaemon(true);
+                try {
+                    thread.start();
+                    spawned++;
+                } catch (OutOfMemoryError e) {
+                    failures++;
+                }
+            }
+            long idle = sliceStart + SLICE_NANOS - System.nanoTime();
+            if (idle > 0) {
+                LockSupport.parkNanos(idle);
+            }
+        }
+        finished.countDown();
+        for (Thread thread : parked) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+        System.out.println(String.format(Locale.ROOT,
+                "thread-load-summary liveThreads=%d spawned=%d failures=%d ratePerSecond=%.1f",
+                parked.size(), spawned, failures, spawned / seconds));
+    }
+}
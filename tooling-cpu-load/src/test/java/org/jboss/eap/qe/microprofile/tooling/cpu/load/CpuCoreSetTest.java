@@ -0,0 +1,49 @@
+package org.jboss.eap.qe.microprofile.tooling.cpu.load;
+
+import java.time.Duration;
+
+import org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.CpuCoreSet;
+import org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.CpuLoadProfile;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests CPU masks and load profiles used by HighCPUUtils. Does not need running server.
+ */
+public class CpuCoreSetTest {
+
+    @Test
+    public void testMaskIsNotLimitedTo32Cores() {
+        Assert.assertEquals("0x1", CpuCoreSet.first(1).toHexMask());
+        Assert.assertEquals("0xffffffffff", CpuCoreSet.first(40).toHexMask());
+        Assert.assertEquals("0x800000001", CpuCoreSet.of(0, 35).toHexMask());
+    }
+
+    @Test
+    public void testCpuList() {
+        CpuCoreSet cores = CpuCoreSet.of(0, 1, 2, 3, 6);
+        Assert.assertEquals("0-3,6", cores.toList());
+        Assert.assertEquals(cores, CpuCoreSet.parseList("0-3,6"));
+        Assert.assertEquals(5, cores.size());
+    }
+
+    @Test
+    public void testAllCoresContainAvailableCores() {
+        Assert.assertTrue(CpuCoreSet.all().size() >= 1);
+    }
+
+    @Test
+    public void testLoadProfiles() {
+        CpuLoadProfile steps = CpuLoadProfile.steps(0.1, 0.9, 5, Duration.ofSeconds(1));
+        Assert.assertEquals(0.1, steps.loadAt(0), 0.001);
+        Assert.assertEquals(0.5, steps.loadAt(2500), 0.001);
+        Assert.assertEquals(0.9, steps.loadAt(60_000), 0.001);
+
+        CpuLoadProfile sine = CpuLoadProfile.sine(0.2, 0.8, Duration.ofSeconds(4));
+        Assert.assertEquals(0.5, sine.loadAt(0), 0.001);
+        Assert.assertEquals(0.8, sine.loadAt(1000), 0.001);
+        Assert.assertEquals(0.2, sine.loadAt(3000), 0.001);
+
+        Assert.assertEquals(steps.toArgument(), CpuLoadProfile.parse(steps.toArgument()).toArgument());
+    }
+}
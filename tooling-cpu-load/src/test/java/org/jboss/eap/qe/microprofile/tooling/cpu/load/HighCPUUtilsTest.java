@@ -12,6 +12,9 @@ import javax.management.remote.JMXServiceURL;
 import org.awaitility.Awaitility;
 import org.jboss.arquillian.container.test.api.RunAsClient;
 import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.CpuCoreSet;
+import org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.CpuLoadProfile;
+import org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.CpuLoadReport;
 import org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.ProcessUtils;
 import org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.ProcessUtilsProvider;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian.ArquillianContainerProperties;
@@ -53,6 +56,20 @@ public class HighCPUUtilsTest {
         }
     }
 
+    @Test
+    public void testPartialCPULoadIsHeld() throws Exception {
+        ProcessUtils processUtils = ProcessUtilsProvider.getProcessUtils();
+        Assume.assumeNotNull("This test cannot be executed on this platform as ProcessUtils class was not " +
+                "implemented for it.", processUtils);
+
+        Process cpuLoadProcess = new HighCPUUtils(processUtils).causeCPULoadOnContainer(CpuCoreSet.all(),
+                CpuCoreSet.first(1), CpuLoadProfile.constant(0.5), Duration.ofSeconds(10));
+        CpuLoadReport report = CpuLoadReport.read(cpuLoadProcess);
+
+        Assert.assertTrue("Achieved CPU load was not reported", report.isMeasured());
+        Assert.assertEquals(report.toString(), 0.5, report.getMeanAchieved(), 0.05);
+    }
+
     /**
      * Returns system CPU load from Wildfly/EAP server. Value between 0.0 (no load) and 1.0 (maximum load, all cores under 100%
      * load)
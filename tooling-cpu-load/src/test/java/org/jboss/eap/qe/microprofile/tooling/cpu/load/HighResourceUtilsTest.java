@@ -0,0 +1,60 @@
+package org.jboss.eap.qe.microprofile.tooling.cpu.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.ProcessUtils;
+import org.jboss.eap.qe.microprofile.tooling.cpu.load.utils.ProcessUtilsProvider;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests generators of memory, disk I/O and thread pressure. Does not need running server.
+ */
+public class HighResourceUtilsTest {
+
+    private static final Duration LOAD_DURATION = Duration.ofSeconds(2);
+
+    private ProcessUtils processUtils;
+
+    @Before
+    public void checkPlatform() {
+        processUtils = ProcessUtilsProvider.getProcessUtils();
+        Assume.assumeNotNull("This test cannot be executed on this platform as ProcessUtils class was not " +
+                "implemented for it.", processUtils);
+    }
+
+    @Test
+    public void testMemoryPressure() throws Exception {
+        String output = waitForOutput(new HighResourceUtils(processUtils).causeMemoryPressure(32, 64, LOAD_DURATION));
+        Assert.assertTrue(output, output.contains("memory-load-summary liveSetMb=32"));
+    }
+
+    @Test
+    public void testDiskIOPressure() throws Exception {
+        String output = waitForOutput(new HighResourceUtils(processUtils).causeDiskIOPressure(4, LOAD_DURATION));
+        Assert.assertTrue(output, output.contains("disk-io-load-summary"));
+    }
+
+    @Test
+    public void testThreadPressure() throws Exception {
+        String output = waitForOutput(new HighResourceUtils(processUtils).causeThreadPressure(50, 100, LOAD_DURATION));
+        Assert.assertTrue(output, output.contains("thread-load-summary liveThreads=50"));
+    }
+
+    private String waitForOutput(Process loadProcess) throws IOException, InterruptedException {
+        String output;
+        try (InputStream in = loadProcess.getInputStream()) {
+            output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Assert.assertTrue("Load generator process did not finish",
+                loadProcess.waitFor(LOAD_DURATION.getSeconds() + 30, TimeUnit.SECONDS));
+        Assert.assertEquals(output, 0, loadProcess.exitValue());
+        return output;
+    }
+}
@@ -0,0 +1,80 @@
+package org.jboss.eap.qe.microprofile.tooling.cpu.load.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests cgroup v2 throttling against fake cgroup and proc file systems. Does not need running server nor root.
+ */
+public class CgroupProcessUtilsTest {
+
+    private static final int PID = 4242;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path cgroupRoot;
+    private Path originalCgroup;
+    private CgroupProcessUtils processUtils;
+
+    @Before
+    public void createFakeCgroups() throws Exception {
+        cgroupRoot = temporaryFolder.newFolder("cgroup").toPath();
+        write(cgroupRoot.resolve("cgroup.controllers"), "cpuset cpu io memory pids");
+        originalCgroup = Files.createDirectories(cgroupRoot.resolve("user.slice/test.scope"));
+
+        Path proc = temporaryFolder.newFolder("proc").toPath();
+        Files.createDirectories(proc.resolve(String.valueOf(PID)));
+        write(proc.resolve(PID + "/cgroup"), "0::/user.slice/test.scope\n");
+
+        processUtils = new CgroupProcessUtils(cgroupRoot, proc);
+    }
+
+    @Test
+    public void testThrottleAndRestore() throws Exception {
+        Assert.assertTrue(processUtils.isCgroupV2Available());
+        processUtils.throttleProcess(PID, new ResourceQuota.Builder()
+                .cpus(0.5)
+                .memoryHighMb(256)
+                .io("8:0", 0, 1024 * 1024)
+                .build());
+
+        Path cgroup = cgroupRoot.resolve(CgroupProcessUtils.CGROUP_PREFIX + PID);
+        Assert.assertEquals("+cpu +cpuset +memory +io", read(cgroupRoot.resolve("cgroup.subtree_control")));
+        Assert.assertEquals("50000 100000", read(cgroup.resolve("cpu.max")));
+        Assert.assertEquals(String.valueOf(256 * 1024 * 1024), read(cgroup.resolve("memory.high")));
+        Assert.assertEquals("8:0 rbps=max wbps=1048576", read(cgroup.resolve("io.max")));
+        Assert.assertEquals(String.valueOf(PID), read(cgroup.resolve("cgroup.procs")));
+
+        processUtils.bindProcessToCPU(PID, CpuCoreSet.range(0, 2));
+        Assert.assertEquals("0-1", read(cgroup.resolve("cpuset.cpus")));
+
+        processUtils.restoreProcess(PID);
+        Assert.assertEquals(String.valueOf(PID), read(originalCgroup.resolve("cgroup.procs")));
+    }
+
+    @Test
+    public void testQuotaValidation() {
+        try {
+            new ResourceQuota.Builder().io("/dev/sda", 1, 1);
+            Assert.fail("Device must be in major:minor format");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    private static void write(Path file, String content) throws Exception {
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String read(Path file) throws Exception {
+        return new String(Files.readAllBytes(file), StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,30 @@
+package org.jboss.eap.qe.microprofile.tooling.cpu.load.utils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests flight recording of a JVM by jcmd. This JVM is recorded. Does not need running server.
+ */
+public class FlightRecordingTest {
+
+    @Test
+    public void testRecordingIsSavedAndSummarized() throws Exception {
+        FlightRecording recording = FlightRecording.start((int) ProcessHandle.current().pid(), "flight-recording-test");
+        double result = 0;
+        long end = System.nanoTime() + 2_000_000_000L;
+        while (System.nanoTime() < end) {
+            result += Math.sqrt(result + 1);
+        }
+        Path file = recording.stop();
+        Assert.assertTrue(result > 0);
+        Assert.assertTrue("Recording was not saved to " + file, Files.size(file) > 0);
+
+        FlightRecordingSummary summary = FlightRecordingSummary.read(file);
+        Assert.assertTrue("No execution samples in " + file, summary.getSamples() > 0);
+        Assert.assertTrue(summary.toString(), summary.getFractionOfSamplesIn(FlightRecordingTest.class.getName()) > 0);
+    }
+}
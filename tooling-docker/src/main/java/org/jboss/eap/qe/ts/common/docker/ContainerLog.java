@@ -0,0 +1,281 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+import org.fusesource.jansi.Ansi;
+
+/**
+ * Output of a docker container. Keeps only the last {@code capacity} bytes in a ring buffer so chatty containers do not
+ * flood the test output, the whole log can be optionally written into a file.
+ * <p>
+ * By default nothing is printed while the container runs, the buffered tail is printed by {@link #dump(PrintStream)}
+ * when a test fails. Set {@code docker.log.echo} system property to {@code true} to print every line as it comes.
+ */
+public class ContainerLog {
+
+    public static final boolean ECHO = Boolean.getBoolean("docker.log.echo");
+
+    /**
+     * Longer lines are cut, so a container writing without new lines cannot exhaust memory
+     */
+    private static final int MAX_LINE_LENGTH = 64 * 1024;
+
+    private final String name;
+    private final byte[] ring;
+    private final Path file;
+    private final List<LineWaiter> waiters = new ArrayList<>();
+    private final ByteArrayOutputStream currentLine = new ByteArrayOutputStream();
+
+    // guarded by this
+    private int ringPosition;
+    private long totalBytes;
+    private boolean finished;
+
+    /**
+     * @param name container name used as prefix of printed lines
+     * @param capacity number of bytes kept in memory
+     * @param file file where the whole log is written, null to keep just the tail in memory
+     */
+    public ContainerLog(String name, int capacity, Path file) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Log buffer capacity must be positive but was " + capacity);
+        }
+        this.name = name;
+        this.ring = new byte[capacity];
+        this.file = file;
+    }
+
+    /**
+     * Reads container output until the stream is closed. Intended to be executed in a dedicated thread.
+     *
+     * @param output container output
+     */
+    public void consume(InputStream output) {
+        FileChannel channel = null;
+        try {
+            if (file != null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+                channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+            }
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = output.read(buffer)) >= 0) {
+                if (channel != null) {
+                    ByteBuffer data = ByteBuffer.wrap(buffer, 0, read);
+                    while (data.hasRemaining()) {
+                        channel.write(data);
+                    }
+                }
+                append(buffer, read);
+            }
+        } catch (IOException ignored) {
+            // ignore as any stop of docker container breaks the reader stream
+            // note that shutdown of docker would be already logged
+        } finally {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // nothing to do
+                }
+            }
+            finish();
+        }
+    }
+
+    private synchronized void append(byte[] data, int length) {
+        int offset = 0;
+        // when data is larger than the ring only its tail is kept
+        if (length > ring.length) {
+            offset = length - ring.length;
+        }
+        int toCopy = length - offset;
+        int firstPart = Math.min(toCopy, ring.length - ringPosition);
+        System.arraycopy(data, offset, ring, ringPosition, firstPart);
+        System.arraycopy(data, offset + firstPart, ring, 0, toCopy - firstPart);
+        ringPosition = (ringPosition + toCopy) % ring.length;
+        totalBytes += length;
+
+        for (int i = 0; i < length; i++) {
+            if (data[i] == '\n') {
+                onLine(lineToString(currentLine.toByteArray()));
+                currentLine.reset();
+            } else if (currentLine.size() < MAX_LINE_LENGTH) {
+                currentLine.write(data[i]);
+            }
+        }
+    }
+
+    private synchronized void finish() {
+        if (currentLine.size() > 0) {
+            onLine(lineToString(currentLine.toByteArray()));
+            currentLine.reset();
+        }
+        finished = true;
+        for (LineWaiter waiter : waiters) {
+            waiter.future.completeExceptionally(outputEnded(waiter.pattern));
+        }
+        waiters.clear();
+    }
+
+    private void onLine(String line) {
+        if (ECHO) {
+            System.out.println(Ansi.ansi().fgCyan().a(name).reset().a("> ").a(line));
+        }
+        Iterator<LineWaiter> iterator = waiters.iterator();
+        while (iterator.hasNext()) {
+            LineWaiter waiter = iterator.next();
+            if (waiter.pattern.matcher(line).find()) {
+                waiter.future.complete(line);
+                iterator.remove();
+            }
+        }
+    }
+
+    private static String lineToString(byte[] line) {
+        int length = line.length;
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Waits until container prints line containing match of {@code pattern}. Lines still held in the buffer are checked
+     * first, so the line may have been printed before this method was called.
+     *
+     * @param pattern pattern to find in a line
+     * @param timeout how long to wait
+     * @return first matching line
+     * @throws DockerTimeoutException if no such line appeared in {@code timeout}
+     * @throws DockerException if container output ended before such line appeared
+     */
+    public String waitForLine(Pattern pattern, Duration timeout) throws InterruptedException {
+        CompletableFuture<String> line = lineMatching(pattern);
+        try {
+            return line.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new DockerTimeoutException(name + " - Line matching \"" + pattern + "\" did not appear in "
+                    + timeout.toMillis() + " ms", e);
+        } catch (ExecutionException e) {
+            throw (RuntimeException) e.getCause();
+        } finally {
+            synchronized (this) {
+                waiters.removeIf(waiter -> waiter.future == line);
+            }
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #waitForLine(Pattern, Duration)}.
+     *
+     * @return future completed by the first matching line, completed exceptionally by {@link DockerException} if the
+     *         output ends before such line appears
+     */
+    synchronized CompletableFuture<String> lineMatching(Pattern pattern) {
+        for (String line : getBufferedLines()) {
+            if (pattern.matcher(line).find()) {
+                return CompletableFuture.completedFuture(line);
+            }
+        }
+        LineWaiter waiter = new LineWaiter(pattern);
+        if (finished) {
+            waiter.future.completeExceptionally(outputEnded(pattern));
+        } else {
+            waiters.add(waiter);
+        }
+        return waiter.future;
+    }
+
+    private DockerException outputEnded(Pattern pattern) {
+        return new DockerException(name + " - Container output ended before line matching \"" + pattern + "\" appeared");
+    }
+
+    /**
+     * @return content of the buffer - the last {@code capacity} bytes of the output, the first line may be incomplete
+     */
+    public synchronized String getTail() {
+        int size = (int) Math.min(totalBytes, ring.length);
+        byte[] tail = new byte[size];
+        int start = (ringPosition - size + ring.length) % ring.length;
+        int firstPart = Math.min(size, ring.length - start);
+        System.arraycopy(ring, start, tail, 0, firstPart);
+        System.arraycopy(ring, 0, tail, firstPart, size - firstPart);
+        return new String(tail, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return complete lines held by the buffer, line which is still being written is checked once it's finished
+     */
+    private List<String> getBufferedLines() {
+        String tail = getTail();
+        List<String> lines = new ArrayList<>();
+        int lineStart = 0;
+        int lineEnd;
+        while ((lineEnd = tail.indexOf('\n', lineStart)) >= 0) {
+            String line = tail.substring(lineStart, lineEnd);
+            lines.add(line.endsWith("\r") ? line.substring(0, line.length() - 1) : line);
+            lineStart = lineEnd + 1;
+        }
+        return lines;
+    }
+
+    /**
+     * @return number of bytes the container has written so far
+     */
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * @return file with the whole log or null if log is kept only in memory
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Prints buffered tail of the log.
+     *
+     * @param out where to print
+     */
+    public void dump(PrintStream out) {
+        String tail = getTail();
+        long total = getTotalBytes();
+        out.println(Ansi.ansi().reset().a("===== Output of container ").fgCyan().a(name).reset()
+                .a(total > ring.length ? " (last " + ring.length + " of " + total + " bytes)" : "")
+                .a(file != null ? ", full log: " + file.toAbsolutePath() : "").a(" ====="));
+        for (String line : tail.split("\r?\n")) {
+            out.println(Ansi.ansi().fgCyan().a(name).reset().a("> ").a(line));
+        }
+        out.println(Ansi.ansi().reset().a("===== End of output of container ").fgCyan().a(name).reset().a(" ====="));
+    }
+
+    private static final class LineWaiter {
+        private final Pattern pattern;
+        private final CompletableFuture<String> future = new CompletableFuture<>();
+
+        private LineWaiter(Pattern pattern) {
+            this.pattern = pattern;
+        }
+    }
+}
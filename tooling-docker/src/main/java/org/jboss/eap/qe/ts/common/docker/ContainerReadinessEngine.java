@@ -0,0 +1,223 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Waits until a container is ready by periodically executing its {@link ContainerReadyCondition}.
+ * <p>
+ * Probes are not executed in a busy loop. A single scheduler thread plans each probe according to {@link ReadinessBackoff}
+ * and the probe itself runs in a small bounded pool shared by all containers, so waiting for a slowly booting container
+ * costs almost no CPU. The pool size can be changed by {@code docker.readiness.probe.threads} system property
+ * (default 4).
+ * <p>
+ * All threads are daemon threads, so there is no need to shut the engine down.
+ */
+public final class ContainerReadinessEngine {
+
+    public static final int PROBE_POOL_SIZE = Integer.getInteger("docker.readiness.probe.threads", 4);
+
+    private static final class InstanceHolder {
+        private static final ContainerReadinessEngine INSTANCE = new ContainerReadinessEngine();
+    }
+
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService probePool;
+
+    private ContainerReadinessEngine() {
+        ScheduledThreadPoolExecutor scheduledExecutor = new ScheduledThreadPoolExecutor(1,
+                daemonThreadFactory("docker-readiness-scheduler"));
+        scheduledExecutor.setRemoveOnCancelPolicy(true);
+        this.scheduler = scheduledExecutor;
+        this.probePool = new ThreadPoolExecutor(PROBE_POOL_SIZE, PROBE_POOL_SIZE, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), daemonThreadFactory("docker-readiness-probe"));
+        ((ThreadPoolExecutor) probePool).allowCoreThreadTimeOut(true);
+    }
+
+    public static ContainerReadinessEngine getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    /**
+     * Blocks until {@code condition} reports that container is ready.
+     *
+     * @param containerId id of the container used in messages
+     * @param condition condition returning true when container is ready
+     * @param backoff delays between probes
+     * @param timeoutMillis how long to wait for the container, also the maximum time a single probe may take
+     * @param failFastCheck executed before every probe, may throw {@link RuntimeException} to stop waiting immediately
+     *        (for example when the container process died)
+     * @return statistics of executed probes
+     * @throws DockerTimeoutException if container was not ready in {@code timeoutMillis}
+     * @throws ContainerReadyConditionException if a single probe took longer than {@code timeoutMillis} or failed
+     * @throws InterruptedException if the calling thread was interrupted while waiting
+     */
+    public ProbeStatistics awaitReady(String containerId, ContainerReadyCondition condition, ReadinessBackoff backoff,
+            long timeoutMillis, Runnable failFastCheck) throws InterruptedException {
+        ReadinessTask task = new ReadinessTask(containerId, condition, backoff, timeoutMillis, failFastCheck);
+        task.scheduleProbe(0);
+        try {
+            return task.result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new DockerException(containerId + " - Waiting for container failed", e.getCause());
+        } finally {
+            task.cancel();
+        }
+    }
+
+    private final class ReadinessTask {
+        private final String containerId;
+        private final ContainerReadyCondition condition;
+        private final ReadinessBackoff backoff;
+        private final long timeoutMillis;
+        private final Runnable failFastCheck;
+        private final long startNanos = System.nanoTime();
+        private final CompletableFuture<ProbeStatistics> result = new CompletableFuture<>();
+
+        // probes of one task never overlap, executor hand-offs make these fields visible to the next probe
+        private long[] latencies = new long[16];
+        private int attempts;
+
+        private volatile Probe inFlightProbe;
+        private volatile ScheduledFuture<?> nextProbe;
+
+        private ReadinessTask(String containerId, ContainerReadyCondition condition, ReadinessBackoff backoff,
+                long timeoutMillis, Runnable failFastCheck) {
+            this.containerId = containerId;
+            this.condition = condition;
+            this.backoff = backoff;
+            this.timeoutMillis = timeoutMillis;
+            this.failFastCheck = failFastCheck;
+        }
+
+        private void scheduleProbe(long delayMillis) {
+            nextProbe = scheduler.schedule(this::submitProbe, delayMillis, TimeUnit.MILLISECONDS);
+        }
+
+        private void submitProbe() {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                failFastCheck.run();
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            Probe probe = new Probe();
+            inFlightProbe = probe;
+            probe.execution = probePool.submit(() -> probe(probe));
+            probe.watchdog = scheduler.schedule(() -> probeHangs(probe), timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        private void probe(Probe probe) {
+            long probeStart = System.nanoTime();
+            boolean ready;
+            try {
+                ready = condition.isReady();
+            } catch (RuntimeException e) {
+                if (probe.finish()) {
+                    result.completeExceptionally(new ContainerReadyConditionException(containerId
+                            + " - Provided ContainerReadyCondition.isReady() method threw an exception.", e));
+                }
+                return;
+            }
+            long now = System.nanoTime();
+            if (!probe.finish() || result.isDone()) {
+                // watchdog was faster or waiting was already cancelled
+                return;
+            }
+            recordLatency(now - probeStart);
+
+            if (ready) {
+                result.complete(new ProbeStatistics(containerId, now - startNanos, Arrays.copyOf(latencies, attempts)));
+                return;
+            }
+            long remainingMillis = timeoutMillis - TimeUnit.NANOSECONDS.toMillis(now - startNanos);
+            if (remainingMillis <= 0) {
+                result.completeExceptionally(new DockerTimeoutException(containerId + " - Container was not ready in "
+                        + timeoutMillis + " ms"));
+                return;
+            }
+            scheduleProbe(Math.min(backoff.nextDelayMillis(attempts - 1), remainingMillis));
+        }
+
+        private void probeHangs(Probe probe) {
+            if (!probe.finish()) {
+                return;
+            }
+            // in case condition hangs interrupt it so there are no zombie threads
+            probe.execution.cancel(true);
+            result.completeExceptionally(new ContainerReadyConditionException(containerId
+                    + " - Provided ContainerReadyCondition.isReady() method took " +
+                    "longer than containerReadyTimeout: " + timeoutMillis + " ms. Check it does not hang and does " +
+                    "not take longer then containerReadyTimeout. It's expected that ContainerReadyCondition.isReady() " +
+                    "method is short lived (takes less than 1 second).", new TimeoutException()));
+        }
+
+        private void recordLatency(long latencyNanos) {
+            if (attempts == latencies.length) {
+                latencies = Arrays.copyOf(latencies, attempts * 2);
+            }
+            latencies[attempts++] = latencyNanos;
+        }
+
+        private void cancel() {
+            result.cancel(false);
+            ScheduledFuture<?> scheduled = nextProbe;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+            Probe probe = inFlightProbe;
+            if (probe != null && probe.finish() && probe.execution != null) {
+                probe.execution.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Single execution of {@link ContainerReadyCondition#isReady()}. Either the probe itself or its watchdog finishes it,
+     * whichever comes first.
+     */
+    private static final class Probe {
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private volatile Future<?> execution;
+        private volatile ScheduledFuture<?> watchdog;
+
+        private boolean finish() {
+            if (!finished.compareAndSet(false, true)) {
+                return false;
+            }
+            ScheduledFuture<?> guard = watchdog;
+            if (guard != null) {
+                guard.cancel(false);
+            }
+            return true;
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
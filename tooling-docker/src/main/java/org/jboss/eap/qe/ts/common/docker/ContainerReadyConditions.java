@@ -0,0 +1,182 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Stock {@link ContainerReadyCondition} implementations.
+ * <p>
+ * HTTP conditions share one {@link HttpClient} which keeps connections alive between probes, so repeated probes do
+ * not pay for a new connection each time. Connect timeout is short (500 ms by default, see
+ * {@code docker.readiness.connect.timeout.ms} system property) as the probed container runs on local machine.
+ * <p>
+ * Prefer HTTP or log conditions over {@link #tcpPort(int)} where possible, an opened port does not mean that the
+ * service is ready to serve requests.
+ */
+public final class ContainerReadyConditions {
+
+    private static final String DEFAULT_HOST = "127.0.0.1";
+
+    private static final Duration CONNECT_TIMEOUT = Duration
+            .ofMillis(Long.getLong("docker.readiness.connect.timeout.ms", 500));
+
+    /**
+     * {@link ContainerReadyCondition#isReady()} is expected to finish in less than a second
+     */
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMillis(900);
+
+    private ContainerReadyConditions() {
+    }
+
+    /**
+     * @param port port on {@code 127.0.0.1}
+     * @return condition which is true once the port accepts connections
+     */
+    public static ContainerReadyCondition tcpPort(int port) {
+        return tcpPort(DEFAULT_HOST, port);
+    }
+
+    /**
+     * @param host host name or address
+     * @param port port
+     * @return condition which is true once the port accepts connections
+     */
+    public static ContainerReadyCondition tcpPort(String host, int port) {
+        return () -> {
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress(host, port), (int) CONNECT_TIMEOUT.toMillis());
+                return true;
+            } catch (IOException e) {
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param url URL to send GET request to
+     * @param expectedStatus expected HTTP status code
+     * @return condition which is true once GET request to {@code url} returns {@code expectedStatus}
+     */
+    public static ContainerReadyCondition httpStatus(String url, int expectedStatus) {
+        HttpRequest request = get(url);
+        return () -> {
+            HttpResponse<Void> response = send(request, HttpResponse.BodyHandlers.discarding());
+            return response != null && response.statusCode() == expectedStatus;
+        };
+    }
+
+    /**
+     * @param url URL to send GET request to
+     * @param bodyPattern pattern to find in response body
+     * @return condition which is true once GET request to {@code url} returns successful (2xx) response with body
+     *         containing match of {@code bodyPattern}
+     */
+    public static ContainerReadyCondition httpBodyMatches(String url, Pattern bodyPattern) {
+        HttpRequest request = get(url);
+        return () -> {
+            HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
+            return response != null && response.statusCode() / 100 == 2 && bodyPattern.matcher(response.body()).find();
+        };
+    }
+
+    /**
+     * Checks output of the container, the condition is bound to the container by {@link Docker.Builder#build()}.
+     *
+     * @param pattern pattern to find in a line printed by container
+     * @return condition which is true once container prints line containing match of {@code pattern}
+     * @throws DockerException from {@link ContainerReadyCondition#isReady()} if container output ends before the line
+     *         appears
+     */
+    public static ContainerReadyCondition logLine(Pattern pattern) {
+        return new LogLineCondition(pattern);
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+    }
+
+    private static <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) {
+        try {
+            return HttpClientHolder.CLIENT.send(request, bodyHandler);
+        } catch (IOException e) {
+            // connection refused, reset or timed out - not ready yet
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static final class HttpClientHolder {
+        // HTTP/1.1 avoids h2c upgrade attempts on plain connections, idle connections are kept alive and reused
+        private static final HttpClient CLIENT = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .build();
+    }
+
+    /**
+     * Waits for a line in {@link Docker#getLog()}. Matching is done by the log reader as lines come, so probes do not
+     * scan the log buffer.
+     */
+    static final class LogLineCondition implements ContainerReadyCondition {
+
+        private final Pattern pattern;
+        private volatile Supplier<ContainerLog> containerLog;
+        private ContainerLog log;
+        private CompletableFuture<String> line;
+
+        private LogLineCondition(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        /**
+         * @param containerLog provides log of the last started container, see {@link Docker#getLog()}
+         */
+        void bind(Supplier<ContainerLog> containerLog) {
+            this.containerLog = containerLog;
+        }
+
+        @Override
+        public synchronized boolean isReady() {
+            if (containerLog == null) {
+                throw new IllegalStateException("Log line condition is not bound to any container, it must be passed to "
+                        + "Docker.Builder.setContainerReadyCondition()");
+            }
+            ContainerLog currentLog = containerLog.get();
+            if (currentLog == null) {
+                return false;
+            }
+            if (currentLog != log) {
+                // container was (re)started
+                log = currentLog;
+                line = currentLog.lineMatching(pattern);
+            }
+            if (!line.isDone()) {
+                return false;
+            }
+            try {
+                line.get();
+                return true;
+            } catch (ExecutionException e) {
+                throw (RuntimeException) e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
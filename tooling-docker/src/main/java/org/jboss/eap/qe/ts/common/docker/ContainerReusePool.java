@@ -0,0 +1,140 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.fusesource.jansi.Ansi;
+
+/**
+ * Keeps containers of {@link Docker} instances built with {@link Docker.Builder#reusable()} running between tests.
+ * <p>
+ * Containers are keyed by {@link Docker#getReuseKey()} - hash of image, environment, ports, mounts, options and
+ * arguments. The first {@link Docker#start()} of a configuration really starts the container, next starts of the same
+ * configuration (also from different {@link Docker} instances) just attach to it. {@link Docker#stop()} only decreases
+ * number of references, the container is left running even without references so the next test class can attach to
+ * it. All pooled containers are stopped by a JVM shutdown hook. {@link Docker#kill()} really kills the container and
+ * evicts it from the pool. If a reused container does not get ready in time, the start fails without stopping it.
+ */
+final class ContainerReusePool {
+
+    private static final ContainerReusePool INSTANCE = new ContainerReusePool();
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private boolean shutdownHookRegistered;
+
+    private ContainerReusePool() {
+    }
+
+    static ContainerReusePool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Attaches {@code docker} to a running container with the same configuration or starts a new one.
+     */
+    void acquire(Docker docker) throws Exception {
+        registerShutdownHook();
+        Entry entry = entries.computeIfAbsent(docker.getReuseKey(), key -> new Entry());
+        // lock only the configuration so different containers can be started in parallel
+        synchronized (entry) {
+            if (entry.owner != null && entry.owner.isRunning()) {
+                docker.attachTo(entry.owner);
+                System.out.println(Ansi.ansi().reset().a("Reusing container ").fgCyan().a(entry.owner.getName()).reset()
+                        .a(" with ID ").fgYellow().a(entry.owner.getUuid()).reset()
+                        .a(" (references: " + (entry.references + 1) + ")"));
+                try {
+                    docker.awaitAttachedContainerReady();
+                } catch (Exception e) {
+                    // other instances may still use the container, it's left to its owner
+                    docker.detach();
+                    throw e;
+                }
+                entry.references++;
+                return;
+            }
+            if (entry.owner != null) {
+                // container died in the meantime, clean up after it
+                stopQuietly(entry.owner);
+                entry.owner = null;
+                entry.references = 0;
+            }
+            docker.startContainer();
+            entry.owner = docker;
+            entry.references = 1;
+        }
+    }
+
+    /**
+     * Releases one reference to the container of {@code docker}, the container is kept running.
+     *
+     * @return false if {@code docker} does not hold any pooled container
+     */
+    boolean release(Docker docker) {
+        Entry entry = entries.get(docker.getReuseKey());
+        if (entry == null) {
+            return false;
+        }
+        synchronized (entry) {
+            if (entry.owner == null || !entry.owner.getUuid().equals(docker.getUuid()) || entry.references == 0) {
+                return false;
+            }
+            entry.references--;
+            System.out.println(Ansi.ansi().reset().a("Container ").fgCyan().a(entry.owner.getName()).reset()
+                    .a(" with ID ").fgYellow().a(entry.owner.getUuid()).reset()
+                    .a(" released and kept running for reuse (references: " + entry.references + ")"));
+            return true;
+        }
+    }
+
+    /**
+     * Removes container of {@code docker} from the pool.
+     *
+     * @return owner of the pooled container which is responsible for killing it, null if there is no such container
+     */
+    Docker evict(Docker docker) {
+        Entry entry = entries.get(docker.getReuseKey());
+        if (entry == null) {
+            return null;
+        }
+        synchronized (entry) {
+            if (entry.owner == null || !entry.owner.getUuid().equals(docker.getUuid())) {
+                return null;
+            }
+            Docker owner = entry.owner;
+            entry.owner = null;
+            entry.references = 0;
+            return owner;
+        }
+    }
+
+    private synchronized void registerShutdownHook() {
+        if (shutdownHookRegistered) {
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            for (Entry entry : entries.values()) {
+                synchronized (entry) {
+                    if (entry.owner != null) {
+                        stopQuietly(entry.owner);
+                        entry.owner = null;
+                    }
+                }
+            }
+        }, "docker-reuse-pool-cleanup"));
+        shutdownHookRegistered = true;
+    }
+
+    private static void stopQuietly(Docker docker) {
+        try {
+            docker.stopContainer();
+        } catch (Exception e) {
+            System.out.println(Ansi.ansi().reset().a("Failed stopping container ").fgCyan().a(docker.getName()).reset()
+                    .a(" with ID ").fgYellow().a(docker.getUuid()).reset());
+        }
+    }
+
+    private static final class Entry {
+        private Docker owner;
+        private int references;
+    }
+}
@@ -0,0 +1,208 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tar archive of a directory of a running container, see {@link Docker#snapshot(String, String...)}.
+ * <p>
+ * The archive is kept on the host so it can be restored into a new container by {@link Docker#restoreOnStart}. The
+ * archive is extracted by a shell wrapping the image entrypoint, so the data are in place before the service in the
+ * container starts - for example a database finds initialized data directory and skips initialization. Image must
+ * contain {@code /bin/sh} and {@code tar}.
+ */
+public final class ContainerSnapshot {
+
+    /**
+     * Where the archive is mounted in the restored container
+     */
+    static final String ARCHIVE_MOUNT_PATH = "/.container-snapshot.tar";
+
+    private final String containerPath;
+    private final Path archive;
+
+    private ContainerSnapshot(String containerPath, Path archive) {
+        this.containerPath = containerPath;
+        this.archive = archive;
+    }
+
+    /**
+     * Archives {@code containerPath} of the running container by {@code tar}.
+     */
+    static ContainerSnapshot take(String containerId, String containerPath, String... excludes) throws Exception {
+        List<String> tar = new ArrayList<>(Arrays.asList("tar", "-C", containerPath, "-cf", "-"));
+        for (String exclude : excludes) {
+            tar.add("--exclude=" + exclude);
+        }
+        tar.add(".");
+        return take(containerId, containerPath, tar);
+    }
+
+    /**
+     * Archives {@code containerPath} of the running container by a command executed in the container which writes tar
+     * archive of the directory content to its standard output.
+     */
+    static ContainerSnapshot take(String containerId, String containerPath, List<String> archiveCommand)
+            throws Exception {
+        Path archive = Files.createTempFile("container-snapshot-", ".tar");
+        archive.toFile().deleteOnExit();
+
+        List<String> cmd = new ArrayList<>(Arrays.asList(Docker.DOCKER_CMD, "exec", containerId));
+        cmd.addAll(archiveCommand);
+        Path errors = Files.createTempFile("container-snapshot-", ".err");
+        try {
+            Process tar = new ProcessBuilder()
+                    .command(cmd)
+                    .redirectOutput(archive.toFile())
+                    .redirectError(errors.toFile())
+                    .start();
+            if (!tar.waitFor(5, TimeUnit.MINUTES)) {
+                tar.destroyForcibly();
+                throw new DockerTimeoutException(containerId + " - Snapshot of " + containerPath + " was not taken in 5 "
+                        + "minutes");
+            }
+            if (tar.exitValue() != 0) {
+                Files.deleteIfExists(archive);
+                throw new DockerException(containerId + " - Snapshot of " + containerPath + " failed: "
+                        + new String(Files.readAllBytes(errors), StandardCharsets.UTF_8).trim());
+            }
+        } finally {
+            Files.deleteIfExists(errors);
+        }
+        return new ContainerSnapshot(containerPath, archive);
+    }
+
+    /**
+     * @return directory in the container which was archived
+     */
+    public String getContainerPath() {
+        return containerPath;
+    }
+
+    /**
+     * @return tar archive on the host
+     */
+    public Path getArchive() {
+        return archive;
+    }
+
+    /**
+     * @return size of the archive in bytes
+     */
+    public long getSize() throws IOException {
+        return Files.size(archive);
+    }
+
+    /**
+     * Deletes the archive, the snapshot cannot be restored anymore.
+     */
+    public void delete() throws IOException {
+        Files.deleteIfExists(archive);
+    }
+
+    /**
+     * @return options for {@code docker run} mounting the archive and replacing image entrypoint by restoring shell
+     */
+    List<String> getRunOptions() {
+        return Arrays.asList("-v", archive.toAbsolutePath() + ":" + ARCHIVE_MOUNT_PATH + ":ro,Z",
+                "--entrypoint", "/bin/sh");
+    }
+
+    /**
+     * @param image image of the container
+     * @param commandArguments arguments given to the container, image CMD is used if empty
+     * @return arguments for {@code /bin/sh} extracting the archive and executing original entrypoint
+     */
+    List<String> getRunArguments(String image, List<String> commandArguments) throws Exception {
+        List<String> arguments = new ArrayList<>();
+        arguments.add("-c");
+        // -p keeps permissions also for non-root user, databases usually check permissions of the data directory
+        arguments.add("mkdir -p '" + containerPath + "' && tar -C '" + containerPath + "' -xpf " + ARCHIVE_MOUNT_PATH
+                + " && exec \"$@\"");
+        // $0 of the script
+        arguments.add("sh");
+        arguments.addAll(inspectImage(image, "Entrypoint"));
+        arguments.addAll(commandArguments.isEmpty() ? inspectImage(image, "Cmd") : commandArguments);
+        return arguments;
+    }
+
+    private static List<String> inspectImage(String image, String field) throws Exception {
+        Process inspect = new ProcessBuilder()
+                .redirectErrorStream(true)
+                .command(Docker.DOCKER_CMD, "image", "inspect", "--format", "{{json .Config." + field + "}}", image)
+                .start();
+        String output;
+        try (InputStream in = inspect.getInputStream()) {
+            output = new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+        }
+        if (inspect.waitFor() != 0) {
+            throw new DockerException("Inspecting " + field + " of image " + image + " failed: " + output);
+        }
+        return parseStringArray(output);
+    }
+
+    /**
+     * Parses JSON array of strings as printed by {@code docker image inspect}, for example
+     * {@code ["container-entrypoint"]} or {@code null}.
+     */
+    static List<String> parseStringArray(String json) {
+        if (json.isEmpty() || json.equals("null") || json.equals("[]")) {
+            return Collections.emptyList();
+        }
+        if (!json.startsWith("[") || !json.endsWith("]")) {
+            throw new IllegalArgumentException("Not a JSON array: " + json);
+        }
+        List<String> values = new ArrayList<>();
+        StringBuilder value = null;
+        for (int i = 1; i < json.length() - 1; i++) {
+            char c = json.charAt(i);
+            if (value == null) {
+                if (c == '"') {
+                    value = new StringBuilder();
+                }
+                // skip separators and white spaces between values
+                continue;
+            }
+            if (c == '"') {
+                values.add(value.toString());
+                value = null;
+            } else if (c == '\\') {
+                char escaped = json.charAt(++i);
+                switch (escaped) {
+                    case 'n':
+                        value.append('\n');
+                        break;
+                    case 't':
+                        value.append('\t');
+                        break;
+                    case 'r':
+                        value.append('\r');
+                        break;
+                    case 'b':
+                        value.append('\b');
+                        break;
+                    case 'f':
+                        value.append('\f');
+                        break;
+                    case 'u':
+                        value.append((char) Integer.parseInt(json.substring(i + 1, i + 5), 16));
+                        i += 4;
+                        break;
+                    default:
+                        value.append(escaped);
+                }
+            } else {
+                value.append(c);
+            }
+        }
+        return values;
+    }
+}
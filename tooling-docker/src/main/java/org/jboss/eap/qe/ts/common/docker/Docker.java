@@ -1,22 +1,27 @@
 package org.jboss.eap.qe.ts.common.docker;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
 
 import org.fusesource.jansi.Ansi;
 import org.junit.rules.ExternalResource;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
 
 /**
  * Utility class for starting docker containers. This class allows to start any docker container.
@@ -26,6 +31,8 @@ import org.junit.rules.ExternalResource;
 public class Docker extends ExternalResource {
 
     private String uuid;
+    // ID of container started by this instance, uuid differs while this instance is attached to a pooled container
+    private String ownUuid;
     private String name;
     private String image;
     private List<String> volumeMounts = new ArrayList<>();
@@ -33,8 +40,15 @@ public class Docker extends ExternalResource {
     private Map<String, String> environmentVariables = new HashMap<>();
     private List<String> options = new ArrayList<>();
     private List<String> commandArguments = new ArrayList<>();
+    private List<String> tmpfsMounts = new ArrayList<>();
+    private ContainerSnapshot restoreSnapshot;
     private ContainerReadyCondition containerReadyCondition;
+    private ReadinessBackoff containerReadyBackoff;
     private long containerReadyTimeout;
+    private boolean reusable;
+    private int logBufferSize;
+    private Path logFile;
+    private ContainerLog containerLog;
     private ExecutorService outputPrinter;
     private Process dockerRunProcess;
 
@@ -43,10 +57,45 @@ public class Docker extends ExternalResource {
     private Docker() {
     } // avoid instantiation, use Builder
 
+    /**
+     * @return name of the container as given to {@link Builder}
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return image of the container
+     */
+    public String getImage() {
+        return image;
+    }
+
+    String getUuid() {
+        return uuid;
+    }
+
+    /**
+     * Starts the container and waits until it's ready. If this instance was built with {@link Builder#reusable()} and
+     * container with the same configuration is already running, it's reused instead.
+     */
     public void start() throws Exception {
+        if (reusable) {
+            ContainerReusePool.getInstance().acquire(this);
+        } else {
+            startContainer();
+        }
+    }
+
+    void startContainer() throws Exception {
 
         checkDockerPresent();
 
+        // pulling of image is not part of the container ready timeout, other known images are pulled in the meantime
+        ImageCache imageCache = ImageCache.getInstance();
+        imageCache.prePull();
+        imageCache.ensurePulled(image);
+
         List<String> cmd = new ArrayList<>();
 
         cmd.add(DOCKER_CMD);
@@ -69,75 +118,197 @@ public class Docker extends ExternalResource {
             cmd.add(envVar.getKey() + "=" + envVar.getValue());
         }
 
+        for (String tmpfsMount : tmpfsMounts) {
+            cmd.add("--tmpfs");
+            cmd.add(tmpfsMount);
+        }
+
         cmd.addAll(options);
 
+        if (restoreSnapshot != null) {
+            cmd.addAll(restoreSnapshot.getRunOptions());
+        }
+
         cmd.add(image);
 
-        cmd.addAll(commandArguments);
+        cmd.addAll(restoreSnapshot != null ? restoreSnapshot.getRunArguments(image, commandArguments) : commandArguments);
 
         System.out.println(Ansi.ansi().reset().a("Starting container ").fgCyan().a(name).reset()
                 .a(" with ID ").fgYellow().a(uuid).reset());
 
+        long bootStart = System.nanoTime();
         dockerRunProcess = new ProcessBuilder()
                 .redirectErrorStream(true)
                 .command(cmd)
                 .start();
-        outputPrinter = Executors.newSingleThreadExecutor();
-        outputPrinter.execute(() -> {
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(dockerRunProcess.getInputStream(), StandardCharsets.UTF_8))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    System.out.println(Ansi.ansi().fgCyan().a(name).reset().a("> ").a(line));
+        outputPrinter = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "docker-output-" + name);
+            // pooled container outlives the test, it must not prevent JVM from exiting and running the cleanup hook
+            thread.setDaemon(reusable);
+            return thread;
+        });
+        containerLog = new ContainerLog(name, logBufferSize, logFile);
+        ContainerLog log = containerLog;
+        Process process = dockerRunProcess;
+        outputPrinter.execute(() -> log.consume(process.getInputStream()));
+
+        try {
+            awaitContainerReady(true, () -> {
+                // fail fast mechanism in case of malformed docker command, for example bad arguments, invalid format of port mapping, image version,...
+                if (!dockerRunProcess.isAlive() && dockerRunProcess.exitValue() != 0) {
+                    throw new DockerException(uuid + " - Starting of docker container using command: \""
+                            + String.join(" ", cmd) + "\" failed. Check that provided command is correct.");
                 }
-            } catch (IOException ignored) {
-                // ignore as any stop of docker container breaks the reader stream
-                // note that shutdown of docker would be already logged
-            }
+            });
+        } catch (RuntimeException ex) {
+            log.dump(System.out);
+            throw ex;
+        }
+        imageCache.recordBoot(image, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - bootStart));
+    }
+
+    /**
+     * Waits until container attached by {@link #attachTo(Docker)} is ready. The container is not stopped if it does not
+     * get ready in time, it's owned by another instance.
+     */
+    void awaitAttachedContainerReady() throws Exception {
+        awaitContainerReady(false, () -> {
         });
+    }
 
-        long startTime = System.currentTimeMillis();
-        while (!isContainerReady()) {
-            if (System.currentTimeMillis() - startTime > containerReadyTimeout) {
-                stop();
-                throw new DockerTimeoutException(uuid + " - Container was not ready in " + containerReadyTimeout + " ms");
-            }
-            // fail fast mechanism in case of malformed docker command, for example bad arguments, invalid format of port mapping, image version,...
-            if (!dockerRunProcess.isAlive() && dockerRunProcess.exitValue() != 0) {
-                throw new DockerException(uuid + " - Starting of docker container using command: \"" + String.join(" ", cmd)
-                        + "\" failed. Check that provided command is correct.");
+    private void awaitContainerReady(boolean stopOnFailure, Runnable failFastCheck) throws Exception {
+        ProbeStatistics probeStatistics;
+        try {
+            probeStatistics = ContainerReadinessEngine.getInstance().awaitReady(uuid, containerReadyCondition,
+                    containerReadyBackoff, containerReadyTimeout, failFastCheck);
+        } catch (DockerTimeoutException | ContainerReadyConditionException ex) {
+            if (stopOnFailure) {
+                stopContainer();
             }
+            throw ex;
         }
+        System.out.println(Ansi.ansi().reset().a("Container ").fgCyan().a(name).reset()
+                .a(" with ID ").fgYellow().a(uuid).reset().a(" is " + probeStatistics));
     }
 
-    private boolean isContainerReady() throws Exception {
-        CompletableFuture<Boolean> condition = new CompletableFuture().supplyAsync(() -> containerReadyCondition.isReady());
-        try {
-            return condition.get(containerReadyTimeout, TimeUnit.MILLISECONDS);
-        } catch (TimeoutException ex) {
-            stop();
-            // in case condition hangs interrupt it so there are no zombie threads
-            condition.cancel(true);
+    /**
+     * Makes this instance control container started by {@code owner}, used by {@link ContainerReusePool}.
+     */
+    void attachTo(Docker owner) {
+        this.uuid = owner.uuid;
+        this.containerLog = owner.containerLog;
+    }
+
+    /**
+     * Reverts {@link #attachTo(Docker)}, container of the owner is left untouched.
+     */
+    void detach() {
+        this.uuid = ownUuid;
+        this.containerLog = null;
+    }
+
+    /**
+     * Archives directory of the running container, typically a data directory mounted by
+     * {@link Builder#withTmpfs(String, int)}. Files are archived one by one while the container is running, so use
+     * {@link #snapshot(String, List)} with a backup tool of the service if it keeps writing to the directory - a
+     * database copied by {@code tar} may not start from the snapshot.
+     *
+     * @param containerPath directory in the container
+     * @param excludes patterns of files which should not be archived, for example lock files like "postmaster.pid"
+     * @return snapshot which can be restored by {@link #restoreOnStart(ContainerSnapshot)}
+     */
+    public ContainerSnapshot snapshot(String containerPath, String... excludes) throws Exception {
+        long start = System.nanoTime();
+        return logSnapshot(containerPath, start, ContainerSnapshot.take(uuid, containerPath, excludes));
+    }
 
-            throw new ContainerReadyConditionException(uuid + " - Provided ContainerReadyCondition.isReady() method took " +
-                    "longer than containerReadyTimeout: " + containerReadyTimeout + " ms. Check it does not hang and does " +
-                    "not take longer then containerReadyTimeout. It's expected that ContainerReadyCondition.isReady() method " +
-                    "is short lived (takes less than 1 second).", ex);
+    /**
+     * Archives directory of the running container by a command executed in the container, for example a backup tool
+     * which copies data of a running database consistently.
+     *
+     * @param containerPath directory in the container where the archive is extracted on restore
+     * @param archiveCommand command writing tar archive of the directory content to its standard output
+     * @return snapshot which can be restored by {@link #restoreOnStart(ContainerSnapshot)}
+     */
+    public ContainerSnapshot snapshot(String containerPath, List<String> archiveCommand) throws Exception {
+        long start = System.nanoTime();
+        return logSnapshot(containerPath, start, ContainerSnapshot.take(uuid, containerPath, archiveCommand));
+    }
+
+    private ContainerSnapshot logSnapshot(String containerPath, long start, ContainerSnapshot snapshot)
+            throws IOException {
+        System.out.println(Ansi.ansi().reset().a("Snapshot of ").fgCyan().a(containerPath).reset().a(" in container ")
+                .fgCyan().a(name).reset().a(" taken in ")
+                .fgYellow().a(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms").reset()
+                .a(" (" + snapshot.getSize() + " bytes)"));
+        return snapshot;
+    }
+
+    /**
+     * Every next {@link #start()} extracts the snapshot into the new container before the image entrypoint is
+     * executed, so the container starts from a known state. Useful together with {@link Builder#withTmpfs(String, int)}
+     * whose content is lost when container is stopped.
+     *
+     * @param snapshot snapshot to restore, null to start containers without restoring
+     */
+    public void restoreOnStart(ContainerSnapshot snapshot) {
+        this.restoreSnapshot = snapshot;
+    }
+
+    /**
+     * Waits until container prints line containing match of {@code pattern}. Lines printed before this method was
+     * called are checked as well as long as they are still held in the log buffer.
+     *
+     * @param pattern pattern to find in a line
+     * @param timeout how long to wait
+     * @return first matching line
+     * @throws DockerTimeoutException if no such line appeared in {@code timeout}
+     */
+    public String waitForLogLine(Pattern pattern, Duration timeout) throws InterruptedException {
+        if (containerLog == null) {
+            throw new IllegalStateException(uuid + " - Container was not started");
         }
+        return containerLog.waitForLine(pattern, timeout);
     }
 
-    public static void checkDockerPresent() throws Exception {
-        Process dockerInfoProcess = new ProcessBuilder()
-                .redirectErrorStream(true)
-                .command(new String[] { DOCKER_CMD, "info" })
-                .start();
-        dockerInfoProcess.waitFor();
-        if (dockerInfoProcess.exitValue() != 0) {
-            throw new DockerException("Docker is either not present or not installed on this machine. It must be installed " +
-                    "and started up for executing tests with docker container.");
+    /**
+     * @return output of the last started container or null if container was not started yet
+     */
+    public ContainerLog getLog() {
+        return containerLog;
+    }
+
+    /**
+     * @return hash of the container configuration, containers with the same key can be reused by
+     *         {@link ContainerReusePool}
+     */
+    String getReuseKey() {
+        StringBuilder configuration = new StringBuilder();
+        configuration.append("image=").append(image).append('\n');
+        new TreeMap<>(environmentVariables).forEach((key, value) -> configuration.append("env=").append(key).append('=')
+                .append(value).append('\n'));
+        ports.forEach(port -> configuration.append("port=").append(port).append('\n'));
+        volumeMounts.forEach(volumeMount -> configuration.append("volume=").append(volumeMount).append('\n'));
+        options.forEach(option -> configuration.append("option=").append(option).append('\n'));
+        commandArguments.forEach(argument -> configuration.append("arg=").append(argument).append('\n'));
+        tmpfsMounts.forEach(tmpfsMount -> configuration.append("tmpfs=").append(tmpfsMount).append('\n'));
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(configuration.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder();
+            for (byte b : hash) {
+                key.append(String.format("%02x", b));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
         }
     }
 
+    public static void checkDockerPresent() throws Exception {
+        DockerClientProvider.getDockerClient().checkDockerPresent();
+    }
+
     public static boolean isDockerAvailable() {
         try {
             Docker.checkDockerPresent();
@@ -151,62 +322,82 @@ public class Docker extends ExternalResource {
      * @return Returns true if docker container is running. It does NOT check whether container is ready.
      */
     public boolean isRunning() throws Exception {
-        Process dockerRunProcess = new ProcessBuilder()
-                .redirectErrorStream(true)
-                .command(new String[] { DOCKER_CMD, "ps" })
-                .start();
-
-        dockerRunProcess.waitFor();
+        return DockerClientProvider.getDockerClient().isRunning(uuid);
+    }
 
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(dockerRunProcess.getInputStream(), StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.contains(uuid)) {
-                    return true;
-                }
-            }
-        } catch (IOException ignored) {
-            // ignore as any stop of docker container breaks the reader stream
-            // note that shutdown of docker would be already logged
+    /**
+     * Stops and removes the container. Container of instance built with {@link Builder#reusable()} is only released
+     * and kept running, see {@link ContainerReusePool}.
+     */
+    public void stop() throws Exception {
+        if (reusable && ContainerReusePool.getInstance().release(this)) {
+            return;
         }
-        return false;
+        stopContainer();
     }
 
-    public void stop() throws Exception {
+    void stopContainer() throws Exception {
         System.out.println(Ansi.ansi().reset().a("Stopping container ").fgCyan().a(name).reset()
                 .a(" with ID ").fgYellow().a(uuid).reset());
 
-        new ProcessBuilder()
-                .command(DOCKER_CMD, "stop", uuid)
-                .start()
-                .waitFor(10, TimeUnit.SECONDS);
+        DockerClientProvider.getDockerClient().stop(uuid);
         terminateThreadPools();
         removeDockerContainer();
     }
 
+    /**
+     * Kills and removes the container. Container of instance built with {@link Builder#reusable()} is killed as well and
+     * removed from {@link ContainerReusePool}.
+     */
     public void kill() throws Exception {
+        if (reusable) {
+            Docker owner = ContainerReusePool.getInstance().evict(this);
+            if (owner != null && owner != this) {
+                owner.kill();
+                return;
+            }
+        }
         System.out.println(Ansi.ansi().reset().a("Killing container ").fgCyan().a(name).reset()
                 .a(" with ID ").fgYellow().a(uuid).reset());
 
-        new ProcessBuilder()
-                .command(DOCKER_CMD, "kill", uuid)
-                .start()
-                .waitFor(10, TimeUnit.SECONDS);
+        DockerClientProvider.getDockerClient().kill(uuid);
         terminateThreadPools();
         removeDockerContainer();
     }
 
     private void terminateThreadPools() throws Exception {
+        if (outputPrinter == null) {
+            // container attached from ContainerReusePool, output is printed by its owner
+            return;
+        }
         outputPrinter.shutdown();
         outputPrinter.awaitTermination(10, TimeUnit.SECONDS);
     }
 
     private void removeDockerContainer() throws Exception {
-        new ProcessBuilder()
-                .command(DOCKER_CMD, "rm", uuid)
-                .start()
-                .waitFor(10, TimeUnit.SECONDS);
+        DockerClientProvider.getDockerClient().remove(uuid);
+    }
+
+    /**
+     * Prints buffered container output if a test fails.
+     */
+    @Override
+    public Statement apply(Statement base, Description description) {
+        Statement statement = super.apply(base, description);
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                try {
+                    statement.evaluate();
+                } catch (Throwable t) {
+                    if (containerLog != null) {
+                        System.out.println(Ansi.ansi().reset().a(description.getDisplayName()).a(" failed"));
+                        containerLog.dump(System.out);
+                    }
+                    throw t;
+                }
+            }
+        };
     }
 
     @Override
@@ -241,7 +432,13 @@ public class Docker extends ExternalResource {
         private Map<String, String> environmentVariables = new HashMap<>();
         private List<String> options = new ArrayList<>();
         private List<String> commandArguments = new ArrayList<>();
+        private List<String> tmpfsMounts = new ArrayList<>();
         private long containerReadyTimeoutInMillis = 120_000; // 2 minutes
+        private ReadinessBackoff containerReadyBackoff = ReadinessBackoff.DEFAULT;
+
+        private boolean reusable;
+        private int logBufferSizeInKb = Integer.getInteger("docker.log.buffer.kb", 256);
+        private Path logFile;
 
         // by default - do not make any check
         private ContainerReadyCondition containerReadyCondition = () -> true;
@@ -250,6 +447,10 @@ public class Docker extends ExternalResource {
             this.uuid = name + "-" + UUID.randomUUID().toString();
             this.name = name;
             this.image = image;
+            String logDirectory = System.getProperty("docker.log.dir");
+            if (logDirectory != null && !logDirectory.isEmpty()) {
+                this.logFile = Paths.get(logDirectory, uuid + ".log");
+            }
         }
 
         /**
@@ -263,6 +464,16 @@ public class Docker extends ExternalResource {
             return this;
         }
 
+        /**
+         * Delays between two checks of container ready condition. Default is {@link ReadinessBackoff#DEFAULT}.
+         *
+         * @param containerReadyBackoff backoff used between container ready condition checks
+         */
+        public Builder setContainerReadyBackoff(ReadinessBackoff containerReadyBackoff) {
+            this.containerReadyBackoff = containerReadyBackoff;
+            return this;
+        }
+
         /**
          * Adds volume mount mapping exposed by docker container. for example "/home/user/dir:/etc/dir" maps
          * /home/user/dir in the container to /etc/dir on the Docker host.
@@ -274,6 +485,20 @@ public class Docker extends ExternalResource {
             return this;
         }
 
+        /**
+         * Mounts in-memory file system into the container. Writes (including fsync) do not touch disk, which makes
+         * data directories of databases much faster. Content is lost when container stops, see
+         * {@link Docker#snapshot(String, String...)} to restore known state on start.
+         *
+         * @param containerPath directory in the container
+         * @param sizeInMb maximal size of the file system in megabytes
+         */
+        public Builder withTmpfs(String containerPath, int sizeInMb) {
+            // mode=1777 so images running as non-root user can write there
+            this.tmpfsMounts.add(containerPath + ":rw,size=" + sizeInMb + "m,mode=1777");
+            return this;
+        }
+
         /**
          * Adds port mapping exposed by docker container. For example "8080:80" maps
          * port 80 in the container to port 8080 on the Docker host.
@@ -328,6 +553,41 @@ public class Docker extends ExternalResource {
             return this;
         }
 
+        /**
+         * How much of container output is kept in memory, older output is dropped. Default is 256 kB or value of
+         * {@code docker.log.buffer.kb} system property.
+         *
+         * @param sizeInKb size of the log buffer in kilobytes
+         */
+        public Builder setLogBufferSize(int sizeInKb) {
+            this.logBufferSizeInKb = sizeInKb;
+            return this;
+        }
+
+        /**
+         * Writes the whole container output into given file. By default output is written only if
+         * {@code docker.log.dir} system property is set, into {@code <docker.log.dir>/<name>-<uuid>.log}.
+         *
+         * @param logFile file to write the log into
+         */
+        public Builder withLogFile(Path logFile) {
+            this.logFile = logFile;
+            return this;
+        }
+
+        /**
+         * Container can be shared by tests. If a container with the same image, environment variables, ports, volume
+         * mounts, options and arguments is already running, {@link Docker#start()} attaches to it instead of starting
+         * a new one and {@link Docker#stop()} leaves the container running for the next test. Pooled containers are
+         * stopped when JVM exits.
+         * <p>
+         * Use only for containers whose state does not influence other tests.
+         */
+        public Builder reusable() {
+            this.reusable = true;
+            return this;
+        }
+
         /**
          * Builds instance of Docker class.
          *
@@ -336,6 +596,7 @@ public class Docker extends ExternalResource {
         public Docker build() {
             Docker docker = new Docker();
             docker.uuid = this.uuid;
+            docker.ownUuid = this.uuid;
             docker.name = this.name;
             docker.image = this.image;
             docker.volumeMounts = this.volumeMounts;
@@ -343,8 +604,17 @@ public class Docker extends ExternalResource {
             docker.options = this.options;
             docker.environmentVariables = this.environmentVariables;
             docker.commandArguments = this.commandArguments;
+            docker.tmpfsMounts = this.tmpfsMounts;
             docker.containerReadyCondition = containerReadyCondition;
+            ImageCache.getInstance().register(image);
+            if (containerReadyCondition instanceof ContainerReadyConditions.LogLineCondition) {
+                ((ContainerReadyConditions.LogLineCondition) containerReadyCondition).bind(docker::getLog);
+            }
+            docker.containerReadyBackoff = containerReadyBackoff;
             docker.containerReadyTimeout = containerReadyTimeoutInMillis;
+            docker.reusable = reusable;
+            docker.logBufferSize = logBufferSizeInKb * 1024;
+            docker.logFile = logFile;
             return docker;
         }
     }
@@ -0,0 +1,109 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DockerClient} forking docker command line tool for every operation.
+ */
+public class DockerCliClient implements DockerClient {
+
+    private final String dockerCommand;
+
+    /**
+     * @param dockerCommand docker command, for example "docker" or "podman"
+     */
+    public DockerCliClient(String dockerCommand) {
+        this.dockerCommand = dockerCommand;
+    }
+
+    @Override
+    public void checkDockerPresent() throws Exception {
+        Process dockerInfoProcess = new ProcessBuilder()
+                .redirectErrorStream(true)
+                .command(new String[] { dockerCommand, "info" })
+                .start();
+        dockerInfoProcess.waitFor();
+        if (dockerInfoProcess.exitValue() != 0) {
+            throw new DockerException("Docker is either not present or not installed on this machine. It must be installed " +
+                    "and started up for executing tests with docker container.");
+        }
+    }
+
+    @Override
+    public boolean isRunning(String containerName) throws Exception {
+        Process dockerRunProcess = new ProcessBuilder()
+                .redirectErrorStream(true)
+                .command(new String[] { dockerCommand, "ps" })
+                .start();
+
+        dockerRunProcess.waitFor();
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(dockerRunProcess.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.contains(containerName)) {
+                    return true;
+                }
+            }
+        } catch (IOException ignored) {
+            // ignore as any stop of docker container breaks the reader stream
+            // note that shutdown of docker would be already logged
+        }
+        return false;
+    }
+
+    @Override
+    public void stop(String containerName) throws Exception {
+        new ProcessBuilder()
+                .command(dockerCommand, "stop", containerName)
+                .start()
+                .waitFor(10, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void kill(String containerName) throws Exception {
+        new ProcessBuilder()
+                .command(dockerCommand, "kill", containerName)
+                .start()
+                .waitFor(10, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void remove(String containerName) throws Exception {
+        new ProcessBuilder()
+                .command(dockerCommand, "rm", containerName)
+                .start()
+                .waitFor(10, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public boolean isImagePresent(String image) throws Exception {
+        Process inspectProcess = new ProcessBuilder()
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .command(dockerCommand, "image", "inspect", image)
+                .start();
+        return inspectProcess.waitFor() == 0;
+    }
+
+    @Override
+    public void pull(String image) throws Exception {
+        Process pullProcess = new ProcessBuilder()
+                .redirectErrorStream(true)
+                .command(dockerCommand, "pull", image)
+                .start();
+        String output;
+        try (InputStream in = pullProcess.getInputStream()) {
+            output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        if (pullProcess.waitFor() != 0) {
+            throw new DockerException("Pulling of image " + image + " failed: " + output.trim());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+/**
+ * Control operations on docker containers. Use {@link DockerClientProvider} to get instance configured for current
+ * environment.
+ * <p>
+ * Containers are referenced by the name they were started with (see {@code docker run --name}).
+ */
+public interface DockerClient {
+
+    /**
+     * Checks that docker is installed and running.
+     *
+     * @throws DockerException if docker is not present
+     */
+    void checkDockerPresent() throws Exception;
+
+    /**
+     * @param containerName name of the container
+     * @return true if container is running, it does NOT check whether container is ready
+     */
+    boolean isRunning(String containerName) throws Exception;
+
+    /**
+     * Gracefully stops container, container is killed if it does not stop in 10 seconds.
+     *
+     * @param containerName name of the container
+     */
+    void stop(String containerName) throws Exception;
+
+    /**
+     * Kills container (SIGKILL).
+     *
+     * @param containerName name of the container
+     */
+    void kill(String containerName) throws Exception;
+
+    /**
+     * Removes stopped container.
+     *
+     * @param containerName name of the container
+     */
+    void remove(String containerName) throws Exception;
+
+    /**
+     * @param image image reference, for example "quay.io/wildfly/wildfly:latest"
+     * @return true if the image is present in local image store
+     */
+    boolean isImagePresent(String image) throws Exception;
+
+    /**
+     * Pulls image from registry.
+     *
+     * @param image image reference, for example "quay.io/wildfly/wildfly:latest"
+     * @throws DockerException if the image could not be pulled
+     */
+    void pull(String image) throws Exception;
+}
@@ -0,0 +1,51 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Provides {@link DockerClient} used by {@link Docker} for container control operations.
+ * <p>
+ * Client is selected by {@code docker.client} system property:
+ * <ul>
+ * <li>{@code cli} (default) - forks {@link Docker#DOCKER_CMD} for every operation</li>
+ * <li>{@code socket} - talks to Docker Engine REST API over unix socket given by {@code docker.socket} system property
+ * (default {@code /var/run/docker.sock}). Requires JDK 16+, falls back to {@code cli} if the JDK does not support unix
+ * domain sockets or the socket does not exist.</li>
+ * </ul>
+ * Note that {@code docker run} is always executed by {@link Docker#DOCKER_CMD} so container output can be printed.
+ */
+public class DockerClientProvider {
+
+    public static final String DOCKER_CLIENT = System.getProperty("docker.client", "cli");
+    public static final String DOCKER_SOCKET = System.getProperty("docker.socket", "/var/run/docker.sock");
+
+    private static final DockerClient INSTANCE = createDockerClient();
+
+    private DockerClientProvider() {
+    } // avoid instantiation
+
+    /**
+     * @return docker client selected by system properties
+     */
+    public static DockerClient getDockerClient() {
+        return INSTANCE;
+    }
+
+    private static DockerClient createDockerClient() {
+        if ("socket".equals(DOCKER_CLIENT)) {
+            if (!DockerEngineApiClient.isUnixSocketSupported()) {
+                System.out.println("Unix domain sockets are not supported by this JDK, falling back to " +
+                        Docker.DOCKER_CMD + " command line client");
+            } else if (!Files.exists(Paths.get(DOCKER_SOCKET))) {
+                System.out.println("Docker socket " + DOCKER_SOCKET + " does not exist, falling back to " +
+                        Docker.DOCKER_CMD + " command line client");
+            } else {
+                return DockerEngineApiClient.unixSocket(DOCKER_SOCKET);
+            }
+        } else if (!"cli".equals(DOCKER_CLIENT)) {
+            throw new IllegalArgumentException("Unknown docker.client: " + DOCKER_CLIENT + ", use \"cli\" or \"socket\"");
+        }
+        return new DockerCliClient(Docker.DOCKER_CMD);
+    }
+}
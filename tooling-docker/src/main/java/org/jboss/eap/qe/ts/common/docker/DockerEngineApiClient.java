@@ -0,0 +1,316 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * {@link DockerClient} talking to Docker Engine REST API (also provided by Podman) directly, without forking docker
+ * command line tool.
+ * <p>
+ * Each operation is a single HTTP/1.1 request with {@code Connection: close} sent over a fresh connection provided by
+ * {@link Connector}. Use {@link #unixSocket(String)} to connect to local docker daemon.
+ */
+public class DockerEngineApiClient implements DockerClient {
+
+    /**
+     * Seconds given to container to stop before it's killed, the same as docker command line default
+     */
+    private static final int STOP_TIMEOUT_SECONDS = 10;
+
+    /*
+     * java.net.UnixDomainSocketAddress and SocketChannel.open(ProtocolFamily) are available since JDK 16, the test suite
+     * is compiled for JDK 11 thus they are looked up reflectively
+     */
+    private static final Method UNIX_ADDRESS_OF;
+    private static final Method SOCKET_CHANNEL_OPEN;
+    private static final ProtocolFamily UNIX_PROTOCOL_FAMILY;
+
+    static {
+        Method addressOf = null;
+        Method channelOpen = null;
+        ProtocolFamily unix = null;
+        try {
+            addressOf = Class.forName("java.net.UnixDomainSocketAddress").getMethod("of", String.class);
+            channelOpen = SocketChannel.class.getMethod("open", ProtocolFamily.class);
+            unix = StandardProtocolFamily.valueOf("UNIX");
+        } catch (ReflectiveOperationException | IllegalArgumentException e) {
+            // JDK < 16
+        }
+        UNIX_ADDRESS_OF = addressOf;
+        SOCKET_CHANNEL_OPEN = channelOpen;
+        UNIX_PROTOCOL_FAMILY = unix;
+    }
+
+    /**
+     * Opens new connection to docker daemon.
+     */
+    @FunctionalInterface
+    public interface Connector {
+        ByteChannel connect() throws IOException;
+    }
+
+    private final Connector connector;
+
+    public DockerEngineApiClient(Connector connector) {
+        this.connector = connector;
+    }
+
+    /**
+     * @return true if running JDK supports unix domain socket channels (JDK 16+)
+     */
+    public static boolean isUnixSocketSupported() {
+        return UNIX_ADDRESS_OF != null && SOCKET_CHANNEL_OPEN != null && UNIX_PROTOCOL_FAMILY != null;
+    }
+
+    /**
+     * @param socketPath path to docker daemon unix socket, usually {@code /var/run/docker.sock}
+     * @return client connected to docker daemon over unix socket
+     */
+    public static DockerEngineApiClient unixSocket(String socketPath) {
+        if (!isUnixSocketSupported()) {
+            throw new DockerException("Unix domain sockets require JDK 16 or newer, running on "
+                    + System.getProperty("java.version"));
+        }
+        return new DockerEngineApiClient(() -> {
+            try {
+                SocketAddress address = (SocketAddress) UNIX_ADDRESS_OF.invoke(null, socketPath);
+                SocketChannel channel = (SocketChannel) SOCKET_CHANNEL_OPEN.invoke(null, UNIX_PROTOCOL_FAMILY);
+                try {
+                    channel.connect(address);
+                } catch (IOException e) {
+                    channel.close();
+                    throw e;
+                }
+                return channel;
+            } catch (IllegalAccessException e) {
+                throw new IOException("Cannot open unix socket " + socketPath, e);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException("Cannot open unix socket " + socketPath, e.getCause());
+            }
+        });
+    }
+
+    @Override
+    public void checkDockerPresent() throws Exception {
+        try {
+            Response response = execute("GET", "/_ping");
+            if (response.status == 200) {
+                return;
+            }
+        } catch (IOException ignored) {
+            // docker is not running
+        }
+        throw new DockerException("Docker is either not present or not installed on this machine. It must be installed " +
+                "and started up for executing tests with docker container.");
+    }
+
+    @Override
+    public boolean isRunning(String containerName) throws Exception {
+        Response response = execute("GET", "/containers/" + encode(containerName) + "/json");
+        if (response.status == 404) {
+            return false;
+        }
+        checkStatus(response, "inspect", containerName);
+        // {"Id":"...","State":{"Status":"running","Running":true,...},...}
+        return response.body.replace(" ", "").contains("\"Running\":true");
+    }
+
+    @Override
+    public void stop(String containerName) throws Exception {
+        // 304 - already stopped, 404 - no such container
+        checkStatus(execute("POST", "/containers/" + encode(containerName) + "/stop?t=" + STOP_TIMEOUT_SECONDS),
+                "stop", containerName);
+    }
+
+    @Override
+    public void kill(String containerName) throws Exception {
+        // 409 - container is not running
+        checkStatus(execute("POST", "/containers/" + encode(containerName) + "/kill"), "kill", containerName);
+    }
+
+    @Override
+    public void remove(String containerName) throws Exception {
+        checkStatus(execute("DELETE", "/containers/" + encode(containerName)), "remove", containerName);
+    }
+
+    @Override
+    public boolean isImagePresent(String image) throws Exception {
+        // image name is matched by "{name:.*}" route, slashes must not be escaped
+        Response response = execute("GET", "/images/" + image + "/json");
+        if (response.status == 404) {
+            return false;
+        }
+        checkStatus(response, "inspect", image);
+        return true;
+    }
+
+    @Override
+    public void pull(String image) throws Exception {
+        // without tag the engine pulls all tags of the repository
+        String[] repositoryAndTag = splitTag(image);
+        Response response = execute("POST", "/images/create?fromImage=" + encode(repositoryAndTag[0])
+                + "&tag=" + encode(repositoryAndTag[1]));
+        // progress is streamed as JSON messages, failure after the pull started is reported as {"error": "..."}
+        if (response.status != 200 || response.body.contains("\"error\"")) {
+            throw new DockerException("Pulling of image " + image + " failed with HTTP status " + response.status + ": "
+                    + response.body);
+        }
+    }
+
+    /**
+     * Splits image reference to repository and tag or digest the same way as command line client does.
+     *
+     * @return repository and tag, "latest" if the image has neither tag nor digest
+     */
+    static String[] splitTag(String image) {
+        int digest = image.indexOf('@');
+        if (digest >= 0) {
+            return new String[] { image.substring(0, digest), image.substring(digest + 1) };
+        }
+        // colon before the last slash separates port of the registry
+        int tag = image.lastIndexOf(':');
+        if (tag > image.lastIndexOf('/')) {
+            return new String[] { image.substring(0, tag), image.substring(tag + 1) };
+        }
+        return new String[] { image, "latest" };
+    }
+
+    /**
+     * Command line client ignores failures of stop/kill/rm of containers which are not running or do not exist, so
+     * does this client.
+     */
+    private static void checkStatus(Response response, String operation, String containerName) {
+        if (response.status >= 500 || (response.status >= 400 && response.status != 404 && response.status != 409)) {
+            throw new DockerException("Docker operation " + operation + " of container " + containerName
+                    + " failed with HTTP status " + response.status + ": " + response.body);
+        }
+    }
+
+    private static String encode(String pathSegment) {
+        return URLEncoder.encode(pathSegment, StandardCharsets.UTF_8);
+    }
+
+    Response execute(String method, String path) throws IOException {
+        String request = method + " " + path + " HTTP/1.1\r\n" +
+                "Host: docker\r\n" +
+                "User-Agent: eap-microprofile-test-suite\r\n" +
+                "Content-Length: 0\r\n" +
+                "Connection: close\r\n" +
+                "\r\n";
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        try (ByteChannel channel = connector.connect()) {
+            ByteBuffer out = ByteBuffer.wrap(request.getBytes(StandardCharsets.US_ASCII));
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            ByteBuffer in = ByteBuffer.allocate(8192);
+            while (channel.read(in) >= 0) {
+                raw.write(in.array(), 0, in.position());
+                in.clear();
+            }
+        }
+        return Response.parse(raw.toByteArray());
+    }
+
+    static final class Response {
+        final int status;
+        final String body;
+
+        private Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static Response parse(byte[] raw) throws IOException {
+            int headersEnd = indexOf(raw, new byte[] { '\r', '\n', '\r', '\n' }, 0);
+            if (headersEnd < 0) {
+                throw new IOException("Malformed HTTP response from docker daemon: "
+                        + new String(raw, StandardCharsets.UTF_8));
+            }
+            String[] headerLines = new String(raw, 0, headersEnd, StandardCharsets.US_ASCII).split("\r\n");
+            // HTTP/1.1 200 OK
+            String[] statusLine = headerLines[0].split(" ", 3);
+            if (statusLine.length < 2 || !statusLine[0].startsWith("HTTP/")) {
+                throw new IOException("Malformed HTTP status line from docker daemon: " + headerLines[0]);
+            }
+            int status = Integer.parseInt(statusLine[1]);
+
+            boolean chunked = false;
+            int contentLength = -1;
+            for (int i = 1; i < headerLines.length; i++) {
+                int colon = headerLines[i].indexOf(':');
+                if (colon < 0) {
+                    continue;
+                }
+                String name = headerLines[i].substring(0, colon).trim().toLowerCase(Locale.ROOT);
+                String value = headerLines[i].substring(colon + 1).trim();
+                if (name.equals("transfer-encoding") && value.toLowerCase(Locale.ROOT).contains("chunked")) {
+                    chunked = true;
+                } else if (name.equals("content-length")) {
+                    contentLength = Integer.parseInt(value);
+                }
+            }
+
+            int bodyStart = headersEnd + 4;
+            byte[] body;
+            if (chunked) {
+                body = dechunk(raw, bodyStart);
+            } else {
+                int length = contentLength >= 0 ? Math.min(contentLength, raw.length - bodyStart) : raw.length - bodyStart;
+                body = new byte[length];
+                System.arraycopy(raw, bodyStart, body, 0, length);
+            }
+            return new Response(status, new String(body, StandardCharsets.UTF_8));
+        }
+
+        private static byte[] dechunk(byte[] raw, int position) throws IOException {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            byte[] crlf = new byte[] { '\r', '\n' };
+            while (position < raw.length) {
+                int sizeEnd = indexOf(raw, crlf, position);
+                if (sizeEnd < 0) {
+                    throw new IOException("Malformed chunked HTTP response from docker daemon");
+                }
+                String sizeLine = new String(raw, position, sizeEnd - position, StandardCharsets.US_ASCII);
+                int extension = sizeLine.indexOf(';');
+                int size = Integer.parseInt((extension < 0 ? sizeLine : sizeLine.substring(0, extension)).trim(), 16);
+                if (size == 0) {
+                    break;
+                }
+                int chunkStart = sizeEnd + 2;
+                if (chunkStart + size > raw.length) {
+                    throw new IOException("Truncated chunked HTTP response from docker daemon");
+                }
+                body.write(raw, chunkStart, size);
+                position = chunkStart + size + 2;
+            }
+            return body.toByteArray();
+        }
+
+        private static int indexOf(byte[] data, byte[] pattern, int from) {
+            outer: for (int i = from; i <= data.length - pattern.length; i++) {
+                for (int j = 0; j < pattern.length; j++) {
+                    if (data[i + j] != pattern[j]) {
+                        continue outer;
+                    }
+                }
+                return i;
+            }
+            return -1;
+        }
+    }
+}
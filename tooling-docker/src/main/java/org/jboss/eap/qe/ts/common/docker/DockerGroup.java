@@ -0,0 +1,308 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.fusesource.jansi.Ansi;
+import org.junit.rules.ExternalResource;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+/**
+ * Starts a set of {@link Docker} containers at the same time. A container is started as soon as all containers it
+ * depends on are ready, independent containers boot in parallel. Containers are stopped in reverse order - a container
+ * is stopped once all containers depending on it are stopped.
+ * <p>
+ * Intended to be used as a JUnit @ClassRule instead of several separate {@link Docker} rules:
+ *
+ * <pre>
+ * &#64;ClassRule
+ * public static DockerGroup containers = new DockerGroup.Builder()
+ *         .withContainer(jaeger)
+ *         .withContainer(collector, jaeger) // collector is started after jaeger is ready
+ *         .build();
+ * </pre>
+ * <p>
+ * If any container fails to start, containers which were already started are stopped and the failure is rethrown.
+ */
+public class DockerGroup extends ExternalResource {
+
+    private final Map<Docker, Set<Docker>> dependencies;
+    private final Map<Docker, Long> startupTimes = new ConcurrentHashMap<>();
+    private final Set<Docker> started = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private long totalStartupTime;
+
+    private DockerGroup(Map<Docker, Set<Docker>> dependencies) {
+        this.dependencies = dependencies;
+    } // use Builder
+
+    /**
+     * Starts all containers of the group and blocks until all of them are ready.
+     *
+     * @throws Exception failure of the first container which could not be started
+     */
+    public void start() throws Exception {
+        System.out.println(Ansi.ansi().reset().a("Starting container group ").fgCyan().a(names(dependencies.keySet()))
+                .reset());
+
+        long groupStart = System.nanoTime();
+        // all images are pulled in parallel, each container waits just for its own image
+        ImageCache.getInstance().prePull(dependencies.keySet().stream().map(Docker::getImage).collect(Collectors.toSet()));
+        try {
+            runInDependencyOrder(dependencies, docker -> {
+                long start = System.nanoTime();
+                docker.start();
+                startupTimes.put(docker, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                started.add(docker);
+            });
+        } catch (Exception e) {
+            System.out.println(Ansi.ansi().reset().a("Starting container group failed, stopping already started " +
+                    "containers ").fgCyan().a(names(started)).reset());
+            stop();
+            throw e;
+        }
+        totalStartupTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - groupStart);
+
+        System.out.println(Ansi.ansi().reset().a("Container group ").fgCyan().a(names(dependencies.keySet())).reset()
+                .a(" started in ").fgYellow().a(totalStartupTime + " ms").reset()
+                .a(" (sum of container startup times " + getStartupTimes().values().stream().mapToLong(Long::longValue).sum()
+                        + " ms)"));
+        for (Map.Entry<String, Long> entry : getStartupTimes().entrySet()) {
+            System.out.println(Ansi.ansi().reset().a("    ").fgCyan().a(entry.getKey()).reset()
+                    .a(": " + entry.getValue() + " ms"));
+        }
+    }
+
+    /**
+     * Stops all started containers of the group. Failures are logged, remaining containers are still stopped.
+     */
+    public void stop() {
+        Map<Docker, Set<Docker>> dependants = new LinkedHashMap<>();
+        for (Docker docker : dependencies.keySet()) {
+            dependants.put(docker, new LinkedHashSet<>());
+        }
+        for (Map.Entry<Docker, Set<Docker>> entry : dependencies.entrySet()) {
+            for (Docker dependency : entry.getValue()) {
+                dependants.get(dependency).add(entry.getKey());
+            }
+        }
+        try {
+            runInDependencyOrder(dependants, docker -> {
+                if (started.remove(docker)) {
+                    try {
+                        docker.stop();
+                    } catch (Exception e) {
+                        System.out.println(Ansi.ansi().reset().a("Failed stopping container ").fgCyan()
+                                .a(docker.getName()).reset().a(": " + e));
+                    }
+                }
+            });
+        } catch (Exception e) {
+            System.out.println(Ansi.ansi().reset().a("Failed stopping container group: " + e));
+        }
+    }
+
+    /**
+     * @return wall-clock time of the last {@link #start()} in milliseconds
+     */
+    public long getTotalStartupTime() {
+        return totalStartupTime;
+    }
+
+    /**
+     * @return container name to its startup time in milliseconds, in the order containers were declared
+     */
+    public Map<String, Long> getStartupTimes() {
+        Map<String, Long> times = new LinkedHashMap<>();
+        for (Docker docker : dependencies.keySet()) {
+            Long time = startupTimes.get(docker);
+            if (time != null) {
+                times.put(docker.getName(), time);
+            }
+        }
+        return times;
+    }
+
+    /**
+     * Prints buffered output of all containers in the group if a test fails.
+     */
+    @Override
+    public Statement apply(Statement base, Description description) {
+        Statement statement = super.apply(base, description);
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                try {
+                    statement.evaluate();
+                } catch (Throwable t) {
+                    System.out.println(Ansi.ansi().reset().a(description.getDisplayName()).a(" failed"));
+                    for (Docker docker : dependencies.keySet()) {
+                        if (docker.getLog() != null) {
+                            docker.getLog().dump(System.out);
+                        }
+                    }
+                    throw t;
+                }
+            }
+        };
+    }
+
+    @Override
+    protected void before() throws Throwable {
+        start();
+    }
+
+    @Override
+    protected void after() {
+        stop();
+    }
+
+    private interface ContainerAction {
+        void run(Docker docker) throws Exception;
+    }
+
+    /**
+     * Runs action on every container in parallel, action on a container is run only after it successfully finished on
+     * all containers the container depends on.
+     */
+    private static void runInDependencyOrder(Map<Docker, Set<Docker>> graph, ContainerAction action) throws Exception {
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, graph.size()), runnable -> {
+            Thread thread = new Thread(runnable, "docker-group-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Map<Docker, CompletableFuture<Void>> futures = new IdentityHashMap<>();
+            for (Docker docker : topologicalOrder(graph)) {
+                CompletableFuture<?>[] prerequisites = graph.get(docker).stream()
+                        .map(futures::get)
+                        .toArray(CompletableFuture[]::new);
+                futures.put(docker, CompletableFuture.allOf(prerequisites).thenRunAsync(() -> {
+                    try {
+                        action.run(docker);
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor));
+            }
+            // wait for all of them so no action is running once this method returns
+            Exception failure = null;
+            for (CompletableFuture<Void> future : futures.values()) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+                    if (failure == null && cause instanceof Exception) {
+                        failure = (Exception) cause;
+                    } else if (failure == null) {
+                        failure = new DockerException("Container action failed", cause);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<Docker> topologicalOrder(Map<Docker, Set<Docker>> graph) {
+        Map<Docker, Integer> unresolved = new IdentityHashMap<>();
+        Map<Docker, List<Docker>> dependants = new IdentityHashMap<>();
+        List<Docker> ready = new ArrayList<>();
+        for (Map.Entry<Docker, Set<Docker>> entry : graph.entrySet()) {
+            unresolved.put(entry.getKey(), entry.getValue().size());
+            if (entry.getValue().isEmpty()) {
+                ready.add(entry.getKey());
+            }
+            for (Docker dependency : entry.getValue()) {
+                dependants.computeIfAbsent(dependency, d -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+        List<Docker> order = new ArrayList<>();
+        while (!ready.isEmpty()) {
+            Docker docker = ready.remove(0);
+            order.add(docker);
+            for (Docker dependant : dependants.getOrDefault(docker, Collections.emptyList())) {
+                if (unresolved.merge(dependant, -1, Integer::sum) == 0) {
+                    ready.add(dependant);
+                }
+            }
+        }
+        if (order.size() != graph.size()) {
+            Set<Docker> cycle = new LinkedHashSet<>(graph.keySet());
+            cycle.removeAll(order);
+            throw new IllegalStateException("Containers " + names(cycle) + " have cyclic dependencies");
+        }
+        return order;
+    }
+
+    private static String names(Set<Docker> containers) {
+        List<String> names = new ArrayList<>();
+        for (Docker docker : containers) {
+            names.add(docker.getName());
+        }
+        return names.toString();
+    }
+
+    public static class Builder {
+        private final Map<Docker, Set<Docker>> dependencies = new LinkedHashMap<>();
+
+        /**
+         * Adds container to the group.
+         *
+         * @param docker container to add
+         * @param dependsOn containers which must be ready before {@code docker} is started, they must be added to the group
+         *        as well
+         */
+        public Builder withContainer(Docker docker, Docker... dependsOn) {
+            dependencies.computeIfAbsent(docker, d -> new LinkedHashSet<>()).addAll(Arrays.asList(dependsOn));
+            return this;
+        }
+
+        /**
+         * Builds instance of DockerGroup class.
+         *
+         * @return DockerGroup instance
+         * @throws IllegalStateException if a dependency was not added to the group or dependencies are cyclic
+         */
+        public DockerGroup build() {
+            Map<Docker, Set<Docker>> graph = new LinkedHashMap<>();
+            Map<String, Docker> byName = new HashMap<>();
+            for (Map.Entry<Docker, Set<Docker>> entry : dependencies.entrySet()) {
+                for (Docker dependency : entry.getValue()) {
+                    if (!dependencies.containsKey(dependency)) {
+                        throw new IllegalStateException("Container " + entry.getKey().getName() + " depends on "
+                                + dependency.getName() + " which is not part of the group");
+                    }
+                }
+                byName.put(entry.getKey().getName(), entry.getKey());
+                graph.put(entry.getKey(), new LinkedHashSet<>(entry.getValue()));
+            }
+            if (byName.size() != graph.size()) {
+                throw new IllegalStateException("Container names in the group must be unique: " + names(graph.keySet()));
+            }
+            topologicalOrder(graph);
+            return new DockerGroup(graph);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.fusesource.jansi.Ansi;
+
+/**
+ * Makes sure images are present locally before containers are started, so pulling of a cold image is not counted into
+ * container ready timeout.
+ * <p>
+ * Every {@link Docker.Builder#build()} registers its image. {@link #prePull()} pulls all registered images which are
+ * not present locally in parallel, number of concurrent pulls is limited by {@code docker.image.pull.threads} system
+ * property (default 3). {@link Docker#start()} waits for the pull of its image, pulling it if needed. Pull failures are
+ * only logged, {@code docker run} reports the real problem then.
+ * <p>
+ * Pull and boot times are recorded per image and printed on JVM exit, sorted by total time spent.
+ */
+public final class ImageCache {
+
+    private static final int PULL_THREADS = Integer.getInteger("docker.image.pull.threads", 3);
+
+    private static final ImageCache INSTANCE = new ImageCache();
+
+    private final Set<String> registeredImages = ConcurrentHashMap.newKeySet();
+    private final Map<String, CompletableFuture<Void>> pulls = new ConcurrentHashMap<>();
+    private final Map<String, ImageTimings> timings = new ConcurrentHashMap<>();
+    private final ExecutorService pullExecutor;
+
+    private ImageCache() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        pullExecutor = Executors.newFixedThreadPool(PULL_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "docker-image-pull-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(this::printTimings, "docker-image-timings"));
+    }
+
+    public static ImageCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param image image to be pulled by {@link #prePull()}
+     */
+    public void register(String image) {
+        registeredImages.add(image);
+    }
+
+    /**
+     * Starts pulling of all registered images in background.
+     *
+     * @return future completed once all registered images are pulled (or failed to be pulled)
+     */
+    public CompletableFuture<Void> prePull() {
+        return prePull(new ArrayList<>(registeredImages));
+    }
+
+    /**
+     * Starts pulling of given images in background.
+     *
+     * @param images images to pull
+     * @return future completed once all given images are pulled (or failed to be pulled)
+     */
+    public CompletableFuture<Void> prePull(Collection<String> images) {
+        return CompletableFuture.allOf(images.stream()
+                .map(this::pull)
+                .toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Blocks until {@code image} is present locally, pulls the image if no pull is in progress.
+     *
+     * @param image image to pull
+     */
+    public void ensurePulled(String image) throws InterruptedException {
+        try {
+            pull(image).get();
+        } catch (ExecutionException e) {
+            // never happens, failures are logged by the pull itself
+        }
+    }
+
+    /**
+     * Records time from {@code docker run} until container was ready.
+     *
+     * @param image image of the container
+     * @param bootTime boot time in milliseconds
+     */
+    public void recordBoot(String image, long bootTime) {
+        timings.computeIfAbsent(image, ImageTimings::new).recordBoot(bootTime);
+    }
+
+    /**
+     * @return recorded timings of all images, sorted by total time spent with the image (pull + boots) descending
+     */
+    public List<ImageTimings> getTimings() {
+        List<ImageTimings> result = new ArrayList<>(timings.values());
+        result.sort(Comparator.comparingLong(ImageTimings::getTotalTime).reversed());
+        return result;
+    }
+
+    private CompletableFuture<Void> pull(String image) {
+        return pulls.computeIfAbsent(image, key -> CompletableFuture.runAsync(() -> doPull(image), pullExecutor));
+    }
+
+    private void doPull(String image) {
+        try {
+            DockerClient client = DockerClientProvider.getDockerClient();
+            if (client.isImagePresent(image)) {
+                return;
+            }
+            System.out.println(Ansi.ansi().reset().a("Pulling image ").fgCyan().a(image).reset());
+            long start = System.nanoTime();
+            client.pull(image);
+            long pullTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            timings.computeIfAbsent(image, ImageTimings::new).recordPull(pullTime);
+            System.out.println(Ansi.ansi().reset().a("Image ").fgCyan().a(image).reset().a(" pulled in ")
+                    .fgYellow().a(pullTime + " ms").reset());
+        } catch (Exception e) {
+            System.out.println(Ansi.ansi().reset().fgRed().a("Pulling of image " + image + " failed, container start "
+                    + "will try again: " + e.getMessage()).reset());
+        }
+    }
+
+    private void printTimings() {
+        List<ImageTimings> sorted = getTimings();
+        if (sorted.isEmpty()) {
+            return;
+        }
+        System.out.println(Ansi.ansi().reset().a("Docker image timings (pull + boots):"));
+        for (ImageTimings imageTimings : sorted) {
+            System.out.println(Ansi.ansi().reset().a("    ").fgCyan().a(imageTimings.getImage()).reset()
+                    .a(": " + imageTimings));
+        }
+    }
+
+    /**
+     * Time spent with one image.
+     */
+    public static final class ImageTimings {
+        private final String image;
+        private long pullTime;
+        private int boots;
+        private long totalBootTime;
+        private long maxBootTime;
+
+        private ImageTimings(String image) {
+            this.image = image;
+        }
+
+        synchronized void recordPull(long pullTime) {
+            this.pullTime = pullTime;
+        }
+
+        synchronized void recordBoot(long bootTime) {
+            boots++;
+            totalBootTime += bootTime;
+            maxBootTime = Math.max(maxBootTime, bootTime);
+        }
+
+        public String getImage() {
+            return image;
+        }
+
+        /**
+         * @return pull time in milliseconds, 0 if image was present locally
+         */
+        public synchronized long getPullTime() {
+            return pullTime;
+        }
+
+        public synchronized int getBoots() {
+            return boots;
+        }
+
+        /**
+         * @return sum of boot times of all containers of this image in milliseconds
+         */
+        public synchronized long getTotalBootTime() {
+            return totalBootTime;
+        }
+
+        /**
+         * @return pull time plus boot times in milliseconds
+         */
+        public synchronized long getTotalTime() {
+            return pullTime + totalBootTime;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return "total " + getTotalTime() + " ms, pull " + pullTime + " ms, " + boots + " boot(s)"
+                    + (boots == 0 ? "" : " mean " + totalBootTime / boots + " ms, max " + maxBootTime + " ms");
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics of {@link ContainerReadyCondition#isReady()} probes collected while waiting for a container to become ready.
+ */
+public final class ProbeStatistics {
+
+    private final String containerId;
+    private final long timeToReadyNanos;
+    private final long[] probeLatenciesNanos;
+
+    ProbeStatistics(String containerId, long timeToReadyNanos, long[] probeLatenciesNanos) {
+        this.containerId = containerId;
+        this.timeToReadyNanos = timeToReadyNanos;
+        this.probeLatenciesNanos = probeLatenciesNanos.clone();
+        Arrays.sort(this.probeLatenciesNanos);
+    }
+
+    public String getContainerId() {
+        return containerId;
+    }
+
+    /**
+     * @return number of executed probes including the last successful one
+     */
+    public int getProbeCount() {
+        return probeLatenciesNanos.length;
+    }
+
+    /**
+     * @return time from start of waiting until container was reported as ready
+     */
+    public long getTimeToReady(TimeUnit unit) {
+        return unit.convert(timeToReadyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getMinLatency(TimeUnit unit) {
+        return probeLatenciesNanos.length == 0 ? 0 : unit.convert(probeLatenciesNanos[0], TimeUnit.NANOSECONDS);
+    }
+
+    public long getMaxLatency(TimeUnit unit) {
+        return probeLatenciesNanos.length == 0 ? 0
+                : unit.convert(probeLatenciesNanos[probeLatenciesNanos.length - 1], TimeUnit.NANOSECONDS);
+    }
+
+    public long getMeanLatency(TimeUnit unit) {
+        return probeLatenciesNanos.length == 0 ? 0
+                : unit.convert(Arrays.stream(probeLatenciesNanos).sum() / probeLatenciesNanos.length, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param percentile value between 0 and 100
+     * @return probe latency at given percentile (nearest-rank)
+     */
+    public long getLatencyPercentile(double percentile, TimeUnit unit) {
+        if (probeLatenciesNanos.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * probeLatenciesNanos.length);
+        int index = Math.min(Math.max(rank - 1, 0), probeLatenciesNanos.length - 1);
+        return unit.convert(probeLatenciesNanos[index], TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "ready in " + getTimeToReady(TimeUnit.MILLISECONDS) + " ms after " + getProbeCount()
+                + " probe(s), probe latency min/mean/p95/max = "
+                + getMinLatency(TimeUnit.MILLISECONDS) + "/"
+                + getMeanLatency(TimeUnit.MILLISECONDS) + "/"
+                + getLatencyPercentile(95, TimeUnit.MILLISECONDS) + "/"
+                + getMaxLatency(TimeUnit.MILLISECONDS) + " ms";
+    }
+}
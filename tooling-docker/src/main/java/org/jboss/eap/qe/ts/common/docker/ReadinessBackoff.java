@@ -0,0 +1,105 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exponential backoff with jitter used between two {@link ContainerReadyCondition#isReady()} probes.
+ * <p>
+ * Delay before n-th probe (counted from 0) is {@code min(initialDelay * multiplier^n, maxDelay)} randomly shifted by
+ * +/- {@code jitter} fraction of itself, so containers started at the same time do not probe in lockstep.
+ * <p>
+ * Instances are immutable, {@code with*} methods return modified copy.
+ */
+public final class ReadinessBackoff {
+
+    /**
+     * Default backoff - starts with 100 ms, doubles with each probe up to 2 seconds, 20% jitter
+     */
+    public static final ReadinessBackoff DEFAULT = exponential(100, 2_000, TimeUnit.MILLISECONDS);
+
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+    private final double multiplier;
+    private final double jitter;
+
+    private ReadinessBackoff(long initialDelayMillis, long maxDelayMillis, double multiplier, double jitter) {
+        if (initialDelayMillis < 0 || maxDelayMillis < initialDelayMillis) {
+            throw new IllegalArgumentException("Invalid backoff delays - initial: " + initialDelayMillis + " ms, max: "
+                    + maxDelayMillis + " ms");
+        }
+        if (multiplier < 1.0) {
+            throw new IllegalArgumentException("Backoff multiplier must be >= 1.0 but was " + multiplier);
+        }
+        if (jitter < 0.0 || jitter > 1.0) {
+            throw new IllegalArgumentException("Backoff jitter must be between 0.0 and 1.0 but was " + jitter);
+        }
+        this.initialDelayMillis = initialDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+    }
+
+    /**
+     * Creates exponential backoff doubling the delay with each probe, with 20% jitter.
+     *
+     * @param initialDelay delay before second probe (first probe is executed immediately)
+     * @param maxDelay upper bound of delay between two probes
+     * @param unit the time unit of {@code initialDelay} and {@code maxDelay}
+     * @return backoff
+     */
+    public static ReadinessBackoff exponential(long initialDelay, long maxDelay, TimeUnit unit) {
+        return new ReadinessBackoff(unit.toMillis(initialDelay), unit.toMillis(maxDelay), 2.0, 0.2);
+    }
+
+    /**
+     * Creates backoff with constant delay between probes and no jitter.
+     *
+     * @param delay delay between two probes
+     * @param unit the time unit of the {@code delay} argument
+     * @return backoff
+     */
+    public static ReadinessBackoff fixed(long delay, TimeUnit unit) {
+        return new ReadinessBackoff(unit.toMillis(delay), unit.toMillis(delay), 1.0, 0.0);
+    }
+
+    /**
+     * @param multiplier factor by which delay grows after each probe, must be >= 1.0
+     * @return copy of this backoff with given multiplier
+     */
+    public ReadinessBackoff withMultiplier(double multiplier) {
+        return new ReadinessBackoff(initialDelayMillis, maxDelayMillis, multiplier, jitter);
+    }
+
+    /**
+     * @param jitter fraction (0.0 - 1.0) of the delay by which delay is randomly shifted, 0.0 disables jitter
+     * @return copy of this backoff with given jitter
+     */
+    public ReadinessBackoff withJitter(double jitter) {
+        return new ReadinessBackoff(initialDelayMillis, maxDelayMillis, multiplier, jitter);
+    }
+
+    /**
+     * Computes delay before next probe.
+     *
+     * @param attempt number of probes already executed minus one, starts at 0
+     * @return delay in milliseconds, never negative
+     */
+    public long nextDelayMillis(int attempt) {
+        double delay = Math.min(initialDelayMillis * Math.pow(multiplier, attempt), maxDelayMillis);
+        if (jitter > 0.0) {
+            delay += delay * jitter * (ThreadLocalRandom.current().nextDouble() * 2 - 1);
+        }
+        return Math.max(0, Math.round(delay));
+    }
+
+    @Override
+    public String toString() {
+        return "ReadinessBackoff{" +
+                "initialDelayMillis=" + initialDelayMillis +
+                ", maxDelayMillis=" + maxDelayMillis +
+                ", multiplier=" + multiplier +
+                ", jitter=" + jitter +
+                '}';
+    }
+}
@@ -0,0 +1,114 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link ContainerLog} which do not need docker - container output is simulated by a stream.
+ */
+public class ContainerLogTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testOnlyTailIsKeptInMemory() {
+        ContainerLog log = new ContainerLog("tail", 8, null);
+        log.consume(stream("first\nsecond\nthird\n"));
+
+        assertThat(log.getTail(), is("d\nthird\n"));
+        assertThat(log.getTotalBytes(), is(19L));
+    }
+
+    @Test
+    public void testWholeLogIsWrittenToFile() throws IOException {
+        Path file = temporaryFolder.getRoot().toPath().resolve("logs").resolve("container.log");
+        ContainerLog log = new ContainerLog("file", 8, file);
+        log.consume(stream("first\nsecond\nthird\n"));
+
+        assertThat(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), is("first\nsecond\nthird\n"));
+    }
+
+    @Test
+    public void testBufferedLineIsFound() throws Exception {
+        ContainerLog log = new ContainerLog("buffered", 1024, null);
+        log.consume(stream("booting\r\nWildFly started in 1234ms\r\n"));
+
+        assertThat(log.waitForLine(Pattern.compile("started in \\d+ms"), Duration.ofSeconds(1)),
+                is("WildFly started in 1234ms"));
+    }
+
+    @Test
+    public void testWaitForLineWhichIsPrintedLater() throws Exception {
+        ContainerLog log = new ContainerLog("later", 1024, null);
+        PipedOutputStream output = new PipedOutputStream();
+        PipedInputStream input = new PipedInputStream(output);
+        Thread reader = new Thread(() -> log.consume(input));
+        reader.start();
+        try {
+            output.write("booting\n".getBytes(StandardCharsets.UTF_8));
+            // the line is not complete yet thus it must not match
+            output.write("ready".getBytes(StandardCharsets.UTF_8));
+            new Thread(() -> {
+                try {
+                    Thread.sleep(100);
+                    output.write(" to serve\n".getBytes(StandardCharsets.UTF_8));
+                } catch (Exception ignored) {
+                    // test fails on timeout
+                }
+            }).start();
+
+            assertThat(log.waitForLine(Pattern.compile("ready"), Duration.ofSeconds(10)), is("ready to serve"));
+        } finally {
+            output.close();
+            reader.join();
+        }
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        ContainerLog log = new ContainerLog("timeout", 1024, null);
+        PipedOutputStream output = new PipedOutputStream();
+        PipedInputStream input = new PipedInputStream(output);
+        Thread reader = new Thread(() -> log.consume(input));
+        reader.start();
+        try {
+            thrown.expect(DockerTimeoutException.class);
+            log.waitForLine(Pattern.compile("never"), Duration.ofMillis(100));
+        } finally {
+            output.close();
+            reader.join();
+        }
+    }
+
+    @Test
+    public void testOutputEndedBeforeLineAppeared() throws Exception {
+        ContainerLog log = new ContainerLog("ended", 1024, null);
+        log.consume(stream("booting\nfailed\n"));
+
+        thrown.expect(DockerException.class);
+        log.waitForLine(Pattern.compile("started"), Duration.ofSeconds(10));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,81 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Tests for {@link ContainerReadinessEngine} which do not need docker - container ready conditions are simulated.
+ */
+public class ContainerReadinessEngineTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void testReadyAfterSeveralProbes() throws Exception {
+        AtomicInteger probes = new AtomicInteger();
+        ProbeStatistics statistics = ContainerReadinessEngine.getInstance().awaitReady("ready-after-five",
+                () -> probes.incrementAndGet() == 5, ReadinessBackoff.fixed(10, TimeUnit.MILLISECONDS), 10_000, () -> {
+                });
+
+        assertThat(statistics.getProbeCount(), is(5));
+        assertThat(probes.get(), is(5));
+        // 4 delays of 10 ms between 5 probes
+        assertThat(statistics.getTimeToReady(TimeUnit.MILLISECONDS), greaterThanOrEqualTo(40L));
+    }
+
+    @Test
+    public void testProbesAreNotBusyLooping() throws Exception {
+        AtomicInteger probes = new AtomicInteger();
+
+        thrown.expect(DockerTimeoutException.class);
+        thrown.expectMessage(containsString("Container was not ready in 1000 ms"));
+        try {
+            ContainerReadinessEngine.getInstance().awaitReady("never-ready", () -> {
+                probes.incrementAndGet();
+                return false;
+            }, ReadinessBackoff.exponential(50, 200, TimeUnit.MILLISECONDS).withJitter(0), 1_000, () -> {
+            });
+        } finally {
+            // 0, 50, 150, 350, 550, 750, 950, 1000 ms
+            assertThat("Container ready condition was probed too often", probes.get(), lessThan(10));
+        }
+    }
+
+    @Test
+    public void testHangingProbeIsInterrupted() throws Exception {
+        thrown.expect(ContainerReadyConditionException.class);
+        thrown.expectMessage(
+                containsString("Provided ContainerReadyCondition.isReady() method took longer than containerReadyTimeout"));
+
+        ContainerReadinessEngine.getInstance().awaitReady("hanging", () -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                // ignore
+            }
+            return true;
+        }, ReadinessBackoff.DEFAULT, 500, () -> {
+        });
+    }
+
+    @Test
+    public void testFailFastCheckStopsWaiting() throws Exception {
+        thrown.expect(DockerException.class);
+        thrown.expectMessage("container died");
+
+        ContainerReadinessEngine.getInstance().awaitReady("dead", () -> false, ReadinessBackoff.DEFAULT, 60_000, () -> {
+            throw new DockerException("container died");
+        });
+    }
+}
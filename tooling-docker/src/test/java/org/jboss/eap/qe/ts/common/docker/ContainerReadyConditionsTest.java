@@ -0,0 +1,136 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests for {@link ContainerReadyConditions} which do not need docker - services are simulated by local server.
+ */
+public class ContainerReadyConditionsTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private HttpServer server;
+    private volatile int status;
+    private volatile String body;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/health", exchange -> {
+            byte[] response = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private String healthUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/health";
+    }
+
+    @Test
+    public void testTcpPort() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+            assertThat(ContainerReadyConditions.tcpPort(port).isReady(), is(true));
+        }
+        assertThat(ContainerReadyConditions.tcpPort(port).isReady(), is(false));
+    }
+
+    @Test
+    public void testHttpStatus() {
+        ContainerReadyCondition condition = ContainerReadyConditions.httpStatus(healthUrl(), 200);
+        body = "starting";
+        status = 503;
+        assertThat(condition.isReady(), is(false));
+        status = 200;
+        assertThat(condition.isReady(), is(true));
+    }
+
+    @Test
+    public void testHttpBodyMatches() {
+        ContainerReadyCondition condition = ContainerReadyConditions.httpBodyMatches(healthUrl(),
+                Pattern.compile("\"status\"\\s*:\\s*\"UP\""));
+        status = 200;
+        body = "{\"status\": \"DOWN\"}";
+        assertThat(condition.isReady(), is(false));
+        body = "{\"status\": \"UP\"}";
+        assertThat(condition.isReady(), is(true));
+    }
+
+    @Test
+    public void testHttpConditionIsFalseWhenServerIsDown() {
+        ContainerReadyCondition condition = ContainerReadyConditions.httpStatus(healthUrl(), 200);
+        server.stop(0);
+        assertThat(condition.isReady(), is(false));
+    }
+
+    @Test
+    public void testLogLine() throws Exception {
+        ContainerReadyCondition condition = ContainerReadyConditions.logLine(Pattern.compile("started in"));
+        AtomicReference<ContainerLog> containerLog = new AtomicReference<>();
+        ((ContainerReadyConditions.LogLineCondition) condition).bind(containerLog::get);
+        // not started yet
+        assertThat(condition.isReady(), is(false));
+
+        PipedOutputStream output = new PipedOutputStream();
+        PipedInputStream input = new PipedInputStream(output);
+        ContainerLog log = new ContainerLog("log-line", 1024, null);
+        containerLog.set(log);
+        Thread reader = new Thread(() -> log.consume(input));
+        reader.start();
+        try {
+            output.write("booting\n".getBytes(StandardCharsets.UTF_8));
+            output.flush();
+            assertThat(condition.isReady(), is(false));
+            output.write("WildFly started in 1234ms\n".getBytes(StandardCharsets.UTF_8));
+            output.flush();
+            log.waitForLine(Pattern.compile("started in"), Duration.ofSeconds(10));
+            assertThat(condition.isReady(), is(true));
+        } finally {
+            output.close();
+            reader.join();
+        }
+    }
+
+    @Test
+    public void testLogLineFailsWhenOutputEnds() {
+        ContainerLog log = new ContainerLog("log-ended", 1024, null);
+        ContainerReadyCondition condition = ContainerReadyConditions.logLine(Pattern.compile("started in"));
+        ((ContainerReadyConditions.LogLineCondition) condition).bind(() -> log);
+        log.consume(new ByteArrayInputStream("error\n".getBytes(StandardCharsets.UTF_8)));
+
+        thrown.expect(DockerException.class);
+        condition.isReady();
+    }
+}
@@ -0,0 +1,118 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Tests {@link DockerEngineApiClient} against {@link FakeDockerEngine} so docker is not needed.
+ */
+public class DockerEngineApiClientTest {
+
+    private static final String CONTAINER = "wildfly-1234";
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void testDockerPresent() throws Exception {
+        FakeDockerEngine engine = new FakeDockerEngine()
+                .respond("GET", "/_ping", "HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nContent-Length: 2\r\n\r\nOK");
+
+        new DockerEngineApiClient(engine).checkDockerPresent();
+
+        assertThat(engine.getRequests(), contains("GET /_ping"));
+    }
+
+    @Test
+    public void testDockerNotPresent() throws Exception {
+        thrown.expect(DockerException.class);
+        thrown.expectMessage("Docker is either not present or not installed on this machine.");
+
+        new DockerEngineApiClient(new FakeDockerEngine()
+                .respond("GET", "/_ping", "HTTP/1.1 500 Internal Server Error\r\nContent-Length: 0\r\n\r\n"))
+                .checkDockerPresent();
+    }
+
+    @Test
+    public void testRunningContainerWithChunkedResponse() throws Exception {
+        String json = "{\"Id\":\"abc\",\"State\":{\"Status\":\"running\",\"Running\":true,\"Paused\":false}}";
+        String chunked = Integer.toHexString(20) + "\r\n" + json.substring(0, 20) + "\r\n"
+                + Integer.toHexString(json.length() - 20) + "\r\n" + json.substring(20) + "\r\n"
+                + "0\r\n\r\n";
+        FakeDockerEngine engine = new FakeDockerEngine()
+                .respond("GET", "/containers/" + CONTAINER + "/json",
+                        "HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nTransfer-Encoding: chunked\r\n\r\n" + chunked);
+
+        assertThat(new DockerEngineApiClient(engine).isRunning(CONTAINER), is(true));
+    }
+
+    @Test
+    public void testStoppedContainerIsNotRunning() throws Exception {
+        String json = "{\"Id\":\"abc\",\"State\":{\"Status\":\"exited\",\"Running\":false}}";
+        FakeDockerEngine engine = new FakeDockerEngine()
+                .respond("GET", "/containers/" + CONTAINER + "/json",
+                        "HTTP/1.1 200 OK\r\nContent-Length: " + json.length() + "\r\n\r\n" + json);
+
+        assertThat(new DockerEngineApiClient(engine).isRunning(CONTAINER), is(false));
+    }
+
+    @Test
+    public void testMissingContainerIsNotRunning() throws Exception {
+        assertThat(new DockerEngineApiClient(new FakeDockerEngine()).isRunning(CONTAINER), is(false));
+    }
+
+    @Test
+    public void testStopKillAndRemove() throws Exception {
+        FakeDockerEngine engine = new FakeDockerEngine()
+                .respond("POST", "/containers/" + CONTAINER + "/stop?t=10", "HTTP/1.1 204 No Content\r\n\r\n")
+                .respond("POST", "/containers/" + CONTAINER + "/kill", "HTTP/1.1 409 Conflict\r\nContent-Length: 0\r\n\r\n")
+                .respond("DELETE", "/containers/" + CONTAINER, "HTTP/1.1 204 No Content\r\n\r\n");
+        DockerEngineApiClient client = new DockerEngineApiClient(engine);
+
+        client.stop(CONTAINER);
+        // killing already stopped container is ignored the same way as with command line client
+        client.kill(CONTAINER);
+        client.remove(CONTAINER);
+
+        assertThat(engine.getRequests(), contains("POST /containers/" + CONTAINER + "/stop?t=10",
+                "POST /containers/" + CONTAINER + "/kill", "DELETE /containers/" + CONTAINER));
+    }
+
+    @Test
+    public void testPullOfTaggedImage() throws Exception {
+        FakeDockerEngine engine = new FakeDockerEngine()
+                .respond("POST", "/images/create?fromImage=quay.io%3A443%2Fcentos7%2Fpostgresql-13-centos7&tag=centos7",
+                        "HTTP/1.1 200 OK\r\nContent-Length: 2\r\n\r\n{}");
+
+        new DockerEngineApiClient(engine).pull("quay.io:443/centos7/postgresql-13-centos7:centos7");
+
+        assertThat(engine.getRequests(), contains(
+                "POST /images/create?fromImage=quay.io%3A443%2Fcentos7%2Fpostgresql-13-centos7&tag=centos7"));
+    }
+
+    @Test
+    public void testImageTagIsSplit() {
+        assertThat(DockerEngineApiClient.splitTag("postgres"), is(new String[] { "postgres", "latest" }));
+        assertThat(DockerEngineApiClient.splitTag("localhost:5000/postgres"),
+                is(new String[] { "localhost:5000/postgres", "latest" }));
+        assertThat(DockerEngineApiClient.splitTag("postgres:13"), is(new String[] { "postgres", "13" }));
+        assertThat(DockerEngineApiClient.splitTag("postgres@sha256:0123abcd"),
+                is(new String[] { "postgres", "sha256:0123abcd" }));
+    }
+
+    @Test
+    public void testServerErrorIsReported() throws Exception {
+        thrown.expect(DockerException.class);
+        thrown.expectMessage("failed with HTTP status 500");
+
+        new DockerEngineApiClient(new FakeDockerEngine()
+                .respond("DELETE", "/containers/" + CONTAINER,
+                        "HTTP/1.1 500 Internal Server Error\r\nContent-Length: 17\r\n\r\n{\"message\":\"err\"}"))
+                .remove(CONTAINER);
+    }
+}
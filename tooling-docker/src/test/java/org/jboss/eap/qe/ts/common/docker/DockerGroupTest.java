@@ -0,0 +1,81 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.eap.qe.ts.common.docker.junit.DockerRequiredTests;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(DockerRequiredTests.class)
+public class DockerGroupTest {
+
+    private static final String DEFAULT_SERVER_BIND_ADDRESS = "127.0.0.1";
+
+    private static final String WILDFLY_ONE_CONTAINER_NAME = "wildfly-group-one";
+    private static final int WILDFLY_ONE_EXPOSED_HTTP_PORT = 13333;
+
+    private static final String WILDFLY_TWO_CONTAINER_NAME = "wildfly-group-two";
+    private static final int WILDFLY_TWO_EXPOSED_HTTP_PORT = 14444;
+
+    private static final String WILDFLY_THREE_CONTAINER_NAME = "wildfly-group-three";
+    private static final int WILDFLY_THREE_EXPOSED_HTTP_PORT = 15555;
+
+    private static final Docker wildFlyOne = wildFly(WILDFLY_ONE_CONTAINER_NAME, WILDFLY_ONE_EXPOSED_HTTP_PORT);
+    private static final Docker wildFlyTwo = wildFly(WILDFLY_TWO_CONTAINER_NAME, WILDFLY_TWO_EXPOSED_HTTP_PORT);
+    private static final Docker wildFlyThree = wildFly(WILDFLY_THREE_CONTAINER_NAME, WILDFLY_THREE_EXPOSED_HTTP_PORT);
+
+    /**
+     * wildfly-group-one and wildfly-group-two boot in parallel, wildfly-group-three waits for wildfly-group-one
+     */
+    @ClassRule
+    public static DockerGroup containers = new DockerGroup.Builder()
+            .withContainer(wildFlyOne)
+            .withContainer(wildFlyTwo)
+            .withContainer(wildFlyThree, wildFlyOne)
+            .build();
+
+    private static Docker wildFly(String name, int httpPort) {
+        return new Docker.Builder(name, "quay.io/wildfly/wildfly")
+                .setContainerReadyTimeout(2, TimeUnit.MINUTES)
+                .setContainerReadyCondition(ContainerReadyConditions.httpStatus(
+                        "http://" + DEFAULT_SERVER_BIND_ADDRESS + ":" + httpPort, 200))
+                .withPortMapping(httpPort + ":8080")
+                .withCmdArg("/opt/jboss/wildfly/bin/standalone.sh")
+                .withCmdArg("-b=0.0.0.0")
+                .build();
+    }
+
+    private static boolean portOpened(int port) {
+        try {
+            new Socket(DEFAULT_SERVER_BIND_ADDRESS, port).close();
+        } catch (Exception ex) {
+            return false;
+        }
+        return true;
+    }
+
+    @Test
+    public void testAllContainersOfGroupAreRunning() throws Exception {
+        assertThat(WILDFLY_ONE_CONTAINER_NAME + " is not running", wildFlyOne.isRunning(), is(true));
+        assertThat(WILDFLY_TWO_CONTAINER_NAME + " is not running", wildFlyTwo.isRunning(), is(true));
+        assertThat(WILDFLY_THREE_CONTAINER_NAME + " is not running", wildFlyThree.isRunning(), is(true));
+        assertThat(WILDFLY_THREE_CONTAINER_NAME + " container is not listening on port " + WILDFLY_THREE_EXPOSED_HTTP_PORT,
+                portOpened(WILDFLY_THREE_EXPOSED_HTTP_PORT), is(true));
+    }
+
+    @Test
+    public void testStartupTimesAreReported() {
+        assertThat(containers.getStartupTimes().keySet(), contains(WILDFLY_ONE_CONTAINER_NAME, WILDFLY_TWO_CONTAINER_NAME,
+                WILDFLY_THREE_CONTAINER_NAME));
+        // wildfly-group-two is started in parallel thus total time is shorter than sum of all startup times
+        long sum = containers.getStartupTimes().values().stream().mapToLong(Long::longValue).sum();
+        assertThat(containers.getTotalStartupTime(), lessThanOrEqualTo(sum));
+    }
+}
@@ -0,0 +1,87 @@
+package org.jboss.eap.qe.ts.common.docker;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test double of docker daemon for {@link DockerEngineApiClient}. Answers requests with canned raw HTTP responses
+ * registered by {@link #respond(String, String, String)} and records request lines.
+ * <p>
+ * Unknown requests are answered with 404.
+ */
+public class FakeDockerEngine implements DockerEngineApiClient.Connector {
+
+    private final Map<String, String> responses = new HashMap<>();
+    private final List<String> requests = new ArrayList<>();
+
+    /**
+     * @param method HTTP method
+     * @param path request path including query
+     * @param rawResponse full HTTP response including status line and headers
+     */
+    public FakeDockerEngine respond(String method, String path, String rawResponse) {
+        responses.put(method + " " + path, rawResponse);
+        return this;
+    }
+
+    /**
+     * @return request lines (for example "POST /containers/x/stop?t=10") in order they were received
+     */
+    public List<String> getRequests() {
+        return requests;
+    }
+
+    @Override
+    public ByteChannel connect() {
+        return new ByteChannel() {
+            private final ByteArrayOutputStream request = new ByteArrayOutputStream();
+            private ByteBuffer response;
+            private boolean open = true;
+
+            @Override
+            public int write(ByteBuffer src) {
+                int written = src.remaining();
+                byte[] bytes = new byte[written];
+                src.get(bytes);
+                request.write(bytes, 0, written);
+                return written;
+            }
+
+            @Override
+            public int read(ByteBuffer dst) {
+                if (response == null) {
+                    String requestLine = new String(request.toByteArray(), StandardCharsets.US_ASCII).split("\r\n")[0];
+                    String key = requestLine.substring(0, requestLine.lastIndexOf(' '));
+                    requests.add(key);
+                    response = ByteBuffer.wrap(responses.getOrDefault(key,
+                            "HTTP/1.1 404 Not Found\r\nContent-Length: 0\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+                }
+                if (!response.hasRemaining()) {
+                    return -1;
+                }
+                // return data in small pieces to simulate partial reads
+                int length = Math.min(Math.min(dst.remaining(), response.remaining()), 7);
+                for (int i = 0; i < length; i++) {
+                    dst.put(response.get());
+                }
+                return length;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return open;
+            }
+
+            @Override
+            public void close() {
+                open = false;
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package org.jboss.eap.qe.observability.containers;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Polls a value starting with a short interval which grows up to a maximum. Waiting ends shortly after the awaited data
+ * appears, while long waits do not flood the polled service.
+ */
+final class AdaptivePoller {
+
+    static final Duration INITIAL_INTERVAL = Duration.ofMillis(50);
+    static final Duration MAX_INTERVAL = Duration.ofSeconds(1);
+    private static final double BACKOFF = 1.5;
+
+    private AdaptivePoller() {
+    }
+
+    /**
+     * Polls immediately and then until the condition is satisfied or the timeout elapses. The last poll happens at the
+     * timeout.
+     *
+     * @param poll supplier of polled value
+     * @param condition condition the value must satisfy
+     * @param timeout maximal time of waiting
+     * @param <T> type of polled value
+     * @return the first value satisfying the condition or the last polled value if the timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    static <T> T poll(Supplier<T> poll, Predicate<T> condition, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long interval = INITIAL_INTERVAL.toNanos();
+        while (true) {
+            T value = poll.get();
+            long remaining = deadline - System.nanoTime();
+            if (condition.test(value) || remaining <= 0) {
+                return value;
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.min(interval, remaining));
+            interval = Math.min((long) (interval * BACKOFF), MAX_INTERVAL.toNanos());
+        }
+    }
+}
@@ -7,14 +7,24 @@ package org.jboss.eap.qe.observability.containers;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.ClientBuilder;
 import jakarta.ws.rs.client.WebTarget;
+import jakarta.ws.rs.core.Response;
 
 import java.io.IOException;
-import java.net.Socket;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.StringJoiner;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
-import org.jboss.eap.qe.observability.jaeger.model.JaegerResponse;
+import org.jboss.eap.qe.observability.jaeger.JaegerQuery;
+import org.jboss.eap.qe.observability.jaeger.JaegerTraceReader;
 import org.jboss.eap.qe.observability.jaeger.model.JaegerTrace;
+import org.jboss.eap.qe.ts.common.docker.ContainerReadyConditions;
 import org.jboss.eap.qe.ts.common.docker.Docker;
 
 /**
@@ -26,20 +36,17 @@ public class JaegerContainer {
     public static final int DOCKER_HOST_PORT_JAEGER_QUERY = DOCKER_CONTAINER_PORT_JAEGER_QUERY;
     public static final int DOCKER_CONTAINER_PORT_JAEGER_OTLP = OpenTelemetryCollectorContainer.DEFAULT_OTLP_GRPC_PORT;
     public static final int DOCKER_HOST_PORT_JAEGER_OTLP = DOCKER_CONTAINER_PORT_JAEGER_OTLP - 100;
+    private static final Duration SERVICE_TIMEOUT = Duration.ofSeconds(5);
     private String jaegerEndpoint;
+    private Client client;
 
     private final Docker jaeger;
 
     private JaegerContainer() {
         jaeger = new Docker.Builder("jaeger", "quay.io/jaegertracing/all-in-one:1.58")
-                .setContainerReadyCondition(() -> {
-                    try {
-                        new Socket("127.0.0.1", 16686).close();
-                        return true;
-                    } catch (IOException e) {
-                        return false;
-                    }
-                })
+                // query service answers only once storage is initialized, opened port is not enough
+                .setContainerReadyCondition(ContainerReadyConditions.httpStatus(
+                        "http://127.0.0.1:" + DOCKER_HOST_PORT_JAEGER_QUERY + "/api/services", 200))
                 .setContainerReadyTimeout(3, TimeUnit.MINUTES)
                 .withPortMapping("5775:5775/udp")
                 .withPortMapping("6831:6831/udp")
@@ -72,10 +79,15 @@ public class JaegerContainer {
             throw new IllegalStateException("Starting the Jaeger container failed: " + e);
         }
         jaegerEndpoint = "http://localhost:" + DOCKER_HOST_PORT_JAEGER_QUERY;
+        client = ClientBuilder.newClient();
     }
 
     public synchronized void stop() {
         INSTANCE = null;
+        if (client != null) {
+            client.close();
+            client = null;
+        }
         try {
             jaeger.stop();
         } catch (Exception e) {
@@ -84,36 +96,56 @@ public class JaegerContainer {
     }
 
     List<JaegerTrace> getTraces(String serviceName) throws InterruptedException {
-        try (Client client = ClientBuilder.newClient()) {
-            waitForDataToAppear(serviceName);
-            String jaegerUrl = jaegerEndpoint + "/api/traces?service=" + serviceName;
-            JaegerResponse jaegerResponse = client.target(jaegerUrl).request().get().readEntity(JaegerResponse.class);
-            return jaegerResponse.getData();
-        }
+        waitForDataToAppear(serviceName);
+        return getTraces(JaegerQuery.of(serviceName));
     }
 
-    private void waitForDataToAppear(String serviceName) {
-        try (Client client = ClientBuilder.newClient()) {
-            String uri = jaegerEndpoint + "/api/services";
-            WebTarget target = client.target(uri);
-            boolean found = false;
-            int count = 0;
-            while (count < 10) {
-                String response = target.request().get().readEntity(String.class);
-                if (response.contains(serviceName)) {
-                    found = true;
-                    break;
-                }
-                count++;
-                try {
-                    Thread.sleep(500);
-                } catch (InterruptedException e) {
-                    //
-                }
-            }
-            if (!found) {
-                throw new IllegalStateException("Expected service name not found");
+    /**
+     * @param query query filtered by Jaeger
+     * @return matching traces
+     */
+    public List<JaegerTrace> getTraces(JaegerQuery query) {
+        List<JaegerTrace> traces = new ArrayList<>();
+        forEachTrace(query, traces::add);
+        return traces;
+    }
+
+    /**
+     * Passes matching traces to the consumer as they are decoded from the response, without keeping all of them in
+     * memory.
+     *
+     * @param query query filtered by Jaeger
+     * @param consumer consumer of each trace
+     * @return number of matching traces
+     */
+    public int forEachTrace(JaegerQuery query, Consumer<JaegerTrace> consumer) {
+        WebTarget target = client.target(tracesUri(query));
+        try (Response response = target.request().accept("application/json").get();
+                InputStream body = response.readEntity(InputStream.class)) {
+            if (response.getStatus() != 200) {
+                throw new IllegalStateException("Jaeger query " + target.getUri() + " failed with status "
+                        + response.getStatus());
             }
+            return JaegerTraceReader.read(body, consumer);
+        } catch (IOException e) {
+            throw new IllegalStateException("Reading traces from " + target.getUri() + " failed: " + e, e);
+        }
+    }
+
+    private URI tracesUri(JaegerQuery query) {
+        // JSON of tags filter contains braces, which would be URI template variables for WebTarget.queryParam
+        StringJoiner parameters = new StringJoiner("&", jaegerEndpoint + "/api/traces?", "");
+        query.getParameters().forEach((name, value) -> parameters.add(name + "=" + URLEncoder.encode(value,
+                StandardCharsets.UTF_8)));
+        return URI.create(parameters.toString());
+    }
+
+    private void waitForDataToAppear(String serviceName) throws InterruptedException {
+        WebTarget target = client.target(jaegerEndpoint + "/api/services");
+        String response = AdaptivePoller.poll(() -> target.request().get().readEntity(String.class),
+                services -> services.contains(serviceName), SERVICE_TIMEOUT);
+        if (!response.contains(serviceName)) {
+            throw new IllegalStateException("Expected service name not found");
         }
     }
 }
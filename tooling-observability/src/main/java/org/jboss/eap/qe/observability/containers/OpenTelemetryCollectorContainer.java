@@ -2,27 +2,31 @@ package org.jboss.eap.qe.observability.containers;
 
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.client.Invocation;
 import jakarta.ws.rs.client.WebTarget;
+import jakarta.ws.rs.core.Response;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.Socket;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 
 import org.jboss.eap.qe.observability.jaeger.model.JaegerTrace;
+import org.jboss.eap.qe.observability.otlp.OtlpReceiver;
+import org.jboss.eap.qe.observability.prometheus.PrometheusTextParser;
+import org.jboss.eap.qe.observability.prometheus.model.MetricSnapshot;
 import org.jboss.eap.qe.observability.prometheus.model.PrometheusMetric;
+import org.jboss.eap.qe.ts.common.docker.ContainerReadyConditions;
 import org.jboss.eap.qe.ts.common.docker.Docker;
 
 /**
@@ -35,6 +39,10 @@ import org.jboss.eap.qe.ts.common.docker.Docker;
  * {@link OpenTelemetryCollectorContainer#dispose()} etc. must be used accordingly.
  *
  * Instances cannot be used simultaneously, since ports and general config are unique.
+ *
+ * With {@code otel.collector.in-jvm=true} system property no container is started, an in-JVM {@link OtlpReceiver}
+ * receives OTLP/HTTP exports instead. It serves only {@link #getOtlpHttpEndpoint()}, metrics and traces are read from
+ * memory, so tests sending data via OTLP/HTTP run without Docker.
  */
 public class OpenTelemetryCollectorContainer {
     private static OpenTelemetryCollectorContainer INSTANCE = null;
@@ -48,6 +56,12 @@ public class OpenTelemetryCollectorContainer {
     public static final int DOCKER_HOST_OTLP_HTTP_PORT = DEFAULT_OTLP_HTTP_PORT + 100;
     public static final int PROMETHEUS_PORT = 49152;
     public static final int HEALTH_CHECK_PORT = 13133;
+    /**
+     * Maximal time of waiting for metrics
+     */
+    public static final Duration METRICS_TIMEOUT = Duration.ofSeconds(30);
+    private static final boolean IN_JVM = Boolean.parseBoolean(System.getProperty("otel.collector.in-jvm", "false"));
+    private static final Duration TRACES_TIMEOUT = Duration.ofSeconds(5);
     private static final String OTEL_CONFIG_DIR_NAME = "otelcol-contrib";
     private static final String OTEL_CONFIG_FILE_NAME = "config.yaml";
     public static final String OTEL_COLLECTOR_CONFIG_LOCAL_PATH = Paths.get(System.getProperty("user.home"),
@@ -61,6 +75,7 @@ public class OpenTelemetryCollectorContainer {
     private String otlpHttpEndpoint;
     private String prometheusUrl;
     private final Docker otelCollectorContainer;
+    private final OtlpReceiver inJvmReceiver;
 
     private String getLocalOtelCollectorConfigYamlAbsolutePath() {
         File tempFile = null;
@@ -86,16 +101,17 @@ public class OpenTelemetryCollectorContainer {
     }
 
     private OpenTelemetryCollectorContainer() {
+        if (IN_JVM) {
+            otelCollectorContainer = null;
+            inJvmReceiver = new OtlpReceiver.Builder().port(DOCKER_HOST_OTLP_HTTP_PORT).build();
+            return;
+        }
+        inJvmReceiver = null;
         otelCollectorContainer = new Docker.Builder("otel-collector",
                 "ghcr.io/open-telemetry/opentelemetry-collector-releases/opentelemetry-collector-contrib:0.115.1")
-                .setContainerReadyCondition(() -> {
-                    try {
-                        new Socket("127.0.0.1", HEALTH_CHECK_PORT).close();
-                        return true;
-                    } catch (IOException e) {
-                        return false;
-                    }
-                })
+                // health_check extension returns 200 once all pipelines are started
+                .setContainerReadyCondition(ContainerReadyConditions.httpStatus(
+                        "http://127.0.0.1:" + HEALTH_CHECK_PORT + "/", 200))
                 .setContainerReadyTimeout(3, TimeUnit.MINUTES)
                 .withVolumeMount(String.format("%s:%s:Z",
                         getLocalOtelCollectorConfigYamlAbsolutePath(),
@@ -167,7 +183,23 @@ public class OpenTelemetryCollectorContainer {
         }
     }
 
+    /**
+     * @return true if OTLP exports are received in this JVM instead of a container, see the class description
+     */
+    public static boolean isInJvm() {
+        return IN_JVM;
+    }
+
     public void start() {
+        if (inJvmReceiver != null) {
+            try {
+                inJvmReceiver.start();
+            } catch (IOException e) {
+                throw new IllegalStateException("Starting the in-JVM OTLP receiver failed: " + e, e);
+            }
+            otlpHttpEndpoint = inJvmReceiver.getEndpoint();
+            return;
+        }
         try {
             otelCollectorContainer.start();
         } catch (Exception e) {
@@ -179,6 +211,10 @@ public class OpenTelemetryCollectorContainer {
     }
 
     public synchronized void stop() {
+        if (inJvmReceiver != null) {
+            inJvmReceiver.stop();
+            return;
+        }
         try {
             otelCollectorContainer.stop();
         } catch (Exception e) {
@@ -187,6 +223,9 @@ public class OpenTelemetryCollectorContainer {
     }
 
     public String getOtlpGrpcEndpoint() {
+        if (inJvmReceiver != null) {
+            throw new IllegalStateException("The in-JVM OTLP receiver supports only OTLP/HTTP, run with Docker to use gRPC");
+        }
         return otlpGrpcEndpoint;
     }
 
@@ -198,62 +237,142 @@ public class OpenTelemetryCollectorContainer {
         return prometheusUrl;
     }
 
+    /**
+     * Scrapes metrics until a metric with given name prefix appears. Scrapes start with a short interval which grows
+     * up to one second, for at most {@link #METRICS_TIMEOUT}.
+     *
+     * @param nameToMonitor prefix of metric name to wait for
+     * @return the last scraped metrics, they do not contain the monitored metric if it did not appear in time
+     */
     public List<PrometheusMetric> fetchMetrics(String nameToMonitor) throws InterruptedException {
-        String body = "";
-        try (Client client = ClientBuilder.newClient()) {
-            WebTarget target = client.target(this.getPrometheusUrl());
+        return fetchMetricSnapshot(nameToMonitor).getMetrics();
+    }
 
-            int attemptCount = 0;
-            boolean found = false;
+    /**
+     * @param nameToMonitor prefix of metric name to wait for, see {@link #fetchMetrics(String)}
+     * @return indexed snapshot of the fetched metrics
+     */
+    public MetricSnapshot fetchMetricSnapshot(String nameToMonitor) throws InterruptedException {
+        // Request counts can vary. Waiting long to help ensure test stability
+        return pollMetrics(snapshot -> snapshot.containsPrefix(nameToMonitor), METRICS_TIMEOUT);
+    }
 
-            // Request counts can vary. Setting high to help ensure test stability
-            while (!found && attemptCount < 30) {
-                // Wait to give metrics systems time to export
-                Thread.sleep(1000);
+    /**
+     * Scrapes metrics until they satisfy the condition, see {@link #fetchMetrics(String)}.
+     *
+     * @param condition condition over scraped metrics, for example
+     *        {@code snapshot -> snapshot.sum("ping_count_total") >= 2}
+     * @param timeout maximal time of waiting
+     * @return the first scraped metrics satisfying the condition
+     * @throws IllegalStateException if no scraped metrics satisfied the condition in time
+     */
+    public MetricSnapshot awaitMetrics(Predicate<MetricSnapshot> condition, Duration timeout) throws InterruptedException {
+        MetricSnapshot snapshot = pollMetrics(condition, timeout);
+        if (!condition.test(snapshot)) {
+            throw new IllegalStateException("Metrics scraped from " + prometheusUrl + " did not satisfy the condition in "
+                    + timeout + ", the last scrape: " + snapshot.getMetrics());
+        }
+        return snapshot;
+    }
 
-                body = target.request().get().readEntity(String.class);
-                found = body.contains("\n" + nameToMonitor);
-                attemptCount++;
-            }
+    /**
+     * Scrapes metrics until metrics with all given name prefixes appear.
+     *
+     * @param namePrefixes prefixes of metric names to wait for
+     * @return the first scraped metrics containing all of them
+     * @throws IllegalStateException if some metric did not appear in {@link #METRICS_TIMEOUT}
+     */
+    public MetricSnapshot awaitMetrics(String... namePrefixes) throws InterruptedException {
+        return awaitMetrics(snapshot -> Arrays.stream(namePrefixes).allMatch(snapshot::containsPrefix), METRICS_TIMEOUT);
+    }
+
+    /**
+     * Scrapes metrics until sum of values of the metric reaches the minimum, for example until a counter counts all
+     * requests sent by a test.
+     *
+     * @param name metric name
+     * @param labels labels the summed samples must have
+     * @param minimum minimal sum of values
+     * @return the first scraped metrics reaching the minimum
+     * @throws IllegalStateException if the sum did not reach the minimum in {@link #METRICS_TIMEOUT}
+     */
+    public MetricSnapshot awaitMetricValue(String name, Map<String, String> labels, double minimum)
+            throws InterruptedException {
+        return awaitMetrics(snapshot -> snapshot.sum(name, labels) >= minimum, METRICS_TIMEOUT);
+    }
+
+    /**
+     * Scrapes metrics once without waiting, for example to measure how long a scrape of all exported series takes.
+     *
+     * @return scraped metrics, empty if the exporter is not ready
+     */
+    public MetricSnapshot scrapeMetrics() {
+        if (inJvmReceiver != null) {
+            return MetricSnapshot.of(inJvmReceiver.getMetrics());
         }
+        try (Client client = ClientBuilder.newClient()) {
+            return new PrometheusScraper(client.target(this.getPrometheusUrl())).scrape();
+        }
+    }
 
-        return body.isEmpty() ? List.of() : buildPrometheusMetrics(body);
+    private MetricSnapshot pollMetrics(Predicate<MetricSnapshot> condition, Duration timeout) throws InterruptedException {
+        if (inJvmReceiver != null) {
+            return AdaptivePoller.poll(() -> MetricSnapshot.of(inJvmReceiver.getMetrics()), condition, timeout);
+        }
+        try (Client client = ClientBuilder.newClient()) {
+            PrometheusScraper scraper = new PrometheusScraper(client.target(this.getPrometheusUrl()));
+            return AdaptivePoller.poll(scraper::scrape, condition, timeout);
+        }
     }
 
     public List<JaegerTrace> getTraces(String serviceName) throws InterruptedException {
+        if (inJvmReceiver != null && jaegerContainer == null) {
+            // traces are exported in batches, wait for the first one as Jaeger container does
+            AdaptivePoller.poll(inJvmReceiver::getServices, services -> services.contains(serviceName), TRACES_TIMEOUT);
+            return inJvmReceiver.getTraces(serviceName);
+        }
         return (jaegerContainer != null ? jaegerContainer.getTraces(serviceName) : Collections.emptyList());
     }
 
-    private List<PrometheusMetric> buildPrometheusMetrics(String body) {
-        String[] entries = body.split("\n");
-        Map<String, String> help = new HashMap<>();
-        Map<String, String> type = new HashMap<>();
-        List<PrometheusMetric> metrics = new LinkedList<>();
-        Arrays.stream(entries).forEach(e -> {
-            if (e.startsWith("# HELP")) {
-                extractMetadata(help, e);
-            } else if (e.startsWith("# TYPE")) {
-                extractMetadata(type, e);
-            } else {
-                String[] parts = e.split("[{}]");
-                String key = parts[0];
-                Map<String, String> tags = Arrays.stream(parts[1].split(","))
-                        .map(t -> t.split("="))
-                        .collect(Collectors.toMap(i -> i[0],
-                                i -> i[1]
-                                        .replaceAll("^\"", "")
-                                        .replaceAll("\"$", "")));
-                metrics.add(new PrometheusMetric(key, tags, parts[2].trim(), type.get(key), help.get(key)));
-            }
-        });
+    /**
+     * Scrapes metrics with conditional requests. An unchanged scrape is not downloaded and parsed again if the exporter
+     * supports {@code ETag} or {@code Last-Modified} headers.
+     */
+    private static final class PrometheusScraper {
+        private final WebTarget target;
+        private String etag;
+        private String lastModified;
+        private MetricSnapshot snapshot = MetricSnapshot.of(List.of());
 
-        return metrics;
-    }
+        private PrometheusScraper(WebTarget target) {
+            this.target = target;
+        }
 
-    private void extractMetadata(Map<String, String> target, String source) {
-        String[] parts = source.split(" ");
-        target.put(parts[2],
-                Arrays.stream(Arrays.copyOfRange(parts, 3, parts.length))
-                        .reduce("", (total, element) -> total + " " + element));
+        private MetricSnapshot scrape() {
+            Invocation.Builder request = target.request();
+            if (etag != null) {
+                request.header("If-None-Match", etag);
+            }
+            if (lastModified != null) {
+                request.header("If-Modified-Since", lastModified);
+            }
+            try (Response response = request.get()) {
+                if (response.getStatus() == 304) {
+                    return snapshot;
+                }
+                if (response.getStatus() != 200) {
+                    // exporter is not ready yet
+                    return MetricSnapshot.of(List.of());
+                }
+                etag = response.getHeaderString("ETag");
+                lastModified = response.getHeaderString("Last-Modified");
+                try (InputStream body = response.readEntity(InputStream.class)) {
+                    snapshot = MetricSnapshot.of(PrometheusTextParser.parse(body));
+                }
+                return snapshot;
+            } catch (IOException e) {
+                throw new IllegalStateException("Reading metrics from " + target.getUri() + " failed: " + e, e);
+            }
+        }
     }
 }
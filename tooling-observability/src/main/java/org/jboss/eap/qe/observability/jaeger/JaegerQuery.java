@@ -0,0 +1,193 @@
+package org.jboss.eap.qe.observability.jaeger;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObjectBuilder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Query of Jaeger {@code /api/traces} endpoint. Filters are applied by Jaeger, so only matching traces are transferred.
+ * <p>
+ * Example:
+ *
+ * <pre>
+ * JaegerQuery query = new JaegerQuery.Builder("my-service")
+ *         .operation("GET /ping")
+ *         .tag("http.response.status_code", "500")
+ *         .minDuration(Duration.ofMillis(100))
+ *         .lookback(Duration.ofMinutes(5))
+ *         .limit(20)
+ *         .build();
+ * </pre>
+ */
+public final class JaegerQuery {
+
+    private final String service;
+    private final String operation;
+    private final Map<String, String> tags;
+    private final Duration minDuration;
+    private final Duration maxDuration;
+    private final Instant start;
+    private final Instant end;
+    private final Duration lookback;
+    private final int limit;
+
+    private JaegerQuery(Builder builder) {
+        this.service = builder.service;
+        this.operation = builder.operation;
+        this.tags = new LinkedHashMap<>(builder.tags);
+        this.minDuration = builder.minDuration;
+        this.maxDuration = builder.maxDuration;
+        this.start = builder.start;
+        this.end = builder.end;
+        this.lookback = builder.lookback;
+        this.limit = builder.limit;
+    }
+
+    /**
+     * @param service service name
+     * @return query of all traces of given service
+     */
+    public static JaegerQuery of(String service) {
+        return new Builder(service).build();
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    /**
+     * @return query parameters of {@code /api/traces}, not URL encoded; lookback is counted from now at each call
+     */
+    public Map<String, String> getParameters() {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("service", service);
+        if (operation != null) {
+            parameters.put("operation", operation);
+        }
+        if (!tags.isEmpty()) {
+            JsonObjectBuilder json = Json.createObjectBuilder();
+            tags.forEach(json::add);
+            parameters.put("tags", json.build().toString());
+        }
+        if (minDuration != null) {
+            parameters.put("minDuration", micros(minDuration) + "us");
+        }
+        if (maxDuration != null) {
+            parameters.put("maxDuration", micros(maxDuration) + "us");
+        }
+        Instant queryEnd = end == null && lookback != null ? Instant.now() : end;
+        Instant queryStart = lookback != null ? queryEnd.minus(lookback) : start;
+        if (queryStart != null) {
+            parameters.put("start", String.valueOf(epochMicros(queryStart)));
+        }
+        if (queryEnd != null) {
+            parameters.put("end", String.valueOf(epochMicros(queryEnd)));
+        }
+        if (limit > 0) {
+            parameters.put("limit", String.valueOf(limit));
+        }
+        return parameters;
+    }
+
+    private static long micros(Duration duration) {
+        return duration.toNanos() / 1000;
+    }
+
+    private static long epochMicros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    @Override
+    public String toString() {
+        return "JaegerQuery" + getParameters();
+    }
+
+    public static class Builder {
+        private final String service;
+        private String operation;
+        private final Map<String, String> tags = new LinkedHashMap<>();
+        private Duration minDuration;
+        private Duration maxDuration;
+        private Instant start;
+        private Instant end;
+        private Duration lookback;
+        private int limit;
+
+        /**
+         * @param service service name, Jaeger requires it
+         */
+        public Builder(String service) {
+            if (service == null || service.isEmpty()) {
+                throw new IllegalArgumentException("Service name is required by Jaeger query API");
+            }
+            this.service = service;
+        }
+
+        /**
+         * @param operation span name of the traced operation
+         */
+        public Builder operation(String operation) {
+            this.operation = operation;
+            return this;
+        }
+
+        /**
+         * Traces must contain a span with given tag, more tags must be on the same span.
+         */
+        public Builder tag(String key, String value) {
+            this.tags.put(key, value);
+            return this;
+        }
+
+        public Builder minDuration(Duration minDuration) {
+            this.minDuration = minDuration;
+            return this;
+        }
+
+        public Builder maxDuration(Duration maxDuration) {
+            this.maxDuration = maxDuration;
+            return this;
+        }
+
+        /**
+         * @param start the earliest start of traces
+         */
+        public Builder start(Instant start) {
+            this.start = start;
+            return this;
+        }
+
+        /**
+         * @param end the latest start of traces
+         */
+        public Builder end(Instant end) {
+            this.end = end;
+            return this;
+        }
+
+        /**
+         * @param lookback time before end (or now) to search, overrides {@link #start(Instant)}
+         */
+        public Builder lookback(Duration lookback) {
+            this.lookback = lookback;
+            return this;
+        }
+
+        /**
+         * @param limit maximal number of returned traces, Jaeger returns the newest ones
+         */
+        public Builder limit(int limit) {
+            this.limit = limit;
+            return this;
+        }
+
+        public JaegerQuery build() {
+            return new JaegerQuery(this);
+        }
+    }
+}
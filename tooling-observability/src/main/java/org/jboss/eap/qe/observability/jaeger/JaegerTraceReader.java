@@ -0,0 +1,303 @@
+package org.jboss.eap.qe.observability.jaeger;
+
+import jakarta.json.Json;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParserFactory;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.jboss.eap.qe.observability.jaeger.model.JaegerLog;
+import org.jboss.eap.qe.observability.jaeger.model.JaegerProcess;
+import org.jboss.eap.qe.observability.jaeger.model.JaegerReference;
+import org.jboss.eap.qe.observability.jaeger.model.JaegerSpan;
+import org.jboss.eap.qe.observability.jaeger.model.JaegerTag;
+import org.jboss.eap.qe.observability.jaeger.model.JaegerTrace;
+
+/**
+ * Streaming decoder of Jaeger query API responses ({@code {"data": [traces...], "errors": ...}}). Traces are passed
+ * to a consumer one by one as they are parsed, so the whole response never has to be in memory. Unknown fields are
+ * skipped.
+ */
+public final class JaegerTraceReader {
+
+    private static final JsonParserFactory PARSERS = Json.createParserFactory(null);
+
+    private JaegerTraceReader() {
+    }
+
+    /**
+     * @param response response body, not closed
+     * @param consumer consumer of each decoded trace
+     * @return number of decoded traces
+     * @throws IllegalStateException if the response contains errors
+     * @throws jakarta.json.JsonException if the response is not valid JSON
+     */
+    public static int read(InputStream response, Consumer<JaegerTrace> consumer) {
+        int[] count = { 0 };
+        List<String> errors = new ArrayList<>();
+        JsonParser parser = PARSERS.createParser(response);
+        expect(parser, JsonParser.Event.START_OBJECT);
+        readObject(parser, (key, event) -> {
+            if ("data".equals(key) && event == JsonParser.Event.START_ARRAY) {
+                readArray(parser, element -> {
+                    if (element == JsonParser.Event.START_OBJECT) {
+                        consumer.accept(readTrace(parser));
+                        count[0]++;
+                    } else {
+                        skip(parser, element);
+                    }
+                });
+            } else if ("errors".equals(key) && event == JsonParser.Event.START_ARRAY) {
+                readArray(parser, element -> errors.add(parser.getValue().toString()));
+            } else {
+                skip(parser, event);
+            }
+        });
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Jaeger query failed: " + errors);
+        }
+        return count[0];
+    }
+
+    /**
+     * @param response response body, not closed
+     * @return all decoded traces
+     */
+    public static List<JaegerTrace> read(InputStream response) {
+        List<JaegerTrace> traces = new ArrayList<>();
+        read(response, traces::add);
+        return traces;
+    }
+
+    private static JaegerTrace readTrace(JsonParser parser) {
+        JaegerTrace trace = new JaegerTrace();
+        List<JaegerSpan> spans = new ArrayList<>();
+        Map<String, JaegerProcess> processes = new LinkedHashMap<>();
+        List<String> warnings = new ArrayList<>();
+        readObject(parser, (key, event) -> {
+            switch (key) {
+                case "traceID":
+                    trace.setTraceID(string(parser, event));
+                    break;
+                case "spans":
+                    readArray(parser, event, element -> spans.add(readSpan(parser)));
+                    break;
+                case "processes":
+                    readMap(parser, event, processId -> processes.put(processId, readProcess(parser)));
+                    break;
+                case "warnings":
+                    readArray(parser, event, element -> warnings.add(string(parser, element)));
+                    break;
+                default:
+                    skip(parser, event);
+            }
+        });
+        return trace.setSpans(spans).setProcesses(processes).setWarnings(warnings);
+    }
+
+    private static JaegerSpan readSpan(JsonParser parser) {
+        JaegerSpan span = new JaegerSpan();
+        List<JaegerReference> references = new ArrayList<>();
+        List<JaegerTag> tags = new ArrayList<>();
+        List<JaegerLog> logs = new ArrayList<>();
+        readObject(parser, (key, event) -> {
+            switch (key) {
+                case "traceID":
+                    span.setTraceID(string(parser, event));
+                    break;
+                case "spanID":
+                    span.setSpanID(string(parser, event));
+                    break;
+                case "operationName":
+                    span.setOperationName(string(parser, event));
+                    break;
+                case "processID":
+                    span.setProcessID(string(parser, event));
+                    break;
+                case "startTime":
+                    span.setStartTime(event == JsonParser.Event.VALUE_NUMBER ? parser.getLong() : null);
+                    break;
+                case "duration":
+                    span.setDuration(event == JsonParser.Event.VALUE_NUMBER ? parser.getInt() : null);
+                    break;
+                case "references":
+                    readArray(parser, event, element -> references.add(readReference(parser)));
+                    break;
+                case "tags":
+                    readArray(parser, event, element -> tags.add(readTag(parser)));
+                    break;
+                case "logs":
+                    readArray(parser, event, element -> logs.add(readLog(parser)));
+                    break;
+                default:
+                    skip(parser, event);
+            }
+        });
+        return span.setReferences(references).setTags(tags).setLogs(logs);
+    }
+
+    private static JaegerReference readReference(JsonParser parser) {
+        JaegerReference reference = new JaegerReference();
+        readObject(parser, (key, event) -> {
+            switch (key) {
+                case "refType":
+                    reference.setRefType(string(parser, event));
+                    break;
+                case "traceID":
+                    reference.setTraceID(string(parser, event));
+                    break;
+                case "spanID":
+                    reference.setSpanID(string(parser, event));
+                    break;
+                default:
+                    skip(parser, event);
+            }
+        });
+        return reference;
+    }
+
+    private static JaegerTag readTag(JsonParser parser) {
+        JaegerTag tag = new JaegerTag();
+        readObject(parser, (key, event) -> {
+            switch (key) {
+                case "key":
+                    tag.setKey(string(parser, event));
+                    break;
+                case "type":
+                    tag.setType(string(parser, event));
+                    break;
+                case "value":
+                    tag.setValue(string(parser, event));
+                    break;
+                default:
+                    skip(parser, event);
+            }
+        });
+        return tag;
+    }
+
+    private static JaegerLog readLog(JsonParser parser) {
+        JaegerLog log = new JaegerLog();
+        List<JaegerTag> fields = new ArrayList<>();
+        readObject(parser, (key, event) -> {
+            if ("timestamp".equals(key) && event == JsonParser.Event.VALUE_NUMBER) {
+                log.setTimestamp(parser.getLong());
+            } else if ("fields".equals(key)) {
+                readArray(parser, event, element -> fields.add(readTag(parser)));
+            } else {
+                skip(parser, event);
+            }
+        });
+        return log.setFields(fields);
+    }
+
+    private static JaegerProcess readProcess(JsonParser parser) {
+        JaegerProcess process = new JaegerProcess();
+        List<JaegerTag> tags = new ArrayList<>();
+        readObject(parser, (key, event) -> {
+            if ("serviceName".equals(key)) {
+                process.setServiceName(string(parser, event));
+            } else if ("tags".equals(key)) {
+                readArray(parser, event, element -> tags.add(readTag(parser)));
+            } else {
+                skip(parser, event);
+            }
+        });
+        return process.setTags(tags);
+    }
+
+    /**
+     * Reads fields of current object until its end, the parser is after START_OBJECT.
+     */
+    private static void readObject(JsonParser parser, FieldReader reader) {
+        JsonParser.Event event;
+        while ((event = parser.next()) != JsonParser.Event.END_OBJECT) {
+            if (event != JsonParser.Event.KEY_NAME) {
+                throw new IllegalStateException("Unexpected " + event + " in Jaeger response at " + parser.getLocation());
+            }
+            String key = parser.getString();
+            reader.read(key, parser.next());
+        }
+    }
+
+    /**
+     * Reads elements of array until its end, the parser is after START_ARRAY. Null instead of array is empty array.
+     */
+    private static void readArray(JsonParser parser, JsonParser.Event start, Consumer<JsonParser.Event> reader) {
+        if (start == JsonParser.Event.VALUE_NULL) {
+            return;
+        }
+        if (start != JsonParser.Event.START_ARRAY) {
+            throw new IllegalStateException("Expected array in Jaeger response at " + parser.getLocation());
+        }
+        readArray(parser, reader);
+    }
+
+    private static void readArray(JsonParser parser, Consumer<JsonParser.Event> reader) {
+        JsonParser.Event event;
+        while ((event = parser.next()) != JsonParser.Event.END_ARRAY) {
+            reader.accept(event);
+        }
+    }
+
+    /**
+     * Reads map object with values read by reader, the parser is after START_OBJECT.
+     */
+    private static void readMap(JsonParser parser, JsonParser.Event start, Consumer<String> reader) {
+        if (start == JsonParser.Event.VALUE_NULL) {
+            return;
+        }
+        readObject(parser, (key, event) -> {
+            if (event == JsonParser.Event.START_OBJECT) {
+                reader.accept(key);
+            } else {
+                skip(parser, event);
+            }
+        });
+    }
+
+    /**
+     * @return string, number or boolean value as string, null for null
+     */
+    private static String string(JsonParser parser, JsonParser.Event event) {
+        switch (event) {
+            case VALUE_STRING:
+            case VALUE_NUMBER:
+                return parser.getString();
+            case VALUE_TRUE:
+                return "true";
+            case VALUE_FALSE:
+                return "false";
+            case VALUE_NULL:
+                return null;
+            default:
+                skip(parser, event);
+                return null;
+        }
+    }
+
+    private static void skip(JsonParser parser, JsonParser.Event event) {
+        if (event == JsonParser.Event.START_OBJECT) {
+            parser.skipObject();
+        } else if (event == JsonParser.Event.START_ARRAY) {
+            parser.skipArray();
+        }
+    }
+
+    private static void expect(JsonParser parser, JsonParser.Event expected) {
+        JsonParser.Event event = parser.next();
+        if (event != expected) {
+            throw new IllegalStateException("Expected " + expected + " but was " + event + " in Jaeger response");
+        }
+    }
+
+    @FunctionalInterface
+    private interface FieldReader {
+        void read(String key, JsonParser.Event value);
+    }
+}
@@ -0,0 +1,216 @@
+package org.jboss.eap.qe.observability.jaeger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.jboss.eap.qe.observability.jaeger.model.JaegerTrace;
+
+/**
+ * Latency breakdown of many traces per operation (span name) - percentiles of span duration and self time, and share
+ * of critical path time. Tests can assert latency budgets, for example:
+ *
+ * <pre>
+ * TraceAnalyzer analyzer = TraceAnalyzer.of(jaeger.getTraces(query));
+ * analyzer.assertPercentileBelow("GET /router/districts", 95, Duration.ofMillis(200));
+ * </pre>
+ *
+ * Percentiles use nearest rank, so p95 of 20 samples is the 19th smallest one.
+ */
+public final class TraceAnalyzer {
+
+    private final List<TraceTree> trees;
+    private final Map<String, OperationStatistics> operations = new TreeMap<>();
+    private long criticalPathTotal;
+
+    private TraceAnalyzer(List<TraceTree> trees) {
+        this.trees = trees;
+        for (TraceTree tree : trees) {
+            for (TraceTree.Node node : tree.getNodes()) {
+                statistics(node.getOperationName()).add(node);
+            }
+            if (tree.getRoots().isEmpty()) {
+                continue;
+            }
+            for (TraceTree.PathSegment segment : tree.getCriticalPath()) {
+                long micros = micros(segment.getTime());
+                statistics(segment.getNode().getOperationName()).criticalPath += micros;
+                criticalPathTotal += micros;
+            }
+        }
+        operations.values().forEach(OperationStatistics::sort);
+    }
+
+    /**
+     * @param traces traces to analyze
+     * @return analyzer of the traces
+     */
+    public static TraceAnalyzer of(Collection<JaegerTrace> traces) {
+        List<TraceTree> trees = new ArrayList<>(traces.size());
+        for (JaegerTrace trace : traces) {
+            trees.add(TraceTree.of(trace));
+        }
+        return new TraceAnalyzer(trees);
+    }
+
+    private OperationStatistics statistics(String operation) {
+        return operations.computeIfAbsent(operation, name -> new OperationStatistics());
+    }
+
+    /**
+     * @return trees of analyzed traces
+     */
+    public List<TraceTree> getTrees() {
+        return trees;
+    }
+
+    /**
+     * @return names of operations in the traces, sorted
+     */
+    public Collection<String> getOperations() {
+        return operations.keySet();
+    }
+
+    /**
+     * @param operation span name
+     * @return number of spans of the operation
+     */
+    public int count(String operation) {
+        OperationStatistics statistics = operations.get(operation);
+        return statistics == null ? 0 : statistics.count;
+    }
+
+    /**
+     * @param operation span name
+     * @param percentile percentile in (0, 100]
+     * @return percentile of span duration
+     * @throws IllegalArgumentException if there is no span of the operation
+     */
+    public Duration percentile(String operation, double percentile) {
+        return percentile(required(operation).durations, percentile);
+    }
+
+    /**
+     * @param operation span name
+     * @param percentile percentile in (0, 100]
+     * @return percentile of span self time, i.e. time not spent in child spans
+     * @throws IllegalArgumentException if there is no span of the operation
+     */
+    public Duration selfTimePercentile(String operation, double percentile) {
+        return percentile(required(operation).selfTimes, percentile);
+    }
+
+    /**
+     * @param operation span name
+     * @return fraction of critical path time of all traces spent in the operation itself
+     */
+    public double criticalPathShare(String operation) {
+        OperationStatistics statistics = operations.get(operation);
+        return statistics == null || criticalPathTotal == 0 ? 0 : (double) statistics.criticalPath / criticalPathTotal;
+    }
+
+    /**
+     * @param operation span name
+     * @param percentile percentile in (0, 100]
+     * @param budget maximal allowed duration
+     * @throws AssertionError if the percentile of span duration is not below the budget
+     */
+    public void assertPercentileBelow(String operation, double percentile, Duration budget) {
+        Duration actual = percentile(operation, percentile);
+        if (actual.compareTo(budget) >= 0) {
+            throw new AssertionError(String.format(Locale.ROOT, "p%s of %s is %.3f ms, budget is %.3f ms%n%s",
+                    formatPercentile(percentile), operation, millis(actual), millis(budget), this));
+        }
+    }
+
+    /**
+     * @param operation span name
+     * @param percentile percentile in (0, 100]
+     * @param budget maximal allowed self time
+     * @throws AssertionError if the percentile of span self time is not below the budget
+     */
+    public void assertSelfTimePercentileBelow(String operation, double percentile, Duration budget) {
+        Duration actual = selfTimePercentile(operation, percentile);
+        if (actual.compareTo(budget) >= 0) {
+            throw new AssertionError(String.format(Locale.ROOT, "p%s of self time of %s is %.3f ms, budget is %.3f ms%n%s",
+                    formatPercentile(percentile), operation, millis(actual), millis(budget), this));
+        }
+    }
+
+    private OperationStatistics required(String operation) {
+        OperationStatistics statistics = operations.get(operation);
+        if (statistics == null) {
+            throw new IllegalArgumentException("No span of operation " + operation + " in " + trees.size()
+                    + " traces, operations are " + operations.keySet());
+        }
+        return statistics;
+    }
+
+    private static Duration percentile(long[] sorted, double percentile) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in (0, 100]: " + percentile);
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return Duration.ofNanos(sorted[Math.max(0, rank - 1)] * 1000);
+    }
+
+    private static long micros(Duration duration) {
+        return duration.toNanos() / 1000;
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1e6;
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+
+    /**
+     * @return table of operations with count, p50, p95, p99 and max duration, p95 self time and critical path share
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%d traces%n%-40s %6s %9s %9s %9s %9s %9s %6s%n", trees.size(),
+                "operation", "count", "p50 ms", "p95 ms", "p99 ms", "max ms", "self p95", "crit %"));
+        operations.forEach((operation, statistics) -> sb.append(String.format(Locale.ROOT,
+                "%-40s %6d %9.3f %9.3f %9.3f %9.3f %9.3f %6.1f%n", operation, statistics.count,
+                millis(percentile(statistics.durations, 50)), millis(percentile(statistics.durations, 95)),
+                millis(percentile(statistics.durations, 99)), millis(percentile(statistics.durations, 100)),
+                millis(percentile(statistics.selfTimes, 95)), 100 * criticalPathShare(operation))));
+        return sb.toString();
+    }
+
+    /**
+     * Durations and self times of spans of one operation in microseconds.
+     */
+    private static final class OperationStatistics {
+        private long[] durations = new long[16];
+        private long[] selfTimes = new long[16];
+        private int count;
+        private long criticalPath;
+
+        private void add(TraceTree.Node node) {
+            if (count == durations.length) {
+                durations = Arrays.copyOf(durations, count * 2);
+                selfTimes = Arrays.copyOf(selfTimes, count * 2);
+            }
+            durations[count] = micros(node.getDuration());
+            selfTimes[count] = micros(node.getSelfTime());
+            count++;
+        }
+
+        private void sort() {
+            durations = Arrays.copyOf(durations, count);
+            selfTimes = Arrays.copyOf(selfTimes, count);
+            Arrays.sort(durations);
+            Arrays.sort(selfTimes);
+        }
+    }
+}
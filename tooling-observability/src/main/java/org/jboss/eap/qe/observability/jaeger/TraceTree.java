@@ -0,0 +1,268 @@
+package org.jboss.eap.qe.observability.jaeger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.eap.qe.observability.jaeger.model.JaegerReference;
+import org.jboss.eap.qe.observability.jaeger.model.JaegerSpan;
+import org.jboss.eap.qe.observability.jaeger.model.JaegerTrace;
+
+/**
+ * Spans of one trace arranged by {@code CHILD_OF} references. Spans whose parent is not in the trace (for example not
+ * exported yet) are roots.
+ * <p>
+ * Self time of a span is its duration not covered by any child span. Critical path is the chain of spans which
+ * determined the end of the root span - walking back from the end of a span, the child which finished last is on the
+ * path, then the child which finished last before it started, and so on. Time of the critical path is attributed to
+ * the spans on it, summing up to duration of the root.
+ */
+public final class TraceTree {
+
+    private final String traceId;
+    private final List<Node> roots;
+    private final List<Node> nodes;
+
+    private TraceTree(String traceId, List<Node> nodes, List<Node> roots) {
+        this.traceId = traceId;
+        this.nodes = Collections.unmodifiableList(nodes);
+        this.roots = Collections.unmodifiableList(roots);
+    }
+
+    /**
+     * @param trace trace
+     * @return tree of spans of the trace
+     */
+    public static TraceTree of(JaegerTrace trace) {
+        List<JaegerSpan> spans = trace.getSpans() == null ? Collections.emptyList() : trace.getSpans();
+        Map<String, Node> bySpanId = new HashMap<>();
+        List<Node> nodes = new ArrayList<>(spans.size());
+        for (JaegerSpan span : spans) {
+            Node node = new Node(span);
+            // a span exported twice is one span
+            if (bySpanId.putIfAbsent(span.getSpanID(), node) == null) {
+                nodes.add(node);
+            }
+        }
+        List<Node> roots = new ArrayList<>();
+        for (Node node : nodes) {
+            Node parent = bySpanId.get(parentId(node.span));
+            if (parent == null || parent == node) {
+                roots.add(node);
+            } else {
+                node.parent = parent;
+                parent.children.add(node);
+            }
+        }
+        for (Node node : nodes) {
+            node.children.sort(Comparator.comparingLong(Node::getStart));
+        }
+        roots.sort(Comparator.comparingLong(Node::getStart));
+        return new TraceTree(trace.getTraceID(), nodes, roots);
+    }
+
+    private static String parentId(JaegerSpan span) {
+        if (span.getReferences() != null) {
+            for (JaegerReference reference : span.getReferences()) {
+                if ("CHILD_OF".equals(reference.getRefType())) {
+                    return reference.getSpanID();
+                }
+            }
+        }
+        return null;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    /**
+     * @return spans without parent in the trace, ordered by start
+     */
+    public List<Node> getRoots() {
+        return roots;
+    }
+
+    /**
+     * @return all spans in order of the trace
+     */
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the earliest root, usually the only one
+     */
+    public Node getRoot() {
+        if (roots.isEmpty()) {
+            throw new IllegalStateException("Trace " + traceId + " has no spans");
+        }
+        return roots.get(0);
+    }
+
+    /**
+     * @return critical path of the earliest root, see class description
+     */
+    public List<PathSegment> getCriticalPath() {
+        List<PathSegment> path = new ArrayList<>();
+        Node root = getRoot();
+        addCriticalPath(root, root.getStart(), root.getEnd(), path);
+        return path;
+    }
+
+    /**
+     * Adds path segments of the node within from-to window, children first, then the node's own time. The window
+     * clips children which overlap parent bounds because of clock skew between services.
+     */
+    private static void addCriticalPath(Node node, long from, long to, List<PathSegment> path) {
+        long cursor = to;
+        long childrenTime = 0;
+        List<Node> byEnd = new ArrayList<>(node.children);
+        byEnd.sort(Comparator.comparingLong(Node::getEnd).reversed());
+        for (Node child : byEnd) {
+            long childStart = Math.max(child.getStart(), from);
+            // children starting after the cursor ran in parallel with the path found so far
+            if (childStart >= cursor) {
+                continue;
+            }
+            long childEnd = Math.min(child.getEnd(), cursor);
+            // zero duration children and children ending before the window (clock skew) take no time of the path
+            if (childEnd <= childStart) {
+                continue;
+            }
+            addCriticalPath(child, childStart, childEnd, path);
+            childrenTime += childEnd - childStart;
+            cursor = childStart;
+        }
+        path.add(new PathSegment(node, Duration.ofNanos(Math.max(0, to - from - childrenTime) * 1000)));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Trace ").append(traceId).append(System.lineSeparator());
+        for (Node root : roots) {
+            append(sb, root, 1);
+        }
+        return sb.toString();
+    }
+
+    private static void append(StringBuilder sb, Node node, int depth) {
+        for (int i = 0; i < depth; i++) {
+            sb.append("  ");
+        }
+        sb.append(node).append(System.lineSeparator());
+        for (Node child : node.children) {
+            append(sb, child, depth + 1);
+        }
+    }
+
+    /**
+     * Span with its position in the tree. Times are in microseconds as in Jaeger.
+     */
+    public static final class Node {
+        private final JaegerSpan span;
+        private final List<Node> children = new ArrayList<>();
+        private Node parent;
+
+        private Node(JaegerSpan span) {
+            this.span = span;
+        }
+
+        public JaegerSpan getSpan() {
+            return span;
+        }
+
+        public String getOperationName() {
+            return span.getOperationName();
+        }
+
+        /**
+         * @return parent or null for root
+         */
+        public Node getParent() {
+            return parent;
+        }
+
+        /**
+         * @return children ordered by start
+         */
+        public List<Node> getChildren() {
+            return Collections.unmodifiableList(children);
+        }
+
+        /**
+         * @return start in microseconds since epoch
+         */
+        public long getStart() {
+            return span.getStartTime() == null ? 0 : span.getStartTime();
+        }
+
+        /**
+         * @return end in microseconds since epoch
+         */
+        public long getEnd() {
+            return getStart() + getDurationMicros();
+        }
+
+        private long getDurationMicros() {
+            return span.getDuration() == null ? 0 : span.getDuration();
+        }
+
+        public Duration getDuration() {
+            return Duration.ofNanos(getDurationMicros() * 1000);
+        }
+
+        /**
+         * @return duration not covered by any child, overlapping children are counted once
+         */
+        public Duration getSelfTime() {
+            long covered = 0;
+            long coveredUntil = getStart();
+            for (Node child : children) {
+                long from = Math.max(child.getStart(), coveredUntil);
+                long to = Math.min(child.getEnd(), getEnd());
+                if (to > from) {
+                    covered += to - from;
+                    coveredUntil = to;
+                }
+            }
+            return Duration.ofNanos((getDurationMicros() - covered) * 1000);
+        }
+
+        @Override
+        public String toString() {
+            return span.getOperationName() + " " + getDuration().toNanos() / 1000 + "us (self "
+                    + getSelfTime().toNanos() / 1000 + "us)";
+        }
+    }
+
+    /**
+     * Span on critical path with the part of the path spent in the span itself.
+     */
+    public static final class PathSegment {
+        private final Node node;
+        private final Duration time;
+
+        private PathSegment(Node node, Duration time) {
+            this.node = node;
+            this.time = time;
+        }
+
+        public Node getNode() {
+            return node;
+        }
+
+        public Duration getTime() {
+            return time;
+        }
+
+        @Override
+        public String toString() {
+            return node.getOperationName() + " " + time.toNanos() / 1000 + "us";
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright The WildFly Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.jboss.eap.qe.observability.jaeger.model;
+
+/**
+ * Reference of a span to other span, {@code CHILD_OF} for parent span, {@code FOLLOWS_FROM} for linked span.
+ */
+public class JaegerReference {
+    private String refType;
+    private String traceID;
+    private String spanID;
+
+    public String getRefType() {
+        return refType;
+    }
+
+    public JaegerReference setRefType(String refType) {
+        this.refType = refType;
+        return this;
+    }
+
+    public String getTraceID() {
+        return traceID;
+    }
+
+    public JaegerReference setTraceID(String traceID) {
+        this.traceID = traceID;
+        return this;
+    }
+
+    public String getSpanID() {
+        return spanID;
+    }
+
+    public JaegerReference setSpanID(String spanID) {
+        this.spanID = spanID;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "JaegerReference{" +
+                "refType='" + refType + '\'' +
+                ", traceID='" + traceID + '\'' +
+                ", spanID='" + spanID + '\'' +
+                '}';
+    }
+}
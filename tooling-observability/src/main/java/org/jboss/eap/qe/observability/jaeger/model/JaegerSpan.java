@@ -14,6 +14,7 @@ public class JaegerSpan {
     private String spanID;
     private String processID;
     private String operationName;
+    private List<JaegerReference> references;
     private Long startTime;
     private Integer duration;
     private List<JaegerTag> tags;
@@ -38,6 +39,15 @@ public class JaegerSpan {
         return this;
     }
 
+    public String getProcessID() {
+        return processID;
+    }
+
+    public JaegerSpan setProcessID(String processID) {
+        this.processID = processID;
+        return this;
+    }
+
     public String getOperationName() {
         return operationName;
     }
@@ -47,6 +57,15 @@ public class JaegerSpan {
         return this;
     }
 
+    public List<JaegerReference> getReferences() {
+        return references;
+    }
+
+    public JaegerSpan setReferences(List<JaegerReference> references) {
+        this.references = references;
+        return this;
+    }
+
     public Long getStartTime() {
         return startTime;
     }
@@ -90,6 +109,7 @@ public class JaegerSpan {
                 ", spanID='" + spanID + '\'' +
                 ", processID='" + processID + '\'' +
                 ", operationName='" + operationName + '\'' +
+                ", references=" + references +
                 ", startTime=" + startTime +
                 ", duration=" + duration +
                 ", tags=" + tags +
@@ -0,0 +1,238 @@
+package org.jboss.eap.qe.observability.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends requests from many concurrent clients to make instrumented code update the same meters at the same time.
+ * Every client is a platform thread sending its requests one after another, all clients start together.
+ * <p>
+ * Example:
+ *
+ * <pre>
+ * ConcurrentLoad.Result result = new ConcurrentLoad.Builder()
+ *         .clients(32)
+ *         .requestsPerClient(50)
+ *         .build()
+ *         .run(URI.create(url + "ping-one"));
+ * Assert.assertEquals(result.toString(), 0, result.getFailures());
+ * </pre>
+ */
+public final class ConcurrentLoad {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final int clients;
+    private final int requestsPerClient;
+
+    private ConcurrentLoad(Builder builder) {
+        this.clients = builder.clients;
+        this.requestsPerClient = builder.requestsPerClient;
+    }
+
+    /**
+     * @return number of requests sent by one run
+     */
+    public int getTotalRequests() {
+        return clients * requestsPerClient;
+    }
+
+    /**
+     * Sends GET requests to the URI, responses with status other than 2xx are failures.
+     *
+     * @param uri requested URI
+     * @return result of the run
+     */
+    public Result run(URI uri) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+        return run(index -> client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+    }
+
+    /**
+     * @param request sender of one request
+     * @return result of the run
+     */
+    public Result run(Request request) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(clients, runnable -> {
+            Thread thread = new Thread(runnable, "concurrent-load-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger failures = new AtomicInteger();
+        List<String> failureSamples = new ArrayList<>();
+        List<Future<long[]>> latencies = new ArrayList<>(clients);
+        try {
+            for (int c = 0; c < clients; c++) {
+                int firstIndex = c * requestsPerClient;
+                latencies.add(executor.submit(() -> {
+                    long[] clientLatencies = new long[requestsPerClient];
+                    start.await();
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        long sent = System.nanoTime();
+                        String failure;
+                        try {
+                            int status = request.send(firstIndex + i);
+                            failure = status / 100 == 2 ? null : "status " + status;
+                        } catch (InterruptedException e) {
+                            throw e;
+                        } catch (Exception e) {
+                            failure = e.toString();
+                        }
+                        clientLatencies[i] = System.nanoTime() - sent;
+                        if (failure != null && failures.incrementAndGet() <= 10) {
+                            synchronized (failureSamples) {
+                                failureSamples.add(failure);
+                            }
+                        }
+                    }
+                    return clientLatencies;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            long[] all = new long[getTotalRequests()];
+            for (int c = 0; c < clients; c++) {
+                try {
+                    System.arraycopy(latencies.get(c).get(), 0, all, c * requestsPerClient, requestsPerClient);
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Load client failed: " + e.getCause(), e.getCause());
+                }
+            }
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+            Arrays.sort(all);
+            return new Result(clients, all, failures.get(), failureSamples, elapsed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Sender of one request.
+     */
+    @FunctionalInterface
+    public interface Request {
+        /**
+         * @param index index of the request in the run, from zero to number of requests - 1
+         * @return HTTP status of the response
+         */
+        int send(int index) throws Exception;
+    }
+
+    /**
+     * Number of failures and latencies of requests of one run.
+     */
+    public static final class Result {
+        private final int clients;
+        private final long[] sortedLatencies;
+        private final int failures;
+        private final List<String> failureSamples;
+        private final Duration elapsed;
+
+        private Result(int clients, long[] sortedLatencies, int failures, List<String> failureSamples,
+                Duration elapsed) {
+            this.clients = clients;
+            this.sortedLatencies = sortedLatencies;
+            this.failures = failures;
+            this.failureSamples = failureSamples;
+            this.elapsed = elapsed;
+        }
+
+        public int getRequests() {
+            return sortedLatencies.length;
+        }
+
+        /**
+         * @return number of requests which failed or were not answered with 2xx status
+         */
+        public int getFailures() {
+            return failures;
+        }
+
+        /**
+         * @return time from start of the first request to the end of the last one
+         */
+        public Duration getElapsed() {
+            return elapsed;
+        }
+
+        /**
+         * @param percentile percentile in (0, 100]
+         * @return percentile of request latency, nearest rank
+         */
+        public Duration latency(double percentile) {
+            if (percentile <= 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile must be in (0, 100]: " + percentile);
+            }
+            if (sortedLatencies.length == 0) {
+                return Duration.ZERO;
+            }
+            int rank = (int) Math.ceil(percentile / 100 * sortedLatencies.length);
+            return Duration.ofNanos(sortedLatencies[Math.max(0, rank - 1)]);
+        }
+
+        /**
+         * @return requests per second
+         */
+        public double getThroughput() {
+            return elapsed.isZero() ? 0 : getRequests() / (elapsed.toNanos() / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%d requests from %d clients in %d ms (%.1f/s), %d failed %s, latency p50=%.3f p99=%.3f max=%.3f ms",
+                    getRequests(), clients, elapsed.toMillis(), getThroughput(), failures, failureSamples,
+                    latency(50).toNanos() / 1e6, latency(99).toNanos() / 1e6, latency(100).toNanos() / 1e6);
+        }
+    }
+
+    public static class Builder {
+        private int clients = Integer.parseInt(System.getProperty("load.clients", "32"));
+        private int requestsPerClient = Integer.parseInt(System.getProperty("load.requests.per.client", "20"));
+
+        /**
+         * @param clients number of concurrent clients, system property {@code load.clients} by default
+         */
+        public Builder clients(int clients) {
+            this.clients = clients;
+            return this;
+        }
+
+        /**
+         * @param requestsPerClient number of requests sent by each client, system property
+         *        {@code load.requests.per.client} by default
+         */
+        public Builder requestsPerClient(int requestsPerClient) {
+            this.requestsPerClient = requestsPerClient;
+            return this;
+        }
+
+        public ConcurrentLoad build() {
+            if (clients <= 0 || requestsPerClient <= 0) {
+                throw new IllegalArgumentException("Number of clients and requests must be positive: " + clients
+                        + " clients, " + requestsPerClient + " requests per client");
+            }
+            return new ConcurrentLoad(this);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.jboss.eap.qe.observability.otlp;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Decoding of OTLP common messages - {@code KeyValue}, {@code AnyValue} and ids.
+ */
+final class OtlpAttributes {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private OtlpAttributes() {
+    }
+
+    /**
+     * Reads {@code KeyValue} message and puts it to attributes, values are converted to strings.
+     */
+    static void readKeyValue(ProtobufReader keyValue, Map<String, String> attributes) {
+        Attribute attribute = readAttribute(keyValue);
+        attributes.put(attribute.key, attribute.value);
+    }
+
+    /**
+     * Reads {@code KeyValue} message keeping type of the value.
+     */
+    static Attribute readAttribute(ProtobufReader keyValue) {
+        Attribute attribute = new Attribute();
+        while (keyValue.next()) {
+            switch (keyValue.getField()) {
+                case 1:
+                    attribute.key = keyValue.readString();
+                    break;
+                case 2:
+                    readAnyValue(keyValue.readMessage(), attribute);
+                    break;
+                default:
+                    keyValue.skip();
+            }
+        }
+        return attribute;
+    }
+
+    /**
+     * Reads {@code InstrumentationScope} or {@code Resource} message attributes, field 1 of resource, field 3 of scope.
+     */
+    static Map<String, String> readAttributes(ProtobufReader message, int attributesField) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        while (message.next()) {
+            if (message.getField() == attributesField) {
+                readKeyValue(message.readMessage(), attributes);
+            } else {
+                message.skip();
+            }
+        }
+        return attributes;
+    }
+
+    /**
+     * @return value of {@code AnyValue}, arrays and key-value lists formatted as JSON like the collector does
+     */
+    static String readAnyValue(ProtobufReader anyValue) {
+        Attribute attribute = new Attribute();
+        readAnyValue(anyValue, attribute);
+        return attribute.value;
+    }
+
+    private static void readAnyValue(ProtobufReader anyValue, Attribute attribute) {
+        while (anyValue.next()) {
+            switch (anyValue.getField()) {
+                case 1:
+                    attribute.set("string", anyValue.readString());
+                    break;
+                case 2:
+                    attribute.set("bool", String.valueOf(anyValue.readVarint() != 0));
+                    break;
+                case 3:
+                    attribute.set("int64", String.valueOf(anyValue.readVarint()));
+                    break;
+                case 4:
+                    attribute.set("float64", String.valueOf(anyValue.readDouble()));
+                    break;
+                case 5:
+                    attribute.set("string", readArray(anyValue.readMessage()));
+                    break;
+                case 6:
+                    attribute.set("string", readKeyValueList(anyValue.readMessage()));
+                    break;
+                case 7:
+                    attribute.set("binary", toHex(anyValue.readBytes()));
+                    break;
+                default:
+                    anyValue.skip();
+            }
+        }
+    }
+
+    private static String readArray(ProtobufReader array) {
+        StringJoiner joiner = new StringJoiner(",", "[", "]");
+        while (array.next()) {
+            if (array.getField() == 1) {
+                joiner.add('"' + readAnyValue(array.readMessage()) + '"');
+            } else {
+                array.skip();
+            }
+        }
+        return joiner.toString();
+    }
+
+    private static String readKeyValueList(ProtobufReader list) {
+        Map<String, String> values = readAttributes(list, 1);
+        StringJoiner joiner = new StringJoiner(",", "{", "}");
+        values.forEach((key, value) -> joiner.add('"' + key + "\":\"" + value + '"'));
+        return joiner.toString();
+    }
+
+    /**
+     * @return lower case hex of trace or span id
+     */
+    static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[2 * i] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[2 * i + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Attribute with type named as in Jaeger tags - string, bool, int64, float64 or binary.
+     */
+    static final class Attribute {
+        private String key = "";
+        private String type = "string";
+        private String value = "";
+
+        private void set(String type, String value) {
+            this.type = type;
+            this.value = value;
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        String getType() {
+            return type;
+        }
+
+        String getValue() {
+            return value;
+        }
+    }
+}
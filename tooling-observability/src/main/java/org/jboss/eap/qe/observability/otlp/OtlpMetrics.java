@@ -0,0 +1,626 @@
+package org.jboss.eap.qe.observability.otlp;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.jboss.eap.qe.observability.prometheus.model.PrometheusMetric;
+
+/**
+ * Metrics received as OTLP {@code ExportMetricsServiceRequest}, kept as Prometheus samples the same way as the
+ * collector's Prometheus exporter does - names with unit and {@code _total} suffixes, histograms as {@code _bucket},
+ * {@code _sum} and {@code _count} series, {@code job} and {@code instance} labels from resource attributes. Delta
+ * temporality is accumulated to cumulative values.
+ * <p>
+ * Only the latest value of each series is kept. Series over the limit are dropped, so a cardinality bug in tested
+ * application cannot exhaust memory of the test JVM.
+ */
+final class OtlpMetrics {
+
+    private static final int AGGREGATION_TEMPORALITY_DELTA = 1;
+    private static final Map<String, String> UNITS = new HashMap<>();
+
+    static {
+        UNITS.put("d", "days");
+        UNITS.put("h", "hours");
+        UNITS.put("min", "minutes");
+        UNITS.put("s", "seconds");
+        UNITS.put("ms", "milliseconds");
+        UNITS.put("us", "microseconds");
+        UNITS.put("ns", "nanoseconds");
+        UNITS.put("By", "bytes");
+        UNITS.put("KiBy", "kibibytes");
+        UNITS.put("MiBy", "mebibytes");
+        UNITS.put("GiBy", "gibibytes");
+        UNITS.put("KBy", "kilobytes");
+        UNITS.put("MBy", "megabytes");
+        UNITS.put("GBy", "gigabytes");
+        UNITS.put("m", "meters");
+        UNITS.put("V", "volts");
+        UNITS.put("A", "amperes");
+        UNITS.put("J", "joules");
+        UNITS.put("W", "watts");
+        UNITS.put("g", "grams");
+        UNITS.put("Cel", "celsius");
+        UNITS.put("Hz", "hertz");
+        UNITS.put("%", "percent");
+    }
+
+    private final int maxSeries;
+    private final Map<SeriesKey, Series> series = new LinkedHashMap<>();
+    private long droppedSamples;
+
+    OtlpMetrics(int maxSeries) {
+        this.maxSeries = maxSeries;
+    }
+
+    /**
+     * @param request encoded {@code ExportMetricsServiceRequest}
+     * @throws IllegalArgumentException if the request is malformed
+     */
+    void accept(byte[] request) {
+        List<Sample> samples = new ArrayList<>();
+        ProtobufReader reader = new ProtobufReader(request);
+        while (reader.next()) {
+            if (reader.getField() == 1) {
+                readResourceMetrics(reader.readMessage(), samples);
+            } else {
+                reader.skip();
+            }
+        }
+        synchronized (this) {
+            for (Sample sample : samples) {
+                add(sample);
+            }
+        }
+    }
+
+    /**
+     * @return the latest sample of each series in order of arrival of the series
+     */
+    synchronized List<PrometheusMetric> getMetrics() {
+        List<PrometheusMetric> metrics = new ArrayList<>(series.size());
+        for (Map.Entry<SeriesKey, Series> entry : series.entrySet()) {
+            Series value = entry.getValue();
+            metrics.add(new PrometheusMetric(entry.getKey().name, entry.getKey().labels, value.value, value.type,
+                    value.help, PrometheusMetric.NO_TIMESTAMP, null));
+        }
+        return metrics;
+    }
+
+    /**
+     * @return number of samples dropped because of the series limit
+     */
+    synchronized long getDroppedSamples() {
+        return droppedSamples;
+    }
+
+    synchronized void clear() {
+        series.clear();
+        droppedSamples = 0;
+    }
+
+    private void add(Sample sample) {
+        SeriesKey key = new SeriesKey(sample.name, sample.labels);
+        Series existing = series.get(key);
+        if (existing == null) {
+            if (series.size() >= maxSeries) {
+                droppedSamples++;
+                return;
+            }
+            series.put(key, new Series(sample));
+        } else {
+            existing.value = sample.delta ? existing.value + sample.value : sample.value;
+        }
+    }
+
+    private static void readResourceMetrics(ProtobufReader resourceMetrics, List<Sample> samples) {
+        Map<String, String> resourceLabels = Collections.emptyMap();
+        List<ProtobufReader> scopeMetrics = new ArrayList<>();
+        while (resourceMetrics.next()) {
+            switch (resourceMetrics.getField()) {
+                case 1:
+                    resourceLabels = resourceLabels(OtlpAttributes.readAttributes(resourceMetrics.readMessage(), 1));
+                    break;
+                case 2:
+                    // resource can follow scopes on the wire
+                    scopeMetrics.add(resourceMetrics.readMessage());
+                    break;
+                default:
+                    resourceMetrics.skip();
+            }
+        }
+        for (ProtobufReader scope : scopeMetrics) {
+            readScopeMetrics(scope, resourceLabels, samples);
+        }
+    }
+
+    private static Map<String, String> resourceLabels(Map<String, String> attributes) {
+        Map<String, String> labels = new LinkedHashMap<>();
+        String service = attributes.get("service.name");
+        if (service != null) {
+            String namespace = attributes.get("service.namespace");
+            labels.put("job", namespace == null ? service : namespace + "/" + service);
+        }
+        String instance = attributes.get("service.instance.id");
+        if (instance != null) {
+            labels.put("instance", instance);
+        }
+        return labels;
+    }
+
+    private static void readScopeMetrics(ProtobufReader scopeMetrics, Map<String, String> resourceLabels,
+            List<Sample> samples) {
+        Map<String, String> labels = new LinkedHashMap<>(resourceLabels);
+        List<ProtobufReader> metrics = new ArrayList<>();
+        while (scopeMetrics.next()) {
+            switch (scopeMetrics.getField()) {
+                case 1:
+                    readScope(scopeMetrics.readMessage(), labels);
+                    break;
+                case 2:
+                    metrics.add(scopeMetrics.readMessage());
+                    break;
+                default:
+                    scopeMetrics.skip();
+            }
+        }
+        for (ProtobufReader metric : metrics) {
+            readMetric(metric, labels, samples);
+        }
+    }
+
+    private static void readScope(ProtobufReader scope, Map<String, String> labels) {
+        while (scope.next()) {
+            switch (scope.getField()) {
+                case 1:
+                    putNonEmpty(labels, "otel_scope_name", scope.readString());
+                    break;
+                case 2:
+                    putNonEmpty(labels, "otel_scope_version", scope.readString());
+                    break;
+                default:
+                    scope.skip();
+            }
+        }
+    }
+
+    private static void putNonEmpty(Map<String, String> labels, String key, String value) {
+        // Prometheus does not distinguish empty and missing labels
+        if (!value.isEmpty()) {
+            labels.put(key, value);
+        }
+    }
+
+    private static void readMetric(ProtobufReader metric, Map<String, String> scopeLabels, List<Sample> samples) {
+        String name = "";
+        String description = "";
+        String unit = "";
+        int dataField = 0;
+        ProtobufReader data = null;
+        while (metric.next()) {
+            switch (metric.getField()) {
+                case 1:
+                    name = metric.readString();
+                    break;
+                case 2:
+                    description = metric.readString();
+                    break;
+                case 3:
+                    unit = metric.readString();
+                    break;
+                case 5:
+                case 7:
+                case 9:
+                case 11:
+                    dataField = metric.getField();
+                    data = metric.readMessage();
+                    break;
+                default:
+                    // exponential histograms are not converted by this stand-in
+                    metric.skip();
+            }
+        }
+        if (data == null) {
+            return;
+        }
+        Family family = new Family(name, description, unit, scopeLabels);
+        switch (dataField) {
+            case 5:
+                family.type = "gauge";
+                readNumberPoints(data, family, samples);
+                break;
+            case 7:
+                readSum(data, family, samples);
+                break;
+            case 9:
+                family.type = "histogram";
+                readHistogram(data, family, samples);
+                break;
+            default:
+                family.type = "summary";
+                readSummary(data, family, samples);
+        }
+    }
+
+    private static void readSum(ProtobufReader sum, Family family, List<Sample> samples) {
+        List<ProtobufReader> points = new ArrayList<>();
+        boolean monotonic = false;
+        while (sum.next()) {
+            switch (sum.getField()) {
+                case 1:
+                    points.add(sum.readMessage());
+                    break;
+                case 2:
+                    family.delta = sum.readVarint() == AGGREGATION_TEMPORALITY_DELTA;
+                    break;
+                case 3:
+                    monotonic = sum.readVarint() != 0;
+                    break;
+                default:
+                    sum.skip();
+            }
+        }
+        family.type = monotonic ? "counter" : "gauge";
+        // non-monotonic deltas make no sense as a gauge, the collector accumulates only monotonic sums
+        family.delta &= monotonic;
+        for (ProtobufReader point : points) {
+            readNumberPoint(point, family, samples);
+        }
+    }
+
+    private static void readNumberPoints(ProtobufReader gauge, Family family, List<Sample> samples) {
+        while (gauge.next()) {
+            if (gauge.getField() == 1) {
+                readNumberPoint(gauge.readMessage(), family, samples);
+            } else {
+                gauge.skip();
+            }
+        }
+    }
+
+    private static void readNumberPoint(ProtobufReader point, Family family, List<Sample> samples) {
+        Map<String, String> labels = new LinkedHashMap<>(family.labels);
+        double value = 0;
+        while (point.next()) {
+            switch (point.getField()) {
+                case 4:
+                    value = point.readDouble();
+                    break;
+                case 6:
+                    value = point.readFixed64();
+                    break;
+                case 7:
+                    readLabel(point.readMessage(), labels);
+                    break;
+                default:
+                    point.skip();
+            }
+        }
+        samples.add(family.sample(family.name(), labels, value));
+    }
+
+    private static void readHistogram(ProtobufReader histogram, Family family, List<Sample> samples) {
+        List<ProtobufReader> points = new ArrayList<>();
+        while (histogram.next()) {
+            switch (histogram.getField()) {
+                case 1:
+                    points.add(histogram.readMessage());
+                    break;
+                case 2:
+                    family.delta = histogram.readVarint() == AGGREGATION_TEMPORALITY_DELTA;
+                    break;
+                default:
+                    histogram.skip();
+            }
+        }
+        for (ProtobufReader point : points) {
+            readHistogramPoint(point, family, samples);
+        }
+    }
+
+    private static void readHistogramPoint(ProtobufReader point, Family family, List<Sample> samples) {
+        Map<String, String> labels = new LinkedHashMap<>(family.labels);
+        double count = 0;
+        double sum = 0;
+        List<Double> bucketCounts = new ArrayList<>();
+        List<Double> bounds = new ArrayList<>();
+        while (point.next()) {
+            switch (point.getField()) {
+                case 4:
+                    count = point.readFixed64();
+                    break;
+                case 5:
+                    sum = point.readDouble();
+                    break;
+                case 6:
+                    readPackedFixed64(point, bucketCounts, false);
+                    break;
+                case 7:
+                    readPackedFixed64(point, bounds, true);
+                    break;
+                case 9:
+                    readLabel(point.readMessage(), labels);
+                    break;
+                default:
+                    point.skip();
+            }
+        }
+        String name = family.name();
+        double cumulative = 0;
+        for (int i = 0; i < bucketCounts.size(); i++) {
+            cumulative += bucketCounts.get(i);
+            Map<String, String> bucketLabels = new LinkedHashMap<>(labels);
+            bucketLabels.put("le", i < bounds.size() ? formatBound(bounds.get(i)) : "+Inf");
+            samples.add(family.sample(name + "_bucket", bucketLabels, cumulative));
+        }
+        samples.add(family.sample(name + "_sum", labels, sum));
+        samples.add(family.sample(name + "_count", labels, count));
+    }
+
+    private static void readSummary(ProtobufReader summary, Family family, List<Sample> samples) {
+        while (summary.next()) {
+            if (summary.getField() == 1) {
+                readSummaryPoint(summary.readMessage(), family, samples);
+            } else {
+                summary.skip();
+            }
+        }
+    }
+
+    private static void readSummaryPoint(ProtobufReader point, Family family, List<Sample> samples) {
+        Map<String, String> labels = new LinkedHashMap<>(family.labels);
+        double count = 0;
+        double sum = 0;
+        Map<String, Double> quantiles = new LinkedHashMap<>();
+        while (point.next()) {
+            switch (point.getField()) {
+                case 4:
+                    count = point.readFixed64();
+                    break;
+                case 5:
+                    sum = point.readDouble();
+                    break;
+                case 6:
+                    readQuantile(point.readMessage(), quantiles);
+                    break;
+                case 7:
+                    readLabel(point.readMessage(), labels);
+                    break;
+                default:
+                    point.skip();
+            }
+        }
+        String name = family.name();
+        quantiles.forEach((quantile, value) -> {
+            Map<String, String> quantileLabels = new LinkedHashMap<>(labels);
+            quantileLabels.put("quantile", quantile);
+            samples.add(family.sample(name, quantileLabels, value));
+        });
+        samples.add(family.sample(name + "_sum", labels, sum));
+        samples.add(family.sample(name + "_count", labels, count));
+    }
+
+    private static void readQuantile(ProtobufReader valueAtQuantile, Map<String, Double> quantiles) {
+        double quantile = 0;
+        double value = 0;
+        while (valueAtQuantile.next()) {
+            switch (valueAtQuantile.getField()) {
+                case 1:
+                    quantile = valueAtQuantile.readDouble();
+                    break;
+                case 2:
+                    value = valueAtQuantile.readDouble();
+                    break;
+                default:
+                    valueAtQuantile.skip();
+            }
+        }
+        quantiles.put(formatBound(quantile), value);
+    }
+
+    private static void readPackedFixed64(ProtobufReader point, List<Double> values, boolean doubles) {
+        if (!point.isPacked()) {
+            values.add(doubles ? point.readDouble() : (double) point.readFixed64());
+            return;
+        }
+        ProtobufReader packed = point.readMessage();
+        while (packed.hasRemaining()) {
+            values.add(doubles ? packed.readDouble() : (double) packed.readFixed64());
+        }
+    }
+
+    private static void readLabel(ProtobufReader keyValue, Map<String, String> labels) {
+        Map<String, String> attribute = new HashMap<>(1);
+        OtlpAttributes.readKeyValue(keyValue, attribute);
+        attribute.forEach((key, value) -> labels.put(sanitizeLabel(key), value));
+    }
+
+    private static String formatBound(double bound) {
+        if (Double.isInfinite(bound)) {
+            return PrometheusMetric.formatValue(bound);
+        }
+        // plain notation as the collector, for example 0.0005 instead of 5.0E-4
+        return BigDecimal.valueOf(bound).stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * @return Prometheus name of metric with unit and type suffixes, for example "http.server.duration" in "s" is
+     *         "http_server_duration_seconds"
+     */
+    static String prometheusName(String name, String unit, String type) {
+        StringBuilder result = new StringBuilder(sanitizeName(name));
+        String unitSuffix = unitSuffix(unit, type);
+        if (!unitSuffix.isEmpty() && !endsWithToken(result, unitSuffix)) {
+            result.append('_').append(unitSuffix);
+        }
+        if ("counter".equals(type) && !endsWithToken(result, "total")) {
+            result.append("_total");
+        }
+        return result.toString();
+    }
+
+    private static boolean endsWithToken(CharSequence name, String token) {
+        String value = name.toString();
+        return value.equals(token) || value.endsWith("_" + token);
+    }
+
+    private static String unitSuffix(String unit, String type) {
+        // annotations like {requests} are not units
+        String plain = unit.replaceAll("\\{[^}]*}", "").trim();
+        if (plain.isEmpty()) {
+            return "";
+        }
+        if ("1".equals(plain)) {
+            return "gauge".equals(type) ? "ratio" : "";
+        }
+        int slash = plain.indexOf('/');
+        if (slash >= 0) {
+            String main = unitName(plain.substring(0, slash));
+            String per = plain.substring(slash + 1);
+            String perName = per.length() == 1 ? perUnitName(per) : unitName(per);
+            return main.isEmpty() ? "per_" + perName : main + "_per_" + perName;
+        }
+        return unitName(plain);
+    }
+
+    private static String perUnitName(String unit) {
+        switch (unit) {
+            case "s":
+                return "second";
+            case "m":
+                return "minute";
+            case "h":
+                return "hour";
+            case "d":
+                return "day";
+            default:
+                return unitName(unit);
+        }
+    }
+
+    private static String unitName(String unit) {
+        return sanitizeName(UNITS.getOrDefault(unit, unit)).replaceAll("^_+|_+$", "");
+    }
+
+    private static String sanitizeName(String name) {
+        return sanitize(name, "_", true);
+    }
+
+    private static String sanitizeLabel(String key) {
+        return sanitize(key, "key_", false);
+    }
+
+    private static String sanitize(String name, String digitPrefix, boolean colonAllowed) {
+        StringBuilder result = new StringBuilder(name.length() + digitPrefix.length());
+        if (!name.isEmpty() && name.charAt(0) >= '0' && name.charAt(0) <= '9') {
+            result.append(digitPrefix);
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            boolean valid = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_'
+                    || (c == ':' && colonAllowed);
+            // the collector collapses repeated underscores
+            if (valid && c != '_') {
+                result.append(c);
+            } else if (result.length() == 0 || result.charAt(result.length() - 1) != '_') {
+                result.append('_');
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Metric being decoded.
+     */
+    private static final class Family {
+        private final String otlpName;
+        private final String help;
+        private final String unit;
+        private final Map<String, String> labels;
+        private String type;
+        private boolean delta;
+
+        private Family(String otlpName, String help, String unit, Map<String, String> labels) {
+            this.otlpName = otlpName;
+            this.help = help;
+            this.unit = unit;
+            this.labels = labels;
+        }
+
+        private String name() {
+            return prometheusName(otlpName, unit, type);
+        }
+
+        private Sample sample(String name, Map<String, String> labels, double value) {
+            return new Sample(name, labels, value, type, help, delta);
+        }
+    }
+
+    /**
+     * Decoded sample, applied to series once the whole request is decoded.
+     */
+    private static final class Sample {
+        private final String name;
+        private final Map<String, String> labels;
+        private final double value;
+        private final String type;
+        private final String help;
+        private final boolean delta;
+
+        private Sample(String name, Map<String, String> labels, double value, String type, String help,
+                boolean delta) {
+            this.name = name;
+            this.labels = labels;
+            this.value = value;
+            this.type = type;
+            this.help = help;
+            this.delta = delta;
+        }
+    }
+
+    private static final class Series {
+        private final String type;
+        private final String help;
+        private double value;
+
+        private Series(Sample sample) {
+            this.type = sample.type;
+            this.help = sample.help;
+            this.value = sample.value;
+        }
+    }
+
+    private static final class SeriesKey {
+        private final String name;
+        private final Map<String, String> labels;
+
+        private SeriesKey(String name, Map<String, String> labels) {
+            this.name = name;
+            // order of attributes may differ between exports
+            this.labels = Collections.unmodifiableMap(new TreeMap<>(labels));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SeriesKey)) {
+                return false;
+            }
+            SeriesKey other = (SeriesKey) o;
+            return name.equals(other.name) && labels.equals(other.labels);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * name.hashCode() + labels.hashCode();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package org.jboss.eap.qe.observability.otlp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import org.jboss.eap.qe.observability.jaeger.model.JaegerTrace;
+import org.jboss.eap.qe.observability.prometheus.model.PrometheusMetric;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In-JVM receiver of OTLP/HTTP exports in protobuf encoding, a stand-in for OpenTelemetry collector which needs no
+ * Docker. Metrics are kept as Prometheus samples and spans as Jaeger traces, with bounded retention, see
+ * {@link Builder}.
+ * <p>
+ * Only {@code http/protobuf} protocol is supported - {@code /v1/metrics}, {@code /v1/traces} and {@code /v1/logs}
+ * (logs are accepted and dropped). JSON encoding and gRPC are not supported.
+ */
+public final class OtlpReceiver {
+
+    private static final String PROTOBUF = "application/x-protobuf";
+
+    private final String host;
+    private final int port;
+    private final OtlpMetrics metrics;
+    private final OtlpTraces traces;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    private OtlpReceiver(Builder builder) {
+        this.host = builder.host;
+        this.port = builder.port;
+        this.metrics = new OtlpMetrics(builder.maxSeries);
+        this.traces = new OtlpTraces(builder.maxSpans);
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        server.createContext("/v1/metrics", exchange -> handle(exchange, metrics::accept));
+        server.createContext("/v1/traces", exchange -> handle(exchange, traces::accept));
+        server.createContext("/v1/logs", exchange -> handle(exchange, request -> {
+        }));
+        executor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "otlp-receiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    /**
+     * @return URL which OTLP/HTTP exporters send to, without {@code /v1/...} path
+     */
+    public synchronized String getEndpoint() {
+        if (server == null) {
+            throw new IllegalStateException("OTLP receiver is not started");
+        }
+        return "http://" + host + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * @return the latest sample of each received metric series
+     */
+    public List<PrometheusMetric> getMetrics() {
+        return metrics.getMetrics();
+    }
+
+    /**
+     * @return number of samples dropped because of the series limit, non-zero value means cardinality explosion
+     */
+    public long getDroppedSamples() {
+        return metrics.getDroppedSamples();
+    }
+
+    /**
+     * @param serviceName service name
+     * @return received traces with a span of given service
+     */
+    public List<JaegerTrace> getTraces(String serviceName) {
+        return traces.getTraces(serviceName);
+    }
+
+    /**
+     * @return names of services which sent spans
+     */
+    public Set<String> getServices() {
+        return traces.getServices();
+    }
+
+    /**
+     * Forgets all received metrics and spans.
+     */
+    public void clear() {
+        metrics.clear();
+        traces.clear();
+    }
+
+    private static void handle(HttpExchange exchange, Consumer<byte[]> consumer) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, "Only POST is supported");
+                return;
+            }
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            if (contentType == null || !contentType.startsWith(PROTOBUF)) {
+                respond(exchange, 415, "Only " + PROTOBUF + " is supported");
+                return;
+            }
+            byte[] body;
+            try (InputStream in = requestBody(exchange)) {
+                body = in.readAllBytes();
+            }
+            try {
+                consumer.accept(body);
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                respond(exchange, 400, "Malformed request: " + e.getMessage());
+                return;
+            }
+            // empty Export*ServiceResponse means everything was accepted
+            exchange.getResponseHeaders().set("Content-Type", PROTOBUF);
+            exchange.sendResponseHeaders(200, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static InputStream requestBody(HttpExchange exchange) throws IOException {
+        InputStream body = exchange.getRequestBody();
+        return "gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))
+                ? new GZIPInputStream(body)
+                : body;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    public static class Builder {
+        private String host = "localhost";
+        private int port;
+        private int maxSeries = 10_000;
+        private int maxSpans = 10_000;
+
+        /**
+         * @param host address to listen on, default is localhost
+         */
+        public Builder host(String host) {
+            this.host = host;
+            return this;
+        }
+
+        /**
+         * @param port port to listen on, default 0 means a free port
+         */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * @param maxSeries maximal number of kept metric series, samples of new series over the limit are dropped
+         */
+        public Builder maxSeries(int maxSeries) {
+            this.maxSeries = maxSeries;
+            return this;
+        }
+
+        /**
+         * @param maxSpans maximal number of kept spans, the oldest spans are evicted
+         */
+        public Builder maxSpans(int maxSpans) {
+            this.maxSpans = maxSpans;
+            return this;
+        }
+
+        public OtlpReceiver build() {
+            return new OtlpReceiver(this);
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package org.jboss.eap.qe.observability.otlp;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.jboss.eap.qe.observability.jaeger.model.JaegerLog;
+import org.jboss.eap.qe.observability.jaeger.model.JaegerProcess;
+import org.jboss.eap.qe.observability.jaeger.model.JaegerReference;
+import org.jboss.eap.qe.observability.jaeger.model.JaegerSpan;
+import org.jboss.eap.qe.observability.jaeger.model.JaegerTag;
+import org.jboss.eap.qe.observability.jaeger.model.JaegerTrace;
+
+/**
+ * Spans received as OTLP {@code ExportTraceServiceRequest}, converted to the Jaeger model as Jaeger query API returns
+ * them - span kind, status and scope are tags, events are logs and parent span is {@code CHILD_OF} reference.
+ * <p>
+ * Only the latest spans up to the limit are kept, the oldest spans are evicted first.
+ */
+final class OtlpTraces {
+
+    private static final String[] SPAN_KINDS = { null, "internal", "server", "client", "producer", "consumer" };
+    private static final String[] STATUS_CODES = { null, "OK", "ERROR" };
+
+    private final int maxSpans;
+    private final Deque<ReceivedSpan> spans = new ArrayDeque<>();
+    private final Map<String, JaegerProcess> processes = new LinkedHashMap<>();
+
+    OtlpTraces(int maxSpans) {
+        this.maxSpans = maxSpans;
+    }
+
+    /**
+     * @param request encoded {@code ExportTraceServiceRequest}
+     * @throws IllegalArgumentException if the request is malformed
+     */
+    void accept(byte[] request) {
+        List<ReceivedSpan> received = new ArrayList<>();
+        ProtobufReader reader = new ProtobufReader(request);
+        while (reader.next()) {
+            if (reader.getField() == 1) {
+                readResourceSpans(reader.readMessage(), received);
+            } else {
+                reader.skip();
+            }
+        }
+        synchronized (this) {
+            for (ReceivedSpan span : received) {
+                if (spans.size() >= maxSpans) {
+                    spans.removeFirst();
+                }
+                spans.addLast(new ReceivedSpan(span.span, intern(span.process)));
+            }
+        }
+    }
+
+    /**
+     * @param serviceName service name
+     * @return traces with a span of given service, in order of arrival of their first span
+     */
+    synchronized List<JaegerTrace> getTraces(String serviceName) {
+        Set<String> traceIds = new LinkedHashSet<>();
+        for (ReceivedSpan span : spans) {
+            if (serviceName.equals(span.process.getServiceName())) {
+                traceIds.add(span.span.getTraceID());
+            }
+        }
+        Map<String, List<ReceivedSpan>> byTrace = new LinkedHashMap<>();
+        for (String traceId : traceIds) {
+            byTrace.put(traceId, new ArrayList<>());
+        }
+        for (ReceivedSpan span : spans) {
+            List<ReceivedSpan> traceSpans = byTrace.get(span.span.getTraceID());
+            if (traceSpans != null) {
+                traceSpans.add(span);
+            }
+        }
+        List<JaegerTrace> traces = new ArrayList<>(byTrace.size());
+        byTrace.forEach((traceId, traceSpans) -> traces.add(toTrace(traceId, traceSpans)));
+        return traces;
+    }
+
+    /**
+     * @return names of services which sent spans, sorted
+     */
+    synchronized Set<String> getServices() {
+        Set<String> services = new TreeSet<>();
+        for (ReceivedSpan span : spans) {
+            services.add(span.process.getServiceName());
+        }
+        return services;
+    }
+
+    synchronized void clear() {
+        spans.clear();
+        processes.clear();
+    }
+
+    /**
+     * Each export request of a service carries its resource, spans of equal resources share one process.
+     */
+    private JaegerProcess intern(JaegerProcess process) {
+        return processes.computeIfAbsent(process.getServiceName() + process.getTags(), key -> process);
+    }
+
+    private static JaegerTrace toTrace(String traceId, List<ReceivedSpan> traceSpans) {
+        // spans of the same resource share the process, Jaeger numbers processes of a trace p1, p2...
+        Map<JaegerProcess, String> processIds = new LinkedHashMap<>();
+        List<JaegerSpan> jaegerSpans = new ArrayList<>(traceSpans.size());
+        for (ReceivedSpan span : traceSpans) {
+            String processId = processIds.computeIfAbsent(span.process, process -> "p" + (processIds.size() + 1));
+            jaegerSpans.add(span.span.setProcessID(processId));
+        }
+        Map<String, JaegerProcess> processes = new LinkedHashMap<>();
+        processIds.forEach((process, id) -> processes.put(id, process));
+        return new JaegerTrace()
+                .setTraceID(traceId)
+                .setSpans(jaegerSpans)
+                .setProcesses(processes)
+                .setWarnings(new ArrayList<>());
+    }
+
+    private static void readResourceSpans(ProtobufReader resourceSpans, List<ReceivedSpan> received) {
+        JaegerProcess process = new JaegerProcess().setServiceName("unknown_service").setTags(new ArrayList<>());
+        List<ProtobufReader> scopeSpans = new ArrayList<>();
+        while (resourceSpans.next()) {
+            switch (resourceSpans.getField()) {
+                case 1:
+                    process = readProcess(resourceSpans.readMessage());
+                    break;
+                case 2:
+                    scopeSpans.add(resourceSpans.readMessage());
+                    break;
+                default:
+                    resourceSpans.skip();
+            }
+        }
+        for (ProtobufReader scope : scopeSpans) {
+            readScopeSpans(scope, process, received);
+        }
+    }
+
+    private static JaegerProcess readProcess(ProtobufReader resource) {
+        String serviceName = "unknown_service";
+        List<JaegerTag> tags = new ArrayList<>();
+        while (resource.next()) {
+            if (resource.getField() == 1) {
+                OtlpAttributes.Attribute attribute = OtlpAttributes.readAttribute(resource.readMessage());
+                if ("service.name".equals(attribute.getKey())) {
+                    serviceName = attribute.getValue();
+                } else {
+                    tags.add(tag(attribute));
+                }
+            } else {
+                resource.skip();
+            }
+        }
+        return new JaegerProcess().setServiceName(serviceName).setTags(tags);
+    }
+
+    private static void readScopeSpans(ProtobufReader scopeSpans, JaegerProcess process,
+            List<ReceivedSpan> received) {
+        List<JaegerTag> scopeTags = new ArrayList<>();
+        List<ProtobufReader> spans = new ArrayList<>();
+        while (scopeSpans.next()) {
+            switch (scopeSpans.getField()) {
+                case 1:
+                    readScope(scopeSpans.readMessage(), scopeTags);
+                    break;
+                case 2:
+                    spans.add(scopeSpans.readMessage());
+                    break;
+                default:
+                    scopeSpans.skip();
+            }
+        }
+        for (ProtobufReader span : spans) {
+            received.add(new ReceivedSpan(readSpan(span, scopeTags), process));
+        }
+    }
+
+    private static void readScope(ProtobufReader scope, List<JaegerTag> tags) {
+        while (scope.next()) {
+            switch (scope.getField()) {
+                case 1:
+                    tags.add(tag("otel.scope.name", "string", scope.readString()));
+                    break;
+                case 2:
+                    tags.add(tag("otel.scope.version", "string", scope.readString()));
+                    break;
+                default:
+                    scope.skip();
+            }
+        }
+    }
+
+    private static JaegerSpan readSpan(ProtobufReader span, List<JaegerTag> scopeTags) {
+        String traceId = "";
+        String spanId = "";
+        String parentSpanId = "";
+        String name = "";
+        long start = 0;
+        long end = 0;
+        List<JaegerTag> tags = new ArrayList<>();
+        List<JaegerLog> logs = new ArrayList<>();
+        List<JaegerReference> links = new ArrayList<>();
+        while (span.next()) {
+            switch (span.getField()) {
+                case 1:
+                    traceId = OtlpAttributes.toHex(span.readBytes());
+                    break;
+                case 2:
+                    spanId = OtlpAttributes.toHex(span.readBytes());
+                    break;
+                case 4:
+                    parentSpanId = OtlpAttributes.toHex(span.readBytes());
+                    break;
+                case 5:
+                    name = span.readString();
+                    break;
+                case 6:
+                    String kind = enumName(SPAN_KINDS, span.readVarint());
+                    if (kind != null) {
+                        tags.add(tag("span.kind", "string", kind));
+                    }
+                    break;
+                case 7:
+                    start = span.readFixed64();
+                    break;
+                case 8:
+                    end = span.readFixed64();
+                    break;
+                case 9:
+                    tags.add(tag(OtlpAttributes.readAttribute(span.readMessage())));
+                    break;
+                case 11:
+                    logs.add(readEvent(span.readMessage()));
+                    break;
+                case 13:
+                    links.add(readLink(span.readMessage()));
+                    break;
+                case 15:
+                    readStatus(span.readMessage(), tags);
+                    break;
+                default:
+                    span.skip();
+            }
+        }
+        tags.addAll(scopeTags);
+        List<JaegerReference> references = new ArrayList<>();
+        if (!parentSpanId.isEmpty()) {
+            references.add(new JaegerReference().setRefType("CHILD_OF").setTraceID(traceId).setSpanID(parentSpanId));
+        }
+        references.addAll(links);
+        return new JaegerSpan()
+                .setTraceID(traceId)
+                .setSpanID(spanId)
+                .setOperationName(name)
+                .setReferences(references)
+                .setStartTime(start / 1000)
+                .setDuration((int) Math.min(Integer.MAX_VALUE, (end - start) / 1000))
+                .setTags(tags)
+                .setLogs(logs);
+    }
+
+    private static JaegerLog readEvent(ProtobufReader event) {
+        long time = 0;
+        List<JaegerTag> fields = new ArrayList<>();
+        while (event.next()) {
+            switch (event.getField()) {
+                case 1:
+                    time = event.readFixed64();
+                    break;
+                case 2:
+                    fields.add(0, tag("event", "string", event.readString()));
+                    break;
+                case 3:
+                    fields.add(tag(OtlpAttributes.readAttribute(event.readMessage())));
+                    break;
+                default:
+                    event.skip();
+            }
+        }
+        return new JaegerLog().setTimestamp(time / 1000).setFields(fields);
+    }
+
+    private static JaegerReference readLink(ProtobufReader link) {
+        JaegerReference reference = new JaegerReference().setRefType("FOLLOWS_FROM");
+        while (link.next()) {
+            switch (link.getField()) {
+                case 1:
+                    reference.setTraceID(OtlpAttributes.toHex(link.readBytes()));
+                    break;
+                case 2:
+                    reference.setSpanID(OtlpAttributes.toHex(link.readBytes()));
+                    break;
+                default:
+                    link.skip();
+            }
+        }
+        return reference;
+    }
+
+    private static void readStatus(ProtobufReader status, List<JaegerTag> tags) {
+        String message = "";
+        String code = null;
+        while (status.next()) {
+            switch (status.getField()) {
+                case 2:
+                    message = status.readString();
+                    break;
+                case 3:
+                    code = enumName(STATUS_CODES, status.readVarint());
+                    break;
+                default:
+                    status.skip();
+            }
+        }
+        if (code != null) {
+            tags.add(tag("otel.status_code", "string", code));
+        }
+        if ("ERROR".equals(code)) {
+            tags.add(tag("error", "bool", "true"));
+        }
+        if (!message.isEmpty()) {
+            tags.add(tag("otel.status_description", "string", message));
+        }
+    }
+
+    private static String enumName(String[] names, long value) {
+        return value > 0 && value < names.length ? names[(int) value] : null;
+    }
+
+    private static JaegerTag tag(OtlpAttributes.Attribute attribute) {
+        return tag(attribute.getKey(), attribute.getType(), attribute.getValue());
+    }
+
+    private static JaegerTag tag(String key, String type, String value) {
+        return new JaegerTag().setKey(key).setType(type).setValue(value);
+    }
+
+    private static final class ReceivedSpan {
+        private final JaegerSpan span;
+        private final JaegerProcess process;
+
+        private ReceivedSpan(JaegerSpan span, JaegerProcess process) {
+            this.span = span;
+            this.process = process;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package org.jboss.eap.qe.observability.otlp;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reader of protobuf wire format, enough to decode OTLP messages without generated classes.
+ * <p>
+ * Usage is a loop over fields, reading value of known fields and skipping the others:
+ *
+ * <pre>
+ * while (reader.next()) {
+ *     switch (reader.getField()) {
+ *         case 1:
+ *             name = reader.readString();
+ *             break;
+ *         default:
+ *             reader.skip();
+ *     }
+ * }
+ * </pre>
+ */
+final class ProtobufReader {
+
+    static final int VARINT = 0;
+    static final int FIXED64 = 1;
+    static final int LENGTH_DELIMITED = 2;
+    static final int FIXED32 = 5;
+
+    private final byte[] buffer;
+    private final int limit;
+    private int position;
+    private int field;
+    private int wireType;
+
+    ProtobufReader(byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    private ProtobufReader(byte[] buffer, int offset, int limit) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = limit;
+    }
+
+    /**
+     * Reads tag of next field.
+     *
+     * @return false if there are no more fields
+     */
+    boolean next() {
+        if (position >= limit) {
+            return false;
+        }
+        long tag = readVarint();
+        field = (int) (tag >>> 3);
+        wireType = (int) (tag & 7);
+        return true;
+    }
+
+    int getField() {
+        return field;
+    }
+
+    int getWireType() {
+        return wireType;
+    }
+
+    long readVarint() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer[checked(1)];
+            position++;
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint at " + position);
+    }
+
+    long readFixed64() {
+        int start = checked(8);
+        position += 8;
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (buffer[start + i] & 0xFFL);
+        }
+        return value;
+    }
+
+    double readDouble() {
+        return Double.longBitsToDouble(readFixed64());
+    }
+
+    String readString() {
+        int length = readLength();
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    byte[] readBytes() {
+        int length = readLength();
+        byte[] value = new byte[length];
+        System.arraycopy(buffer, position, value, 0, length);
+        position += length;
+        return value;
+    }
+
+    /**
+     * @return reader of embedded message or packed repeated field
+     */
+    ProtobufReader readMessage() {
+        int length = readLength();
+        ProtobufReader reader = new ProtobufReader(buffer, position, position + length);
+        position += length;
+        return reader;
+    }
+
+    /**
+     * @return true if the current field is packed repeated field, false if it is a single element
+     */
+    boolean isPacked() {
+        return wireType == LENGTH_DELIMITED;
+    }
+
+    /**
+     * @return true if there are more bytes, used for reading packed repeated fields
+     */
+    boolean hasRemaining() {
+        return position < limit;
+    }
+
+    void skip() {
+        switch (wireType) {
+            case VARINT:
+                readVarint();
+                break;
+            case FIXED64:
+                position = checked(8) + 8;
+                break;
+            case LENGTH_DELIMITED:
+                int length = readLength();
+                position += length;
+                break;
+            case FIXED32:
+                position = checked(4) + 4;
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported wire type " + wireType + " of field " + field);
+        }
+    }
+
+    private int readLength() {
+        long length = readVarint();
+        if (length < 0 || length > limit - position) {
+            throw new IllegalArgumentException("Length " + length + " of field " + field + " exceeds message");
+        }
+        return (int) length;
+    }
+
+    private int checked(int bytes) {
+        if (position + bytes > limit) {
+            throw new IllegalArgumentException("Truncated message, field " + field);
+        }
+        return position;
+    }
+}
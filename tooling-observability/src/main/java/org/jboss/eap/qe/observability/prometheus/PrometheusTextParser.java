@@ -0,0 +1,622 @@
+package org.jboss.eap.qe.observability.prometheus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.jboss.eap.qe.observability.prometheus.model.PrometheusMetric;
+
+/**
+ * Single pass parser of Prometheus text exposition format (and the OpenMetrics text format it is compatible with).
+ * <p>
+ * Input is read in chunks, samples are handed over to the consumer as soon as their line is parsed, so the whole scrape
+ * is never held in memory as a string. Metric names, label names and label values are interned per parser, so repeated
+ * series share their strings. Values are parsed to primitive {@code double} without creating strings for common
+ * decimal values, the value as written is kept for {@link PrometheusMetric#getValue()} unless it's a small integer.
+ * <p>
+ * Supported are {@code # HELP} and {@code # TYPE} metadata with escapes, label values with escaped quotes, backslashes
+ * and new lines (so they can contain commas and braces), samples without labels, quoted UTF-8 metric names, timestamps
+ * and exemplars. Samples of histograms and summaries ({@code _bucket}, {@code _sum}, {@code _count}, ...) get type and
+ * help of their family.
+ */
+public final class PrometheusTextParser {
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+    private static final String[] FAMILY_SUFFIXES = { "_bucket", "_count", "_sum", "_created", "_total", "_gcount",
+            "_gsum", "_info" };
+    /**
+     * Powers of ten exactly representable as double, see {@link #parseDouble(int, int)}
+     */
+    private static final double[] POWERS_OF_TEN = new double[23];
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final Reader reader;
+    private final Consumer<PrometheusMetric> consumer;
+    private final StringTable strings = new StringTable();
+    private final Map<String, String> types = new HashMap<>();
+    private final Map<String, String> help = new HashMap<>();
+
+    private final char[] chunk = new char[CHUNK_SIZE];
+    private int chunkPosition;
+    private int chunkLimit;
+
+    /**
+     * Current line, without line separator
+     */
+    private char[] line = new char[256];
+    private int lineLength;
+    private int lineNumber;
+    private int position;
+
+    /**
+     * Scratch buffer for unescaped label values
+     */
+    private char[] scratch = new char[64];
+
+    private PrometheusTextParser(Reader reader, Consumer<PrometheusMetric> consumer) {
+        this.reader = reader;
+        this.consumer = consumer;
+    }
+
+    /**
+     * @param in scrape in Prometheus text format, encoded in UTF-8; the stream is not closed
+     * @return all samples in order of the scrape
+     * @throws IOException if the stream cannot be read
+     * @throws IllegalArgumentException if the scrape is not valid Prometheus text format
+     */
+    public static List<PrometheusMetric> parse(InputStream in) throws IOException {
+        List<PrometheusMetric> metrics = new ArrayList<>();
+        parse(in, metrics::add);
+        return metrics;
+    }
+
+    /**
+     * @param in scrape in Prometheus text format, encoded in UTF-8; the stream is not closed
+     * @param consumer called with each sample as soon as it is parsed
+     * @throws IOException if the stream cannot be read
+     * @throws IllegalArgumentException if the scrape is not valid Prometheus text format
+     */
+    public static void parse(InputStream in, Consumer<PrometheusMetric> consumer) throws IOException {
+        new PrometheusTextParser(new InputStreamReader(in, StandardCharsets.UTF_8), consumer).parse();
+    }
+
+    /**
+     * @param text scrape in Prometheus text format
+     * @return all samples in order of the scrape
+     * @throws IllegalArgumentException if the scrape is not valid Prometheus text format
+     */
+    public static List<PrometheusMetric> parse(String text) {
+        List<PrometheusMetric> metrics = new ArrayList<>();
+        try {
+            new PrometheusTextParser(new StringReader(text), metrics::add).parse();
+        } catch (IOException e) {
+            // never happens with StringReader
+            throw new IllegalStateException(e);
+        }
+        return metrics;
+    }
+
+    private void parse() throws IOException {
+        while (readLine()) {
+            lineNumber++;
+            position = 0;
+            skipWhitespace();
+            if (position == lineLength) {
+                continue;
+            }
+            if (line[position] == '#') {
+                if (!parseComment()) {
+                    return;
+                }
+            } else {
+                parseSample();
+            }
+        }
+    }
+
+    /**
+     * Reads next line into {@link #line}, only the line buffer is copied.
+     *
+     * @return false at the end of the input
+     */
+    private boolean readLine() throws IOException {
+        lineLength = 0;
+        boolean read = false;
+        while (true) {
+            if (chunkPosition == chunkLimit) {
+                chunkLimit = reader.read(chunk, 0, chunk.length);
+                chunkPosition = 0;
+                if (chunkLimit <= 0) {
+                    chunkLimit = 0;
+                    return read;
+                }
+            }
+            read = true;
+            int start = chunkPosition;
+            while (chunkPosition < chunkLimit && chunk[chunkPosition] != '\n') {
+                chunkPosition++;
+            }
+            appendToLine(start, chunkPosition - start);
+            if (chunkPosition < chunkLimit) {
+                // skip the new line
+                chunkPosition++;
+                if (lineLength > 0 && line[lineLength - 1] == '\r') {
+                    lineLength--;
+                }
+                return true;
+            }
+        }
+    }
+
+    private void appendToLine(int start, int length) {
+        if (lineLength + length > line.length) {
+            line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+        }
+        System.arraycopy(chunk, start, line, lineLength, length);
+        lineLength += length;
+    }
+
+    /**
+     * @return false if the comment is {@code # EOF}
+     */
+    private boolean parseComment() {
+        position++;
+        skipWhitespace();
+        int keyword = position;
+        int keywordEnd = skipToken();
+        if (matches(keyword, keywordEnd, "HELP")) {
+            skipWhitespace();
+            String name = readMetricName();
+            // exactly one space separates the name and the docstring, the rest belongs to the docstring
+            if (position < lineLength && isWhitespace(line[position])) {
+                position++;
+            }
+            help.put(name, unescape(position, lineLength));
+        } else if (matches(keyword, keywordEnd, "TYPE")) {
+            skipWhitespace();
+            String name = readMetricName();
+            skipWhitespace();
+            int type = position;
+            types.put(name, strings.get(line, type, skipToken() - type));
+        } else if (matches(keyword, keywordEnd, "EOF")) {
+            return false;
+        }
+        // other comments are ignored
+        return true;
+    }
+
+    private void parseSample() {
+        String name = null;
+        if (line[position] != '{') {
+            name = readMetricName();
+            skipWhitespace();
+        }
+        Map<String, String> labels = Collections.emptyMap();
+        if (position < lineLength && line[position] == '{') {
+            labels = new HashMap<>();
+            name = parseLabels(labels, name);
+            skipWhitespace();
+        }
+        if (name == null) {
+            throw error("Missing metric name");
+        }
+        int valueStart = position;
+        double value = readValue();
+        String valueToken = canonical(valueStart, position) ? null : new String(line, valueStart, position - valueStart);
+        skipWhitespace();
+        long timestamp = PrometheusMetric.NO_TIMESTAMP;
+        if (position < lineLength && line[position] != '#') {
+            timestamp = readTimestamp();
+            skipWhitespace();
+        }
+        PrometheusMetric.Exemplar exemplar = null;
+        if (position < lineLength && line[position] == '#') {
+            exemplar = parseExemplar();
+        }
+        if (position < lineLength) {
+            throw error("Unexpected content after sample");
+        }
+        String family = familyOf(name);
+        consumer.accept(new PrometheusMetric(name, labels, value, valueToken, types.get(family), help.get(family),
+                timestamp, exemplar));
+    }
+
+    private PrometheusMetric.Exemplar parseExemplar() {
+        position++;
+        skipWhitespace();
+        if (position == lineLength || line[position] != '{') {
+            throw error("Exemplar must start with labels");
+        }
+        Map<String, String> labels = new HashMap<>();
+        if (parseLabels(labels, null) != null) {
+            throw error("Exemplar cannot have metric name");
+        }
+        skipWhitespace();
+        double value = readValue();
+        skipWhitespace();
+        long timestamp = PrometheusMetric.NO_TIMESTAMP;
+        if (position < lineLength) {
+            timestamp = readTimestamp();
+            skipWhitespace();
+        }
+        return new PrometheusMetric.Exemplar(labels, value, timestamp);
+    }
+
+    /**
+     * Parses labels in braces.
+     *
+     * @param labels parsed labels are put here
+     * @param name metric name read before the braces or null
+     * @return metric name, which is either {@code name} or quoted name inside braces
+     */
+    private String parseLabels(Map<String, String> labels, String name) {
+        // skip {
+        position++;
+        while (true) {
+            skipWhitespace();
+            if (position == lineLength) {
+                throw error("Unterminated labels");
+            }
+            if (line[position] == '}') {
+                position++;
+                return name;
+            }
+            String labelName;
+            if (line[position] == '"') {
+                String quoted = readQuoted();
+                skipWhitespace();
+                if (position < lineLength && line[position] == '=') {
+                    labelName = quoted;
+                } else {
+                    // quoted metric name of UTF-8 names, e.g. {"my.metric", label="value"}
+                    if (name != null) {
+                        throw error("Metric name given twice");
+                    }
+                    name = quoted;
+                    labelName = null;
+                }
+            } else {
+                int start = position;
+                while (position < lineLength && isNameChar(line[position])) {
+                    position++;
+                }
+                if (start == position) {
+                    throw error("Invalid label name");
+                }
+                labelName = strings.get(line, start, position - start);
+                skipWhitespace();
+            }
+            if (labelName != null) {
+                if (position == lineLength || line[position] != '=') {
+                    throw error("Missing = after label " + labelName);
+                }
+                position++;
+                skipWhitespace();
+                if (position == lineLength || line[position] != '"') {
+                    throw error("Label value of " + labelName + " must be quoted");
+                }
+                labels.put(labelName, readQuoted());
+                skipWhitespace();
+            }
+            if (position < lineLength && line[position] == ',') {
+                position++;
+            } else if (position == lineLength || line[position] != '}') {
+                throw error("Expected , or } in labels");
+            }
+        }
+    }
+
+    /**
+     * Reads quoted string with \\, \" and \n escapes starting at the opening quote.
+     */
+    private String readQuoted() {
+        // skip "
+        position++;
+        int length = 0;
+        while (true) {
+            if (position == lineLength) {
+                throw error("Unterminated quoted string");
+            }
+            char c = line[position++];
+            if (c == '"') {
+                return strings.get(scratch, 0, length);
+            }
+            if (c == '\\') {
+                if (position == lineLength) {
+                    throw error("Unterminated escape sequence");
+                }
+                c = unescape(line[position++]);
+            }
+            if (length == scratch.length) {
+                scratch = Arrays.copyOf(scratch, scratch.length * 2);
+            }
+            scratch[length++] = c;
+        }
+    }
+
+    private String unescape(int start, int end) {
+        StringBuilder sb = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = line[i];
+            if (c == '\\' && i + 1 < end) {
+                c = unescape(line[++i]);
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static char unescape(char escaped) {
+        // unknown escapes are kept as the escaped character
+        return escaped == 'n' ? '\n' : escaped;
+    }
+
+    private String readMetricName() {
+        if (position < lineLength && line[position] == '"') {
+            return readQuoted();
+        }
+        int start = position;
+        while (position < lineLength && isNameChar(line[position])) {
+            position++;
+        }
+        if (start == position) {
+            throw error("Invalid metric name");
+        }
+        return strings.get(line, start, position - start);
+    }
+
+    private double readValue() {
+        int start = position;
+        int end = skipToken();
+        if (start == end) {
+            throw error("Missing value");
+        }
+        return parseDouble(start, end);
+    }
+
+    /**
+     * @return true if {@link PrometheusMetric#formatValue(double)} gives the same token - an integer of up to 6 digits
+     *         without leading zeros, which is the common value of counters; no string is kept for such values
+     */
+    private boolean canonical(int start, int end) {
+        int i = start < end && line[start] == '-' ? start + 1 : start;
+        if (i == end || end - i > 6 || (line[i] == '0' && end - i > 1) || (line[i] == '0' && i > start)) {
+            return false;
+        }
+        for (; i < end; i++) {
+            if (line[i] < '0' || line[i] > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long readTimestamp() {
+        int start = position;
+        int end = skipToken();
+        boolean integral = true;
+        long timestamp = 0;
+        for (int i = start; i < end; i++) {
+            char c = line[i];
+            if (c == '-' && i == start) {
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                integral = false;
+                break;
+            }
+            timestamp = timestamp * 10 + (c - '0');
+        }
+        if (integral && end > start) {
+            // Prometheus text format has milliseconds
+            return line[start] == '-' ? -timestamp : timestamp;
+        }
+        // OpenMetrics has seconds with fraction
+        return Math.round(parseDouble(start, end) * 1000);
+    }
+
+    /**
+     * Parses decimal value without creating a string. Values with up to 15 significant digits and small exponent are
+     * exact (both the mantissa and power of ten are exact doubles, so the single division or multiplication is
+     * correctly rounded), other values fall back to {@link Double#parseDouble(String)}.
+     */
+    private double parseDouble(int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (line[i] == '-' || line[i] == '+') {
+            negative = line[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        boolean sawDigit = false;
+        int exponent = 0;
+        boolean point = false;
+        boolean fast = i < end;
+        for (; i < end && fast; i++) {
+            char c = line[i];
+            if (c >= '0' && c <= '9') {
+                sawDigit = true;
+                if (digits > 0 || c != '0') {
+                    digits++;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (point) {
+                    exponent--;
+                }
+            } else if (c == '.' && !point) {
+                point = true;
+            } else if ((c == 'e' || c == 'E') && sawDigit && i + 1 < end) {
+                int exponentValue = 0;
+                boolean negativeExponent = false;
+                int j = i + 1;
+                if (line[j] == '-' || line[j] == '+') {
+                    negativeExponent = line[j] == '-';
+                    j++;
+                }
+                if (j == end) {
+                    fast = false;
+                }
+                for (; j < end && fast; j++) {
+                    char e = line[j];
+                    if (e < '0' || e > '9' || exponentValue > 1000) {
+                        fast = false;
+                    } else {
+                        exponentValue = exponentValue * 10 + (e - '0');
+                    }
+                }
+                exponent += negativeExponent ? -exponentValue : exponentValue;
+                i = end - 1;
+            } else {
+                fast = false;
+            }
+        }
+        if (fast && sawDigit && digits <= 15 && Math.abs(exponent) < POWERS_OF_TEN.length) {
+            double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+            return negative ? -value : value;
+        }
+        try {
+            return PrometheusMetric.parseValue(new String(line, start, end - start));
+        } catch (NumberFormatException e) {
+            throw error("Invalid value " + new String(line, start, end - start));
+        }
+    }
+
+    private String familyOf(String name) {
+        if (types.containsKey(name) || help.containsKey(name)) {
+            return name;
+        }
+        for (String suffix : FAMILY_SUFFIXES) {
+            if (name.endsWith(suffix)) {
+                String family = name.substring(0, name.length() - suffix.length());
+                if (types.containsKey(family) || help.containsKey(family)) {
+                    return strings.get(family);
+                }
+            }
+        }
+        return name;
+    }
+
+    private void skipWhitespace() {
+        while (position < lineLength && isWhitespace(line[position])) {
+            position++;
+        }
+    }
+
+    /**
+     * @return end of the token starting at current position
+     */
+    private int skipToken() {
+        while (position < lineLength && !isWhitespace(line[position])) {
+            position++;
+        }
+        return position;
+    }
+
+    private boolean matches(int start, int end, String keyword) {
+        if (end - start != keyword.length()) {
+            return false;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            if (line[start + i] != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t';
+    }
+
+    private static boolean isNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == ':';
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at line " + lineNumber + ": "
+                + new String(line, 0, lineLength));
+    }
+
+    /**
+     * Interned strings looked up by characters, so no string is created for already known names and values.
+     */
+    private static final class StringTable {
+        private String[] table = new String[1024];
+        private int size;
+
+        String get(String value) {
+            return get(value.toCharArray(), 0, value.length());
+        }
+
+        String get(char[] chars, int start, int length) {
+            int hash = 0;
+            for (int i = start; i < start + length; i++) {
+                hash = 31 * hash + chars[i];
+            }
+            int mask = table.length - 1;
+            int index = mix(hash) & mask;
+            while (true) {
+                String existing = table[index];
+                if (existing == null) {
+                    String value = new String(chars, start, length);
+                    table[index] = value;
+                    if (++size * 2 > table.length) {
+                        rehash();
+                    }
+                    return value;
+                }
+                if (existing.hashCode() == hash && equals(existing, chars, start, length)) {
+                    return existing;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+
+        private static boolean equals(String existing, char[] chars, int start, int length) {
+            if (existing.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (existing.charAt(i) != chars[start + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int mix(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+
+        private void rehash() {
+            String[] old = table;
+            table = new String[old.length * 2];
+            int mask = table.length - 1;
+            for (String value : old) {
+                if (value != null) {
+                    int index = mix(value.hashCode()) & mask;
+                    while (table[index] != null) {
+                        index = (index + 1) & mask;
+                    }
+                    table[index] = value;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package org.jboss.eap.qe.observability.prometheus.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+
+/**
+ * Metrics of one scrape indexed by metric name, name prefix and label, so assertions over large scrapes do not have to
+ * scan all samples for each expected metric.
+ * <p>
+ * Label queries match samples having all given labels, other labels of the sample are ignored. For example
+ * {@code sum("http_requests_total", Map.of("code", "200"))} sums the counter over all methods and paths.
+ * <p>
+ * Two snapshots of the same metrics give {@link #increase(MetricSnapshot, String, Map)} and
+ * {@link #rate(MetricSnapshot, String, Map)} of counters, handling counter resets like Prometheus does.
+ */
+public final class MetricSnapshot {
+
+    private final Instant time;
+    private final List<PrometheusMetric> metrics;
+    private final Map<String, List<PrometheusMetric>> byName = new HashMap<>();
+    private final Map<String, Map<String, List<PrometheusMetric>>> byLabel = new HashMap<>();
+    private final TrieNode names = new TrieNode();
+
+    private MetricSnapshot(List<PrometheusMetric> metrics, Instant time) {
+        this.metrics = Collections.unmodifiableList(new ArrayList<>(metrics));
+        this.time = time;
+        for (PrometheusMetric metric : this.metrics) {
+            List<PrometheusMetric> series = byName.get(metric.getKey());
+            if (series == null) {
+                series = new ArrayList<>();
+                byName.put(metric.getKey(), series);
+                names.add(metric.getKey());
+            }
+            series.add(metric);
+            for (Map.Entry<String, String> label : metric.getTags().entrySet()) {
+                byLabel.computeIfAbsent(label.getKey(), key -> new HashMap<>())
+                        .computeIfAbsent(label.getValue(), value -> new ArrayList<>())
+                        .add(metric);
+            }
+        }
+    }
+
+    /**
+     * @param metrics scraped metrics
+     * @return snapshot taken now
+     */
+    public static MetricSnapshot of(List<PrometheusMetric> metrics) {
+        return of(metrics, Instant.now());
+    }
+
+    /**
+     * @param metrics scraped metrics
+     * @param time time of the scrape, used for rates
+     * @return snapshot taken at given time
+     */
+    public static MetricSnapshot of(List<PrometheusMetric> metrics, Instant time) {
+        return new MetricSnapshot(metrics, time);
+    }
+
+    public Instant getTime() {
+        return time;
+    }
+
+    /**
+     * @return all samples in order of the scrape
+     */
+    public List<PrometheusMetric> getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return number of samples
+     */
+    public int size() {
+        return metrics.size();
+    }
+
+    /**
+     * @param name metric name
+     * @return true if there is a sample of given metric
+     */
+    public boolean contains(String name) {
+        return byName.containsKey(name);
+    }
+
+    /**
+     * @param prefix prefix of metric name
+     * @return true if there is a sample of a metric with given prefix
+     */
+    public boolean containsPrefix(String prefix) {
+        TrieNode node = names.find(prefix);
+        // every node but the root was created for a name
+        return node != null && (node != names || !byName.isEmpty());
+    }
+
+    /**
+     * @param name metric name
+     * @return samples of given metric
+     */
+    public List<PrometheusMetric> get(String name) {
+        return Collections.unmodifiableList(byName.getOrDefault(name, Collections.emptyList()));
+    }
+
+    /**
+     * @param name metric name
+     * @param labels labels the samples must have
+     * @return samples of given metric having all given labels
+     */
+    public List<PrometheusMetric> get(String name, Map<String, String> labels) {
+        List<PrometheusMetric> candidates = byName.getOrDefault(name, Collections.emptyList());
+        // start with the smallest candidate list, label index can be much smaller than all series of the metric
+        for (Map.Entry<String, String> label : labels.entrySet()) {
+            List<PrometheusMetric> withLabel = withLabel(label.getKey(), label.getValue());
+            if (withLabel.size() < candidates.size()) {
+                candidates = withLabel;
+            }
+        }
+        List<PrometheusMetric> result = new ArrayList<>();
+        for (PrometheusMetric metric : candidates) {
+            if (metric.getKey().equals(name) && hasLabels(metric, labels)) {
+                result.add(metric);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param prefix prefix of metric name
+     * @return names of metrics with given prefix, sorted
+     */
+    public List<String> namesWithPrefix(String prefix) {
+        List<String> result = new ArrayList<>();
+        TrieNode node = names.find(prefix);
+        if (node != null) {
+            node.collect(result);
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * @param prefix prefix of metric name
+     * @return samples of metrics with given prefix
+     */
+    public List<PrometheusMetric> withPrefix(String prefix) {
+        List<PrometheusMetric> result = new ArrayList<>();
+        for (String name : namesWithPrefix(prefix)) {
+            result.addAll(byName.get(name));
+        }
+        return result;
+    }
+
+    /**
+     * @param key label name
+     * @param value label value
+     * @return samples of all metrics having given label
+     */
+    public List<PrometheusMetric> withLabel(String key, String value) {
+        return Collections.unmodifiableList(byLabel.getOrDefault(key, Collections.emptyMap())
+                .getOrDefault(value, Collections.emptyList()));
+    }
+
+    /**
+     * @param name metric name
+     * @param labels labels the sample must have
+     * @return value of the only matching sample, empty if there is none
+     * @throws IllegalStateException if more samples match
+     */
+    public OptionalDouble value(String name, Map<String, String> labels) {
+        List<PrometheusMetric> matching = get(name, labels);
+        if (matching.size() > 1) {
+            throw new IllegalStateException(matching.size() + " samples of " + name + " match " + labels + ": "
+                    + matching);
+        }
+        return matching.isEmpty() ? OptionalDouble.empty() : OptionalDouble.of(matching.get(0).getDoubleValue());
+    }
+
+    /**
+     * @param name metric name
+     * @return sum of values of all samples of given metric, 0 if there is none
+     */
+    public double sum(String name) {
+        return sum(name, Collections.emptyMap());
+    }
+
+    /**
+     * @param name metric name
+     * @param labels labels the samples must have
+     * @return sum of values of matching samples, 0 if there is none
+     */
+    public double sum(String name, Map<String, String> labels) {
+        double sum = 0;
+        for (PrometheusMetric metric : get(name, labels)) {
+            sum += metric.getDoubleValue();
+        }
+        return sum;
+    }
+
+    /**
+     * Increase of a counter since earlier snapshot, summed over matching series. Series whose value decreased were
+     * reset, their whole current value is the increase. Series missing in the earlier snapshot start at 0.
+     *
+     * @param earlier earlier snapshot
+     * @param name metric name
+     * @param labels labels the samples must have
+     * @return increase of the counter
+     */
+    public double increase(MetricSnapshot earlier, String name, Map<String, String> labels) {
+        Map<Map<String, String>, Double> earlierValues = new HashMap<>();
+        for (PrometheusMetric metric : earlier.get(name, labels)) {
+            earlierValues.put(metric.getTags(), metric.getDoubleValue());
+        }
+        double increase = 0;
+        for (PrometheusMetric metric : get(name, labels)) {
+            double previous = earlierValues.getOrDefault(metric.getTags(), 0.0);
+            double current = metric.getDoubleValue();
+            increase += current >= previous ? current - previous : current;
+        }
+        return increase;
+    }
+
+    /**
+     * Per second rate of a counter since earlier snapshot, see {@link #increase(MetricSnapshot, String, Map)}.
+     *
+     * @param earlier earlier snapshot
+     * @param name metric name
+     * @param labels labels the samples must have
+     * @return increase of the counter per second
+     * @throws IllegalArgumentException if the earlier snapshot is not earlier
+     */
+    public double rate(MetricSnapshot earlier, String name, Map<String, String> labels) {
+        Duration elapsed = Duration.between(earlier.time, time);
+        if (elapsed.isNegative() || elapsed.isZero()) {
+            throw new IllegalArgumentException("Snapshot taken at " + earlier.time + " is not earlier than " + time);
+        }
+        return increase(earlier, name, labels) / (elapsed.toNanos() / 1e9);
+    }
+
+    private static boolean hasLabels(PrometheusMetric metric, Map<String, String> labels) {
+        for (Map.Entry<String, String> label : labels.entrySet()) {
+            if (!label.getValue().equals(metric.getTags().get(label.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "MetricSnapshot{time=" + time + ", metrics=" + byName.size() + ", samples=" + metrics.size() + '}';
+    }
+
+    /**
+     * Node of prefix tree of metric names.
+     */
+    private static final class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>();
+        private String name;
+
+        void add(String name) {
+            TrieNode node = this;
+            for (int i = 0; i < name.length(); i++) {
+                node = node.children.computeIfAbsent(name.charAt(i), c -> new TrieNode());
+            }
+            node.name = name;
+        }
+
+        TrieNode find(String prefix) {
+            TrieNode node = this;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            return node;
+        }
+
+        void collect(List<String> result) {
+            if (name != null) {
+                result.add(name);
+            }
+            for (TrieNode child : children.values()) {
+                child.collect(result);
+            }
+        }
+    }
+}
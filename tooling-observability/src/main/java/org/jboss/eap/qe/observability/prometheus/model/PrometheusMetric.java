@@ -4,26 +4,64 @@
  */
 package org.jboss.eap.qe.observability.prometheus.model;
 
+import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.Map;
 
 public class PrometheusMetric {
+    /**
+     * Timestamp of samples without explicit timestamp
+     */
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
     private final String key;
     private final Map<String, String> tags;
-    private final String value;
+    private final double value;
+    // value as written in the scrape, null if it's formatted by formatValue
+    private final String valueToken;
     private final String type;
     private final String help;
+    private final long timestamp;
+    private final Exemplar exemplar;
 
     public PrometheusMetric(String key,
             Map<String, String> tags,
             String value,
             String type,
             String help) {
+        this(key, tags, parseValue(value), value, type, help, NO_TIMESTAMP, null);
+    }
+
+    public PrometheusMetric(String key,
+            Map<String, String> tags,
+            double value,
+            String type,
+            String help,
+            long timestamp,
+            Exemplar exemplar) {
+        this(key, tags, value, null, type, help, timestamp, exemplar);
+    }
+
+    /**
+     * @param valueToken value as written in the scrape, returned by {@link #getValue()}; null to format the value by
+     *        {@link #formatValue(double)}
+     */
+    public PrometheusMetric(String key,
+            Map<String, String> tags,
+            double value,
+            String valueToken,
+            String type,
+            String help,
+            long timestamp,
+            Exemplar exemplar) {
         this.key = key;
         this.tags = Collections.unmodifiableMap(tags);
         this.value = value;
+        this.valueToken = valueToken;
         this.type = type;
         this.help = help;
+        this.timestamp = timestamp;
+        this.exemplar = exemplar;
     }
 
     public String getKey() {
@@ -34,7 +72,15 @@ public class PrometheusMetric {
         return tags;
     }
 
+    /**
+     * @return value as written in the scrape, for example "2" or "1e-05"; formatted by {@link #formatValue(double)} if
+     *         the sample was not parsed from text
+     */
     public String getValue() {
+        return valueToken != null ? valueToken : formatValue(value);
+    }
+
+    public double getDoubleValue() {
         return value;
     }
 
@@ -46,14 +92,128 @@ public class PrometheusMetric {
         return help;
     }
 
+    /**
+     * @return timestamp in milliseconds since epoch or {@link #NO_TIMESTAMP} if the sample has no timestamp
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return exemplar of the sample or null
+     */
+    public Exemplar getExemplar() {
+        return exemplar;
+    }
+
+    /**
+     * @param value value as in Prometheus text format, including "NaN", "+Inf" and "-Inf"
+     * @return parsed value
+     */
+    public static double parseValue(String value) {
+        switch (value) {
+            case "+Inf":
+            case "Inf":
+                return Double.POSITIVE_INFINITY;
+            case "-Inf":
+                return Double.NEGATIVE_INFINITY;
+            default:
+                return Double.parseDouble(value);
+        }
+    }
+
+    /**
+     * Formats the value the same way as Prometheus exporters written in Go (like the OpenTelemetry collector) do - the
+     * shortest representation, exponent is used for values below 1e-4 or from 1e6, for example "2", "0.5", "1e-05" or
+     * "1.5e+06".
+     *
+     * @param value value
+     * @return value formatted as in Prometheus text format
+     */
+    public static String formatValue(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        if (value == 0) {
+            return Double.doubleToRawLongBits(value) < 0 ? "-0" : "0";
+        }
+        BigDecimal decimal = new BigDecimal(Double.toString(Math.abs(value))).stripTrailingZeros();
+        String digits = decimal.unscaledValue().toString();
+        // exponent of the first digit
+        int exponent = digits.length() - decimal.scale() - 1;
+        StringBuilder formatted = new StringBuilder(value < 0 ? "-" : "");
+        if (exponent < -4 || exponent >= 6) {
+            formatted.append(digits.charAt(0));
+            if (digits.length() > 1) {
+                formatted.append('.').append(digits, 1, digits.length());
+            }
+            formatted.append(exponent < 0 ? "e-" : "e+").append(Math.abs(exponent) < 10 ? "0" : "")
+                    .append(Math.abs(exponent));
+        } else if (exponent < 0) {
+            formatted.append("0.");
+            for (int i = -1; i > exponent; i--) {
+                formatted.append('0');
+            }
+            formatted.append(digits);
+        } else if (digits.length() <= exponent + 1) {
+            formatted.append(digits);
+            for (int i = digits.length(); i <= exponent; i++) {
+                formatted.append('0');
+            }
+        } else {
+            formatted.append(digits, 0, exponent + 1).append('.').append(digits, exponent + 1, digits.length());
+        }
+        return formatted.toString();
+    }
+
     @Override
     public String toString() {
         return "PrometheusMetric{" +
                 "key='" + key + '\'' +
                 ", tags=" + tags +
-                ", value='" + value + '\'' +
+                ", value='" + getValue() + '\'' +
                 ", type='" + type + '\'' +
                 ", help='" + help + '\'' +
+                (timestamp == NO_TIMESTAMP ? "" : ", timestamp=" + timestamp) +
+                (exemplar == null ? "" : ", exemplar=" + exemplar) +
                 '}';
     }
+
+    /**
+     * Exemplar of a sample, for example trace of a request counted in histogram bucket.
+     */
+    public static class Exemplar {
+        private final Map<String, String> labels;
+        private final double value;
+        private final long timestamp;
+
+        public Exemplar(Map<String, String> labels, double value, long timestamp) {
+            this.labels = Collections.unmodifiableMap(labels);
+            this.value = value;
+            this.timestamp = timestamp;
+        }
+
+        public Map<String, String> getLabels() {
+            return labels;
+        }
+
+        public double getValue() {
+            return value;
+        }
+
+        /**
+         * @return timestamp in milliseconds since epoch or {@link #NO_TIMESTAMP} if the exemplar has no timestamp
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public String toString() {
+            return labels + " " + formatValue(value) + (timestamp == NO_TIMESTAMP ? "" : " " + timestamp);
+        }
+    }
 }
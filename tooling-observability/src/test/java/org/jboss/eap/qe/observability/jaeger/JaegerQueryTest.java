@@ -0,0 +1,78 @@
+package org.jboss.eap.qe.observability.jaeger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests query parameters built by {@link JaegerQuery}.
+ */
+public class JaegerQueryTest {
+
+    @Test
+    public void testAllParameters() {
+        Map<String, String> parameters = new JaegerQuery.Builder("app")
+                .operation("GET /ping")
+                .tag("http.response.status_code", "500")
+                .tag("error", "true")
+                .minDuration(Duration.ofMillis(100))
+                .maxDuration(Duration.ofSeconds(2))
+                .start(Instant.ofEpochSecond(1700000000))
+                .end(Instant.ofEpochSecond(1700000060, 500))
+                .limit(20)
+                .build()
+                .getParameters();
+
+        Assert.assertEquals("app", parameters.get("service"));
+        Assert.assertEquals("GET /ping", parameters.get("operation"));
+        Assert.assertEquals("{\"http.response.status_code\":\"500\",\"error\":\"true\"}", parameters.get("tags"));
+        Assert.assertEquals("100000us", parameters.get("minDuration"));
+        Assert.assertEquals("2000000us", parameters.get("maxDuration"));
+        Assert.assertEquals("1700000000000000", parameters.get("start"));
+        Assert.assertEquals("1700000060000000", parameters.get("end"));
+        Assert.assertEquals("20", parameters.get("limit"));
+    }
+
+    @Test
+    public void testOnlyService() {
+        Map<String, String> parameters = JaegerQuery.of("app").getParameters();
+
+        Assert.assertEquals(1, parameters.size());
+        Assert.assertEquals("app", parameters.get("service"));
+    }
+
+    @Test
+    public void testLookbackOverridesStart() {
+        Map<String, String> parameters = new JaegerQuery.Builder("app")
+                .start(Instant.EPOCH)
+                .end(Instant.ofEpochSecond(1700000000))
+                .lookback(Duration.ofMinutes(5))
+                .build()
+                .getParameters();
+
+        Assert.assertEquals("1699999700000000", parameters.get("start"));
+        Assert.assertEquals("1700000000000000", parameters.get("end"));
+    }
+
+    @Test
+    public void testLookbackFromNow() {
+        long before = Instant.now().toEpochMilli() * 1000;
+        Map<String, String> parameters = new JaegerQuery.Builder("app")
+                .lookback(Duration.ofMinutes(1))
+                .build()
+                .getParameters();
+        long after = Instant.now().toEpochMilli() * 1000 + 1000;
+
+        long end = Long.parseLong(parameters.get("end"));
+        Assert.assertTrue(end >= before && end <= after);
+        Assert.assertEquals(end - 60_000_000, Long.parseLong(parameters.get("start")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testServiceRequired() {
+        new JaegerQuery.Builder("");
+    }
+}
@@ -0,0 +1,121 @@
+package org.jboss.eap.qe.observability.jaeger;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.eap.qe.observability.jaeger.model.JaegerLog;
+import org.jboss.eap.qe.observability.jaeger.model.JaegerSpan;
+import org.jboss.eap.qe.observability.jaeger.model.JaegerTrace;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests decoding of Jaeger query API responses by {@link JaegerTraceReader}.
+ */
+public class JaegerTraceReaderTest {
+
+    private static final String TRACE = "{\"traceID\":\"t1\","
+            + "\"spans\":[{\"traceID\":\"t1\",\"spanID\":\"s2\",\"operationName\":\"SELECT\",\"processID\":\"p1\","
+            + "\"flags\":1,"
+            + "\"references\":[{\"refType\":\"CHILD_OF\",\"traceID\":\"t1\",\"spanID\":\"s1\"}],"
+            + "\"startTime\":1700000000000100,\"duration\":250,"
+            + "\"tags\":[{\"key\":\"db.rows\",\"type\":\"int64\",\"value\":42},"
+            + "{\"key\":\"error\",\"type\":\"bool\",\"value\":false},"
+            + "{\"key\":\"db.statement\",\"type\":\"string\",\"value\":\"SELECT \\\"x\\\"\"}],"
+            + "\"logs\":[{\"timestamp\":1700000000000200,\"fields\":[{\"key\":\"event\",\"type\":\"string\","
+            + "\"value\":\"fetched\"}]}],"
+            + "\"warnings\":null}],"
+            + "\"processes\":{\"p1\":{\"serviceName\":\"app\",\"tags\":[{\"key\":\"host\",\"type\":\"string\","
+            + "\"value\":\"localhost\"}],\"extra\":{\"nested\":[1,2,{}]}}},"
+            + "\"warnings\":[\"clock skew adjusted\"]}";
+
+    @Test
+    public void testTraceDecoded() {
+        List<JaegerTrace> traces = JaegerTraceReader.read(json("{\"data\":[" + TRACE + "],\"total\":0,\"limit\":0,"
+                + "\"offset\":0,\"errors\":null}"));
+
+        Assert.assertEquals(1, traces.size());
+        JaegerTrace trace = traces.get(0);
+        Assert.assertEquals("t1", trace.getTraceID());
+        Assert.assertEquals("app", trace.getProcesses().get("p1").getServiceName());
+        Assert.assertEquals("localhost", trace.getProcesses().get("p1").getTags().get(0).getValue());
+        Assert.assertEquals("clock skew adjusted", trace.getWarnings().get(0));
+
+        JaegerSpan span = trace.getSpans().get(0);
+        Assert.assertEquals("s2", span.getSpanID());
+        Assert.assertEquals("SELECT", span.getOperationName());
+        Assert.assertEquals("p1", span.getProcessID());
+        Assert.assertEquals(Long.valueOf(1700000000000100L), span.getStartTime());
+        Assert.assertEquals(Integer.valueOf(250), span.getDuration());
+        Assert.assertEquals("CHILD_OF", span.getReferences().get(0).getRefType());
+        Assert.assertEquals("s1", span.getReferences().get(0).getSpanID());
+        // values of all types are strings
+        Assert.assertEquals("42", span.getTags().get(0).getValue());
+        Assert.assertEquals("false", span.getTags().get(1).getValue());
+        Assert.assertEquals("SELECT \"x\"", span.getTags().get(2).getValue());
+        JaegerLog log = span.getLogs().get(0);
+        Assert.assertEquals(Long.valueOf(1700000000000200L), log.getTimestamp());
+        Assert.assertEquals("fetched", log.getFields().get(0).getValue());
+    }
+
+    @Test
+    public void testTracesStreamedToConsumer() {
+        StringBuilder response = new StringBuilder("{\"unknown\":{\"data\":[1]},\"data\":[");
+        for (int i = 0; i < 100; i++) {
+            if (i > 0) {
+                response.append(',');
+            }
+            response.append("{\"traceID\":\"trace-").append(i).append("\",\"spans\":[],\"processes\":{}}");
+        }
+        response.append("]}");
+
+        List<String> ids = new ArrayList<>();
+        int count = JaegerTraceReader.read(json(response.toString()), trace -> ids.add(trace.getTraceID()));
+
+        Assert.assertEquals(100, count);
+        Assert.assertEquals("trace-0", ids.get(0));
+        Assert.assertEquals("trace-99", ids.get(99));
+    }
+
+    @Test
+    public void testNullsAsEmpty() {
+        List<JaegerTrace> traces = JaegerTraceReader.read(json(
+                "{\"data\":[{\"traceID\":\"t1\",\"spans\":[{\"spanID\":\"s1\",\"startTime\":null,\"references\":null,"
+                        + "\"tags\":null,\"logs\":null}],\"processes\":null,\"warnings\":null}]}"));
+
+        JaegerSpan span = traces.get(0).getSpans().get(0);
+        Assert.assertNull(span.getStartTime());
+        Assert.assertTrue(span.getReferences().isEmpty());
+        Assert.assertTrue(span.getTags().isEmpty());
+        Assert.assertTrue(traces.get(0).getProcesses().isEmpty());
+    }
+
+    @Test
+    public void testErrors() {
+        try {
+            JaegerTraceReader.read(json("{\"data\":null,\"errors\":[{\"code\":400,\"msg\":\"parameter 'service' is "
+                    + "required\"}]}"));
+            Assert.fail("Response with errors must fail");
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("parameter 'service' is required"));
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("400"));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNotObject() {
+        JaegerTraceReader.read(json("[]"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSpansNotArray() {
+        JaegerTraceReader.read(json("{\"data\":[{\"spans\":{}}]}"));
+    }
+
+    private static InputStream json(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,93 @@
+package org.jboss.eap.qe.observability.jaeger;
+
+import static org.jboss.eap.qe.observability.jaeger.TraceTreeTest.span;
+import static org.jboss.eap.qe.observability.jaeger.TraceTreeTest.trace;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.eap.qe.observability.jaeger.model.JaegerTrace;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link TraceAnalyzer} on synthetic traces.
+ */
+public class TraceAnalyzerTest {
+
+    /**
+     * @return 20 traces with root durations 1 to 20 ms in random order, each with a database span taking a quarter
+     */
+    private static List<JaegerTrace> traces() {
+        List<JaegerTrace> traces = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            int duration = i * 1000;
+            traces.add(trace(
+                    span("root", null, "GET", 0, duration),
+                    span("db", "root", "SELECT", duration / 2, duration / 4)));
+        }
+        Collections.shuffle(traces);
+        return traces;
+    }
+
+    @Test
+    public void testNearestRankPercentiles() {
+        TraceAnalyzer analyzer = TraceAnalyzer.of(traces());
+
+        Assert.assertEquals(Arrays.asList("GET", "SELECT"), new ArrayList<>(analyzer.getOperations()));
+        Assert.assertEquals(20, analyzer.count("GET"));
+        Assert.assertEquals(0, analyzer.count("unknown"));
+        // p95 of 20 samples is the 19th smallest, p50 the 10th
+        Assert.assertEquals(Duration.ofMillis(19), analyzer.percentile("GET", 95));
+        Assert.assertEquals(Duration.ofMillis(10), analyzer.percentile("GET", 50));
+        Assert.assertEquals(Duration.ofMillis(20), analyzer.percentile("GET", 100));
+        Assert.assertEquals(Duration.ofMillis(1), analyzer.percentile("GET", 0.1));
+        Assert.assertEquals(Duration.ofMillis(5), analyzer.percentile("SELECT", 100));
+    }
+
+    @Test
+    public void testSelfTimeAndCriticalPath() {
+        TraceAnalyzer analyzer = TraceAnalyzer.of(traces());
+
+        Assert.assertEquals(Duration.ofNanos(15_000_000), analyzer.selfTimePercentile("GET", 100));
+        Assert.assertEquals(Duration.ofNanos(750_000), analyzer.selfTimePercentile("GET", 5));
+        Assert.assertEquals(0.75, analyzer.criticalPathShare("GET"), 1e-9);
+        Assert.assertEquals(0.25, analyzer.criticalPathShare("SELECT"), 1e-9);
+        Assert.assertEquals(0, analyzer.criticalPathShare("unknown"), 0);
+    }
+
+    @Test
+    public void testBudgetAssertions() {
+        TraceAnalyzer analyzer = TraceAnalyzer.of(traces());
+
+        analyzer.assertPercentileBelow("GET", 95, Duration.ofMillis(20));
+        analyzer.assertSelfTimePercentileBelow("SELECT", 99, Duration.ofMillis(6));
+        try {
+            analyzer.assertPercentileBelow("GET", 95, Duration.ofMillis(19));
+            Assert.fail("p95 equal to the budget must fail");
+        } catch (AssertionError e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("p95 of GET is 19.000 ms"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownOperation() {
+        TraceAnalyzer.of(traces()).percentile("POST", 50);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPercentileOutOfRange() {
+        TraceAnalyzer.of(traces()).percentile("GET", 0);
+    }
+
+    @Test
+    public void testTraceWithoutSpans() {
+        TraceAnalyzer analyzer = TraceAnalyzer.of(Collections.singletonList(trace()));
+
+        Assert.assertTrue(analyzer.getOperations().isEmpty());
+        Assert.assertEquals(1, analyzer.getTrees().size());
+    }
+}
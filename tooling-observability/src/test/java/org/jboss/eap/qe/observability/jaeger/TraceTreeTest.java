@@ -0,0 +1,114 @@
+package org.jboss.eap.qe.observability.jaeger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.eap.qe.observability.jaeger.model.JaegerReference;
+import org.jboss.eap.qe.observability.jaeger.model.JaegerSpan;
+import org.jboss.eap.qe.observability.jaeger.model.JaegerTrace;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link TraceTree} on synthetic traces, times are in microseconds.
+ */
+public class TraceTreeTest {
+
+    @Test
+    public void testTreeAndSelfTime() {
+        TraceTree tree = TraceTree.of(trace(
+                span("b", "root", "b", 1030, 30),
+                span("root", null, "GET", 1000, 100),
+                span("a", "root", "a", 1010, 30),
+                span("aa", "a", "aa", 1015, 5),
+                // exported twice
+                span("aa", "a", "aa", 1015, 5),
+                // parent not exported yet
+                span("orphan", "missing", "orphan", 2000, 10)));
+
+        Assert.assertEquals(5, tree.getNodes().size());
+        Assert.assertEquals(2, tree.getRoots().size());
+        TraceTree.Node root = tree.getRoot();
+        Assert.assertEquals("GET", root.getOperationName());
+        Assert.assertEquals("orphan", tree.getRoots().get(1).getOperationName());
+        Assert.assertEquals(Arrays.asList("a", "b"), names(root.getChildren()));
+        TraceTree.Node a = root.getChildren().get(0);
+        Assert.assertSame(root, a.getParent());
+        Assert.assertEquals(1, a.getChildren().size());
+
+        // children overlap in 1030-1040, covered time is 1010-1060
+        Assert.assertEquals(Duration.ofNanos(50_000), root.getSelfTime());
+        Assert.assertEquals(Duration.ofNanos(25_000), a.getSelfTime());
+        Assert.assertEquals(Duration.ofNanos(100_000), root.getDuration());
+    }
+
+    @Test
+    public void testCriticalPath() {
+        TraceTree tree = TraceTree.of(trace(
+                span("root", null, "GET", 1000, 100),
+                span("a", "root", "a", 1010, 30),
+                span("b", "root", "b", 1020, 70),
+                span("bb", "b", "bb", 1030, 20)));
+
+        // b ends last, a ends after b started so only its part before b is on the path
+        List<TraceTree.PathSegment> path = tree.getCriticalPath();
+        Assert.assertEquals(Arrays.asList("bb", "b", "a", "GET"), segmentNames(path));
+        Assert.assertEquals(Arrays.asList(20L, 50L, 10L, 20L), segmentMicros(path));
+    }
+
+    @Test
+    public void testCriticalPathSkipsChildrenOutsideOfParent() {
+        TraceTree tree = TraceTree.of(trace(
+                span("root", null, "GET", 1000, 100),
+                // clock of the child service is behind, the span ends before the root started
+                span("skewed", "root", "skewed", 900, 50),
+                span("empty", "root", "empty", 1050, 0),
+                // overlaps the end of the root
+                span("late", "root", "late", 1080, 50)));
+
+        List<TraceTree.PathSegment> path = tree.getCriticalPath();
+        Assert.assertEquals(Arrays.asList("late", "GET"), segmentNames(path));
+        Assert.assertEquals(Arrays.asList(20L, 80L), segmentMicros(path));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testEmptyTrace() {
+        TraceTree.of(trace()).getRoot();
+    }
+
+    static JaegerTrace trace(JaegerSpan... spans) {
+        return new JaegerTrace().setTraceID("trace").setSpans(new ArrayList<>(Arrays.asList(spans)));
+    }
+
+    static JaegerSpan span(String id, String parentId, String name, long start, int duration) {
+        List<JaegerReference> references = parentId == null ? Collections.emptyList()
+                : Collections.singletonList(new JaegerReference().setRefType("CHILD_OF").setSpanID(parentId));
+        return new JaegerSpan()
+                .setSpanID(id)
+                .setOperationName(name)
+                .setReferences(references)
+                .setStartTime(start)
+                .setDuration(duration);
+    }
+
+    private static List<String> names(List<TraceTree.Node> nodes) {
+        List<String> names = new ArrayList<>();
+        nodes.forEach(node -> names.add(node.getOperationName()));
+        return names;
+    }
+
+    private static List<String> segmentNames(List<TraceTree.PathSegment> path) {
+        List<String> names = new ArrayList<>();
+        path.forEach(segment -> names.add(segment.getNode().getOperationName()));
+        return names;
+    }
+
+    private static List<Long> segmentMicros(List<TraceTree.PathSegment> path) {
+        List<Long> micros = new ArrayList<>();
+        path.forEach(segment -> micros.add(segment.getTime().toNanos() / 1000));
+        return micros;
+    }
+}
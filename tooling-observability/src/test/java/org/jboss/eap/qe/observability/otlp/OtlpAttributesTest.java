@@ -0,0 +1,64 @@
+package org.jboss.eap.qe.observability.otlp;
+
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link OtlpAttributes} on hand encoded {@code KeyValue} and {@code AnyValue} messages.
+ */
+public class OtlpAttributesTest {
+
+    @Test
+    public void testValueTypes() {
+        assertAttribute("string", "text", new ProtobufWriter().string(1, "text"));
+        assertAttribute("bool", "true", new ProtobufWriter().varint(2, 1));
+        assertAttribute("int64", "-42", new ProtobufWriter().varint(3, -42));
+        assertAttribute("float64", "0.5", new ProtobufWriter().doubleValue(4, 0.5));
+        assertAttribute("binary", "00ff10", new ProtobufWriter().bytes(7, new byte[] { 0, (byte) 0xFF, 0x10 }));
+        // unknown value type is skipped
+        assertAttribute("string", "", new ProtobufWriter().varint(99, 1));
+    }
+
+    @Test
+    public void testArrayAndKeyValueList() {
+        ProtobufWriter array = new ProtobufWriter()
+                .message(1, new ProtobufWriter().string(1, "a"))
+                .message(1, new ProtobufWriter().varint(3, 2));
+        assertAttribute("string", "[\"a\",\"2\"]", new ProtobufWriter().message(5, array));
+
+        ProtobufWriter list = new ProtobufWriter()
+                .message(1, ProtobufWriter.keyValue("first", "1"))
+                .message(1, ProtobufWriter.keyValue("second", new ProtobufWriter().varint(2, 0)));
+        assertAttribute("string", "{\"first\":\"1\",\"second\":\"false\"}", new ProtobufWriter().message(6, list));
+    }
+
+    @Test
+    public void testResourceAttributes() {
+        ProtobufWriter resource = new ProtobufWriter()
+                .message(1, ProtobufWriter.keyValue("service.name", "app"))
+                .varint(2, 3)
+                .message(1, ProtobufWriter.keyValue("host.name", "localhost"));
+
+        Map<String, String> attributes = OtlpAttributes.readAttributes(new ProtobufReader(resource.toByteArray()), 1);
+
+        Assert.assertEquals(2, attributes.size());
+        Assert.assertEquals("app", attributes.get("service.name"));
+        Assert.assertEquals("localhost", attributes.get("host.name"));
+    }
+
+    @Test
+    public void testHex() {
+        Assert.assertEquals("0123456789abcdef", OtlpAttributes.toHex(
+                new byte[] { 0x01, 0x23, 0x45, 0x67, (byte) 0x89, (byte) 0xAB, (byte) 0xCD, (byte) 0xEF }));
+    }
+
+    private static void assertAttribute(String type, String value, ProtobufWriter anyValue) {
+        OtlpAttributes.Attribute attribute = OtlpAttributes.readAttribute(
+                new ProtobufReader(ProtobufWriter.keyValue("key", anyValue).toByteArray()));
+        Assert.assertEquals("key", attribute.getKey());
+        Assert.assertEquals(type, attribute.getType());
+        Assert.assertEquals(value, attribute.getValue());
+    }
+}
@@ -0,0 +1,179 @@
+package org.jboss.eap.qe.observability.otlp;
+
+import java.util.List;
+
+import org.jboss.eap.qe.observability.prometheus.model.PrometheusMetric;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests conversion of hand encoded {@code ExportMetricsServiceRequest} messages by {@link OtlpMetrics}.
+ */
+public class OtlpMetricsTest {
+
+    private static final int TEMPORALITY_DELTA = 1;
+    private static final int TEMPORALITY_CUMULATIVE = 2;
+
+    @Test
+    public void testCounterWithResourceAndScopeLabels() {
+        ProtobufWriter point = new ProtobufWriter()
+                .fixed64(6, 3)
+                .message(7, ProtobufWriter.keyValue("http.method", "GET"));
+        ProtobufWriter metric = new ProtobufWriter()
+                .string(1, "http.server.requests")
+                .string(2, "Number of requests")
+                .string(3, "{request}")
+                .message(7, sum(point, TEMPORALITY_CUMULATIVE, true));
+        ProtobufWriter scopeMetrics = new ProtobufWriter()
+                .message(1, new ProtobufWriter().string(1, "io.smallrye.opentelemetry").string(2, ""))
+                .message(2, metric);
+        ProtobufWriter resource = new ProtobufWriter()
+                .message(1, ProtobufWriter.keyValue("service.name", "app"))
+                .message(1, ProtobufWriter.keyValue("service.namespace", "ns"))
+                .message(1, ProtobufWriter.keyValue("service.instance.id", "instance-1"));
+        // resource follows scopes on the wire
+        ProtobufWriter request = new ProtobufWriter()
+                .message(1, new ProtobufWriter().message(2, scopeMetrics).message(1, resource));
+
+        OtlpMetrics metrics = new OtlpMetrics(100);
+        metrics.accept(request.toByteArray());
+
+        List<PrometheusMetric> received = metrics.getMetrics();
+        Assert.assertEquals(1, received.size());
+        PrometheusMetric counter = received.get(0);
+        Assert.assertEquals("http_server_requests_total", counter.getKey());
+        Assert.assertEquals("counter", counter.getType());
+        Assert.assertEquals("Number of requests", counter.getHelp());
+        Assert.assertEquals("3", counter.getValue());
+        Assert.assertEquals("ns/app", counter.getTags().get("job"));
+        Assert.assertEquals("instance-1", counter.getTags().get("instance"));
+        Assert.assertEquals("io.smallrye.opentelemetry", counter.getTags().get("otel_scope_name"));
+        Assert.assertEquals("GET", counter.getTags().get("http_method"));
+        // empty scope version is not a label
+        Assert.assertFalse(counter.getTags().containsKey("otel_scope_version"));
+    }
+
+    @Test
+    public void testNameSuffixes() {
+        Assert.assertEquals("http_server_duration_seconds",
+                OtlpMetrics.prometheusName("http.server.duration", "s", "histogram"));
+        Assert.assertEquals("memory_used_bytes", OtlpMetrics.prometheusName("memory.used", "By", "gauge"));
+        Assert.assertEquals("cpu_utilization_ratio", OtlpMetrics.prometheusName("cpu.utilization", "1", "gauge"));
+        Assert.assertEquals("cpu_time", OtlpMetrics.prometheusName("cpu.time", "1", "histogram"));
+        Assert.assertEquals("throughput_bytes_per_second", OtlpMetrics.prometheusName("throughput", "By/s", "gauge"));
+        Assert.assertEquals("bytes_sent_bytes_total", OtlpMetrics.prometheusName("bytes.sent", "By", "counter"));
+        Assert.assertEquals("errors_total", OtlpMetrics.prometheusName("errors", "{error}", "counter"));
+        // suffixes already present are not repeated
+        Assert.assertEquals("requests_total", OtlpMetrics.prometheusName("requests_total", "", "counter"));
+        Assert.assertEquals("latency_seconds", OtlpMetrics.prometheusName("latency.seconds", "s", "gauge"));
+        Assert.assertEquals("_3d_points", OtlpMetrics.prometheusName("3d..points", "", "gauge"));
+    }
+
+    @Test
+    public void testDeltaSumAccumulated() {
+        OtlpMetrics metrics = new OtlpMetrics(100);
+        metrics.accept(sumRequest("delta", 2, TEMPORALITY_DELTA, true));
+        metrics.accept(sumRequest("delta", 3.5, TEMPORALITY_DELTA, true));
+        metrics.accept(sumRequest("cumulative", 2, TEMPORALITY_CUMULATIVE, true));
+        metrics.accept(sumRequest("cumulative", 3.5, TEMPORALITY_CUMULATIVE, true));
+        // not monotonic, kept as gauge of the latest value
+        metrics.accept(sumRequest("updown", 2, TEMPORALITY_DELTA, false));
+        metrics.accept(sumRequest("updown", -1, TEMPORALITY_DELTA, false));
+
+        List<PrometheusMetric> received = metrics.getMetrics();
+        Assert.assertEquals(3, received.size());
+        Assert.assertEquals("delta_total", received.get(0).getKey());
+        Assert.assertEquals(5.5, received.get(0).getDoubleValue(), 0);
+        Assert.assertEquals("cumulative_total", received.get(1).getKey());
+        Assert.assertEquals(3.5, received.get(1).getDoubleValue(), 0);
+        Assert.assertEquals("updown", received.get(2).getKey());
+        Assert.assertEquals("gauge", received.get(2).getType());
+        Assert.assertEquals(-1, received.get(2).getDoubleValue(), 0);
+    }
+
+    @Test
+    public void testHistogram() {
+        ProtobufWriter point = new ProtobufWriter()
+                .fixed64(4, 6)
+                .doubleValue(5, 1.5)
+                .packedFixed64(6, 1, 2, 3)
+                .packedDoubles(7, 0.0005, 0.1);
+        ProtobufWriter metric = new ProtobufWriter()
+                .string(1, "request.latency")
+                .string(3, "s")
+                .message(9, new ProtobufWriter().message(1, point).varint(2, TEMPORALITY_CUMULATIVE));
+
+        OtlpMetrics metrics = new OtlpMetrics(100);
+        metrics.accept(request(metric));
+
+        List<PrometheusMetric> received = metrics.getMetrics();
+        Assert.assertEquals(5, received.size());
+        assertSample(received.get(0), "request_latency_seconds_bucket", "0.0005", 1);
+        assertSample(received.get(1), "request_latency_seconds_bucket", "0.1", 3);
+        assertSample(received.get(2), "request_latency_seconds_bucket", "+Inf", 6);
+        assertSample(received.get(3), "request_latency_seconds_sum", null, 1.5);
+        assertSample(received.get(4), "request_latency_seconds_count", null, 6);
+        for (PrometheusMetric sample : received) {
+            Assert.assertEquals("histogram", sample.getType());
+        }
+    }
+
+    @Test
+    public void testSeriesOverLimitDropped() {
+        OtlpMetrics metrics = new OtlpMetrics(2);
+        metrics.accept(gaugeRequest("a", 1));
+        metrics.accept(gaugeRequest("b", 1));
+        metrics.accept(gaugeRequest("c", 1));
+        // existing series is still updated
+        metrics.accept(gaugeRequest("a", 2));
+
+        List<PrometheusMetric> received = metrics.getMetrics();
+        Assert.assertEquals(2, received.size());
+        Assert.assertEquals("a", received.get(0).getTags().get("series"));
+        Assert.assertEquals(2, received.get(0).getDoubleValue(), 0);
+        Assert.assertEquals("b", received.get(1).getTags().get("series"));
+        Assert.assertEquals(1, metrics.getDroppedSamples());
+
+        metrics.clear();
+        metrics.accept(gaugeRequest("c", 1));
+        Assert.assertEquals(1, metrics.getMetrics().size());
+        Assert.assertEquals(0, metrics.getDroppedSamples());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformedRequest() {
+        new OtlpMetrics(100).accept(new byte[] { 0x0A, 0x05, 0x12 });
+    }
+
+    private static void assertSample(PrometheusMetric sample, String name, String le, double value) {
+        Assert.assertEquals(name, sample.getKey());
+        Assert.assertEquals(le, sample.getTags().get("le"));
+        Assert.assertEquals(value, sample.getDoubleValue(), 0);
+    }
+
+    private static ProtobufWriter sum(ProtobufWriter point, int temporality, boolean monotonic) {
+        return new ProtobufWriter()
+                .message(1, point)
+                .varint(2, temporality)
+                .varint(3, monotonic ? 1 : 0);
+    }
+
+    private static byte[] sumRequest(String name, double value, int temporality, boolean monotonic) {
+        ProtobufWriter point = new ProtobufWriter().doubleValue(4, value);
+        return request(new ProtobufWriter().string(1, name).message(7, sum(point, temporality, monotonic)));
+    }
+
+    private static byte[] gaugeRequest(String series, double value) {
+        ProtobufWriter point = new ProtobufWriter()
+                .doubleValue(4, value)
+                .message(7, ProtobufWriter.keyValue("series", series));
+        return request(new ProtobufWriter().string(1, "gauge").message(5, new ProtobufWriter().message(1, point)));
+    }
+
+    private static byte[] request(ProtobufWriter metric) {
+        ProtobufWriter scopeMetrics = new ProtobufWriter().message(2, metric);
+        return new ProtobufWriter()
+                .message(1, new ProtobufWriter().message(2, scopeMetrics))
+                .toByteArray();
+    }
+}
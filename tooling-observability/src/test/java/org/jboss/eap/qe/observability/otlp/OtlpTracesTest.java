@@ -0,0 +1,161 @@
+package org.jboss.eap.qe.observability.otlp;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.eap.qe.observability.jaeger.model.JaegerLog;
+import org.jboss.eap.qe.observability.jaeger.model.JaegerSpan;
+import org.jboss.eap.qe.observability.jaeger.model.JaegerTag;
+import org.jboss.eap.qe.observability.jaeger.model.JaegerTrace;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests conversion of hand encoded {@code ExportTraceServiceRequest} messages by {@link OtlpTraces}.
+ */
+public class OtlpTracesTest {
+
+    private static final byte[] TRACE_ID = id(16, 0x0A);
+    private static final byte[] OTHER_TRACE_ID = id(16, 0x0B);
+    private static final int KIND_SERVER = 2;
+    private static final int KIND_CLIENT = 3;
+    private static final int STATUS_ERROR = 2;
+
+    @Test
+    public void testSpansConvertedToJaegerModel() {
+        ProtobufWriter root = span(TRACE_ID, id(8, 1), null, "GET /hello", KIND_SERVER, 1_000_000, 5_500_000)
+                .message(9, ProtobufWriter.keyValue("http.status_code", new ProtobufWriter().varint(3, 500)))
+                .message(11, new ProtobufWriter()
+                        .fixed64(1, 2_000_000)
+                        .string(2, "exception")
+                        .message(3, ProtobufWriter.keyValue("exception.message", "boom")))
+                .message(13, new ProtobufWriter().bytes(1, OTHER_TRACE_ID).bytes(2, id(8, 9)))
+                .message(15, new ProtobufWriter().string(2, "failed").varint(3, STATUS_ERROR));
+        ProtobufWriter child = span(TRACE_ID, id(8, 2), id(8, 1), "SELECT", KIND_CLIENT, 2_000_000, 3_000_000);
+
+        OtlpTraces traces = new OtlpTraces(100);
+        traces.accept(request("app", Arrays.asList(root, child)));
+
+        List<JaegerTrace> received = traces.getTraces("app");
+        Assert.assertEquals(1, received.size());
+        JaegerTrace trace = received.get(0);
+        Assert.assertEquals("0a0a0a0a0a0a0a0a0a0a0a0a0a0a0a0a", trace.getTraceID());
+        Assert.assertEquals(2, trace.getSpans().size());
+        Assert.assertEquals("app", trace.getProcesses().get("p1").getServiceName());
+        Assert.assertEquals("localhost", tagValue(trace.getProcesses().get("p1").getTags(), "host.name"));
+
+        JaegerSpan rootSpan = trace.getSpans().get(0);
+        Assert.assertEquals("0101010101010101", rootSpan.getSpanID());
+        Assert.assertEquals("GET /hello", rootSpan.getOperationName());
+        Assert.assertEquals("p1", rootSpan.getProcessID());
+        Assert.assertEquals(Long.valueOf(1000), rootSpan.getStartTime());
+        Assert.assertEquals(Integer.valueOf(4500), rootSpan.getDuration());
+        Assert.assertEquals("server", tagValue(rootSpan.getTags(), "span.kind"));
+        Assert.assertEquals("500", tagValue(rootSpan.getTags(), "http.status_code"));
+        Assert.assertEquals("ERROR", tagValue(rootSpan.getTags(), "otel.status_code"));
+        Assert.assertEquals("true", tagValue(rootSpan.getTags(), "error"));
+        Assert.assertEquals("failed", tagValue(rootSpan.getTags(), "otel.status_description"));
+        Assert.assertEquals("test-scope", tagValue(rootSpan.getTags(), "otel.scope.name"));
+        // link is the only reference of root span
+        Assert.assertEquals(1, rootSpan.getReferences().size());
+        Assert.assertEquals("FOLLOWS_FROM", rootSpan.getReferences().get(0).getRefType());
+        Assert.assertEquals("0909090909090909", rootSpan.getReferences().get(0).getSpanID());
+        JaegerLog event = rootSpan.getLogs().get(0);
+        Assert.assertEquals(Long.valueOf(2000), event.getTimestamp());
+        Assert.assertEquals("event", event.getFields().get(0).getKey());
+        Assert.assertEquals("exception", event.getFields().get(0).getValue());
+        Assert.assertEquals("boom", tagValue(event.getFields(), "exception.message"));
+
+        JaegerSpan childSpan = trace.getSpans().get(1);
+        Assert.assertEquals("CHILD_OF", childSpan.getReferences().get(0).getRefType());
+        Assert.assertEquals("0101010101010101", childSpan.getReferences().get(0).getSpanID());
+        Assert.assertEquals("client", tagValue(childSpan.getTags(), "span.kind"));
+        Assert.assertNull(tagValue(childSpan.getTags(), "error"));
+    }
+
+    @Test
+    public void testTracesOfService() {
+        OtlpTraces traces = new OtlpTraces(100);
+        traces.accept(request("frontend", Collections.singletonList(
+                span(TRACE_ID, id(8, 1), null, "front", KIND_SERVER, 0, 1000))));
+        traces.accept(request("backend", Arrays.asList(
+                span(TRACE_ID, id(8, 2), id(8, 1), "back", KIND_SERVER, 0, 1000),
+                span(OTHER_TRACE_ID, id(8, 3), null, "other", KIND_SERVER, 0, 1000))));
+        traces.accept(request("frontend", Collections.singletonList(
+                span(TRACE_ID, id(8, 4), id(8, 1), "front-again", KIND_SERVER, 0, 1000))));
+
+        Assert.assertEquals(Arrays.asList("backend", "frontend"), Arrays.asList(traces.getServices().toArray()));
+        List<JaegerTrace> frontend = traces.getTraces("frontend");
+        Assert.assertEquals(1, frontend.size());
+        // spans of other services in the trace are included, equal resources share the process
+        JaegerTrace trace = frontend.get(0);
+        Assert.assertEquals(3, trace.getSpans().size());
+        Assert.assertEquals(2, trace.getProcesses().size());
+        Assert.assertEquals("p1", trace.getSpans().get(0).getProcessID());
+        Assert.assertEquals("p2", trace.getSpans().get(1).getProcessID());
+        Assert.assertEquals("p1", trace.getSpans().get(2).getProcessID());
+        Assert.assertEquals(2, traces.getTraces("backend").size());
+        Assert.assertTrue(traces.getTraces("unknown").isEmpty());
+    }
+
+    @Test
+    public void testOldestSpansEvicted() {
+        OtlpTraces traces = new OtlpTraces(2);
+        traces.accept(request("app", Arrays.asList(
+                span(OTHER_TRACE_ID, id(8, 1), null, "first", KIND_SERVER, 0, 1000),
+                span(TRACE_ID, id(8, 2), null, "second", KIND_SERVER, 0, 1000),
+                span(TRACE_ID, id(8, 3), id(8, 2), "third", KIND_SERVER, 0, 1000))));
+
+        List<JaegerTrace> received = traces.getTraces("app");
+        Assert.assertEquals(1, received.size());
+        Assert.assertEquals(2, received.get(0).getSpans().size());
+        Assert.assertEquals("second", received.get(0).getSpans().get(0).getOperationName());
+
+        traces.clear();
+        Assert.assertTrue(traces.getServices().isEmpty());
+    }
+
+    private static ProtobufWriter span(byte[] traceId, byte[] spanId, byte[] parentId, String name, int kind,
+            long startNanos, long endNanos) {
+        ProtobufWriter span = new ProtobufWriter()
+                .bytes(1, traceId)
+                .bytes(2, spanId);
+        if (parentId != null) {
+            span.bytes(4, parentId);
+        }
+        return span
+                .string(5, name)
+                .varint(6, kind)
+                .fixed64(7, startNanos)
+                .fixed64(8, endNanos);
+    }
+
+    private static byte[] request(String service, List<ProtobufWriter> spans) {
+        ProtobufWriter scopeSpans = new ProtobufWriter().message(1, new ProtobufWriter().string(1, "test-scope"));
+        for (ProtobufWriter span : spans) {
+            scopeSpans.message(2, span);
+        }
+        ProtobufWriter resource = new ProtobufWriter()
+                .message(1, ProtobufWriter.keyValue("service.name", service))
+                .message(1, ProtobufWriter.keyValue("host.name", "localhost"));
+        return new ProtobufWriter()
+                .message(1, new ProtobufWriter().message(1, resource).message(2, scopeSpans))
+                .toByteArray();
+    }
+
+    private static String tagValue(List<JaegerTag> tags, String key) {
+        for (JaegerTag tag : tags) {
+            if (key.equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static byte[] id(int length, int value) {
+        byte[] id = new byte[length];
+        Arrays.fill(id, (byte) value);
+        return id;
+    }
+}
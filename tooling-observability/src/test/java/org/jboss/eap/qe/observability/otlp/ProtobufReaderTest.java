@@ -0,0 +1,90 @@
+package org.jboss.eap.qe.observability.otlp;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link ProtobufReader} on messages encoded by {@link ProtobufWriter}.
+ */
+public class ProtobufReaderTest {
+
+    @Test
+    public void testFieldsReadAndSkipped() {
+        byte[] message = new ProtobufWriter()
+                .varint(1, 300)
+                .varint(2, -1)
+                .fixed64(3, 0x0102030405060708L)
+                .doubleValue(4, 0.25)
+                .string(5, "žluťoučký")
+                .fixed32(6, 7)
+                .message(7, new ProtobufWriter().string(1, "nested").varint(2, 1))
+                .varint(1000, 5)
+                .toByteArray();
+
+        ProtobufReader reader = new ProtobufReader(message);
+        Assert.assertTrue(reader.next());
+        Assert.assertEquals(1, reader.getField());
+        Assert.assertEquals(ProtobufReader.VARINT, reader.getWireType());
+        Assert.assertEquals(300, reader.readVarint());
+        Assert.assertTrue(reader.next());
+        Assert.assertEquals(-1, reader.readVarint());
+        Assert.assertTrue(reader.next());
+        Assert.assertEquals(0x0102030405060708L, reader.readFixed64());
+        Assert.assertTrue(reader.next());
+        Assert.assertEquals(0.25, reader.readDouble(), 0);
+        Assert.assertTrue(reader.next());
+        Assert.assertEquals("žluťoučký", reader.readString());
+        Assert.assertTrue(reader.next());
+        Assert.assertEquals(ProtobufReader.FIXED32, reader.getWireType());
+        reader.skip();
+        Assert.assertTrue(reader.next());
+        ProtobufReader nested = reader.readMessage();
+        Assert.assertTrue(nested.next());
+        Assert.assertEquals("nested", nested.readString());
+        Assert.assertTrue(nested.next());
+        nested.skip();
+        Assert.assertFalse(nested.next());
+        Assert.assertTrue(reader.next());
+        Assert.assertEquals(1000, reader.getField());
+        reader.skip();
+        Assert.assertFalse(reader.next());
+    }
+
+    @Test
+    public void testPackedAndSingleRepeatedField() {
+        ProtobufReader reader = new ProtobufReader(new ProtobufWriter()
+                .packedFixed64(1, 1, 2, 3)
+                .fixed64(1, 4)
+                .toByteArray());
+
+        Assert.assertTrue(reader.next());
+        Assert.assertTrue(reader.isPacked());
+        ProtobufReader packed = reader.readMessage();
+        long sum = 0;
+        while (packed.hasRemaining()) {
+            sum += packed.readFixed64();
+        }
+        Assert.assertEquals(6, sum);
+        Assert.assertTrue(reader.next());
+        Assert.assertFalse(reader.isPacked());
+        Assert.assertEquals(4, reader.readFixed64());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLengthOverMessage() {
+        byte[] message = new ProtobufWriter().string(1, "value").toByteArray();
+        // message ends before the string does
+        byte[] truncated = new byte[message.length - 1];
+        System.arraycopy(message, 0, truncated, 0, truncated.length);
+        ProtobufReader reader = new ProtobufReader(truncated);
+        reader.next();
+        reader.readString();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTruncatedFixed64() {
+        ProtobufReader reader = new ProtobufReader(new byte[] { 0x09, 1, 2, 3 });
+        reader.next();
+        reader.readFixed64();
+    }
+}
@@ -0,0 +1,106 @@
+package org.jboss.eap.qe.observability.otlp;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encoder of protobuf wire format for hand written OTLP test messages, counterpart of {@link ProtobufReader}.
+ */
+final class ProtobufWriter {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    ProtobufWriter varint(int field, long value) {
+        tag(field, ProtobufReader.VARINT);
+        writeVarint(value);
+        return this;
+    }
+
+    ProtobufWriter fixed64(int field, long value) {
+        tag(field, ProtobufReader.FIXED64);
+        writeFixed64(value);
+        return this;
+    }
+
+    ProtobufWriter fixed32(int field, int value) {
+        tag(field, ProtobufReader.FIXED32);
+        for (int i = 0; i < 4; i++) {
+            out.write(value >>> (8 * i));
+        }
+        return this;
+    }
+
+    ProtobufWriter doubleValue(int field, double value) {
+        return fixed64(field, Double.doubleToLongBits(value));
+    }
+
+    ProtobufWriter string(int field, String value) {
+        return bytes(field, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    ProtobufWriter bytes(int field, byte[] value) {
+        tag(field, ProtobufReader.LENGTH_DELIMITED);
+        writeVarint(value.length);
+        out.write(value, 0, value.length);
+        return this;
+    }
+
+    ProtobufWriter message(int field, ProtobufWriter message) {
+        return bytes(field, message.toByteArray());
+    }
+
+    /**
+     * Writes packed repeated {@code fixed64} or {@code double} field.
+     */
+    ProtobufWriter packedFixed64(int field, long... values) {
+        ProtobufWriter packed = new ProtobufWriter();
+        for (long value : values) {
+            packed.writeFixed64(value);
+        }
+        return bytes(field, packed.toByteArray());
+    }
+
+    ProtobufWriter packedDoubles(int field, double... values) {
+        long[] bits = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bits[i] = Double.doubleToLongBits(values[i]);
+        }
+        return packedFixed64(field, bits);
+    }
+
+    byte[] toByteArray() {
+        return out.toByteArray();
+    }
+
+    /**
+     * @return {@code KeyValue} message with string value
+     */
+    static ProtobufWriter keyValue(String key, String value) {
+        return keyValue(key, new ProtobufWriter().string(1, value));
+    }
+
+    /**
+     * @return {@code KeyValue} message with given {@code AnyValue}
+     */
+    static ProtobufWriter keyValue(String key, ProtobufWriter anyValue) {
+        return new ProtobufWriter().string(1, key).message(2, anyValue);
+    }
+
+    private void tag(int field, int wireType) {
+        writeVarint(((long) field << 3) | wireType);
+    }
+
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private void writeFixed64(long value) {
+        for (int i = 0; i < 8; i++) {
+            out.write((int) (value >>> (8 * i)));
+        }
+    }
+}
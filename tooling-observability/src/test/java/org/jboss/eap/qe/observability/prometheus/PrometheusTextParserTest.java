@@ -0,0 +1,183 @@
+package org.jboss.eap.qe.observability.prometheus;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.eap.qe.observability.prometheus.model.PrometheusMetric;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link PrometheusTextParser} on hand written scrapes.
+ */
+public class PrometheusTextParserTest {
+
+    @Test
+    public void testMetadataAndLabelEscapes() {
+        List<PrometheusMetric> metrics = PrometheusTextParser.parse(
+                "# HELP requests_total Requests with \\\\ and\\nnew line\n"
+                        + "# TYPE requests_total counter\n"
+                        + "requests_total{path=\"/a,b{c}\",quote=\"say \\\"hi\\\"\",multi=\"x\\ny\\\\z\"} 3\n"
+                        + "requests_total 4\n");
+
+        Assert.assertEquals(2, metrics.size());
+        PrometheusMetric labelled = metrics.get(0);
+        Assert.assertEquals("requests_total", labelled.getKey());
+        Assert.assertEquals("counter", labelled.getType());
+        Assert.assertEquals("Requests with \\ and\nnew line", labelled.getHelp());
+        Assert.assertEquals("/a,b{c}", labelled.getTags().get("path"));
+        Assert.assertEquals("say \"hi\"", labelled.getTags().get("quote"));
+        Assert.assertEquals("x\ny\\z", labelled.getTags().get("multi"));
+        Assert.assertEquals("3", labelled.getValue());
+        Assert.assertTrue(metrics.get(1).getTags().isEmpty());
+        Assert.assertEquals(4, metrics.get(1).getDoubleValue(), 0);
+    }
+
+    @Test
+    public void testQuotedMetricNameAndTimestamps() {
+        List<PrometheusMetric> metrics = PrometheusTextParser.parse(
+                "{\"my.metric\", job=\"test\"} 1 1700000000000\n"
+                        + "other 2 1700000000.5\n");
+
+        Assert.assertEquals("my.metric", metrics.get(0).getKey());
+        Assert.assertEquals("test", metrics.get(0).getTags().get("job"));
+        Assert.assertEquals(1700000000000L, metrics.get(0).getTimestamp());
+        // OpenMetrics timestamp in seconds
+        Assert.assertEquals(1700000000500L, metrics.get(1).getTimestamp());
+    }
+
+    @Test
+    public void testHistogramSamplesGetTypeOfFamily() {
+        List<PrometheusMetric> metrics = PrometheusTextParser.parse(
+                "# HELP latency_seconds Request latency\n"
+                        + "# TYPE latency_seconds histogram\n"
+                        + "latency_seconds_bucket{le=\"0.1\"} 1\n"
+                        + "latency_seconds_bucket{le=\"+Inf\"} 2\n"
+                        + "latency_seconds_sum 0.35\n"
+                        + "latency_seconds_count 2\n"
+                        + "unrelated_count 7\n");
+
+        for (PrometheusMetric metric : metrics.subList(0, 4)) {
+            Assert.assertEquals(metric.getKey(), "histogram", metric.getType());
+            Assert.assertEquals(metric.getKey(), "Request latency", metric.getHelp());
+        }
+        Assert.assertEquals("+Inf", metrics.get(1).getTags().get("le"));
+        Assert.assertNull(metrics.get(4).getType());
+    }
+
+    @Test
+    public void testExemplars() {
+        List<PrometheusMetric> metrics = PrometheusTextParser.parse(
+                "latency_seconds_bucket{le=\"0.5\"} 3 # {trace_id=\"abc123\"} 0.42 1700000000.25\n"
+                        + "requests_total 5 1700000000000 # {trace_id=\"def\"} 1\n"
+                        + "plain 1\n");
+
+        PrometheusMetric.Exemplar exemplar = metrics.get(0).getExemplar();
+        Assert.assertEquals("abc123", exemplar.getLabels().get("trace_id"));
+        Assert.assertEquals(0.42, exemplar.getValue(), 0);
+        Assert.assertEquals(1700000000250L, exemplar.getTimestamp());
+        Assert.assertEquals(PrometheusMetric.NO_TIMESTAMP, metrics.get(0).getTimestamp());
+
+        Assert.assertEquals(1700000000000L, metrics.get(1).getTimestamp());
+        Assert.assertEquals("def", metrics.get(1).getExemplar().getLabels().get("trace_id"));
+        Assert.assertEquals(PrometheusMetric.NO_TIMESTAMP, metrics.get(1).getExemplar().getTimestamp());
+        Assert.assertNull(metrics.get(2).getExemplar());
+    }
+
+    @Test
+    public void testParsingStopsAtEof() {
+        List<PrometheusMetric> metrics = PrometheusTextParser.parse(
+                "# a comment\n"
+                        + "before 1\n"
+                        + "# EOF\n"
+                        + "after 2\n");
+
+        Assert.assertEquals(1, metrics.size());
+        Assert.assertEquals("before", metrics.get(0).getKey());
+    }
+
+    @Test
+    public void testValuesSameAsParseDouble() {
+        String[] values = { "0", "-0", "1", "-17", "0.1", "0.35", "12345.678", "-3.5", "1e-05", "1.0E-5", "2.5e+06",
+                "123456789012345", "1234567890123456789", "0.30000000000000004", "4.9e-324", "1.7976931348623157e308",
+                "+Inf", "-Inf", "NaN", "007", "1." };
+        StringBuilder scrape = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            scrape.append("value{i=\"").append(i).append("\"} ").append(values[i]).append('\n');
+        }
+        List<PrometheusMetric> metrics = PrometheusTextParser.parse(scrape.toString());
+
+        Assert.assertEquals(values.length, metrics.size());
+        for (int i = 0; i < values.length; i++) {
+            double expected = PrometheusMetric.parseValue(values[i]);
+            Assert.assertEquals(values[i], Double.doubleToLongBits(expected),
+                    Double.doubleToLongBits(metrics.get(i).getDoubleValue()));
+            // value is returned as written in the scrape
+            Assert.assertEquals(values[i], metrics.get(i).getValue());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidValue() {
+        PrometheusTextParser.parse("value 1.2.3\n");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnterminatedLabels() {
+        PrometheusTextParser.parse("value{a=\"b\" 1\n");
+    }
+
+    @Test
+    public void testLinesSplitByChunks() throws IOException {
+        // much longer than one chunk of the parser, lines of varying length end at different offsets of chunks
+        List<String> names = new ArrayList<>();
+        StringBuilder scrape = new StringBuilder("# TYPE long_name_counter counter\r\n");
+        for (int i = 0; i < 3000; i++) {
+            StringBuilder label = new StringBuilder();
+            for (int j = 0; j < i % 37; j++) {
+                label.append((char) ('a' + j % 26));
+            }
+            names.add(label.toString());
+            scrape.append("long_name_counter_total{label=\"").append(label).append("é\",index=\"").append(i)
+                    .append("\"} ").append(i).append(".5\r\n");
+        }
+        // a line longer than a chunk
+        StringBuilder longValue = new StringBuilder();
+        for (int i = 0; i < 40_000; i++) {
+            longValue.append((char) ('a' + i % 26));
+        }
+        scrape.append("long_label{value=\"").append(longValue).append("\"} 1");
+
+        List<PrometheusMetric> metrics = PrometheusTextParser.parse(
+                new ByteArrayInputStream(scrape.toString().getBytes(StandardCharsets.UTF_8)));
+
+        Assert.assertEquals(3001, metrics.size());
+        for (int i = 0; i < 3000; i++) {
+            PrometheusMetric metric = metrics.get(i);
+            Assert.assertEquals(names.get(i) + "é", metric.getTags().get("label"));
+            Assert.assertEquals(String.valueOf(i), metric.getTags().get("index"));
+            Assert.assertEquals(i + 0.5, metric.getDoubleValue(), 0);
+            Assert.assertEquals("counter", metric.getType());
+        }
+        Assert.assertEquals(longValue.toString(), metrics.get(3000).getTags().get("value"));
+    }
+
+    @Test
+    public void testValueFormattedAsInGoExporters() {
+        Assert.assertEquals("2", PrometheusMetric.formatValue(2));
+        Assert.assertEquals("-17", PrometheusMetric.formatValue(-17));
+        Assert.assertEquals("0.5", PrometheusMetric.formatValue(0.5));
+        Assert.assertEquals("0.0001", PrometheusMetric.formatValue(0.0001));
+        Assert.assertEquals("1e-05", PrometheusMetric.formatValue(0.00001));
+        Assert.assertEquals("123456.7", PrometheusMetric.formatValue(123456.7));
+        Assert.assertEquals("1e+06", PrometheusMetric.formatValue(1_000_000));
+        Assert.assertEquals("1.5e+06", PrometheusMetric.formatValue(1_500_000));
+        Assert.assertEquals("1.7976931348623157e+308", PrometheusMetric.formatValue(Double.MAX_VALUE));
+        Assert.assertEquals("+Inf", PrometheusMetric.formatValue(Double.POSITIVE_INFINITY));
+        Assert.assertEquals("NaN", PrometheusMetric.formatValue(Double.NaN));
+        Assert.assertEquals("0", PrometheusMetric.formatValue(0));
+    }
+}
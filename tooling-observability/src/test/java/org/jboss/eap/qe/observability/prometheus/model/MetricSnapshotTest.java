@@ -0,0 +1,100 @@
+package org.jboss.eap.qe.observability.prometheus.model;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.OptionalDouble;
+
+import org.jboss.eap.qe.observability.prometheus.PrometheusTextParser;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests queries of {@link MetricSnapshot} on hand written scrapes.
+ */
+public class MetricSnapshotTest {
+
+    private static final String SCRAPE = "http_requests_total{method=\"GET\",code=\"200\"} 10\n"
+            + "http_requests_total{method=\"POST\",code=\"200\"} 4\n"
+            + "http_requests_total{method=\"GET\",code=\"500\"} 1\n"
+            + "http_request_duration_seconds_count{method=\"GET\"} 11\n"
+            + "http_request_duration_seconds_sum{method=\"GET\"} 0.5\n"
+            + "jvm_memory_used_bytes{area=\"heap\"} 1024\n"
+            + "jvm_memory_used_bytes{area=\"nonheap\"} 512\n";
+
+    @Test
+    public void testNamePrefixes() {
+        MetricSnapshot snapshot = MetricSnapshot.of(PrometheusTextParser.parse(SCRAPE));
+
+        Assert.assertEquals(7, snapshot.size());
+        Assert.assertTrue(snapshot.contains("http_requests_total"));
+        Assert.assertFalse(snapshot.contains("http_requests"));
+        Assert.assertEquals(Arrays.asList("http_request_duration_seconds_count", "http_request_duration_seconds_sum",
+                "http_requests_total"), snapshot.namesWithPrefix("http_request"));
+        Assert.assertEquals(Collections.singletonList("jvm_memory_used_bytes"), snapshot.namesWithPrefix("jvm"));
+        Assert.assertTrue(snapshot.namesWithPrefix("process").isEmpty());
+        Assert.assertEquals(5, snapshot.withPrefix("http_").size());
+        Assert.assertEquals(7, snapshot.withPrefix("").size());
+        Assert.assertTrue(snapshot.containsPrefix("jvm_mem"));
+        Assert.assertTrue(snapshot.containsPrefix("jvm_memory_used_bytes"));
+        Assert.assertFalse(snapshot.containsPrefix("jvm_memory_used_bytes_total"));
+        Assert.assertTrue(snapshot.containsPrefix(""));
+        Assert.assertFalse(MetricSnapshot.of(Collections.emptyList()).containsPrefix(""));
+    }
+
+    @Test
+    public void testLabelQueries() {
+        MetricSnapshot snapshot = MetricSnapshot.of(PrometheusTextParser.parse(SCRAPE));
+
+        Assert.assertEquals(3, snapshot.get("http_requests_total").size());
+        Assert.assertEquals(2, snapshot.get("http_requests_total", Map.of("method", "GET")).size());
+        Assert.assertEquals(1, snapshot.get("http_requests_total", Map.of("method", "GET", "code", "500")).size());
+        Assert.assertTrue(snapshot.get("http_requests_total", Map.of("method", "PUT")).isEmpty());
+        Assert.assertTrue(snapshot.get("http_requests_total", Map.of("area", "heap")).isEmpty());
+        // label index spans all metrics
+        Assert.assertEquals(4, snapshot.withLabel("method", "GET").size());
+        Assert.assertTrue(snapshot.withLabel("unknown", "GET").isEmpty());
+
+        Assert.assertEquals(15, snapshot.sum("http_requests_total"), 0);
+        Assert.assertEquals(14, snapshot.sum("http_requests_total", Map.of("code", "200")), 0);
+        Assert.assertEquals(0, snapshot.sum("missing"), 0);
+        Assert.assertEquals(OptionalDouble.of(1024), snapshot.value("jvm_memory_used_bytes", Map.of("area", "heap")));
+        Assert.assertEquals(OptionalDouble.empty(), snapshot.value("jvm_memory_used_bytes", Map.of("area", "x")));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testValueOfMoreSamples() {
+        MetricSnapshot.of(PrometheusTextParser.parse(SCRAPE)).value("http_requests_total", Map.of("code", "200"));
+    }
+
+    @Test
+    public void testIncreaseAndRateWithCounterReset() {
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        MetricSnapshot earlier = MetricSnapshot.of(PrometheusTextParser.parse(
+                "requests_total{pod=\"a\"} 10\n"
+                        + "requests_total{pod=\"b\"} 5\n"
+                        + "requests_total{pod=\"gone\"} 7\n"),
+                start);
+        MetricSnapshot later = MetricSnapshot.of(PrometheusTextParser.parse(
+                "requests_total{pod=\"a\"} 15\n"
+                        // restarted, the counter starts from zero again
+                        + "requests_total{pod=\"b\"} 2\n"
+                        + "requests_total{pod=\"new\"} 3\n"),
+                start.plusSeconds(10));
+
+        Assert.assertEquals(10, later.increase(earlier, "requests_total", Collections.emptyMap()), 0);
+        Assert.assertEquals(5, later.increase(earlier, "requests_total", Map.of("pod", "a")), 0);
+        Assert.assertEquals(2, later.increase(earlier, "requests_total", Map.of("pod", "b")), 0);
+        Assert.assertEquals(1, later.rate(earlier, "requests_total", Collections.emptyMap()), 1e-9);
+        Assert.assertEquals(0, later.rate(earlier, "missing_total", Collections.emptyMap()), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRateOfLaterSnapshot() {
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        MetricSnapshot earlier = MetricSnapshot.of(PrometheusTextParser.parse("requests_total 1\n"), start);
+        MetricSnapshot later = MetricSnapshot.of(PrometheusTextParser.parse("requests_total 2\n"), start.plusSeconds(1));
+        earlier.rate(later, "requests_total", Collections.emptyMap());
+    }
+}
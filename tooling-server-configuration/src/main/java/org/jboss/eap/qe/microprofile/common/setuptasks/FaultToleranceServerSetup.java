@@ -1,18 +1,20 @@
 package org.jboss.eap.qe.microprofile.common.setuptasks;
 
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian.MicroProfileServerSetupTask;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ServerStateManager;
 
 /**
- * Enables/Disables fault tolerance extension/subsystem for Arquillian in-container tests
+ * Enables/Disables fault tolerance extension/subsystem for Arquillian in-container tests. Disabling is deferred by
+ * {@link ServerStateManager} until a test class requires a different server state if the deferred teardown is enabled.
  */
 public class FaultToleranceServerSetup implements MicroProfileServerSetupTask {
     @Override
     public void setup() throws Exception {
-        MicroProfileFaultToleranceServerConfiguration.enableFaultTolerance();
+        ServerStateManager.require(MicroProfileFaultToleranceServerConfiguration.faultToleranceState());
     }
 
     @Override
     public void tearDown() throws Exception {
-        MicroProfileFaultToleranceServerConfiguration.disableFaultTolerance();
+        ServerStateManager.release();
     }
 }
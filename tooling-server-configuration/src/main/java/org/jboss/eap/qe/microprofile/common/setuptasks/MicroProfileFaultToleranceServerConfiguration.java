@@ -1,20 +1,39 @@
 package org.jboss.eap.qe.microprofile.common.setuptasks;
 
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ManagementBatch;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ManagementClientProvider;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ResourcePath;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ServerState;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ServerStateManager;
 import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 /**
  * Utility class enabling and disabling MP Fault Tolerance (which is disabled by default)
  */
 public class MicroProfileFaultToleranceServerConfiguration {
 
-    private static final Address MICROPROFILE_FAULT_TOLERANCE_EXTENSION_ADDRESS = Address
+    private static final ResourcePath MICROPROFILE_FAULT_TOLERANCE_EXTENSION = ResourcePath
             .extension("org.wildfly.extension.microprofile.fault-tolerance-smallrye");
-    private static final Address MICROPROFILE_FAULT_TOLERANCE_SUBSYSTEM_ADDRESS = Address
+    private static final ResourcePath MICROPROFILE_FAULT_TOLERANCE_SUBSYSTEM = ResourcePath
             .subsystem("microprofile-fault-tolerance-smallrye");
+    private static final Address MICROPROFILE_FAULT_TOLERANCE_EXTENSION_ADDRESS = MICROPROFILE_FAULT_TOLERANCE_EXTENSION
+            .toAddress();
+    private static final Address MICROPROFILE_FAULT_TOLERANCE_SUBSYSTEM_ADDRESS = MICROPROFILE_FAULT_TOLERANCE_SUBSYSTEM
+            .toAddress();
+
+    /**
+     * Server state with fault tolerance extension and subsystem, to be required by {@link ServerStateManager}
+     *
+     * @return state with fault tolerance enabled
+     */
+    public static ServerState faultToleranceState() {
+        return ServerState.builder()
+                .resource(MICROPROFILE_FAULT_TOLERANCE_EXTENSION)
+                .resource(MICROPROFILE_FAULT_TOLERANCE_SUBSYSTEM)
+                .build();
+    }
 
     /**
      * Enable fault tolerance extension and subsystem.
@@ -34,14 +53,10 @@ public class MicroProfileFaultToleranceServerConfiguration {
      * @throws Exception exception thrown by the internal operation executed by {@link OnlineManagementClient} API
      */
     public static void enableFaultTolerance(OnlineManagementClient client) throws Exception {
-        Operations operations = new Operations(client);
-        if (!faultToleranceExtensionExists(operations)) {
-            operations.add(MICROPROFILE_FAULT_TOLERANCE_EXTENSION_ADDRESS);
-        }
-        if (!faultToleranceSubsystemExists(operations)) {
-            operations.add(MICROPROFILE_FAULT_TOLERANCE_SUBSYSTEM_ADDRESS);
-        }
-        new Administration(client).reloadIfRequired();
+        new ManagementBatch(client)
+                .addIfMissing(MICROPROFILE_FAULT_TOLERANCE_EXTENSION)
+                .addIfMissing(MICROPROFILE_FAULT_TOLERANCE_SUBSYSTEM)
+                .executeAndReloadIfRequired();
     }
 
     /**
@@ -62,14 +77,10 @@ public class MicroProfileFaultToleranceServerConfiguration {
      * @throws Exception exception thrown by the internal operation executed by {@link OnlineManagementClient} API
      */
     public static void disableFaultTolerance(OnlineManagementClient client) throws Exception {
-        Operations operations = new Operations(client);
-        if (faultToleranceSubsystemExists(operations)) {
-            operations.remove(MICROPROFILE_FAULT_TOLERANCE_SUBSYSTEM_ADDRESS);
-        }
-        if (faultToleranceExtensionExists(operations)) {
-            operations.remove(MICROPROFILE_FAULT_TOLERANCE_EXTENSION_ADDRESS);
-        }
-        new Administration(client).reloadIfRequired();
+        new ManagementBatch(client)
+                .removeIfExists(MICROPROFILE_FAULT_TOLERANCE_SUBSYSTEM)
+                .removeIfExists(MICROPROFILE_FAULT_TOLERANCE_EXTENSION)
+                .executeAndReloadIfRequired();
     }
 
     /**
@@ -1,10 +1,12 @@
 package org.jboss.eap.qe.microprofile.common.setuptasks;
 
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ManagementBatch;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ManagementClientProvider;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ResourcePath;
 import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
+import org.wildfly.extras.creaper.core.online.operations.Values;
 
 import com.google.common.base.Strings;
 
@@ -12,10 +14,14 @@ import com.google.common.base.Strings;
  * Utility class enabling and disabling Micrometer (which is disabled by default)
  */
 public class MicrometerServerConfiguration {
-    private static final Address MICROMETER_EXTENSION_ADDRESS = Address
+    private static final ResourcePath MICROMETER_EXTENSION = ResourcePath
             .extension("org.wildfly.extension.micrometer");
-    private static final Address MICROMETER_SUBSYSTEM_ADDRESS = Address
+    private static final ResourcePath MICROMETER_SUBSYSTEM = ResourcePath
             .subsystem("micrometer");
+    private static final ResourcePath MICROMETER_LOGGER = ResourcePath.subsystem("logging")
+            .and("logger", "io.micrometer");
+    private static final Address MICROMETER_EXTENSION_ADDRESS = MICROMETER_EXTENSION.toAddress();
+    private static final Address MICROMETER_SUBSYSTEM_ADDRESS = MICROMETER_SUBSYSTEM.toAddress();
     private static final Address UNDERTOW_SUBSYSTEM_ADDRESS = Address.subsystem("undertow");
     private static final Address LOGGING_SUBSYSTEM_ADDRESS = Address.subsystem("logging");
 
@@ -53,21 +59,19 @@ public class MicrometerServerConfiguration {
      */
     public static void enableMicrometer(OnlineManagementClient client, final String otlpHttpEndpoint, boolean skipReload)
             throws Exception {
-        Operations operations = new Operations(client);
-        operations.writeAttribute(UNDERTOW_SUBSYSTEM_ADDRESS, "statistics-enabled", "true");
-        if (!micrometerExtensionExists(operations)) {
-            operations.add(MICROMETER_EXTENSION_ADDRESS);
-        }
-        if (!micrometerSubsystemExists(operations)) {
-            operations.add(MICROMETER_SUBSYSTEM_ADDRESS);
-        }
+        ManagementBatch batch = new ManagementBatch(client)
+                .writeAttribute(UNDERTOW_SUBSYSTEM_ADDRESS, "statistics-enabled", "true")
+                .addIfMissing(MICROMETER_EXTENSION)
+                .addIfMissing(MICROMETER_SUBSYSTEM);
         if (!Strings.isNullOrEmpty(otlpHttpEndpoint)) {
-            operations.writeAttribute(MICROMETER_SUBSYSTEM_ADDRESS, "endpoint", otlpHttpEndpoint + "/v1/metrics");
-            operations.writeAttribute(MICROMETER_SUBSYSTEM_ADDRESS, "step", "1");
+            batch.writeAttribute(MICROMETER_SUBSYSTEM_ADDRESS, "endpoint", otlpHttpEndpoint + "/v1/metrics")
+                    .writeAttribute(MICROMETER_SUBSYSTEM_ADDRESS, "step", "1");
         }
-        client.execute("/subsystem=logging/logger=io.micrometer:add(level=TRACE)");
-        if (!skipReload) {
-            new Administration(client).reloadIfRequired();
+        batch.addIfMissing(MICROMETER_LOGGER, Values.of("level", "TRACE"));
+        if (skipReload) {
+            batch.execute();
+        } else {
+            batch.executeAndReloadIfRequired();
         }
     }
 
@@ -100,16 +104,14 @@ public class MicrometerServerConfiguration {
      * @throws Exception exception thrown by the internal operation executed by {@link OnlineManagementClient} API
      */
     public static void disableMicrometer(OnlineManagementClient client, boolean skipReload) throws Exception {
-        Operations operations = new Operations(client);
-        if (micrometerSubsystemExists(operations)) {
-            operations.remove(MICROMETER_SUBSYSTEM_ADDRESS);
-        }
-        if (micrometerExtensionExists(operations)) {
-            operations.remove(MICROMETER_EXTENSION_ADDRESS);
-        }
-        operations.undefineAttribute(UNDERTOW_SUBSYSTEM_ADDRESS, "statistics-enabled");
-        if (!skipReload) {
-            new Administration(client).reloadIfRequired();
+        ManagementBatch batch = new ManagementBatch(client)
+                .removeIfExists(MICROMETER_SUBSYSTEM)
+                .removeIfExists(MICROMETER_EXTENSION)
+                .undefineAttribute(UNDERTOW_SUBSYSTEM_ADDRESS, "statistics-enabled");
+        if (skipReload) {
+            batch.execute();
+        } else {
+            batch.executeAndReloadIfRequired();
         }
     }
 
@@ -1,19 +1,22 @@
 package org.jboss.eap.qe.microprofile.common.setuptasks;
 
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ManagementBatch;
 import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ManagementClientProvider;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ResourcePath;
 import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
 import org.wildfly.extras.creaper.core.online.operations.Address;
 import org.wildfly.extras.creaper.core.online.operations.Operations;
-import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
 
 /**
  * Operations required to set up and configure the {@code opentelemetry} subsystem
  */
 public class OpenTelemetryServerConfiguration {
-    private static final Address OPENTELEMETRY_EXTENSION_ADDRESS = Address
+    private static final ResourcePath OPENTELEMETRY_EXTENSION = ResourcePath
             .extension("org.wildfly.extension.opentelemetry");
-    private static final Address OPENTELEMETRY_SUBSYSTEM_ADDRESS = Address
+    private static final ResourcePath OPENTELEMETRY_SUBSYSTEM = ResourcePath
             .subsystem("opentelemetry");
+    private static final Address OPENTELEMETRY_EXTENSION_ADDRESS = OPENTELEMETRY_EXTENSION.toAddress();
+    private static final Address OPENTELEMETRY_SUBSYSTEM_ADDRESS = OPENTELEMETRY_SUBSYSTEM.toAddress();
 
     /**
      * Checks whether <b>"org.wildfly.extension.opentelemetry"</b> extension is present
@@ -66,13 +69,14 @@ public class OpenTelemetryServerConfiguration {
         if (!openTelemetrySubsystemExists(operations)) {
             throw new IllegalStateException("OpenTelemetry subsystem not found");
         }
-        operations.writeAttribute(OPENTELEMETRY_SUBSYSTEM_ADDRESS, "batch-delay", "1");
-        operations.writeAttribute(OPENTELEMETRY_SUBSYSTEM_ADDRESS, "exporter-type", "otlp");
-        operations.writeAttribute(OPENTELEMETRY_SUBSYSTEM_ADDRESS, "sampler-type", "on");
-        operations.writeAttribute(OPENTELEMETRY_SUBSYSTEM_ADDRESS, "max-export-batch-size", "512");
-        operations.writeAttribute(OPENTELEMETRY_SUBSYSTEM_ADDRESS, "max-queue-size", "1");
-        operations.writeAttribute(OPENTELEMETRY_SUBSYSTEM_ADDRESS, "endpoint", otlpCollectorEndpointUrl);
-        new Administration(client).reloadIfRequired();
+        new ManagementBatch(client)
+                .writeAttribute(OPENTELEMETRY_SUBSYSTEM_ADDRESS, "batch-delay", "1")
+                .writeAttribute(OPENTELEMETRY_SUBSYSTEM_ADDRESS, "exporter-type", "otlp")
+                .writeAttribute(OPENTELEMETRY_SUBSYSTEM_ADDRESS, "sampler-type", "on")
+                .writeAttribute(OPENTELEMETRY_SUBSYSTEM_ADDRESS, "max-export-batch-size", "512")
+                .writeAttribute(OPENTELEMETRY_SUBSYSTEM_ADDRESS, "max-queue-size", "1")
+                .writeAttribute(OPENTELEMETRY_SUBSYSTEM_ADDRESS, "endpoint", otlpCollectorEndpointUrl)
+                .executeAndReloadIfRequired();
     }
 
     /**
@@ -82,14 +86,10 @@ public class OpenTelemetryServerConfiguration {
      * @throws Exception exception thrown by the internal operation executed by {@link OnlineManagementClient} API
      */
     public static void enableOpenTelemetry(OnlineManagementClient client) throws Exception {
-        Operations operations = new Operations(client);
-        if (!openTelemetryExtensionExists(operations)) {
-            operations.add(OPENTELEMETRY_EXTENSION_ADDRESS);
-        }
-        if (!openTelemetrySubsystemExists(operations)) {
-            operations.add(OPENTELEMETRY_SUBSYSTEM_ADDRESS);
-        }
-        new Administration(client).reloadIfRequired();
+        new ManagementBatch(client)
+                .addIfMissing(OPENTELEMETRY_EXTENSION)
+                .addIfMissing(OPENTELEMETRY_SUBSYSTEM)
+                .executeAndReloadIfRequired();
     }
 
     /**
@@ -110,13 +110,9 @@ public class OpenTelemetryServerConfiguration {
      * @throws Exception exception thrown by the internal operation executed by {@link OnlineManagementClient} API
      */
     public static void disableOpenTelemetry(OnlineManagementClient client) throws Exception {
-        Operations operations = new Operations(client);
-        if (openTelemetrySubsystemExists(operations)) {
-            operations.remove(OPENTELEMETRY_SUBSYSTEM_ADDRESS);
-        }
-        if (openTelemetryExtensionExists(operations)) {
-            operations.remove(OPENTELEMETRY_EXTENSION_ADDRESS);
-        }
-        new Administration(client).reloadIfRequired();
+        new ManagementBatch(client)
+                .removeIfExists(OPENTELEMETRY_SUBSYSTEM)
+                .removeIfExists(OPENTELEMETRY_EXTENSION)
+                .executeAndReloadIfRequired();
     }
 }
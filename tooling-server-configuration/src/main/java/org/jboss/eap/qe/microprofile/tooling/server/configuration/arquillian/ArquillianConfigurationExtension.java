@@ -5,7 +5,7 @@ import org.jboss.arquillian.core.spi.LoadableExtension;
 
 /**
  * Extension which sets property descriptor in {@link ArquillianContainerProperties} class which is used in MP specs
- * tests
+ * tests. {@link ServerStateRestorer} reverts configuration changes deferred by test classes before the container is stopped
  */
 public class ArquillianConfigurationExtension implements RemoteLoadableExtension {
 
@@ -17,5 +17,6 @@ public class ArquillianConfigurationExtension implements RemoteLoadableExtension
     @Override
     public void register(LoadableExtension.ExtensionBuilder builder) {
         builder.observer(ArquillianDescriptorWrapper.class);
+        builder.observer(ServerStateRestorer.class);
     }
 }
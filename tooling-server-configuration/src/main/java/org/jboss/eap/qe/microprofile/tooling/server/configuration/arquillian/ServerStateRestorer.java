@@ -0,0 +1,28 @@
+package org.jboss.eap.qe.microprofile.tooling.server.configuration.arquillian;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jboss.arquillian.container.spi.event.container.BeforeStop;
+import org.jboss.arquillian.core.api.annotation.Observes;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ServerStateManager;
+
+/**
+ * Reverts server configuration changes deferred by {@link ServerStateManager} before the container is stopped
+ */
+public class ServerStateRestorer {
+
+    private static final Logger LOGGER = Logger.getLogger(ServerStateRestorer.class.getName());
+
+    /**
+     * @param event {@link BeforeStop} instance of Arquillian event the method listens to
+     */
+    public void restoreServerState(@Observes BeforeStop event) {
+        try {
+            ServerStateManager.restore();
+        } catch (Exception e) {
+            // the server may not be running anymore, do not break stopping of the container
+            LOGGER.log(Level.WARNING, "Reverting server configuration changes failed", e);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import org.jboss.dmr.ModelNode;
+import org.wildfly.extras.creaper.core.online.ModelNodeResult;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+import org.wildfly.extras.creaper.core.online.operations.Address;
+import org.wildfly.extras.creaper.core.online.operations.Batch;
+import org.wildfly.extras.creaper.core.online.operations.Operations;
+import org.wildfly.extras.creaper.core.online.operations.Values;
+import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
+
+/**
+ * Collects management operations and executes them as one {@code composite} operation, so that a setup task needs
+ * a few round-trips instead of one per operation, and the server never stays in an intermediate state.
+ * <p>
+ * Conditional operations ({@link #addIfMissing(ResourcePath)}, {@link #removeIfExists(ResourcePath)}) are resolved
+ * before the composite is executed - existence of all their resources is read by one more composite of
+ * {@code read-children-names} operations. Example:
+ *
+ * <pre>
+ * new ManagementBatch(client)
+ *         .addIfMissing(ResourcePath.extension("org.wildfly.extension.opentelemetry"))
+ *         .addIfMissing(ResourcePath.subsystem("opentelemetry"))
+ *         .writeAttribute(Address.subsystem("opentelemetry"), "sampler-type", "on")
+ *         .executeAndReloadIfRequired();
+ * </pre>
+ */
+public class ManagementBatch {
+
+    private final OnlineManagementClient client;
+    private final List<Step> steps = new ArrayList<>();
+    private final Map<String, ResourcePath> conditionalResources = new LinkedHashMap<>();
+
+    /**
+     * @param client {@link OnlineManagementClient} instance used to execute the operations
+     */
+    public ManagementBatch(OnlineManagementClient client) {
+        this.client = client;
+    }
+
+    public ManagementBatch add(Address address) {
+        return add(address, Values.empty());
+    }
+
+    public ManagementBatch add(Address address, Values values) {
+        steps.add((batch, existing) -> {
+            batch.add(address, values);
+            existing.put(key(address), true);
+            return true;
+        });
+        return this;
+    }
+
+    /**
+     * Adds the resource unless it exists already.
+     */
+    public ManagementBatch addIfMissing(ResourcePath path) {
+        return addIfMissing(path, Values.empty());
+    }
+
+    /**
+     * Adds the resource with given attributes unless it exists already. Attributes of an existing resource are not
+     * changed.
+     */
+    public ManagementBatch addIfMissing(ResourcePath path, Values values) {
+        final Address address = path.toAddress();
+        conditionalResources.putIfAbsent(key(address), path);
+        steps.add((batch, existing) -> {
+            if (existing.get(key(address))) {
+                return false;
+            }
+            batch.add(address, values);
+            existing.put(key(address), true);
+            return true;
+        });
+        return this;
+    }
+
+    public ManagementBatch remove(Address address) {
+        steps.add((batch, existing) -> {
+            batch.remove(address);
+            existing.put(key(address), false);
+            return true;
+        });
+        return this;
+    }
+
+    /**
+     * Removes the resource if it exists.
+     */
+    public ManagementBatch removeIfExists(ResourcePath path) {
+        final Address address = path.toAddress();
+        conditionalResources.putIfAbsent(key(address), path);
+        steps.add((batch, existing) -> {
+            if (!existing.get(key(address))) {
+                return false;
+            }
+            batch.remove(address);
+            existing.put(key(address), false);
+            return true;
+        });
+        return this;
+    }
+
+    public ManagementBatch writeAttribute(Address address, String name, String value) {
+        steps.add((batch, existing) -> {
+            batch.writeAttribute(address, name, value);
+            return true;
+        });
+        return this;
+    }
+
+    public ManagementBatch writeAttribute(Address address, String name, ModelNode value) {
+        steps.add((batch, existing) -> {
+            batch.writeAttribute(address, name, value);
+            return true;
+        });
+        return this;
+    }
+
+    public ManagementBatch undefineAttribute(Address address, String name) {
+        steps.add((batch, existing) -> {
+            batch.undefineAttribute(address, name);
+            return true;
+        });
+        return this;
+    }
+
+    /**
+     * Executes collected operations as one composite operation, nothing is executed if there is no operation left
+     * after resolving conditional ones.
+     *
+     * @throws IOException if an operation fails
+     */
+    public void execute() throws IOException {
+        final Map<String, Boolean> existing = readExistence(client, conditionalResources.values());
+        final Batch batch = new Batch();
+        boolean empty = true;
+        for (Step step : steps) {
+            // conditional operations may be resolved to nothing
+            empty &= !step.addTo(batch, existing);
+        }
+        if (!empty) {
+            new Operations(client).batch(batch).assertSuccess("Composite operation failed!");
+        }
+    }
+
+    /**
+     * Executes collected operations as one composite operation and reloads the server if the operations require it.
+     *
+     * @throws IOException if an operation fails
+     * @throws TimeoutException if the server does not start in time after the reload
+     * @throws InterruptedException if waiting for the reload is interrupted
+     */
+    public void executeAndReloadIfRequired() throws IOException, TimeoutException, InterruptedException {
+        execute();
+        new Administration(client).reloadIfRequired();
+    }
+
+    /**
+     * Reads existence of resources. A resource is looked up among children of its parent, so deeper resources are read
+     * in later rounds after their parents are known to exist.
+     *
+     * @return existence of the resources by {@link #key(Address)} of their addresses
+     */
+    static Map<String, Boolean> readExistence(OnlineManagementClient client, Collection<ResourcePath> paths)
+            throws IOException {
+        final Map<String, Resource> resources = new LinkedHashMap<>();
+        for (ResourcePath path : paths) {
+            resources.putIfAbsent(key(path.toAddress()), new Resource(path));
+        }
+        final Map<String, Boolean> existing = new HashMap<>();
+        while (existing.size() < resources.size()) {
+            // parent address and child type to resources read by one read-children-names operation
+            final Map<String, List<Resource>> queries = new LinkedHashMap<>();
+            for (Map.Entry<String, Resource> entry : resources.entrySet()) {
+                final Resource resource = entry.getValue();
+                if (existing.containsKey(entry.getKey())) {
+                    continue;
+                }
+                final Boolean parentExists = resource.parentKey.equals(key(Address.root()))
+                        ? Boolean.TRUE
+                        : resources.containsKey(resource.parentKey) ? existing.get(resource.parentKey)
+                                : Boolean.TRUE;
+                if (parentExists == null) {
+                    // parent existence is not known yet, resource is read in a later round
+                    continue;
+                }
+                if (!parentExists) {
+                    existing.put(entry.getKey(), false);
+                    continue;
+                }
+                queries.computeIfAbsent(resource.parentKey + " " + resource.childType, k -> new ArrayList<>())
+                        .add(resource);
+            }
+            if (queries.isEmpty()) {
+                continue;
+            }
+            final Batch batch = new Batch();
+            final List<List<Resource>> readSteps = new ArrayList<>(queries.values());
+            for (List<Resource> sameParent : readSteps) {
+                final Resource first = sameParent.get(0);
+                batch.invoke("read-children-names", first.parent, Values.of("child-type", first.childType));
+            }
+            final ModelNodeResult result = new Operations(client).batch(batch);
+            result.assertSuccess("Reading existing resources failed!");
+            for (int i = 0; i < readSteps.size(); i++) {
+                final List<String> names = new ArrayList<>();
+                for (ModelNode name : result.value().get("step-" + (i + 1)).get("result").asList()) {
+                    names.add(name.asString());
+                }
+                for (Resource resource : readSteps.get(i)) {
+                    existing.put(key(resource.address), names.contains(resource.name));
+                }
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * @return string identifying the address, addresses of the same resource have the same key
+     */
+    static String key(Address address) {
+        return address.toString();
+    }
+
+    /**
+     * Operation added to the composite, possibly depending on existence of resources. Returns false if nothing was
+     * added.
+     */
+    @FunctionalInterface
+    private interface Step {
+        boolean addTo(Batch batch, Map<String, Boolean> existing);
+    }
+
+    /**
+     * Resource of a conditional operation with its parent and its name among children of the parent.
+     */
+    private static final class Resource {
+        private final Address address;
+        private final Address parent;
+        private final String parentKey;
+        private final String childType;
+        private final String name;
+
+        private Resource(ResourcePath path) {
+            this.address = path.toAddress();
+            this.parent = path.getParentAddress();
+            this.parentKey = key(parent);
+            this.childType = path.getType();
+            this.name = path.getName();
+        }
+    }
+}
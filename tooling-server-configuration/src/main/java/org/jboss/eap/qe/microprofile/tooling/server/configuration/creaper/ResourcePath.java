@@ -0,0 +1,83 @@
+package org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper;
+
+import java.util.Objects;
+
+import org.wildfly.extras.creaper.core.online.operations.Address;
+
+/**
+ * Address of a management resource which, unlike Creaper {@link Address}, knows its parent, type and name. Used by
+ * conditional operations of {@link ManagementBatch} which look the resource up among children of its parent.
+ */
+public final class ResourcePath {
+
+    // null for a top-level resource
+    private final ResourcePath parent;
+    private final String type;
+    private final String name;
+
+    private ResourcePath(ResourcePath parent, String type, String name) {
+        this.parent = parent;
+        this.type = Objects.requireNonNull(type, "type");
+        this.name = Objects.requireNonNull(name, "name");
+    }
+
+    public static ResourcePath of(String type, String name) {
+        return new ResourcePath(null, type, name);
+    }
+
+    public static ResourcePath extension(String name) {
+        return of("extension", name);
+    }
+
+    public static ResourcePath subsystem(String name) {
+        return of("subsystem", name);
+    }
+
+    /**
+     * @return path of a child resource of this resource
+     */
+    public ResourcePath and(String type, String name) {
+        return new ResourcePath(this, type, name);
+    }
+
+    /**
+     * @return address of the parent resource, {@link Address#root()} for a top-level resource
+     */
+    public Address getParentAddress() {
+        return parent == null ? Address.root() : parent.toAddress();
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Address toAddress() {
+        return getParentAddress().and(type, name);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ResourcePath)) {
+            return false;
+        }
+        final ResourcePath that = (ResourcePath) o;
+        return Objects.equals(parent, that.parent) && type.equals(that.type) && name.equals(that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(parent, type, name);
+    }
+
+    @Override
+    public String toString() {
+        return toAddress().toString();
+    }
+}
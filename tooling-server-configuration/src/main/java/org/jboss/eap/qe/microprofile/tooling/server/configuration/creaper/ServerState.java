@@ -0,0 +1,136 @@
+package org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.wildfly.extras.creaper.core.online.operations.Address;
+import org.wildfly.extras.creaper.core.online.operations.Values;
+
+/**
+ * Server configuration required by a test class - resources which must exist and attribute values. Everything else is
+ * left as it is. Used by {@link ServerStateManager}.
+ * <p>
+ * Resources are added in the order they were declared, so parents (and extensions) must be declared before their
+ * children (and subsystems).
+ */
+public final class ServerState {
+
+    private final List<RequiredResource> resources;
+    private final List<RequiredAttribute> attributes;
+
+    private ServerState(Builder builder) {
+        this.resources = Collections.unmodifiableList(new ArrayList<>(builder.resources.values()));
+        this.attributes = Collections.unmodifiableList(new ArrayList<>(builder.attributes.values()));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    List<RequiredResource> getResources() {
+        return resources;
+    }
+
+    List<RequiredAttribute> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public String toString() {
+        return "ServerState{resources=" + resources + ", attributes=" + attributes + '}';
+    }
+
+    public static final class Builder {
+        private final Map<String, RequiredResource> resources = new LinkedHashMap<>();
+        private final Map<String, RequiredAttribute> attributes = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Resource which must exist.
+         */
+        public Builder resource(ResourcePath path) {
+            return resource(path, Values.empty());
+        }
+
+        /**
+         * Resource which must exist, it is added with given attributes if it is missing. Use
+         * {@link #attribute(ResourcePath, String, String)} for values which are required also on an existing resource.
+         */
+        public Builder resource(ResourcePath path, Values values) {
+            final RequiredResource resource = new RequiredResource(path, values);
+            resources.put(resource.key(), resource);
+            return this;
+        }
+
+        /**
+         * Attribute which must have given value, the resource must exist or be required by this state.
+         */
+        public Builder attribute(ResourcePath path, String name, String value) {
+            final RequiredAttribute attribute = new RequiredAttribute(path, name, value);
+            attributes.put(attribute.key(), attribute);
+            return this;
+        }
+
+        /**
+         * Adds everything required by another state, e.g. to combine states of several subsystems.
+         */
+        public Builder require(ServerState state) {
+            state.resources.forEach(resource -> resource(resource.path, resource.values));
+            state.attributes.forEach(attribute -> attribute(attribute.path, attribute.name, attribute.value));
+            return this;
+        }
+
+        public ServerState build() {
+            return new ServerState(this);
+        }
+    }
+
+    static final class RequiredResource {
+        final ResourcePath path;
+        final Address address;
+        final Values values;
+
+        private RequiredResource(ResourcePath path, Values values) {
+            this.path = path;
+            this.address = path.toAddress();
+            this.values = values;
+        }
+
+        String key() {
+            return "resource " + ManagementBatch.key(address);
+        }
+
+        @Override
+        public String toString() {
+            return address.toString();
+        }
+    }
+
+    static final class RequiredAttribute {
+        final ResourcePath path;
+        final Address address;
+        final String name;
+        final String value;
+
+        private RequiredAttribute(ResourcePath path, String name, String value) {
+            this.path = path;
+            this.address = path.toAddress();
+            this.name = name;
+            this.value = value;
+        }
+
+        String key() {
+            return "attribute " + ManagementBatch.key(address) + " " + name;
+        }
+
+        @Override
+        public String toString() {
+            return address + "@" + name + "=" + value;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+import org.jboss.dmr.ModelNode;
+import org.wildfly.extras.creaper.core.online.ModelNodeResult;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+import org.wildfly.extras.creaper.core.online.operations.Address;
+import org.wildfly.extras.creaper.core.online.operations.Batch;
+import org.wildfly.extras.creaper.core.online.operations.Operations;
+import org.wildfly.extras.creaper.core.online.operations.Values;
+
+/**
+ * Keeps the server in the {@link ServerState} required by the running test class. Only the difference between the
+ * required state and the current model is applied, together with changes made for the previous class which are not
+ * required anymore. Test classes requiring the same state thus do not change the server configuration nor reload it.
+ *
+ * <pre>
+ * &#64;BeforeClass
+ * public static void setup() throws Exception {
+ *     ServerStateManager.require(MicroProfileFaultToleranceServerConfiguration.faultToleranceState());
+ * }
+ *
+ * &#64;AfterClass
+ * public static void tearDown() throws Exception {
+ *     ServerStateManager.release();
+ * }
+ * </pre>
+ *
+ * Changes made by the manager are reverted in {@link #release()}. With {@code -Dserver.state.deferred.teardown=true}
+ * they are kept for the next class instead and reverted when a later class does not require them, or by
+ * {@link #restore()} before the Arquillian container is stopped. Enable the deferred teardown only for modules where
+ * every test class requires its state through the manager - a class which does not would run with the configuration
+ * left by the previous class.
+ * <p>
+ * An attribute written on a resource added by the manager is not reverted while the resource is required.
+ */
+public final class ServerStateManager {
+
+    private static final boolean DEFERRED_TEARDOWN = Boolean.parseBoolean(
+            System.getProperty("server.state.deferred.teardown", "false"));
+
+    // changes made by the manager and how to revert them, in the order they were made
+    private static Map<String, Revert> applied = new LinkedHashMap<>();
+
+    private ServerStateManager() {
+    }
+
+    /**
+     * Changes the server configuration to the required state, reloads the server if required.
+     *
+     * @throws Exception exception thrown by the internal operation executed by {@link OnlineManagementClient} API
+     */
+    public static void require(ServerState state) throws Exception {
+        try (OnlineManagementClient client = ManagementClientProvider.onlineStandalone()) {
+            require(client, state);
+        }
+    }
+
+    /**
+     * Changes the server configuration to the required state, reloads the server if required.
+     *
+     * @param client {@link OnlineManagementClient} instance used to execute the operations
+     * @param state state required by the test class
+     */
+    public static synchronized void require(OnlineManagementClient client, ServerState state)
+            throws IOException, TimeoutException, InterruptedException {
+        final Map<String, Revert> newApplied = new LinkedHashMap<>(applied);
+        final Set<String> requiredKeys = new HashSet<>();
+        final Map<String, ResourcePath> paths = new LinkedHashMap<>();
+        final Set<String> requiredResources = new HashSet<>();
+        for (ServerState.RequiredResource resource : state.getResources()) {
+            requiredKeys.add(resource.key());
+            paths.put(ManagementBatch.key(resource.address), resource.path);
+            requiredResources.add(ManagementBatch.key(resource.address));
+        }
+        for (ServerState.RequiredAttribute attribute : state.getAttributes()) {
+            requiredKeys.add(attribute.key());
+            paths.put(ManagementBatch.key(attribute.address), attribute.path);
+        }
+
+        final List<Revert> obsolete = new ArrayList<>();
+        for (Map.Entry<String, Revert> entry : applied.entrySet()) {
+            if (!requiredKeys.contains(entry.getKey())) {
+                obsolete.add(entry.getValue());
+                newApplied.remove(entry.getKey());
+            }
+        }
+        final ManagementBatch batch = new ManagementBatch(client);
+        boolean changed = revert(batch, obsolete);
+
+        final Map<String, Boolean> existing = ManagementBatch.readExistence(client, paths.values());
+        final Map<String, ModelNode> current = readAttributes(client, state.getAttributes(), existing);
+        for (ServerState.RequiredResource resource : state.getResources()) {
+            if (!existing.get(ManagementBatch.key(resource.address))) {
+                batch.add(resource.address, resource.values);
+                newApplied.putIfAbsent(resource.key(), Revert.resource(resource.path));
+                changed = true;
+            }
+        }
+        for (ServerState.RequiredAttribute attribute : state.getAttributes()) {
+            final String addressKey = ManagementBatch.key(attribute.address);
+            if (existing.get(addressKey)) {
+                final ModelNode value = current.get(attribute.key());
+                if (value.isDefined() && value.asString().equals(attribute.value)) {
+                    continue;
+                }
+                // the original value is kept if the attribute was already changed for a previous class
+                newApplied.putIfAbsent(attribute.key(), Revert.attribute(attribute.path, attribute.name, value));
+            } else if (!requiredResources.contains(addressKey)) {
+                throw new IllegalStateException("Resource " + attribute.address + " of required attribute "
+                        + attribute.name + " does not exist");
+            }
+            batch.writeAttribute(attribute.address, attribute.name, attribute.value);
+            changed = true;
+        }
+
+        if (changed) {
+            batch.executeAndReloadIfRequired();
+        }
+        applied = newApplied;
+    }
+
+    /**
+     * Releases the state required by the test class. Changes are reverted immediately, or later when the next class
+     * requires a different state if the deferred teardown is enabled.
+     *
+     * @throws Exception exception thrown by the internal operation executed by {@link OnlineManagementClient} API
+     */
+    public static void release() throws Exception {
+        if (!DEFERRED_TEARDOWN) {
+            restore();
+        }
+    }
+
+    /**
+     * Reverts all changes made by the manager, reloads the server if required.
+     *
+     * @throws Exception exception thrown by the internal operation executed by {@link OnlineManagementClient} API
+     */
+    public static void restore() throws Exception {
+        if (!isModified()) {
+            return;
+        }
+        try (OnlineManagementClient client = ManagementClientProvider.onlineStandalone()) {
+            restore(client);
+        }
+    }
+
+    /**
+     * Reverts all changes made by the manager, reloads the server if required.
+     *
+     * @param client {@link OnlineManagementClient} instance used to execute the operations
+     */
+    public static synchronized void restore(OnlineManagementClient client)
+            throws IOException, TimeoutException, InterruptedException {
+        final ManagementBatch batch = new ManagementBatch(client);
+        if (revert(batch, new ArrayList<>(applied.values()))) {
+            batch.executeAndReloadIfRequired();
+        }
+        applied = new LinkedHashMap<>();
+    }
+
+    /**
+     * @return true if there are changes made by the manager which have not been reverted yet
+     */
+    public static synchronized boolean isModified() {
+        return !applied.isEmpty();
+    }
+
+    /**
+     * Adds operations reverting the changes to the batch, the last change is reverted first.
+     *
+     * @return false if there is nothing to revert
+     */
+    private static boolean revert(ManagementBatch batch, List<Revert> changes) {
+        final Set<String> removedResources = new HashSet<>();
+        for (Revert change : changes) {
+            if (change.attribute == null) {
+                removedResources.add(ManagementBatch.key(change.address));
+            }
+        }
+        final List<Revert> reversed = new ArrayList<>(changes);
+        Collections.reverse(reversed);
+        for (Revert change : reversed) {
+            if (change.attribute != null && removedResources.contains(ManagementBatch.key(change.address))) {
+                // removed together with the resource
+                continue;
+            }
+            change.addTo(batch);
+        }
+        return !changes.isEmpty();
+    }
+
+    /**
+     * Reads configured values (without defaults) of the attributes on existing resources by one composite operation.
+     *
+     * @return values by {@link ServerState.RequiredAttribute#key()}
+     */
+    private static Map<String, ModelNode> readAttributes(OnlineManagementClient client,
+            List<ServerState.RequiredAttribute> attributes, Map<String, Boolean> existing) throws IOException {
+        final Map<String, ModelNode> values = new HashMap<>();
+        final List<ServerState.RequiredAttribute> read = new ArrayList<>();
+        final Batch batch = new Batch();
+        for (ServerState.RequiredAttribute attribute : attributes) {
+            if (existing.get(ManagementBatch.key(attribute.address))) {
+                batch.invoke("read-attribute", attribute.address,
+                        Values.of("name", attribute.name).and("include-defaults", false));
+                read.add(attribute);
+            }
+        }
+        if (read.isEmpty()) {
+            return values;
+        }
+        final ModelNodeResult result = new Operations(client).batch(batch);
+        result.assertSuccess("Reading required attributes failed!");
+        for (int i = 0; i < read.size(); i++) {
+            values.put(read.get(i).key(), result.value().get("step-" + (i + 1)).get("result"));
+        }
+        return values;
+    }
+
+    /**
+     * Change made by the manager and the original state to return to.
+     */
+    private static final class Revert {
+        private final ResourcePath path;
+        private final Address address;
+        // null if the resource was added
+        private final String attribute;
+        private final ModelNode originalValue;
+
+        private Revert(ResourcePath path, String attribute, ModelNode originalValue) {
+            this.path = path;
+            this.address = path.toAddress();
+            this.attribute = attribute;
+            this.originalValue = originalValue;
+        }
+
+        static Revert resource(ResourcePath path) {
+            return new Revert(path, null, null);
+        }
+
+        static Revert attribute(ResourcePath path, String attribute, ModelNode originalValue) {
+            return new Revert(path, attribute, originalValue);
+        }
+
+        void addTo(ManagementBatch batch) {
+            if (attribute == null) {
+                // may have been removed by a test which does not use the manager
+                batch.removeIfExists(path);
+            } else if (originalValue.isDefined()) {
+                batch.writeAttribute(address, attribute, originalValue);
+            } else {
+                batch.undefineAttribute(address, attribute);
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.jboss.eap.qe.microprofile.tooling.server.log;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Aho-Corasick automaton finding all of many sub strings in one pass over a text, in time linear in length of the
+ * text and number of reported matches.
+ */
+final class AhoCorasick {
+
+    private final State root = new State();
+
+    /**
+     * @param needles searched sub strings, reported by their index in the list
+     */
+    AhoCorasick(final List<String> needles) {
+        for (int i = 0; i < needles.size(); i++) {
+            State state = root;
+            for (final char c : needles.get(i).toCharArray()) {
+                state = state.building.computeIfAbsent(c, k -> new State());
+            }
+            state.outputs = append(state.outputs, i);
+        }
+        linkFailures();
+    }
+
+    /**
+     * Breadth first, so that failure state of every state is complete before its children are linked. Outputs of
+     * failure states are merged into outputs of states, a match of a needle implies matches of its suffixes.
+     */
+    private void linkFailures() {
+        final Deque<State> queue = new ArrayDeque<>();
+        root.freeze();
+        for (final State child : root.next) {
+            child.failure = root;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            final State state = queue.poll();
+            state.freeze();
+            for (int i = 0; i < state.keys.length; i++) {
+                final State child = state.next[i];
+                State failure = state.failure;
+                State target;
+                while ((target = failure.get(state.keys[i])) == null && failure != root) {
+                    failure = failure.failure;
+                }
+                child.failure = target != null ? target : root;
+                child.outputs = merge(child.outputs, child.failure.outputs);
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Reports index of every needle contained in the text, a needle found more times is reported more times.
+     *
+     * @param text searched text
+     * @param matches consumer of needle indexes
+     */
+    void search(final CharSequence text, final IntConsumer matches) {
+        for (final int output : root.outputs) {
+            matches.accept(output);
+        }
+        State state = root;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            State next;
+            while ((next = state.get(c)) == null && state != root) {
+                state = state.failure;
+            }
+            state = next != null ? next : root;
+            for (final int output : state.outputs) {
+                matches.accept(output);
+            }
+        }
+    }
+
+    private static int[] append(final int[] array, final int value) {
+        final int[] result = Arrays.copyOf(array, array.length + 1);
+        result[array.length] = value;
+        return result;
+    }
+
+    private static int[] merge(final int[] first, final int[] second) {
+        if (second.length == 0) {
+            return first;
+        }
+        final int[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    /**
+     * State of the automaton. Transitions are collected in a map while needles are added, then frozen to sorted arrays.
+     */
+    private static final class State {
+        private Map<Character, State> building = new TreeMap<>();
+        private char[] keys;
+        private State[] next;
+        private State failure;
+        private int[] outputs = new int[0];
+
+        private void freeze() {
+            keys = new char[building.size()];
+            next = new State[building.size()];
+            int i = 0;
+            for (final Map.Entry<Character, State> transition : building.entrySet()) {
+                keys[i] = transition.getKey();
+                next[i] = transition.getValue();
+                i++;
+            }
+            building = null;
+        }
+
+        private State get(final char c) {
+            final int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? next[i] : null;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.jboss.eap.qe.microprofile.tooling.server.log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Incremental log checker of a log file accessible from this JVM, for example {@code server.log} of a local server.
+ * Reads bytes from the offset where the previous read stopped. If the file was truncated or replaced by rotation,
+ * reading continues from the beginning of the new file.
+ * <p>
+ * Waiting for new lines is driven by {@link WatchService} events of the log directory.
+ */
+public final class FileLogChecker extends IncrementalLogChecker {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // some file systems report changes late or not at all, the file is read at least this often anyway
+    private static final long MAX_WATCH_MILLIS = 1000;
+
+    private final Path logFile;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    // bytes of the last line which has not been terminated yet
+    private final ByteArrayOutputStream incompleteLine = new ByteArrayOutputStream();
+    private long offset;
+    private Object fileKey;
+
+    /**
+     * Create an instance of log checker which reads the file from its beginning.
+     *
+     * @param logFile path to the log file
+     */
+    public FileLogChecker(final Path logFile) {
+        this(logFile, false);
+    }
+
+    /**
+     * Create an instance of log checker
+     *
+     * @param logFile path to the log file
+     * @param skipExisting true if only lines written after creation of the checker should be checked
+     */
+    public FileLogChecker(final Path logFile, final boolean skipExisting) {
+        this.logFile = logFile;
+        if (skipExisting) {
+            try {
+                final BasicFileAttributes attributes = Files.readAttributes(logFile, BasicFileAttributes.class);
+                this.offset = attributes.size();
+                this.fileKey = attributes.fileKey();
+            } catch (NoSuchFileException e) {
+                // nothing to skip
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    public Path getLogFile() {
+        return logFile;
+    }
+
+    @Override
+    protected void readNewLines(final Consumer<String> consumer) throws IOException {
+        if (!Files.exists(logFile)) {
+            return;
+        }
+        try (final FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            final Object currentFileKey = Files.readAttributes(logFile, BasicFileAttributes.class).fileKey();
+            if (channel.size() < offset || (fileKey != null && !Objects.equals(fileKey, currentFileKey))) {
+                // truncated or rotated
+                offset = 0;
+                incompleteLine.reset();
+            }
+            fileKey = currentFileKey;
+            channel.position(offset);
+            buffer.clear();
+            int read;
+            while ((read = channel.read(buffer)) > 0) {
+                offset += read;
+                buffer.flip();
+                splitLines(consumer);
+                buffer.clear();
+            }
+        }
+    }
+
+    @Override
+    protected ChangeWaiter changeWaiter() throws IOException {
+        final Path directory = logFile.toAbsolutePath().getParent();
+        final WatchService watchService = directory.getFileSystem().newWatchService();
+        try {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | RuntimeException e) {
+            watchService.close();
+            throw e;
+        }
+        return new ChangeWaiter() {
+            @Override
+            public void await(final Duration maxWait) throws InterruptedException {
+                final WatchKey key = watchService.poll(Math.min(MAX_WATCH_MILLIS, Math.max(1, maxWait.toMillis())),
+                        TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    // events of other files in the directory just cause an extra read
+                    key.pollEvents();
+                    key.reset();
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                watchService.close();
+            }
+        };
+    }
+
+    /**
+     * Passes lines terminated in the buffer to the consumer, keeps the rest for the next read.
+     */
+    private void splitLines(final Consumer<String> consumer) {
+        final byte[] bytes = buffer.array();
+        int lineStart = 0;
+        for (int i = 0; i < buffer.limit(); i++) {
+            if (bytes[i] == '\n') {
+                incompleteLine.write(bytes, lineStart, i - lineStart);
+                consumer.accept(decode(incompleteLine));
+                incompleteLine.reset();
+                lineStart = i + 1;
+            }
+        }
+        incompleteLine.write(bytes, lineStart, buffer.limit() - lineStart);
+    }
+
+    private static String decode(final ByteArrayOutputStream line) {
+        final String decoded = new String(line.toByteArray(), StandardCharsets.UTF_8);
+        return decoded.endsWith("\r") ? decoded.substring(0, decoded.length() - 1) : decoded;
+    }
+}
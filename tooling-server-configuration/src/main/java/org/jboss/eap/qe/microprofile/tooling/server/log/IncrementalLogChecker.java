@@ -0,0 +1,220 @@
+package org.jboss.eap.qe.microprofile.tooling.server.log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.wildfly.extras.creaper.core.online.ModelNodeResult;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+import org.wildfly.extras.creaper.core.online.operations.Address;
+import org.wildfly.extras.creaper.core.online.operations.Operations;
+
+/**
+ * Log checker which remembers how far the log was read and fetches only lines appended since the previous check.
+ * Fetched lines are kept, so every check still sees the whole log read so far, and each searched sub string or
+ * pattern remembers how many lines it was checked against. Repeated checks therefore cost only the new lines.
+ * <p>
+ * Use {@link #forServer(OnlineManagementClient)} to pick an implementation for the server.
+ */
+public abstract class IncrementalLogChecker implements LogChecker {
+
+    private static final String SERVER_LOG_FILE = "server.log";
+    private static final long INITIAL_POLL_INTERVAL_MILLIS = 50;
+    private static final long MAX_POLL_INTERVAL_MILLIS = 1000;
+
+    private final List<String> lines = new ArrayList<>();
+    private final Map<String, Progress> substrings = new HashMap<>();
+    private final Map<String, Progress> patterns = new HashMap<>();
+    // lines checked by awaitLine, the next call continues after them
+    private int awaitedLines;
+
+    /**
+     * Creates a checker reading {@code server.log} directly if the server log directory is readable from this JVM,
+     * otherwise through {@code :read-log-file} operation.
+     *
+     * @param client client of the server
+     * @return log checker of the server log starting with its first line
+     */
+    public static IncrementalLogChecker forServer(final OnlineManagementClient client) {
+        return forServer(client, false);
+    }
+
+    /**
+     * See {@link #forServer(OnlineManagementClient)}.
+     *
+     * @param client client of the server
+     * @param skipExisting true if only lines written after creation of the checker should be checked
+     * @return log checker of the server log
+     */
+    public static IncrementalLogChecker forServer(final OnlineManagementClient client, final boolean skipExisting) {
+        try {
+            final ModelNodeResult logDir = new Operations(client)
+                    .readAttribute(Address.of("path", "jboss.server.log.dir"), "path");
+            logDir.assertSuccess("Reading server log directory failed!");
+            final Path logFile = Paths.get(logDir.stringValue(), SERVER_LOG_FILE);
+            if (Files.isReadable(logFile)) {
+                return new FileLogChecker(logFile, skipExisting);
+            }
+            return new ReadLogFileLogChecker(client, skipExisting);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Passes lines appended since the previous call to the consumer, complete lines only.
+     *
+     * @param consumer consumer of new lines
+     * @throws IOException if the log can't be read
+     */
+    protected abstract void readNewLines(Consumer<String> consumer) throws IOException;
+
+    /**
+     * Fetches lines appended since the previous check.
+     *
+     * @return number of new lines
+     */
+    public int update() {
+        final int before = lines.size();
+        try {
+            readNewLines(lines::add);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return lines.size() - before;
+    }
+
+    /**
+     * @return all lines read so far, without fetching new ones
+     */
+    public List<String> getLines() {
+        return Collections.unmodifiableList(lines);
+    }
+
+    @Override
+    public boolean logMatches(final Pattern pattern) {
+        return count(patterns, pattern.flags() + "/" + pattern.pattern(),
+                (final String line) -> pattern.matcher(line).matches()) > 0;
+    }
+
+    @Override
+    public boolean logContains(final String subString) {
+        return logCounts(subString) > 0;
+    }
+
+    @Override
+    public long logCounts(final String subString) {
+        return count(substrings, subString, (final String line) -> line.contains(subString));
+    }
+
+    /**
+     * Scans all lines read so far, including new ones.
+     */
+    @Override
+    public LogScan scan(final Set<?> needles) {
+        final LogScanner scanner = new LogScanner(needles);
+        update();
+        return scanner.scan(lines);
+    }
+
+    /**
+     * Checks lines read so far which were not checked by a previous call, then waits for new lines until one of them
+     * matches the pattern. The next call continues after the returned line, or after all lines read if the wait timed
+     * out.
+     */
+    @Override
+    public LogLine awaitLine(final Pattern pattern, final Duration timeout) throws InterruptedException {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        final int firstLine = awaitedLines;
+        try (final ChangeWaiter waiter = changeWaiter()) {
+            while (true) {
+                update();
+                final Instant readTime = Instant.now();
+                for (int i = awaitedLines; i < lines.size(); i++) {
+                    if (pattern.matcher(lines.get(i)).matches()) {
+                        awaitedLines = i + 1;
+                        return new LogLine(lines.get(i), i + 1, readTime);
+                    }
+                }
+                awaitedLines = lines.size();
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new IllegalStateException("No line matching " + pattern + " appeared in log in " + timeout
+                            + ", " + (awaitedLines - firstLine) + " lines checked");
+                }
+                waiter.await(Duration.ofNanos(remaining));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Creates a waiter for the log to change, used by {@link #awaitLine(Pattern, Duration)}. The default waiter
+     * sleeps for 50 ms at first, growing 1.5 times after each wait up to 1 s.
+     *
+     * @return waiter closed after the line appears or the timeout elapses
+     * @throws IOException if the waiter can't be created
+     */
+    protected ChangeWaiter changeWaiter() throws IOException {
+        return new ChangeWaiter() {
+            private long interval = INITIAL_POLL_INTERVAL_MILLIS;
+
+            @Override
+            public void await(final Duration maxWait) throws InterruptedException {
+                TimeUnit.MILLISECONDS.sleep(Math.min(interval, Math.max(1, maxWait.toMillis())));
+                interval = Math.min(MAX_POLL_INTERVAL_MILLIS, interval * 3 / 2);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    private long count(final Map<String, Progress> progresses, final String key, final Predicate<String> predicate) {
+        update();
+        final Progress progress = progresses.computeIfAbsent(key, k -> new Progress());
+        for (int i = progress.checkedLines; i < lines.size(); i++) {
+            if (predicate.test(lines.get(i))) {
+                progress.count++;
+            }
+        }
+        progress.checkedLines = lines.size();
+        return progress.count;
+    }
+
+    /**
+     * Waits until the log may have changed.
+     */
+    protected interface ChangeWaiter extends Closeable {
+        /**
+         * Returns when the log may have changed, at the latest after the maximal wait.
+         *
+         * @param maxWait maximal time of waiting
+         */
+        void await(Duration maxWait) throws InterruptedException;
+    }
+
+    /**
+     * Number of lines checked for one sub string or pattern and how many of them matched.
+     */
+    private static final class Progress {
+        private int checkedLines;
+        private long count;
+    }
+}
@@ -1,5 +1,7 @@
 package org.jboss.eap.qe.microprofile.tooling.server.log;
 
+import java.time.Duration;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 /**
@@ -31,4 +33,24 @@ public interface LogChecker {
      */
     long logCounts(String subString);
 
+    /**
+     * Perform search of many needles in log or its excerpt in one pass. A {@link String} needle is found in lines
+     * containing it, a {@link Pattern} needle in lines matching it, as in {@link #logContains(String)} and
+     * {@link #logMatches(Pattern)}.
+     *
+     * @param needles sub strings and patterns to search for
+     * @return count of lines with each needle and numbers of the first and the last of them
+     */
+    LogScan scan(Set<?> needles);
+
+    /**
+     * Wait until a line of log matches the pattern, checking only lines which were not checked before.
+     *
+     * @param pattern a pattern which will be the log line matched against
+     * @param timeout maximal time of waiting
+     * @return the first line matching the pattern
+     * @throws IllegalStateException if no line matched the pattern in time
+     */
+    LogLine awaitLine(Pattern pattern, Duration timeout) throws InterruptedException;
+
 }
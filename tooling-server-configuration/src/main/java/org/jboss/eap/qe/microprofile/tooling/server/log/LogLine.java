@@ -0,0 +1,82 @@
+package org.jboss.eap.qe.microprofile.tooling.server.log;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Line of log found by {@link LogChecker#awaitLine(Pattern, java.time.Duration)}.
+ * <p>
+ * Timestamp is parsed from the beginning of the line in the default format of {@code server.log}
+ * ({@code 2024-01-31 12:34:56,789}) in the default time zone of this JVM, which should be the zone of the server.
+ */
+public final class LogLine {
+
+    private static final Pattern TIMESTAMP = Pattern.compile(
+            "^(\\d{4}-\\d{2}-\\d{2})[ T](\\d{2}:\\d{2}:\\d{2})(?:[,.](\\d{1,9}))?");
+    private static final DateTimeFormatter DATE_TIME = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd HH:mm:ss")
+            .optionalStart()
+            .appendLiteral('.')
+            .appendFraction(ChronoField.NANO_OF_SECOND, 1, 9, false)
+            .optionalEnd()
+            .toFormatter();
+
+    private final String line;
+    private final long lineNumber;
+    private final Instant readTime;
+
+    LogLine(final String line, final long lineNumber, final Instant readTime) {
+        this.line = line;
+        this.lineNumber = lineNumber;
+        this.readTime = readTime;
+    }
+
+    public String getLine() {
+        return line;
+    }
+
+    /**
+     * @return number of the line among lines read by the checker, from 1
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @return time when the checker read the line, an upper bound of the time when it was logged
+     */
+    public Instant getReadTime() {
+        return readTime;
+    }
+
+    /**
+     * @return time when the line was logged, empty if the line does not start with a timestamp
+     */
+    public Optional<Instant> getTimestamp() {
+        final Matcher matcher = TIMESTAMP.matcher(line);
+        if (!matcher.find()) {
+            return Optional.empty();
+        }
+        final String fraction = matcher.group(3) == null ? "" : "." + matcher.group(3);
+        try {
+            return Optional.of(LocalDateTime.parse(matcher.group(1) + " " + matcher.group(2) + fraction, DATE_TIME)
+                    .atZone(ZoneId.systemDefault())
+                    .toInstant());
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return lineNumber + ": " + line;
+    }
+}
@@ -0,0 +1,102 @@
+package org.jboss.eap.qe.microprofile.tooling.server.log;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Result of {@link LogChecker#scan(java.util.Set)} - for every needle number of lines with it and numbers of the first
+ * and the last such line. Lines are numbered from 1 within the scanned log or its excerpt. Needles are looked up by
+ * equality, so a {@link java.util.regex.Pattern} must be the same instance which was scanned for.
+ */
+public final class LogScan {
+
+    private final long scannedLines;
+    private final Map<Object, Occurrences> occurrences;
+
+    LogScan(final long scannedLines, final Map<Object, Occurrences> occurrences) {
+        this.scannedLines = scannedLines;
+        this.occurrences = Collections.unmodifiableMap(occurrences);
+    }
+
+    public long getScannedLines() {
+        return scannedLines;
+    }
+
+    /**
+     * @return occurrences of all needles in order of the scanned set
+     */
+    public Map<Object, Occurrences> getOccurrences() {
+        return occurrences;
+    }
+
+    /**
+     * @param needle scanned sub string or pattern
+     * @return occurrences of the needle
+     * @throws IllegalArgumentException if the needle was not scanned for
+     */
+    public Occurrences get(final Object needle) {
+        final Occurrences result = occurrences.get(needle);
+        if (result == null) {
+            throw new IllegalArgumentException("Log was not scanned for " + needle + ", needles are "
+                    + occurrences.keySet());
+        }
+        return result;
+    }
+
+    /**
+     * @return true if a line with the needle was found
+     */
+    public boolean contains(final Object needle) {
+        return get(needle).getCount() > 0;
+    }
+
+    /**
+     * @return number of lines with the needle
+     */
+    public long count(final Object needle) {
+        return get(needle).getCount();
+    }
+
+    @Override
+    public String toString() {
+        return "LogScan of " + scannedLines + " lines " + occurrences;
+    }
+
+    /**
+     * Lines with one needle.
+     */
+    public static final class Occurrences {
+        private final long count;
+        private final long firstLine;
+        private final long lastLine;
+
+        Occurrences(final long count, final long firstLine, final long lastLine) {
+            this.count = count;
+            this.firstLine = firstLine;
+            this.lastLine = lastLine;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return number of the first line with the needle, -1 if there is none
+         */
+        public long getFirstLine() {
+            return firstLine;
+        }
+
+        /**
+         * @return number of the last line with the needle, -1 if there is none
+         */
+        public long getLastLine() {
+            return lastLine;
+        }
+
+        @Override
+        public String toString() {
+            return count == 0 ? "none" : count + " lines " + firstLine + "-" + lastLine;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package org.jboss.eap.qe.microprofile.tooling.server.log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Finds many needles in log lines in one pass. A needle is either a {@link String}, which a line must contain, or a
+ * {@link Pattern}, which a line must match as a whole - the same as {@link LogChecker#logContains(String)} and
+ * {@link LogChecker#logMatches(Pattern)}.
+ * <p>
+ * Sub strings are searched by one Aho-Corasick automaton. Patterns are combined into one alternation which is tried
+ * first, a line not matching it is not matched by any pattern. Patterns which can't be combined safely (with
+ * back references, named groups, quoting or comments, including inline {@code (?x)} flag) are tried one by one, as are
+ * all patterns if the alternation can't be compiled.
+ */
+public final class LogScanner {
+
+    private static final int EMBEDDABLE_FLAGS = Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.MULTILINE
+            | Pattern.DOTALL | Pattern.UNIX_LINES;
+    // back references and group names would refer to other groups in the alternation, \Q could quote its end and
+    // a comment enabled by inline x flag could comment it out
+    private static final Pattern NOT_COMBINABLE = Pattern.compile("\\\\[1-9kQ]|\\(\\?<[a-zA-Z]|\\(\\?[idmsuU-]*x");
+
+    private final List<Object> needles = new ArrayList<>();
+    private final List<String> subStrings = new ArrayList<>();
+    private final int[] subStringNeedles;
+    private final AhoCorasick automaton;
+    private final List<Pattern> patterns = new ArrayList<>();
+    private final int[] patternNeedles;
+    private final Pattern combined;
+    private final boolean[] combinedPatterns;
+
+    /**
+     * @param needles sub strings and patterns to find
+     * @throws IllegalArgumentException if a needle is neither {@link String} nor {@link Pattern}
+     */
+    public LogScanner(final Set<?> needles) {
+        final List<Integer> subStringIndexes = new ArrayList<>();
+        final List<Integer> patternIndexes = new ArrayList<>();
+        for (final Object needle : needles) {
+            if (needle instanceof String) {
+                subStrings.add((String) needle);
+                subStringIndexes.add(this.needles.size());
+            } else if (needle instanceof Pattern) {
+                patterns.add((Pattern) needle);
+                patternIndexes.add(this.needles.size());
+            } else {
+                throw new IllegalArgumentException("Needle must be a String or a Pattern: " + needle);
+            }
+            this.needles.add(needle);
+        }
+        this.subStringNeedles = subStringIndexes.stream().mapToInt(Integer::intValue).toArray();
+        this.patternNeedles = patternIndexes.stream().mapToInt(Integer::intValue).toArray();
+        this.automaton = subStrings.isEmpty() ? null : new AhoCorasick(subStrings);
+
+        this.combinedPatterns = new boolean[patterns.size()];
+        final StringBuilder alternation = new StringBuilder();
+        for (int i = 0; i < patterns.size(); i++) {
+            final Pattern pattern = patterns.get(i);
+            if ((pattern.flags() & ~EMBEDDABLE_FLAGS) != 0
+                    || NOT_COMBINABLE.matcher(pattern.pattern()).find()) {
+                continue;
+            }
+            combinedPatterns[i] = true;
+            alternation.append(alternation.length() == 0 ? "" : "|")
+                    .append("(?").append(embeddedFlags(pattern.flags())).append(":").append(pattern.pattern())
+                    .append(")");
+        }
+        this.combined = alternation.length() == 0 ? null : combine(alternation.toString(), combinedPatterns);
+    }
+
+    /**
+     * @return compiled alternation or null if it can't be compiled, all patterns are then tried one by one
+     */
+    private static Pattern combine(final String alternation, final boolean[] combinedPatterns) {
+        try {
+            return Pattern.compile(alternation);
+        } catch (PatternSyntaxException e) {
+            Arrays.fill(combinedPatterns, false);
+            return null;
+        }
+    }
+
+    private static String embeddedFlags(final int flags) {
+        final StringBuilder embedded = new StringBuilder();
+        if ((flags & Pattern.CASE_INSENSITIVE) != 0) {
+            embedded.append('i');
+        }
+        if ((flags & Pattern.UNICODE_CASE) != 0) {
+            embedded.append('u');
+        }
+        if ((flags & Pattern.MULTILINE) != 0) {
+            embedded.append('m');
+        }
+        if ((flags & Pattern.DOTALL) != 0) {
+            embedded.append('s');
+        }
+        if ((flags & Pattern.UNIX_LINES) != 0) {
+            embedded.append('d');
+        }
+        return embedded.toString();
+    }
+
+    /**
+     * @param lines lines of log in order, the first one has number 1
+     * @return occurrences of all needles
+     */
+    public LogScan scan(final Iterable<String> lines) {
+        final long[] counts = new long[needles.size()];
+        final long[] firstLines = new long[needles.size()];
+        final long[] lastLines = new long[needles.size()];
+        Arrays.fill(firstLines, -1);
+        Arrays.fill(lastLines, -1);
+        // a needle found more times in one line counts once for the line
+        final long[] lastCountedLine = new long[subStrings.size()];
+        Arrays.fill(lastCountedLine, -1);
+
+        long lineNumber = 0;
+        for (final String line : lines) {
+            lineNumber++;
+            final long number = lineNumber;
+            if (automaton != null) {
+                automaton.search(line, subString -> {
+                    if (lastCountedLine[subString] != number) {
+                        lastCountedLine[subString] = number;
+                        found(subStringNeedles[subString], number, counts, firstLines, lastLines);
+                    }
+                });
+            }
+            if (!patterns.isEmpty()) {
+                final boolean anyCombinedMatches = combined != null && combined.matcher(line).matches();
+                for (int i = 0; i < patterns.size(); i++) {
+                    if ((anyCombinedMatches || !combinedPatterns[i]) && patterns.get(i).matcher(line).matches()) {
+                        found(patternNeedles[i], number, counts, firstLines, lastLines);
+                    }
+                }
+            }
+        }
+
+        final Map<Object, LogScan.Occurrences> occurrences = new LinkedHashMap<>();
+        for (int i = 0; i < needles.size(); i++) {
+            occurrences.put(needles.get(i), new LogScan.Occurrences(counts[i], firstLines[i], lastLines[i]));
+        }
+        return new LogScan(lineNumber, occurrences);
+    }
+
+    private static void found(final int needle, final long line, final long[] counts, final long[] firstLines,
+            final long[] lastLines) {
+        counts[needle]++;
+        if (firstLines[needle] < 0) {
+            firstLines[needle] = line;
+        }
+        lastLines[needle] = line;
+    }
+}
@@ -1,9 +1,12 @@
 package org.jboss.eap.qe.microprofile.tooling.server.log;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import org.jboss.dmr.ModelNode;
 import org.wildfly.extras.creaper.core.online.ModelNodeResult;
@@ -26,6 +29,8 @@ public final class ModelNodeLogChecker implements LogChecker {
     private final OnlineManagementClient client;
     private final int countOfLines;
     private final boolean readLogFromEnd;
+    // created by the first awaitLine, so that checkers which only read the tail do not transfer the whole log
+    private ReadLogFileLogChecker awaitingChecker;
 
     /**
      * Create an instance of log checker. File will be read from the end (tail).
@@ -87,6 +92,32 @@ public final class ModelNodeLogChecker implements LogChecker {
         }
     }
 
+    @Override
+    public LogScan scan(Set<?> needles) {
+        try {
+            return new LogScanner(needles).scan(readLogFileFromManagementModel().asList()
+                    .stream()
+                    .map(ModelNode::asString)
+                    .collect(Collectors.toList()));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads the whole log by the first call and then only new lines, lines checked by a previous call are not checked
+     * again, see {@link ReadLogFileLogChecker}. The count of lines and tail mode of this checker do not apply. Use
+     * {@link IncrementalLogChecker#forServer(OnlineManagementClient, boolean)} to check only lines written after
+     * creation of the checker.
+     */
+    @Override
+    public synchronized LogLine awaitLine(Pattern pattern, Duration timeout) throws InterruptedException {
+        if (awaitingChecker == null) {
+            awaitingChecker = new ReadLogFileLogChecker(client);
+        }
+        return awaitingChecker.awaitLine(pattern, timeout);
+    }
+
     private ModelNode readLogFileFromManagementModel() throws IOException {
         final Operations ops = new Operations(this.client);
 
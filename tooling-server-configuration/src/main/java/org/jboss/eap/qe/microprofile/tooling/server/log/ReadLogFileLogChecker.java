@@ -0,0 +1,95 @@
+package org.jboss.eap.qe.microprofile.tooling.server.log;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.jboss.dmr.ModelNode;
+import org.wildfly.extras.creaper.core.online.ModelNodeResult;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+import org.wildfly.extras.creaper.core.online.operations.Address;
+import org.wildfly.extras.creaper.core.online.operations.Operations;
+import org.wildfly.extras.creaper.core.online.operations.Values;
+
+/**
+ * Incremental log checker of a remote server. Lines are fetched by {@code :read-log-file} operation from the head of
+ * the file, skipping lines which were already read, in batches of limited size.
+ * <p>
+ * Rotation of the log file is not detected, use {@link FileLogChecker} for local servers.
+ */
+public final class ReadLogFileLogChecker extends IncrementalLogChecker {
+
+    private static final String READ_LOG_FILE_OPERATION = "read-log-file";
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static final Address DEFAULT_STANDALONE_LOG_ADDRESS = Address.subsystem("logging")
+            .and("log-file", "server.log");
+
+    private final Operations ops;
+    private final Address logFileAddress;
+    private final int batchSize;
+    private int readLines;
+
+    /**
+     * Create an instance of log checker of {@code server.log} which reads the file from its beginning.
+     *
+     * @param client client which will be used to invoke log file reading operation on server
+     */
+    public ReadLogFileLogChecker(final OnlineManagementClient client) {
+        this(client, false);
+    }
+
+    /**
+     * Create an instance of log checker of {@code server.log}
+     *
+     * @param client client which will be used to invoke log file reading operation on server
+     * @param skipExisting true if only lines written after creation of the checker should be checked. Existing lines
+     *        are transferred once to count them.
+     */
+    public ReadLogFileLogChecker(final OnlineManagementClient client, final boolean skipExisting) {
+        this(client, DEFAULT_STANDALONE_LOG_ADDRESS, DEFAULT_BATCH_SIZE, skipExisting);
+    }
+
+    /**
+     * Create an instance of log checker
+     *
+     * @param client client which will be used to invoke log file reading operation on server
+     * @param logFileAddress address of the log file resource, for example {@code subsystem=logging/log-file=server.log}
+     * @param batchSize maximal number of lines fetched by one operation
+     * @param skipExisting true if only lines written after creation of the checker should be checked
+     */
+    public ReadLogFileLogChecker(final OnlineManagementClient client, final Address logFileAddress,
+            final int batchSize, final boolean skipExisting) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.ops = new Operations(client);
+        this.logFileAddress = logFileAddress;
+        this.batchSize = batchSize;
+        if (skipExisting) {
+            try {
+                readNewLines(line -> {
+                });
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Override
+    protected void readNewLines(final Consumer<String> consumer) throws IOException {
+        List<ModelNode> batch;
+        do {
+            final ModelNodeResult result = ops.invoke(READ_LOG_FILE_OPERATION, logFileAddress,
+                    Values.of("lines", batchSize)
+                            .and("skip", readLines)
+                            .and("tail", false));
+            result.assertSuccess("Reading log file failed!");
+            batch = result.value().asList();
+            for (final ModelNode line : batch) {
+                consumer.accept(line.asString());
+            }
+            readLines += batch.size();
+        } while (batch.size() == batchSize);
+    }
+}
@@ -0,0 +1,89 @@
+package org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper;
+
+import java.io.IOException;
+
+import org.jboss.arquillian.container.test.api.RunAsClient;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.ConfigurationException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+import org.wildfly.extras.creaper.core.online.operations.Address;
+import org.wildfly.extras.creaper.core.online.operations.OperationException;
+import org.wildfly.extras.creaper.core.online.operations.Operations;
+import org.wildfly.extras.creaper.core.online.operations.Values;
+
+/**
+ * Set of tests for {@link ManagementBatch} tool.
+ */
+@RunWith(Arquillian.class)
+public class ManagementBatchTestCase {
+
+    private static final ResourcePath PROPERTY = ResourcePath.of("system-property", "management-batch-test");
+    private static final ResourcePath PROFILE = ResourcePath.subsystem("logging")
+            .and("logging-profile", "management-batch-test");
+    private static final ResourcePath LOGGER = PROFILE.and("logger", "org.jboss.eap.qe");
+    private static final Address PROPERTY_ADDRESS = PROPERTY.toAddress();
+    private static final Address PROFILE_ADDRESS = PROFILE.toAddress();
+    private static final Address LOGGER_ADDRESS = LOGGER.toAddress();
+
+    @Test
+    @RunAsClient
+    public void testConditionalOperations() throws ConfigurationException, IOException, OperationException {
+        try (final OnlineManagementClient client = ManagementClientProvider.onlineStandalone()) {
+            final Operations operations = new Operations(client);
+            try {
+                new ManagementBatch(client)
+                        .addIfMissing(PROPERTY, Values.of("value", "1"))
+                        .writeAttribute(PROPERTY_ADDRESS, "value", "2")
+                        .execute();
+                Assert.assertEquals("2", operations.readAttribute(PROPERTY_ADDRESS, "value").stringValue());
+
+                // already exists, the value is not changed by add
+                new ManagementBatch(client)
+                        .addIfMissing(PROPERTY, Values.of("value", "3"))
+                        .execute();
+                Assert.assertEquals("2", operations.readAttribute(PROPERTY_ADDRESS, "value").stringValue());
+
+                new ManagementBatch(client)
+                        .removeIfExists(PROPERTY)
+                        .removeIfExists(PROPERTY)
+                        .execute();
+                Assert.assertFalse(operations.exists(PROPERTY_ADDRESS));
+            } finally {
+                operations.removeIfExists(PROPERTY_ADDRESS);
+            }
+        }
+    }
+
+    @Test
+    @RunAsClient
+    public void testChildOfResourceAddedInSameBatch() throws ConfigurationException, IOException, OperationException {
+        try (final OnlineManagementClient client = ManagementClientProvider.onlineStandalone()) {
+            final Operations operations = new Operations(client);
+            try {
+                new ManagementBatch(client)
+                        .addIfMissing(PROFILE)
+                        .addIfMissing(LOGGER, Values.of("level", "TRACE"))
+                        .execute();
+                Assert.assertTrue(operations.exists(LOGGER_ADDRESS));
+
+                new ManagementBatch(client)
+                        .removeIfExists(LOGGER)
+                        .removeIfExists(PROFILE)
+                        .execute();
+                Assert.assertFalse(operations.exists(PROFILE_ADDRESS));
+
+                // nothing to do, no operation is executed
+                new ManagementBatch(client)
+                        .removeIfExists(LOGGER)
+                        .removeIfExists(PROFILE)
+                        .execute();
+            } finally {
+                operations.removeIfExists(LOGGER_ADDRESS);
+                operations.removeIfExists(PROFILE_ADDRESS);
+            }
+        }
+    }
+}
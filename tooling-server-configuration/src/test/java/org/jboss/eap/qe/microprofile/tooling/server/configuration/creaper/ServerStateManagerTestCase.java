@@ -0,0 +1,104 @@
+package org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+import org.jboss.arquillian.container.test.api.RunAsClient;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.ConfigurationException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+import org.wildfly.extras.creaper.core.online.operations.Address;
+import org.wildfly.extras.creaper.core.online.operations.OperationException;
+import org.wildfly.extras.creaper.core.online.operations.Operations;
+import org.wildfly.extras.creaper.core.online.operations.Values;
+
+/**
+ * Set of tests for {@link ServerStateManager} tool.
+ */
+@RunWith(Arquillian.class)
+public class ServerStateManagerTestCase {
+
+    private static final ResourcePath FIRST = ResourcePath.of("system-property", "server-state-test-first");
+    private static final ResourcePath SECOND = ResourcePath.of("system-property", "server-state-test-second");
+    private static final Address FIRST_ADDRESS = FIRST.toAddress();
+    private static final Address SECOND_ADDRESS = SECOND.toAddress();
+
+    @Test
+    @RunAsClient
+    public void testOnlyDifferenceApplied()
+            throws ConfigurationException, IOException, OperationException, TimeoutException, InterruptedException {
+        final ServerState first = ServerState.builder()
+                .resource(FIRST, Values.of("value", "1"))
+                .build();
+        final ServerState second = ServerState.builder()
+                .resource(SECOND, Values.of("value", "2"))
+                .build();
+        try (final OnlineManagementClient client = ManagementClientProvider.onlineStandalone()) {
+            final Operations operations = new Operations(client);
+            try {
+                ServerStateManager.require(client, first);
+                Assert.assertTrue(operations.exists(FIRST_ADDRESS));
+                Assert.assertTrue(ServerStateManager.isModified());
+
+                // the same state is required again, the resource is neither removed nor added
+                operations.writeAttribute(FIRST_ADDRESS, "value", "changed");
+                ServerStateManager.require(client, first);
+                Assert.assertEquals("changed", operations.readAttribute(FIRST_ADDRESS, "value").stringValue());
+
+                ServerStateManager.require(client, second);
+                Assert.assertFalse(operations.exists(FIRST_ADDRESS));
+                Assert.assertTrue(operations.exists(SECOND_ADDRESS));
+
+                ServerStateManager.restore(client);
+                Assert.assertFalse(operations.exists(SECOND_ADDRESS));
+                Assert.assertFalse(ServerStateManager.isModified());
+            } finally {
+                ServerStateManager.restore(client);
+                operations.removeIfExists(FIRST_ADDRESS);
+                operations.removeIfExists(SECOND_ADDRESS);
+            }
+        }
+    }
+
+    @Test
+    @RunAsClient
+    public void testOriginalAttributeValueRestored()
+            throws ConfigurationException, IOException, OperationException, TimeoutException, InterruptedException {
+        try (final OnlineManagementClient client = ManagementClientProvider.onlineStandalone()) {
+            final Operations operations = new Operations(client);
+            try {
+                operations.add(FIRST_ADDRESS, Values.of("value", "original"));
+
+                ServerStateManager.require(client, ServerState.builder()
+                        .attribute(FIRST, "value", "first")
+                        .build());
+                Assert.assertEquals("first", operations.readAttribute(FIRST_ADDRESS, "value").stringValue());
+
+                ServerStateManager.require(client, ServerState.builder()
+                        .attribute(FIRST, "value", "second")
+                        .build());
+                Assert.assertEquals("second", operations.readAttribute(FIRST_ADDRESS, "value").stringValue());
+
+                ServerStateManager.restore(client);
+                Assert.assertEquals("original", operations.readAttribute(FIRST_ADDRESS, "value").stringValue());
+            } finally {
+                ServerStateManager.restore(client);
+                operations.removeIfExists(FIRST_ADDRESS);
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    @RunAsClient
+    public void testAttributeOfMissingResource()
+            throws ConfigurationException, IOException, TimeoutException, InterruptedException {
+        try (final OnlineManagementClient client = ManagementClientProvider.onlineStandalone()) {
+            ServerStateManager.require(client, ServerState.builder()
+                    .attribute(SECOND, "value", "2")
+                    .build());
+        }
+    }
+}
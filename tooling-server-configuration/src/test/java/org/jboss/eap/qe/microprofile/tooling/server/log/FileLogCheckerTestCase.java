@@ -0,0 +1,136 @@
+package org.jboss.eap.qe.microprofile.tooling.server.log;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Set of tests for {@link FileLogChecker} tool, the log is a temporary file written by the test.
+ */
+public class FileLogCheckerTestCase {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testOnlyNewLinesAreRead() throws IOException {
+        final Path log = temporaryFolder.newFile("server.log").toPath();
+        append(log, "INFO WFLYSRV0049 starting\nINFO WFLYSRV0025 started\n");
+        final FileLogChecker logChecker = new FileLogChecker(log);
+
+        Assert.assertTrue(logChecker.logContains("WFLYSRV0025"));
+        Assert.assertEquals(2, logChecker.getLines().size());
+
+        append(log, "INFO WFLYSRV0025 started again\n");
+        Assert.assertEquals(1, logChecker.update());
+        Assert.assertEquals(2, logChecker.logCounts("WFLYSRV0025"));
+        Assert.assertTrue(logChecker.logMatches(Pattern.compile(".*started again")));
+    }
+
+    @Test
+    public void testIncompleteLineIsReadWhenTerminated() throws IOException {
+        final Path log = temporaryFolder.newFile("server.log").toPath();
+        append(log, "INFO first\r\nINFO seco");
+        final FileLogChecker logChecker = new FileLogChecker(log);
+
+        Assert.assertFalse(logChecker.logContains("second"));
+        Assert.assertEquals(Arrays.asList("INFO first"), logChecker.getLines());
+
+        append(log, "nd\n");
+        Assert.assertTrue(logChecker.logContains("second"));
+        Assert.assertEquals(Arrays.asList("INFO first", "INFO second"), logChecker.getLines());
+    }
+
+    @Test
+    public void testExistingLinesSkipped() throws IOException {
+        final Path log = temporaryFolder.newFile("server.log").toPath();
+        append(log, "INFO WFLYSRV0025 started\n");
+        final FileLogChecker logChecker = new FileLogChecker(log, true);
+
+        Assert.assertFalse(logChecker.logContains("WFLYSRV0025"));
+
+        append(log, "INFO WFLYSRV0025 started\n");
+        Assert.assertEquals(1, logChecker.logCounts("WFLYSRV0025"));
+    }
+
+    @Test
+    public void testTruncatedLogIsReadFromBeginning() throws IOException {
+        final Path log = temporaryFolder.newFile("server.log").toPath();
+        append(log, "INFO a rather long line before the log is truncated\n");
+        final FileLogChecker logChecker = new FileLogChecker(log);
+        Assert.assertEquals(1, logChecker.update());
+
+        Files.write(log, "INFO new\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.TRUNCATE_EXISTING);
+        Assert.assertTrue(logChecker.logContains("INFO new"));
+        Assert.assertEquals(2, logChecker.getLines().size());
+    }
+
+    @Test
+    public void testAwaitLineWrittenLater() throws Exception {
+        final Path log = temporaryFolder.newFile("server.log").toPath();
+        append(log, "2024-01-31 12:34:56,789 INFO  [org.jboss.as] WFLYSRV0049: WildFly starting\n");
+        final FileLogChecker logChecker = new FileLogChecker(log);
+        final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor();
+        try {
+            writer.schedule(() -> {
+                append(log, "2024-01-31 12:34:57,001 INFO  [org.jboss.as] WFLYSRV0025: WildFly started\n");
+                return null;
+            }, 200, TimeUnit.MILLISECONDS);
+
+            final LogLine line = logChecker.awaitLine(Pattern.compile(".*WFLYSRV0025.*"), Duration.ofSeconds(10));
+
+            Assert.assertEquals(2, line.getLineNumber());
+            Assert.assertEquals(LocalDateTime.of(2024, 1, 31, 12, 34, 57, 1_000_000)
+                    .atZone(ZoneId.systemDefault()).toInstant(), line.getTimestamp().get());
+        } finally {
+            writer.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testAwaitLineContinuesAfterPreviousMatch() throws Exception {
+        final Path log = temporaryFolder.newFile("server.log").toPath();
+        append(log, "INFO WFLYSRV0025 started\nINFO WFLYSRV0050 stopped\nINFO WFLYSRV0025 started again\n");
+        final FileLogChecker logChecker = new FileLogChecker(log);
+        final Pattern started = Pattern.compile(".*WFLYSRV0025.*");
+
+        Assert.assertEquals(1, logChecker.awaitLine(started, Duration.ofSeconds(1)).getLineNumber());
+        Assert.assertEquals(3, logChecker.awaitLine(started, Duration.ofSeconds(1)).getLineNumber());
+        try {
+            logChecker.awaitLine(started, Duration.ofMillis(100));
+            Assert.fail("Lines checked by a previous call were matched again");
+        } catch (IllegalStateException expected) {
+            // no new line
+        }
+
+        append(log, "INFO WFLYSRV0025 started once more\n");
+        Assert.assertEquals(4, logChecker.awaitLine(started, Duration.ofSeconds(1)).getLineNumber());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAwaitLineTimeout() throws Exception {
+        final Path log = temporaryFolder.newFile("server.log").toPath();
+        append(log, "INFO WFLYSRV0049 starting\n");
+
+        new FileLogChecker(log).awaitLine(Pattern.compile(".*WFLYSRV0025.*"), Duration.ofMillis(300));
+    }
+
+    private static void append(final Path log, final String text) throws IOException {
+        Files.write(log, text.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,107 @@
+package org.jboss.eap.qe.microprofile.tooling.server.log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Set of tests for {@link LogScanner} tool.
+ */
+public class LogScannerTestCase {
+
+    private static final List<String> LOG = Arrays.asList(
+            "INFO  [org.jboss.as] (MSC service thread 1-2) WFLYSRV0049: WildFly starting",
+            "WARN  [org.jboss.as.txn] (ServerService Thread Pool -- 7) WFLYTX0013: Node identifier not set",
+            "ERROR [org.jboss.as.controller] (management-handler-thread - 1) WFLYCTL0013: Operation failed",
+            "INFO  [org.jboss.as] (Controller Boot Thread) WFLYSRV0025: WildFly started in 1234ms",
+            "ERROR [org.jboss.as.controller] (management-handler-thread - 2) WFLYCTL0013: Operation failed again");
+
+    @Test
+    public void testSubStringsCountedOncePerLine() {
+        final Set<String> needles = new LinkedHashSet<>(Arrays.asList("WFLYCTL0013", "failed", "WildFly", "ild",
+                "Foooqux 42", "a"));
+        final LogScan scan = new LogScanner(needles).scan(LOG);
+
+        Assert.assertEquals(5, scan.getScannedLines());
+        Assert.assertEquals(2, scan.count("WFLYCTL0013"));
+        Assert.assertEquals(3, scan.get("WFLYCTL0013").getFirstLine());
+        Assert.assertEquals(5, scan.get("WFLYCTL0013").getLastLine());
+        Assert.assertEquals(2, scan.count("failed"));
+        Assert.assertEquals(2, scan.count("WildFly"));
+        Assert.assertEquals(2, scan.count("ild"));
+        Assert.assertFalse(scan.contains("Foooqux 42"));
+        Assert.assertEquals(-1, scan.get("Foooqux 42").getFirstLine());
+        Assert.assertEquals(5, scan.count("a"));
+    }
+
+    @Test
+    public void testPatternsMatchWholeLine() {
+        final Pattern error = Pattern.compile("ERROR .*");
+        final Pattern started = Pattern.compile(".*started in \\d+ms");
+        final Pattern caseInsensitive = Pattern.compile(".*wildfly STARTING", Pattern.CASE_INSENSITIVE);
+        final Pattern backReference = Pattern.compile(".*(Operation) failed.*\\1?.*");
+        final Pattern literal = Pattern.compile("Node identifier", Pattern.LITERAL);
+        final Pattern partial = Pattern.compile("WFLYSRV0025");
+        final LogScan scan = new LogScanner(new LinkedHashSet<>(Arrays.asList(error, started, caseInsensitive,
+                backReference, literal, partial, "WFLYTX0013"))).scan(LOG);
+
+        Assert.assertEquals(2, scan.count(error));
+        Assert.assertEquals(3, scan.get(error).getFirstLine());
+        Assert.assertEquals(1, scan.count(started));
+        Assert.assertEquals(4, scan.get(started).getLastLine());
+        Assert.assertEquals(1, scan.count(caseInsensitive));
+        Assert.assertEquals(2, scan.count(backReference));
+        Assert.assertFalse(scan.contains(literal));
+        Assert.assertFalse(scan.contains(partial));
+        Assert.assertEquals(2, scan.get("WFLYTX0013").getFirstLine());
+    }
+
+    @Test
+    public void testInlineCommentsFlagNotCombined() {
+        final Pattern comment = Pattern.compile(".*(?x)WFLYSRV0025: .* # started");
+        final Pattern error = Pattern.compile("ERROR .*");
+        final LogScan scan = new LogScanner(new LinkedHashSet<>(Arrays.asList(comment, error))).scan(LOG);
+
+        Assert.assertEquals(1, scan.count(comment));
+        Assert.assertEquals(4, scan.get(comment).getFirstLine());
+        Assert.assertEquals(2, scan.count(error));
+    }
+
+    @Test
+    public void testSubStringsSameAsContains() {
+        final Random random = new Random(42);
+        final List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            lines.add(randomText(random, random.nextInt(80)));
+        }
+        final Set<String> needles = new LinkedHashSet<>();
+        for (int i = 0; i < 50; i++) {
+            needles.add(randomText(random, 1 + random.nextInt(4)));
+        }
+        final LogScan scan = new LogScanner(needles).scan(lines);
+
+        for (final String needle : needles) {
+            Assert.assertEquals(needle, lines.stream().filter(line -> line.contains(needle)).count(), scan.count(needle));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedNeedle() {
+        new LogScanner(new LinkedHashSet<>(Arrays.asList("WFLYSRV0025", 25)));
+    }
+
+    private static String randomText(final Random random, final int length) {
+        final char[] text = new char[length];
+        for (int i = 0; i < length; i++) {
+            text[i] = (char) ('a' + random.nextInt(3));
+        }
+        return new String(text);
+    }
+}
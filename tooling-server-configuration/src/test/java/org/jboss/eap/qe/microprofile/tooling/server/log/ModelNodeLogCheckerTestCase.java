@@ -1,6 +1,7 @@
 package org.jboss.eap.qe.microprofile.tooling.server.log;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.concurrent.TimeoutException;
 import java.util.regex.Pattern;
 
@@ -56,6 +57,25 @@ public class ModelNodeLogCheckerTestCase {
         }
     }
 
+    @Test
+    @RunAsClient
+    public void testAwaitLineNotCheckedBefore()
+            throws ConfigurationException, IOException, TimeoutException, InterruptedException {
+        try (final OnlineManagementClient client = ManagementClientProvider.onlineStandalone()) {
+            final LogChecker logChecker = new ModelNodeLogChecker(client, 10, true);
+            final Pattern started = Pattern.compile(".*WFLYSRV0025.*");
+
+            // the server is started, the first call finds the line in the existing log
+            final LogLine first = logChecker.awaitLine(started, Duration.ofSeconds(30));
+
+            // the line is checked already, the next call continues after it
+            new Administration(client).reload();
+            final LogLine next = logChecker.awaitLine(started, Duration.ofSeconds(30));
+            Assert.assertTrue(next.getLine().contains("WFLYSRV0025"));
+            Assert.assertTrue(next.getLineNumber() > first.getLineNumber());
+        }
+    }
+
     @Test
     @RunAsClient
     public void testLineNotContainedSubstringClient() throws ConfigurationException, IOException {
@@ -0,0 +1,74 @@
+package org.jboss.eap.qe.microprofile.tooling.server.log;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+import org.jboss.arquillian.container.test.api.RunAsClient;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.ConfigurationException;
+import org.jboss.eap.qe.microprofile.tooling.server.configuration.creaper.ManagementClientProvider;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.wildfly.extras.creaper.core.online.OnlineManagementClient;
+import org.wildfly.extras.creaper.core.online.operations.Address;
+import org.wildfly.extras.creaper.core.online.operations.admin.Administration;
+
+/**
+ * Set of tests for {@link ReadLogFileLogChecker} tool.
+ */
+@RunWith(Arquillian.class)
+public class ReadLogFileLogCheckerTestCase {
+
+    @Test
+    @RunAsClient
+    public void testOnlyNewLinesCountedClient()
+            throws ConfigurationException, IOException, TimeoutException, InterruptedException {
+        try (final OnlineManagementClient client = ManagementClientProvider.onlineStandalone()) {
+            final ReadLogFileLogChecker logChecker = new ReadLogFileLogChecker(client, true);
+
+            Assert.assertFalse(logChecker.logContains("Foooqux 42"));
+
+            new Administration(client).reload();
+            Assert.assertEquals(1, logChecker.logCounts("WFLYSRV0025"));
+
+            new Administration(client).reload();
+            Assert.assertEquals(2, logChecker.logCounts("WFLYSRV0025"));
+        }
+    }
+
+    @Test
+    @RunAsClient
+    public void testWholeLogReadInBatchesClient() throws ConfigurationException, IOException {
+        try (final OnlineManagementClient client = ManagementClientProvider.onlineStandalone()) {
+            final IncrementalLogChecker smallBatches = new ReadLogFileLogChecker(client,
+                    Address.subsystem("logging").and("log-file", "server.log"), 7, false);
+            final IncrementalLogChecker logChecker = new ReadLogFileLogChecker(client);
+
+            Assert.assertTrue(smallBatches.logContains("WFLYSRV0025"));
+            // the log may grow between both reads
+            Assert.assertTrue(logChecker.update() >= smallBatches.getLines().size());
+            Assert.assertEquals(logChecker.getLines().subList(0, smallBatches.getLines().size()),
+                    smallBatches.getLines());
+        }
+    }
+
+    @Test
+    @RunAsClient
+    public void testAwaitLineAfterReloadClient()
+            throws ConfigurationException, IOException, TimeoutException, InterruptedException {
+        try (final OnlineManagementClient client = ManagementClientProvider.onlineStandalone()) {
+            final LogChecker logChecker = new ReadLogFileLogChecker(client, true);
+            final Instant reloaded = Instant.now();
+
+            new Administration(client).reload();
+
+            final LogLine line = logChecker.awaitLine(Pattern.compile(".*WFLYSRV0025.*"), Duration.ofSeconds(30));
+            Assert.assertTrue(line.getLine().contains("WFLYSRV0025"));
+            Assert.assertFalse("Line is read after it is logged", line.getReadTime().isBefore(reloaded));
+        }
+    }
+}